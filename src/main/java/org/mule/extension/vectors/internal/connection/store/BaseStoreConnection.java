@@ -1,15 +1,146 @@
 package org.mule.extension.vectors.internal.connection.store;
 
 import org.mule.runtime.api.connection.ConnectionException;
-import org.mule.runtime.api.connection.ConnectionValidationResult;
 
-public interface BaseStoreConnection {
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-  String getVectorStore();
+/**
+ * Base class for all the vector store connections.
+ * <p>
+ * Besides the connection lifecycle, a store connection owns the resources that can be safely shared across
+ * operations executed through it, such as the cache of built embedding stores, the cache of query results and the
+ * executor running concurrent queries.
+ * </p>
+ */
+public abstract class BaseStoreConnection {
 
-  void connect() throws ConnectionException;
+  public static final int QUERY_EXECUTOR_MAX_THREADS = 8;
 
-  void disconnect();
+  private static final AtomicInteger QUERY_THREAD_COUNTER = new AtomicInteger();
 
-  boolean isValid();
+  private final EmbeddingStoreCache embeddingStoreCache;
+
+  private final QueryResultCache queryResultCache = new QueryResultCache(QueryResultCache.DEFAULT_MAX_ENTRIES);
+
+  private volatile ThreadPoolExecutor queryExecutor;
+
+  /**
+   * Creates a store connection.
+   *
+   * @param embeddingStoreCacheMaxSize the maximum number of embedding stores cached by this connection
+   */
+  protected BaseStoreConnection(int embeddingStoreCacheMaxSize) {
+    this.embeddingStoreCache = new EmbeddingStoreCache(embeddingStoreCacheMaxSize);
+  }
+
+  public abstract String getVectorStore();
+
+  public abstract void connect() throws ConnectionException;
+
+  /**
+   * Releases the resources owned by this connection. Subclasses overriding this method must invoke it before
+   * closing their own clients, so that cached embedding stores are torn down first.
+   */
+  public void disconnect() {
+
+    synchronized (this) {
+
+      if (queryExecutor != null) {
+
+        queryExecutor.shutdownNow();
+        queryExecutor = null;
+      }
+    }
+    embeddingStoreCache.invalidateAll();
+    queryResultCache.invalidateAll();
+  }
+
+  public abstract boolean isValid();
+
+  /**
+   * Retrieves the cache of embedding stores built through this connection.
+   *
+   * @return the embedding store cache owned by this connection
+   */
+  public EmbeddingStoreCache getEmbeddingStoreCache() {
+    return embeddingStoreCache;
+  }
+
+  /**
+   * Retrieves the cache of query results obtained through this connection.
+   *
+   * @return the query result cache owned by this connection
+   */
+  public QueryResultCache getQueryResultCache() {
+    return queryResultCache;
+  }
+
+  /**
+   * Retrieves the statistics of the client connection pool owned by this connection, if any.
+   *
+   * @return the pool statistics, empty for stores whose clients do not expose a pool
+   */
+  public Map<String, Object> getConnectionPoolStatistics() {
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Retrieves the executor used to run queries concurrently through this connection, creating it on first use.
+   * <p>
+   * The executor is bounded to {@link #QUERY_EXECUTOR_MAX_THREADS} daemon threads, which are released when idle.
+   * Tasks already running on it must not block on work submitted to it, see {@link #isQueryExecutorThread()}.
+   * </p>
+   *
+   * @return the query executor owned by this connection
+   */
+  public ExecutorService getQueryExecutor() {
+
+    ThreadPoolExecutor executor = queryExecutor;
+    if (executor == null) {
+
+      synchronized (this) {
+
+        executor = queryExecutor;
+        if (executor == null) {
+
+          executor = new ThreadPoolExecutor(QUERY_EXECUTOR_MAX_THREADS, QUERY_EXECUTOR_MAX_THREADS,
+                                            60L, TimeUnit.SECONDS,
+                                            new LinkedBlockingQueue<>(),
+                                            runnable -> {
+                                              Thread thread = new QueryThread(runnable, String.format(
+                                                  "vectors-query-%s-%d", getVectorStore(), QUERY_THREAD_COUNTER.incrementAndGet()));
+                                              thread.setDaemon(true);
+                                              return thread;
+                                            });
+          executor.allowCoreThreadTimeOut(true);
+          queryExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Tells whether the current thread is a thread of a query executor. A task running on a query executor must not
+   * submit work to it and block on the result: with all the threads of the executor blocked, the work it waits for
+   * would never run.
+   *
+   * @return true if the current thread belongs to a query executor
+   */
+  public static boolean isQueryExecutorThread() {
+    return Thread.currentThread() instanceof QueryThread;
+  }
+
+  private static final class QueryThread extends Thread {
+
+    private QueryThread(Runnable runnable, String name) {
+      super(runnable, name);
+    }
+  }
 }
@@ -1,5 +1,25 @@
 package org.mule.extension.vectors.internal.connection.store;
 
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
 public abstract class BaseStoreConnectionParameters {
 
+  @Parameter
+  @DisplayName("Embedding Store Cache Size")
+  @Summary("Maximum number of embedding stores kept open by the connection for reuse across operations. The least " +
+      "recently used one is closed once the cache is full.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 100, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "32")
+  private int embeddingStoreCacheMaxSize;
+
+  public int getEmbeddingStoreCacheMaxSize() {
+    return embeddingStoreCacheMaxSize;
+  }
 }
@@ -0,0 +1,315 @@
+package org.mule.extension.vectors.internal.connection.store;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the {@link EmbeddingStore} instances built through a store connection.
+ * <p>
+ * Building an embedding store is expensive for most vector stores (new HTTP clients, gRPC channels, index lookups),
+ * so instances are reused across operations and keyed by store type, store name, namespace, dimension and create
+ * flag.
+ * </p>
+ * <p>
+ * Embedding stores are handed out as {@link Lease leases}, which callers close once done with the store. When the
+ * cache is full the least recently used instance is evicted, and it is torn down as soon as its last lease is
+ * closed, so that a store is never torn down while another thread is still using it.
+ * </p>
+ */
+public class EmbeddingStoreCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingStoreCache.class);
+
+  public static final int DEFAULT_MAX_SIZE = 32;
+
+  private final int maxSize;
+  private final LinkedHashMap<Key, Entry> entries;
+
+  // Entries evicted by the current insertion, torn down outside the cache lock when unused
+  private final List<Entry> evictedEntries = new ArrayList<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  public EmbeddingStoreCache(int maxSize) {
+
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be greater than zero");
+    }
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+
+        if (size() > EmbeddingStoreCache.this.maxSize) {
+
+          LOGGER.debug("Evicting embedding store " + eldest.getKey());
+          evictionCount.incrementAndGet();
+          evictedEntries.add(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Leases the embedding store cached for the given key, building and caching it on a miss.
+   * <p>
+   * The builder is invoked outside the cache lock so that a slow store initialization does not block operations
+   * on other stores. If two callers race on the same key, the first instance cached wins and the other is torn down.
+   * </p>
+   *
+   * @param storeType   the vector store type
+   * @param storeName   the name of the store/collection
+   * @param namespace   the namespace of the store, or null if the store has none
+   * @param dimension   the dimension of the embeddings
+   * @param createStore whether the store is created if it does not exist
+   * @param builder     the supplier building a new embedding store, with its teardown, on a miss
+   * @return the lease of the cached or newly built embedding store, to be closed once done with the store
+   */
+  public Lease acquire(String storeType, String storeName, String namespace, int dimension, boolean createStore,
+                       Supplier<ManagedEmbeddingStore> builder) {
+
+    Key key = new Key(storeType, storeName, namespace, dimension, createStore);
+
+    synchronized (entries) {
+
+      Entry entry = entries.get(key);
+      if (entry != null) {
+
+        hitCount.incrementAndGet();
+        return entry.lease();
+      }
+    }
+
+    missCount.incrementAndGet();
+    ManagedEmbeddingStore builtEmbeddingStore = builder.get();
+
+    Lease lease;
+    boolean raced;
+    List<Entry> unusedEntries;
+    synchronized (entries) {
+
+      Entry entry = entries.get(key);
+      raced = entry != null;
+      if (!raced) {
+
+        entry = new Entry(key, builtEmbeddingStore);
+        lease = entry.lease();
+        entries.put(key, entry);
+
+      } else {
+
+        lease = entry.lease();
+      }
+      unusedEntries = retire(evictedEntries);
+      evictedEntries.clear();
+    }
+
+    if (raced) {
+      teardown(key, builtEmbeddingStore);
+    } else {
+      LOGGER.debug("Embedding store " + key + " built and cached");
+    }
+    unusedEntries.forEach(Entry::teardown);
+    return lease;
+  }
+
+  /**
+   * Removes all the cached embedding stores. Each one is torn down once its last lease is closed.
+   */
+  public void invalidateAll() {
+
+    List<Entry> unused;
+    synchronized (entries) {
+
+      unused = retire(entries.values());
+      entries.clear();
+    }
+    unused.forEach(Entry::teardown);
+  }
+
+  /**
+   * Marks entries removed from the cache as retired. Must be called holding the cache lock.
+   *
+   * @return the retired entries without lease, to be torn down outside the cache lock
+   */
+  private static List<Entry> retire(Collection<Entry> removedEntries) {
+
+    List<Entry> unused = new ArrayList<>();
+    for (Entry entry : removedEntries) {
+
+      entry.retired = true;
+      if (entry.leaseCount == 0) {
+        unused.add(entry);
+      }
+    }
+    return unused;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  public int size() {
+
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Retrieves the cache counters, suitable to be exposed as response attributes.
+   *
+   * @return a map containing the hit, miss and eviction counts and the current and maximum sizes
+   */
+  public HashMap<String, Object> getStatistics() {
+
+    HashMap<String, Object> statistics = new HashMap<>();
+    statistics.put("hitCount", getHitCount());
+    statistics.put("missCount", getMissCount());
+    statistics.put("evictionCount", getEvictionCount());
+    statistics.put("size", size());
+    statistics.put("maxSize", maxSize);
+    return statistics;
+  }
+
+  private static void teardown(Key key, ManagedEmbeddingStore managedEmbeddingStore) {
+
+    try {
+
+      managedEmbeddingStore.teardown();
+      LOGGER.debug("Embedding store " + key + " torn down");
+
+    } catch (Exception e) {
+
+      LOGGER.warn("Failed to tear down embedding store " + key, e);
+    }
+  }
+
+  /**
+   * A lease of a cached embedding store. The store may be torn down once the lease is closed, it must therefore not
+   * be used afterwards.
+   */
+  public final class Lease implements AutoCloseable {
+
+    private final Entry entry;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Lease(Entry entry) {
+      this.entry = entry;
+    }
+
+    public EmbeddingStore<TextSegment> get() {
+      return entry.managedEmbeddingStore.getEmbeddingStore();
+    }
+
+    @Override
+    public void close() {
+
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+
+      boolean unused;
+      synchronized (entries) {
+
+        entry.leaseCount--;
+        unused = entry.retired && entry.leaseCount == 0;
+      }
+      if (unused) {
+        entry.teardown();
+      }
+    }
+  }
+
+  private final class Entry {
+
+    private final Key key;
+    private final ManagedEmbeddingStore managedEmbeddingStore;
+
+    // Guarded by the cache lock
+    private int leaseCount;
+    private boolean retired;
+
+    private Entry(Key key, ManagedEmbeddingStore managedEmbeddingStore) {
+      this.key = key;
+      this.managedEmbeddingStore = managedEmbeddingStore;
+    }
+
+    // Must be called holding the cache lock
+    private Lease lease() {
+
+      leaseCount++;
+      return new Lease(this);
+    }
+
+    private void teardown() {
+      EmbeddingStoreCache.teardown(key, managedEmbeddingStore);
+    }
+  }
+
+  private static final class Key {
+
+    private final String storeType;
+    private final String storeName;
+    private final String namespace;
+    private final int dimension;
+    private final boolean createStore;
+
+    private Key(String storeType, String storeName, String namespace, int dimension, boolean createStore) {
+      this.storeType = storeType;
+      this.storeName = storeName;
+      this.namespace = namespace;
+      this.dimension = dimension;
+      this.createStore = createStore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return dimension == key.dimension &&
+          createStore == key.createStore &&
+          Objects.equals(storeType, key.storeType) &&
+          Objects.equals(storeName, key.storeName) &&
+          Objects.equals(namespace, key.namespace);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(storeType, storeName, namespace, dimension, createStore);
+    }
+
+    @Override
+    public String toString() {
+      return storeType + "/" + storeName + (namespace != null ? "/" + namespace : "") + " (dimension: " + dimension + ", createStore: " + createStore + ")";
+    }
+  }
+}
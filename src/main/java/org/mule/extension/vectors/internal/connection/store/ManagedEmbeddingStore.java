@@ -0,0 +1,46 @@
+package org.mule.extension.vectors.internal.connection.store;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+/**
+ * An {@link EmbeddingStore} together with the action releasing the clients it owns.
+ * <p>
+ * Embedding stores do not implement {@link AutoCloseable}, and most of them build their own clients, so each store
+ * backend provides the teardown of the stores it builds. Stores built on clients owned by the store connection have
+ * nothing to tear down.
+ * </p>
+ */
+public class ManagedEmbeddingStore {
+
+  private static final Runnable NO_TEARDOWN = () -> {};
+
+  private final EmbeddingStore<TextSegment> embeddingStore;
+  private final Runnable teardown;
+
+  public ManagedEmbeddingStore(EmbeddingStore<TextSegment> embeddingStore, Runnable teardown) {
+    this.embeddingStore = embeddingStore;
+    this.teardown = teardown != null ? teardown : NO_TEARDOWN;
+  }
+
+  /**
+   * Wraps an embedding store that owns no client of its own.
+   *
+   * @param embeddingStore the embedding store
+   * @return the managed embedding store, with nothing to tear down
+   */
+  public static ManagedEmbeddingStore unmanaged(EmbeddingStore<TextSegment> embeddingStore) {
+    return new ManagedEmbeddingStore(embeddingStore, NO_TEARDOWN);
+  }
+
+  public EmbeddingStore<TextSegment> getEmbeddingStore() {
+    return embeddingStore;
+  }
+
+  /**
+   * Releases the clients owned by the embedding store. The store must not be used afterwards.
+   */
+  public void teardown() {
+    teardown.run();
+  }
+}
@@ -0,0 +1,675 @@
+package org.mule.extension.vectors.internal.connection.store;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+import org.mule.extension.vectors.internal.helper.parameter.SearchTuningParameters;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, in-memory cache of query results owned by a store connection.
+ * <p>
+ * Entries are keyed by store name, a digest of the quantized query vector, maximum results, minimum score and
+ * canonical form of the metadata filter, in which the operands of nested and/or conditions are flattened and sorted
+ * and comparison values carry their type. They expire after their time to live and the least recently used entry is evicted when
+ * the cache is full. All the entries of a store are invalidated when the store is written through the same connection.
+ * </p>
+ * <p>
+ * Entries also keep their normalized query vector, so that a lookup can optionally fall back to a semantic match: the
+ * entry with the same store, maximum results, minimum score and filter whose query vector has the highest cosine
+ * similarity with the new query vector, provided it reaches a threshold. Entries are indexed by this scope, so that
+ * the scan is linear over the entries of the scope only. It runs outside of the cache lock, which is only taken to
+ * confirm that the best entry is still cached, so that concurrent lookups and writes of other queries do not wait for
+ * it.
+ * </p>
+ */
+public class QueryResultCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  // Query vector components are rounded to 1/QUANTIZATION_SCALE before being digested, so that vectors that only
+  // differ by floating point noise share the same entry.
+  private static final float QUANTIZATION_SCALE = 10_000f;
+
+  // Rough per object overheads used to estimate the memory retained by the entries.
+  private static final int ENTRY_OVERHEAD_BYTES = 160;
+  private static final int MATCH_OVERHEAD_BYTES = 96;
+  private static final int METADATA_ENTRY_OVERHEAD_BYTES = 64;
+
+  private final int maxEntries;
+  private final LinkedHashMap<Key, Entry> entries;
+  // Entries by scope, for the semantic lookups. Only modified together with the entries, under their lock.
+  private final Map<Scope, Map<Key, Entry>> entriesByScope = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> storeGenerations = new ConcurrentHashMap<>();
+
+  private long estimatedMemoryBytes;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong semanticHitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong expirationCount = new AtomicLong();
+  private final AtomicLong invalidationCount = new AtomicLong();
+
+  public QueryResultCache(int maxEntries) {
+
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be greater than zero");
+    }
+    this.maxEntries = maxEntries;
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+
+        if (size() > QueryResultCache.this.maxEntries) {
+
+          evictionCount.incrementAndGet();
+          estimatedMemoryBytes -= eldest.getValue().estimatedBytes;
+          unindex(eldest.getKey(), eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Builds the cache key of a query.
+   *
+   * @param storeName   the name of the store queried
+   * @param queryVector the query vector
+   * @param maxResults  the maximum number of results
+   * @param minScore    the minimum score
+   * @param filter      the metadata filter, or null
+   * @return the cache key
+   */
+  public static Key key(String storeName, float[] queryVector, int maxResults, double minScore, Filter filter) {
+
+    return key(storeName, queryVector, maxResults, minScore, filter, null);
+  }
+
+  /**
+   * Builds the cache key of a query run with search tuning, which changes the results of approximate searches.
+   *
+   * @param storeName    the name of the store queried
+   * @param queryVector  the query vector
+   * @param maxResults   the maximum number of results
+   * @param minScore     the minimum score
+   * @param filter       the metadata filter, or null
+   * @param searchTuning the search tuning, or null
+   * @return the cache key
+   */
+  public static Key key(String storeName, float[] queryVector, int maxResults, double minScore, Filter filter,
+                        SearchTuningParameters searchTuning) {
+
+    return key(storeName, queryVector, maxResults, minScore, filter, searchTuning, null);
+  }
+
+  /**
+   * Builds the cache key of a query run on some namespaces of a store, which only return their own results.
+   *
+   * @param storeName    the name of the store queried
+   * @param queryVector  the query vector
+   * @param maxResults   the maximum number of results
+   * @param minScore     the minimum score
+   * @param filter       the metadata filter, or null
+   * @param searchTuning the search tuning, or null
+   * @param namespaces   the namespaces queried, or null for the default namespace
+   * @return the cache key
+   */
+  public static Key key(String storeName, float[] queryVector, int maxResults, double minScore, Filter filter,
+                        SearchTuningParameters searchTuning, List<String> namespaces) {
+
+    String filterKey = filter != null ? canonicalize(filter) : "";
+    if (searchTuning != null && searchTuning.isSet()) {
+      filterKey = filterKey + "|" + searchTuning;
+    }
+    if (namespaces != null && !namespaces.isEmpty()) {
+      filterKey = filterKey + "|" + new TreeSet<>(namespaces);
+    }
+    return new Key(storeName, digest(queryVector), maxResults, minScore, filterKey);
+  }
+
+  /**
+   * Builds the canonical form of a metadata filter, so that equivalent filters share the same cache entries while
+   * filters comparing values of different types do not: {@code a AND b} and {@code b AND a} have the same canonical
+   * form, {@code x = 1} and {@code x = "1"} do not.
+   */
+  private static String canonicalize(Filter filter) {
+
+    if (filter instanceof And || filter instanceof Or) {
+
+      List<String> operands = new ArrayList<>();
+      collectOperands(filter, filter.getClass(), operands);
+      Collections.sort(operands);
+      return filter.getClass().getSimpleName() + operands;
+
+    } else if (filter instanceof Not) {
+
+      return "Not[" + canonicalize(((Not) filter).expression()) + "]";
+
+    } else if (filter instanceof IsEqualTo) {
+
+      return comparison(filter, ((IsEqualTo) filter).key(), ((IsEqualTo) filter).comparisonValue());
+
+    } else if (filter instanceof IsNotEqualTo) {
+
+      return comparison(filter, ((IsNotEqualTo) filter).key(), ((IsNotEqualTo) filter).comparisonValue());
+
+    } else if (filter instanceof IsGreaterThan) {
+
+      return comparison(filter, ((IsGreaterThan) filter).key(), ((IsGreaterThan) filter).comparisonValue());
+
+    } else if (filter instanceof IsGreaterThanOrEqualTo) {
+
+      return comparison(filter, ((IsGreaterThanOrEqualTo) filter).key(),
+                        ((IsGreaterThanOrEqualTo) filter).comparisonValue());
+
+    } else if (filter instanceof IsLessThan) {
+
+      return comparison(filter, ((IsLessThan) filter).key(), ((IsLessThan) filter).comparisonValue());
+
+    } else if (filter instanceof IsLessThanOrEqualTo) {
+
+      return comparison(filter, ((IsLessThanOrEqualTo) filter).key(), ((IsLessThanOrEqualTo) filter).comparisonValue());
+
+    } else if (filter instanceof IsIn) {
+
+      return comparison(filter, ((IsIn) filter).key(), ((IsIn) filter).comparisonValues());
+
+    } else if (filter instanceof IsNotIn) {
+
+      return comparison(filter, ((IsNotIn) filter).key(), ((IsNotIn) filter).comparisonValues());
+    }
+
+    // Unknown filters are only shared with identical ones
+    return filter.getClass().getName() + "[" + filter + "]";
+  }
+
+  // Collects the operands of nested conditions of the same type, which can be reordered freely
+  private static void collectOperands(Filter filter, Class<?> type, List<String> operands) {
+
+    if (filter.getClass() == type) {
+
+      Filter left = filter instanceof And ? ((And) filter).left() : ((Or) filter).left();
+      Filter right = filter instanceof And ? ((And) filter).right() : ((Or) filter).right();
+      collectOperands(left, type, operands);
+      collectOperands(right, type, operands);
+
+    } else {
+
+      operands.add(canonicalize(filter));
+    }
+  }
+
+  private static String comparison(Filter filter, String key, Object value) {
+
+    return filter.getClass().getSimpleName() + "[" + quote(key) + "," + canonicalValue(value) + "]";
+  }
+
+  private static String comparison(Filter filter, String key, Collection<?> values) {
+
+    TreeSet<String> canonicalValues = new TreeSet<>();
+    values.forEach(value -> canonicalValues.add(canonicalValue(value)));
+    return filter.getClass().getSimpleName() + "[" + quote(key) + "," + canonicalValues + "]";
+  }
+
+  private static String canonicalValue(Object value) {
+
+    if (value == null) {
+      return "null";
+    }
+    return value.getClass().getSimpleName() + ":" + (value instanceof String ? quote((String) value) : value);
+  }
+
+  private static String quote(String value) {
+
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  /**
+   * Retrieves the generation of a store, which changes every time the store is invalidated. It must be read before
+   * running the query whose results are then {@link #put(Key, float[], List, long, long) put} into the cache.
+   *
+   * @param storeName the name of the store
+   * @return the current generation of the store
+   */
+  public long getGeneration(String storeName) {
+
+    return storeGenerations.computeIfAbsent(storeName, name -> new AtomicLong()).get();
+  }
+
+  /**
+   * Retrieves the cached matches of a query, falling back to the matches of the most similar cached query when there
+   * is no exact entry and a similarity threshold is given.
+   *
+   * @param key                 the cache key of the query
+   * @param queryVector         the query vector, used for the semantic fallback. Can be null if no threshold is given.
+   * @param similarityThreshold the minimum cosine similarity of a semantic hit, or null to disable the fallback
+   * @return the cache hit, or null if absent or expired
+   */
+  public Hit get(Key key, float[] queryVector, Double similarityThreshold) {
+
+    long now = System.currentTimeMillis();
+
+    synchronized (entries) {
+
+      Entry entry = entries.get(key);
+      if (entry != null) {
+
+        if (entry.expiresAt > now) {
+
+          hitCount.incrementAndGet();
+          return new Hit(entry.matches, false, 1d);
+        }
+
+        removeExpired(key, entry);
+      }
+    }
+
+    if (similarityThreshold != null && queryVector != null) {
+
+      Hit hit = getSimilar(key, normalize(queryVector), similarityThreshold, now);
+      if (hit != null) {
+
+        semanticHitCount.incrementAndGet();
+        return hit;
+      }
+    }
+
+    missCount.incrementAndGet();
+    return null;
+  }
+
+  // Looks up the entry of the scope of the key whose query vector is the most similar to the given one. The entries
+  // of the scope are scanned without holding the cache lock, which is then taken to remove the expired entries met
+  // and to confirm that the best entry was not removed in the meantime.
+  private Hit getSimilar(Key key, float[] normalizedQueryVector, double similarityThreshold, long now) {
+
+    Map<Key, Entry> scopeEntries = entriesByScope.get(key.scope);
+    if (scopeEntries == null) {
+      return null;
+    }
+
+    Key bestKey = null;
+    Entry bestEntry = null;
+    double bestSimilarity = similarityThreshold;
+    Map<Key, Entry> expiredEntries = new HashMap<>();
+
+    for (Map.Entry<Key, Entry> cacheEntry : scopeEntries.entrySet()) {
+
+      Entry candidate = cacheEntry.getValue();
+      if (candidate.expiresAt <= now) {
+
+        expiredEntries.put(cacheEntry.getKey(), candidate);
+        continue;
+      }
+      if (candidate.normalizedQueryVector.length != normalizedQueryVector.length) {
+        continue;
+      }
+
+      double similarity = dotProduct(candidate.normalizedQueryVector, normalizedQueryVector);
+      if (similarity >= bestSimilarity) {
+
+        bestKey = cacheEntry.getKey();
+        bestEntry = candidate;
+        bestSimilarity = similarity;
+      }
+    }
+
+    if (bestKey == null && expiredEntries.isEmpty()) {
+      return null;
+    }
+
+    synchronized (entries) {
+
+      expiredEntries.forEach((expiredKey, expiredEntry) -> {
+        if (entries.remove(expiredKey, expiredEntry)) {
+
+          estimatedMemoryBytes -= expiredEntry.estimatedBytes;
+          unindex(expiredKey, expiredEntry);
+          expirationCount.incrementAndGet();
+        }
+      });
+
+      if (bestKey == null || scopeEntries.get(bestKey) != bestEntry) {
+        return null;
+      }
+      // Refreshes the access order of the matched entry
+      entries.get(bestKey);
+    }
+    return new Hit(bestEntry.matches, true, bestSimilarity);
+  }
+
+  /**
+   * Caches the matches of a query. The matches are discarded if the store was invalidated since the given generation
+   * was read, as they may predate the write that caused the invalidation.
+   *
+   * @param key         the cache key of the query
+   * @param queryVector the query vector
+   * @param matches     the matches to cache
+   * @param ttlMillis   the time to live of the entry, in milliseconds
+   * @param generation  the generation of the store read before running the query
+   */
+  public void put(Key key, float[] queryVector, List<EmbeddingMatch<TextSegment>> matches, long ttlMillis,
+                  long generation) {
+
+    if (ttlMillis <= 0) {
+      return;
+    }
+
+    Entry entry = new Entry(normalize(queryVector), Collections.unmodifiableList(new ArrayList<>(matches)),
+                            System.currentTimeMillis() + ttlMillis);
+
+    synchronized (entries) {
+
+      if (getGeneration(key.scope.storeName) != generation) {
+        return;
+      }
+
+      Entry previous = entries.put(key, entry);
+      if (previous != null) {
+        estimatedMemoryBytes -= previous.estimatedBytes;
+      }
+      estimatedMemoryBytes += entry.estimatedBytes;
+      entriesByScope.computeIfAbsent(key.scope, scope -> new ConcurrentHashMap<>()).put(key, entry);
+    }
+  }
+
+  /**
+   * Removes all the cached results of a store.
+   *
+   * @param storeName the name of the store
+   */
+  public void invalidate(String storeName) {
+
+    synchronized (entries) {
+
+      storeGenerations.computeIfAbsent(storeName, name -> new AtomicLong()).incrementAndGet();
+
+      Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+
+        Map.Entry<Key, Entry> cacheEntry = iterator.next();
+        if (cacheEntry.getKey().scope.storeName.equals(storeName)) {
+
+          estimatedMemoryBytes -= cacheEntry.getValue().estimatedBytes;
+          iterator.remove();
+          unindex(cacheEntry.getKey(), cacheEntry.getValue());
+          invalidationCount.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all the cached results.
+   */
+  public void invalidateAll() {
+
+    synchronized (entries) {
+
+      storeGenerations.values().forEach(AtomicLong::incrementAndGet);
+      invalidationCount.addAndGet(entries.size());
+      entries.clear();
+      entriesByScope.clear();
+      estimatedMemoryBytes = 0;
+    }
+  }
+
+  public int size() {
+
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Retrieves the cache counters, suitable to be exposed as response attributes.
+   *
+   * @return a map containing the hit, semantic hit, miss, eviction, expiration and invalidation counts, the hit ratio, the current
+   * and maximum sizes and the estimated memory retained by the entries
+   */
+  public HashMap<String, Object> getStatistics() {
+
+    long hits = hitCount.get();
+    long semanticHits = semanticHitCount.get();
+    long misses = missCount.get();
+    long lookups = hits + semanticHits + misses;
+
+    HashMap<String, Object> statistics = new HashMap<>();
+    statistics.put("hitCount", hits);
+    statistics.put("semanticHitCount", semanticHits);
+    statistics.put("missCount", misses);
+    statistics.put("hitRatio", lookups > 0 ? (double) (hits + semanticHits) / lookups : 0d);
+    statistics.put("evictionCount", evictionCount.get());
+    statistics.put("expirationCount", expirationCount.get());
+    statistics.put("invalidationCount", invalidationCount.get());
+    synchronized (entries) {
+      statistics.put("size", entries.size());
+      statistics.put("estimatedMemoryBytes", estimatedMemoryBytes);
+    }
+    statistics.put("maxSize", maxEntries);
+    return statistics;
+  }
+
+  private void removeExpired(Key key, Entry entry) {
+
+    entries.remove(key);
+    estimatedMemoryBytes -= entry.estimatedBytes;
+    unindex(key, entry);
+    expirationCount.incrementAndGet();
+  }
+
+  // Removes an entry from the index of its scope. Must be called under the lock of the entries.
+  private void unindex(Key key, Entry entry) {
+
+    Map<Key, Entry> scopeEntries = entriesByScope.get(key.scope);
+    if (scopeEntries != null && scopeEntries.remove(key, entry) && scopeEntries.isEmpty()) {
+      entriesByScope.remove(key.scope, scopeEntries);
+    }
+  }
+
+  private static float[] normalize(float[] vector) {
+
+    double sumOfSquares = 0;
+    for (float component : vector) {
+      sumOfSquares += component * component;
+    }
+
+    float[] normalized = new float[vector.length];
+    if (sumOfSquares > 0) {
+
+      float inverseNorm = (float) (1 / Math.sqrt(sumOfSquares));
+      for (int i = 0; i < vector.length; i++) {
+        normalized[i] = vector[i] * inverseNorm;
+      }
+    }
+    return normalized;
+  }
+
+  private static double dotProduct(float[] a, float[] b) {
+
+    double dotProduct = 0;
+    for (int i = 0; i < a.length; i++) {
+      dotProduct += a[i] * b[i];
+    }
+    return dotProduct;
+  }
+
+  private static byte[] digest(float[] vector) {
+
+    ByteBuffer buffer = ByteBuffer.allocate(vector.length * Integer.BYTES);
+    for (float component : vector) {
+      buffer.putInt(Math.round(component * QUANTIZATION_SCALE));
+    }
+
+    try {
+
+      return MessageDigest.getInstance("SHA-256").digest(buffer.array());
+
+    } catch (NoSuchAlgorithmException e) {
+
+      // SHA-256 is required to be supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static long estimateBytes(int queryVectorLength, List<EmbeddingMatch<TextSegment>> matches) {
+
+    long bytes = ENTRY_OVERHEAD_BYTES + 4L * queryVectorLength;
+    for (EmbeddingMatch<TextSegment> match : matches) {
+
+      bytes += MATCH_OVERHEAD_BYTES;
+      bytes += match.embeddingId() != null ? 2L * match.embeddingId().length() : 0;
+
+      Embedding embedding = match.embedding();
+      bytes += embedding != null ? 4L * embedding.dimension() : 0;
+
+      TextSegment textSegment = match.embedded();
+      if (textSegment != null) {
+
+        bytes += 2L * textSegment.text().length();
+        for (Map.Entry<String, Object> metadataEntry : textSegment.metadata().toMap().entrySet()) {
+          bytes += METADATA_ENTRY_OVERHEAD_BYTES + 2L * metadataEntry.getKey().length()
+              + 2L * String.valueOf(metadataEntry.getValue()).length();
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Cache key of a query.
+   */
+  public static final class Key {
+
+    private final Scope scope;
+    private final byte[] queryVectorDigest;
+
+    private Key(String storeName, byte[] queryVectorDigest, int maxResults, double minScore, String filter) {
+      this.scope = new Scope(storeName, maxResults, minScore, filter);
+      this.queryVectorDigest = queryVectorDigest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return scope.equals(key.scope) &&
+          Arrays.equals(queryVectorDigest, key.queryVectorDigest);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * scope.hashCode() + Arrays.hashCode(queryVectorDigest);
+    }
+  }
+
+  // Queries of the same store with the same parameters, regardless of the query vector
+  private static final class Scope {
+
+    private final String storeName;
+    private final int maxResults;
+    private final double minScore;
+    private final String filter;
+
+    private Scope(String storeName, int maxResults, double minScore, String filter) {
+      this.storeName = storeName;
+      this.maxResults = maxResults;
+      this.minScore = minScore;
+      this.filter = filter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+      if (this == o) return true;
+      if (!(o instanceof Scope)) return false;
+      Scope scope = (Scope) o;
+      return maxResults == scope.maxResults &&
+          Double.compare(minScore, scope.minScore) == 0 &&
+          Objects.equals(storeName, scope.storeName) &&
+          Objects.equals(filter, scope.filter);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(storeName, maxResults, minScore, filter);
+    }
+  }
+
+  /**
+   * Result of a cache lookup.
+   */
+  public static final class Hit {
+
+    private final List<EmbeddingMatch<TextSegment>> matches;
+    private final boolean semantic;
+    private final double similarity;
+
+    private Hit(List<EmbeddingMatch<TextSegment>> matches, boolean semantic, double similarity) {
+      this.matches = matches;
+      this.semantic = semantic;
+      this.similarity = similarity;
+    }
+
+    public List<EmbeddingMatch<TextSegment>> getMatches() {
+      return matches;
+    }
+
+    public boolean isSemantic() {
+      return semantic;
+    }
+
+    public double getSimilarity() {
+      return similarity;
+    }
+  }
+
+  private static final class Entry {
+
+    private final float[] normalizedQueryVector;
+    private final List<EmbeddingMatch<TextSegment>> matches;
+    private final long expiresAt;
+    private final long estimatedBytes;
+
+    private Entry(float[] normalizedQueryVector, List<EmbeddingMatch<TextSegment>> matches, long expiresAt) {
+      this.normalizedQueryVector = normalizedQueryVector;
+      this.matches = matches;
+      this.expiresAt = expiresAt;
+      this.estimatedBytes = estimateBytes(normalizedQueryVector.length, matches);
+    }
+  }
+}
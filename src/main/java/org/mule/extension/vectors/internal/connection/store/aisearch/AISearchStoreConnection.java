@@ -1,27 +1,35 @@
 package org.mule.extension.vectors.internal.connection.store.aisearch;
 
 import com.azure.search.documents.SearchServiceVersion;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.concurrent.TimeUnit;
 
-public class AISearchStoreConnection implements BaseStoreConnection {
+public class AISearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AISearchStoreConnection.class);
-  
+
+  private static final long KEEP_ALIVE_IN_MINUTES = 5;
+
   private String url;
   private String apiKey;
-
-  public AISearchStoreConnection(String url, String apiKey) {
-    this.url = url;
-    this.apiKey = apiKey;
+  private String sourceFacetField;
+  private OkHttpClient httpClient;
+
+  public AISearchStoreConnection(AISearchStoreConnectionParameters parameters) {
+    super(parameters.getEmbeddingStoreCacheMaxSize());
+    this.url = parameters.getUrl();
+    this.apiKey = parameters.getApiKey();
+    this.sourceFacetField = parameters.getSourceFacetField();
   }
 
   public String getUrl() {
@@ -32,6 +40,25 @@ public class AISearchStoreConnection implements BaseStoreConnection {
     return apiKey;
   }
 
+  /**
+   * Retrieves the facetable field holding the source id of each segment, used to list sources from facets.
+   *
+   * @return the field name, or null if sources are listed by reading every segment
+   */
+  public String getSourceFacetField() {
+    return sourceFacetField;
+  }
+
+  /**
+   * Retrieves the HTTP client owned by this connection. Its connections are kept alive and pooled, up to one per query
+   * executor thread, so that concurrent requests to AI Search reuse them.
+   *
+   * @return the shared HTTP client
+   */
+  public OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
   @Override
   public String getVectorStore() {
     return Constants.VECTOR_STORE_AI_SEARCH;
@@ -42,13 +69,19 @@ public class AISearchStoreConnection implements BaseStoreConnection {
 
     try {
 
+      this.httpClient = new OkHttpClient.Builder()
+          .connectionPool(new ConnectionPool(QUERY_EXECUTOR_MAX_THREADS, KEEP_ALIVE_IN_MINUTES, TimeUnit.MINUTES))
+          .build();
+
       doAuthenticatedHttpRequest();
     } catch (ConnectionException e) {
 
+      disconnect();
       throw e;
 
     } catch (Exception e) {
 
+      disconnect();
       throw new ConnectionException("Failed to connect to AI Search.", e);
     }
   }
@@ -56,6 +89,13 @@ public class AISearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
+    if (this.httpClient != null) {
+
+      this.httpClient.dispatcher().executorService().shutdown();
+      this.httpClient.connectionPool().evictAll();
+    }
   }
 
   @Override
@@ -75,37 +115,24 @@ public class AISearchStoreConnection implements BaseStoreConnection {
 
   private void doAuthenticatedHttpRequest() throws ConnectionException {
 
-    try {
+    // Construct the endpoint URL
+    String endpoint = url + "?api-version=" +
+        SearchServiceVersion.getLatest().toString().substring(1).replace("_", "-");
+
+    Request request = new Request.Builder()
+        .url(endpoint)
+        .header("api-key", apiKey)
+        .get()
+        .build();
+
+    try (Response response = httpClient.newCall(request).execute()) {
+
+      if (!response.isSuccessful()) {
 
-      // Construct the endpoint URL
-      String endpoint = url + "?api-version=" + 
-          SearchServiceVersion.getLatest().toString().substring(1).replace("_", "-");
-
-      // Create URL object
-      URL url = new URL(endpoint);
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-      // Set request method to GET
-      connection.setRequestMethod("GET");
-
-      // Set headers
-      connection.setRequestProperty("Content-Type", "application/json");
-      connection.setRequestProperty("api-key", apiKey);
-
-      // Get the response code
-      int responseCode = connection.getResponseCode();
-      if (responseCode != 200) {
-        // Read error response
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-          String inputLine;
-          StringBuilder response = new StringBuilder();
-          while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-          }
-          // Print the error response
-          LOGGER.error("Error (HTTP " + responseCode + "): " + response.toString());
-          throw new ConnectionException("Impossible to connect to AI Search. " + "Error (HTTP " + responseCode + "): " + response.toString());
-        }
+        ResponseBody body = response.body();
+        String error = "Error (HTTP " + response.code() + "): " + (body != null ? body.string() : "");
+        LOGGER.error(error);
+        throw new ConnectionException("Impossible to connect to AI Search. " + error);
       }
 
     } catch (ConnectionException e) {
@@ -3,10 +3,13 @@ package org.mule.extension.vectors.internal.connection.store.aisearch;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnectionParameters;
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Example;
 import org.mule.runtime.extension.api.annotation.param.display.Password;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 public class AISearchStoreConnectionParameters extends BaseStoreConnectionParameters {
 
@@ -23,6 +26,16 @@ public class AISearchStoreConnectionParameters extends BaseStoreConnectionParame
   @Example("<your-api-key>")
   private String apiKey;
 
+  @Parameter
+  @DisplayName("Source Facet Field")
+  @Summary("Facetable and filterable field of the indexes holding the source id of each segment, e.g. a top level " +
+      "source_id field. When set, sources are listed from the facets of this field instead of reading every segment.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Example("source_id")
+  @Optional
+  private String sourceFacetField;
+
   public String getUrl() {
     return url;
   }
@@ -30,4 +43,8 @@ public class AISearchStoreConnectionParameters extends BaseStoreConnectionParame
   public String getApiKey() {
     return apiKey;
   }
+
+  public String getSourceFacetField() {
+    return sourceFacetField;
+  }
 }
@@ -29,8 +29,7 @@ public class AISearchStoreConnectionProvider  extends BaseStoreConnectionProvide
     try {
 
       AISearchStoreConnection aiSearchStoreConnection =
-          new AISearchStoreConnection(aiSearchStoreConnectionParameters.getUrl(),
-                                      aiSearchStoreConnectionParameters.getApiKey());
+          new AISearchStoreConnection(aiSearchStoreConnectionParameters);
       aiSearchStoreConnection.connect();
       return aiSearchStoreConnection;
 
@@ -1,25 +1,37 @@
 package org.mule.extension.vectors.internal.connection.store.chroma;
 
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-public class ChromaStoreConnection implements BaseStoreConnection {
+public class ChromaStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ChromaStoreConnection.class);
 
   private static final String API_ENDPOINT = "/api/v1";
 
+  private static final long KEEP_ALIVE_IN_MINUTES = 5;
+
   private String url;
+  private OkHttpClient httpClient;
+  private final Map<String, String> collectionIds = new ConcurrentHashMap<>();
 
-  public ChromaStoreConnection(String url) {
+  public ChromaStoreConnection(String url, int embeddingStoreCacheMaxSize) {
+    super(embeddingStoreCacheMaxSize);
     this.url = url;
   }
 
@@ -27,6 +39,65 @@ public class ChromaStoreConnection implements BaseStoreConnection {
     return url;
   }
 
+  /**
+   * Retrieves the base URL of the Chroma REST API.
+   *
+   * @return the URL of the API endpoint
+   */
+  public String getApiUrl() {
+    return url + API_ENDPOINT;
+  }
+
+  /**
+   * Retrieves the HTTP client owned by this connection. Its connections are kept alive and pooled, up to one per query
+   * executor thread, so that concurrent requests to Chroma reuse them.
+   *
+   * @return the shared HTTP client
+   */
+  public OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * Retrieves the id of a collection, resolving it on first use only.
+   *
+   * @param collectionName the name of the collection
+   * @return the id of the collection
+   * @throws IOException if the collection cannot be resolved
+   */
+  public String getCollectionId(String collectionName) throws IOException {
+
+    String collectionId = collectionIds.get(collectionName);
+    if (collectionId == null) {
+
+      Request request = new Request.Builder()
+          .url(getApiUrl() + "/collections/" + collectionName)
+          .get()
+          .build();
+      try (Response response = getHttpClient().newCall(request).execute()) {
+
+        ResponseBody body = response.body();
+        if (!response.isSuccessful()) {
+          throw new IOException(String.format("Error while getting the id of collection %s (HTTP %s): %s",
+                                              collectionName, response.code(), body != null ? body.string() : ""));
+        }
+        collectionId = new JSONObject(new JSONTokener(body.charStream())).getString("id");
+      }
+      collectionIds.put(collectionName, collectionId);
+      LOGGER.debug("collectionId: " + collectionId);
+    }
+    return collectionId;
+  }
+
+  /**
+   * Forgets the id of a collection, e.g. after a failure, as the collection may have been deleted and created again.
+   *
+   * @param collectionName the name of the collection
+   */
+  public void invalidateCollectionId(String collectionName) {
+    collectionIds.remove(collectionName);
+  }
+
   @Override
   public String getVectorStore() {
     return Constants.VECTOR_STORE_CHROMA;
@@ -37,13 +108,19 @@ public class ChromaStoreConnection implements BaseStoreConnection {
 
     try {
 
+      this.httpClient = new OkHttpClient.Builder()
+          .connectionPool(new ConnectionPool(QUERY_EXECUTOR_MAX_THREADS, KEEP_ALIVE_IN_MINUTES, TimeUnit.MINUTES))
+          .build();
+
       doHttpRequest();
     } catch (ConnectionException e) {
 
+      disconnect();
       throw e;
 
     } catch (Exception e) {
 
+      disconnect();
       throw new ConnectionException("Failed to connect to Chroma.", e);
     }
   }
@@ -51,6 +128,14 @@ public class ChromaStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
+    collectionIds.clear();
+    if (this.httpClient != null) {
+
+      this.httpClient.dispatcher().executorService().shutdown();
+      this.httpClient.connectionPool().evictAll();
+    }
   }
 
   @Override
@@ -70,33 +155,20 @@ public class ChromaStoreConnection implements BaseStoreConnection {
 
   private void doHttpRequest() throws ConnectionException {
 
-    try {
+    Request request = new Request.Builder()
+        .url(getApiUrl())
+        .header("Accept", "application/json")
+        .get()
+        .build();
 
-      // Create URL object
-      URL healthUrl = new URL(url + API_ENDPOINT);
-      HttpURLConnection connection = (HttpURLConnection) healthUrl.openConnection();
-
-      // Set request method to GET
-      connection.setRequestMethod("GET");
-
-      // Set headers
-      connection.setRequestProperty("Content-Type", "application/json");
-      connection.setRequestProperty("Accept", "application/json");
-
-      // Get the response code
-      int responseCode = connection.getResponseCode();
-      if (responseCode != 200) {
-        // Read error response
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-          String inputLine;
-          StringBuilder response = new StringBuilder();
-          while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-          }
-          // Print the error response
-          LOGGER.error("Error (HTTP " + responseCode + "): " + response.toString());
-          throw new ConnectionException("Impossible to connect to Chroma. " + "Error (HTTP " + responseCode + "): " + response.toString());
-        }
+    try (Response response = httpClient.newCall(request).execute()) {
+
+      if (!response.isSuccessful()) {
+
+        ResponseBody body = response.body();
+        String error = "Error (HTTP " + response.code() + "): " + (body != null ? body.string() : "");
+        LOGGER.error(error);
+        throw new ConnectionException("Impossible to connect to Chroma. " + error);
       }
 
     } catch (ConnectionException e) {
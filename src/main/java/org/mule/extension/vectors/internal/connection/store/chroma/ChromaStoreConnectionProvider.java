@@ -26,7 +26,8 @@ public class ChromaStoreConnectionProvider  extends BaseStoreConnectionProvider
     try {
 
       ChromaStoreConnection chromaStoreConnection =
-          new ChromaStoreConnection(chromaStoreConnectionParameters.getUrl());
+          new ChromaStoreConnection(chromaStoreConnectionParameters.getUrl(),
+                                    chromaStoreConnectionParameters.getEmbeddingStoreCacheMaxSize());
       chromaStoreConnection.connect();
       return chromaStoreConnection;
 
@@ -25,7 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
-public class ElasticsearchStoreConnection implements BaseStoreConnection {
+public class ElasticsearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ElasticsearchStoreConnection.class);
 
@@ -36,7 +36,9 @@ public class ElasticsearchStoreConnection implements BaseStoreConnection {
 
   private RestClient restClient;
 
-  public ElasticsearchStoreConnection(String url, String userName, String password, String apikey) {
+  public ElasticsearchStoreConnection(String url, String userName, String password, String apikey,
+                                      int embeddingStoreCacheMaxSize) {
+    super(embeddingStoreCacheMaxSize);
     this.url = url;
     this.user = userName;
     this.password = password;
@@ -127,6 +129,8 @@ public class ElasticsearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     try {
       this.restClient.close();
 
@@ -31,7 +31,8 @@ public class ElasticsearchStoreConnectionProvider  extends BaseStoreConnectionPr
           new ElasticsearchStoreConnection(elasticsearchStoreConnectionParameters.getUrl(),
                                            elasticsearchStoreConnectionParameters.getUser(),
                                            elasticsearchStoreConnectionParameters.getPassword(),
-                                           elasticsearchStoreConnectionParameters.getApiKey());
+                                           elasticsearchStoreConnectionParameters.getApiKey(),
+                                           elasticsearchStoreConnectionParameters.getEmbeddingStoreCacheMaxSize());
       elasticsearchStoreConnection.connect();
       return elasticsearchStoreConnection;
 
@@ -1,18 +1,25 @@
 package org.mule.extension.vectors.internal.connection.store.milvus;
 
 import io.milvus.client.MilvusServiceClient;
+import io.milvus.grpc.CheckHealthResponse;
 import io.milvus.param.ConnectParam;
+import io.milvus.param.R;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public class MilvusStoreConnection implements BaseStoreConnection {
+public class MilvusStoreConnection extends BaseStoreConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MilvusStoreConnection.class);
 
   private String url;
   private String token;
   private MilvusServiceClient client;
 
-  public MilvusStoreConnection(String url, String token) {
+  public MilvusStoreConnection(String url, String token, int embeddingStoreCacheMaxSize) {
+    super(embeddingStoreCacheMaxSize);
     this.url = url;
     this.token = token;
   }
@@ -23,7 +30,23 @@ public class MilvusStoreConnection implements BaseStoreConnection {
 
   public String getToken() { return token; }
 
-  public MilvusServiceClient getClient() {
+  /**
+   * Retrieves the client owned by this connection, shared by all the operations executed through it. The client is
+   * re-created if its channel has been shut down. Callers must not close it.
+   *
+   * @return the Milvus client of this connection
+   */
+  public synchronized MilvusServiceClient getClient() {
+
+    if (client == null || !client.clientIsReady()) {
+
+      if (client != null) {
+
+        LOGGER.warn("The Milvus client is no longer ready, reconnecting.");
+        client.close();
+      }
+      client = createClient();
+    }
     return client;
   }
 
@@ -33,26 +56,51 @@ public class MilvusStoreConnection implements BaseStoreConnection {
   }
 
   @Override
-  public void connect() {
+  public void connect() throws ConnectionException {
 
-    ConnectParam connectParam = ConnectParam.newBuilder()
-        .withUri(url)
-        .withToken(token)
-        .build();
-    client = new MilvusServiceClient(connectParam);
+    synchronized (this) {
+
+      client = createClient();
+    }
+
+    R<CheckHealthResponse> health = client.checkHealth();
+    if (health.getStatus() != R.Status.Success.getCode() || !health.getData().getIsHealthy()) {
+
+      disconnect();
+      throw new ConnectionException(String.format("Milvus is not healthy: %s",
+                                                  health.getData() != null ? health.getData().getReasonsList()
+                                                      : health.getMessage()));
+    }
   }
 
   @Override
   public void disconnect() {
 
-    if(client != null) {
+    super.disconnect();
+
+    synchronized (this) {
 
-      client.close();
+      if (client != null) {
+
+        client.close();
+        client = null;
+      }
     }
   }
 
   @Override
   public boolean isValid() {
-    return client.checkHealth().getStatus() == 0;
+
+    R<CheckHealthResponse> health = getClient().checkHealth();
+    return health.getStatus() == R.Status.Success.getCode() && health.getData().getIsHealthy();
+  }
+
+  private MilvusServiceClient createClient() {
+
+    ConnectParam connectParam = ConnectParam.newBuilder()
+        .withUri(url)
+        .withToken(token)
+        .build();
+    return new MilvusServiceClient(connectParam);
   }
 }
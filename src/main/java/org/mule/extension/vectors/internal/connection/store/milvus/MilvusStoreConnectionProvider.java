@@ -27,7 +27,10 @@ public class MilvusStoreConnectionProvider extends BaseStoreConnectionProvider {
 
     try {
 
-      MilvusStoreConnection milvusStoreConnection = new MilvusStoreConnection(milvusStoreConnectionParameters.getUrl(), milvusStoreConnectionParameters.getToken());
+      MilvusStoreConnection milvusStoreConnection =
+          new MilvusStoreConnection(milvusStoreConnectionParameters.getUrl(),
+                                    milvusStoreConnectionParameters.getToken(),
+                                    milvusStoreConnectionParameters.getEmbeddingStoreCacheMaxSize());
       milvusStoreConnection.connect();
       return milvusStoreConnection;
 
@@ -17,7 +17,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collections;
 
-public class OpenSearchStoreConnection implements BaseStoreConnection {
+public class OpenSearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OpenSearchStoreConnection.class);
 
@@ -28,7 +28,9 @@ public class OpenSearchStoreConnection implements BaseStoreConnection {
   
   private OpenSearchClient openSearchClient;
 
-  public OpenSearchStoreConnection(String url, String userName, String password, String apikey) {
+  public OpenSearchStoreConnection(String url, String userName, String password, String apikey,
+                                   int embeddingStoreCacheMaxSize) {
+    super(embeddingStoreCacheMaxSize);
     this.url = url;
     this.user = userName;
     this.password = password;
@@ -103,6 +105,8 @@ public class OpenSearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     try {
       // Add logic here
 
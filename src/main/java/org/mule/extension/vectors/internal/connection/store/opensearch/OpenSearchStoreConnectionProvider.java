@@ -29,7 +29,8 @@ public class OpenSearchStoreConnectionProvider  extends BaseStoreConnectionProvi
           new OpenSearchStoreConnection(openSearchStoreConnectionParameters.getUrl(),
                                         openSearchStoreConnectionParameters.getUser(),
                                         openSearchStoreConnectionParameters.getPassword(),
-                                        openSearchStoreConnectionParameters.getApiKey());
+                                        openSearchStoreConnectionParameters.getApiKey(),
+                                        openSearchStoreConnectionParameters.getEmbeddingStoreCacheMaxSize());
       openSearchStoreConnection.connect();
       return openSearchStoreConnection;
 
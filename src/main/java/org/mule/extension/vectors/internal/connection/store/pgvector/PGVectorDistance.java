@@ -0,0 +1,52 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+/**
+ * Distance used to index and search PGVector tables, with its pgvector operator and operator class.
+ * <p>
+ * Searches order by the distance operator, so that the index built with the matching operator class is used, and
+ * convert distances into relevance scores between 0 and 1.
+ * </p>
+ */
+public enum PGVectorDistance {
+
+  COSINE("<=>", "vector_cosine_ops") {
+    @Override
+    public double toScore(double distance) {
+      // Same score as the embedding store: relevance of the cosine similarity (1 - distance)
+      return (2 - distance) / 2;
+    }
+  },
+
+  L2("<->", "vector_l2_ops") {
+    @Override
+    public double toScore(double distance) {
+      return 1 / (1 + distance);
+    }
+  },
+
+  INNER_PRODUCT("<#>", "vector_ip_ops") {
+    @Override
+    public double toScore(double distance) {
+      // The operator returns the negative inner product, equal to the cosine similarity of normalized vectors
+      return (1 - distance) / 2;
+    }
+  };
+
+  private final String operator;
+  private final String operatorClass;
+
+  PGVectorDistance(String operator, String operatorClass) {
+    this.operator = operator;
+    this.operatorClass = operatorClass;
+  }
+
+  public String getOperator() {
+    return operator;
+  }
+
+  public String getOperatorClass() {
+    return operatorClass;
+  }
+
+  public abstract double toScore(double distance);
+}
@@ -0,0 +1,23 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+/**
+ * Approximate nearest neighbor index built on the embedding column of PGVector tables.
+ */
+public enum PGVectorIndexType {
+
+  /**
+   * No index, queries scan the whole table.
+   */
+  NONE,
+
+  /**
+   * Hierarchical Navigable Small World graph. Better speed-recall trade-off, slower to build.
+   */
+  HNSW,
+
+  /**
+   * Inverted file with flat compression. Faster to build, its lists are computed from the rows present at build time,
+   * so it should be built once the table is loaded.
+   */
+  IVFFLAT
+}
@@ -0,0 +1,95 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the wait and usage metrics of the PGVector connection pool.
+ * <p>
+ * Registered as the pool {@link MetricsTrackerFactory}, it records how long callers waited to acquire a connection,
+ * how long connections were held and how many acquisitions timed out, alongside the pool occupancy.
+ * </p>
+ */
+public class PGVectorPoolMetrics implements MetricsTrackerFactory {
+
+  private final LongAdder acquireCount = new LongAdder();
+  private final LongAdder acquireNanos = new LongAdder();
+  private final AtomicLong maxAcquireNanos = new AtomicLong();
+  private final LongAdder usageCount = new LongAdder();
+  private final LongAdder usageMillis = new LongAdder();
+  private final LongAdder timeoutCount = new LongAdder();
+  private final LongAdder createdCount = new LongAdder();
+
+  private volatile PoolStats poolStats;
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+
+    this.poolStats = poolStats;
+    return new IMetricsTracker() {
+
+      @Override
+      public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        createdCount.increment();
+      }
+
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+
+        acquireCount.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+      }
+
+      @Override
+      public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+
+        usageCount.increment();
+        usageMillis.add(elapsedBorrowedMillis);
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeoutCount.increment();
+      }
+    };
+  }
+
+  /**
+   * Retrieves a snapshot of the pool metrics.
+   *
+   * @return the pool occupancy, acquisition wait times, usage times and timeouts
+   */
+  public Map<String, Object> getStatistics() {
+
+    long acquisitions = acquireCount.sum();
+    long usages = usageCount.sum();
+
+    Map<String, Object> statistics = new HashMap<>();
+    PoolStats stats = poolStats;
+    if (stats != null) {
+
+      statistics.put("activeConnections", stats.getActiveConnections());
+      statistics.put("idleConnections", stats.getIdleConnections());
+      statistics.put("totalConnections", stats.getTotalConnections());
+      statistics.put("pendingThreads", stats.getPendingThreads());
+      statistics.put("maxConnections", stats.getMaxConnections());
+      statistics.put("minConnections", stats.getMinConnections());
+    }
+    statistics.put("createdConnectionCount", createdCount.sum());
+    statistics.put("acquireCount", acquisitions);
+    statistics.put("averageAcquireMillis",
+                   acquisitions > 0 ? (double) TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / acquisitions) / 1000d : 0d);
+    statistics.put("maxAcquireMillis", (double) TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()) / 1000d);
+    statistics.put("averageUsageMillis", usages > 0 ? (double) usageMillis.sum() / usages : 0d);
+    statistics.put("timeoutCount", timeoutCount.sum());
+    return statistics;
+  }
+}
@@ -0,0 +1,195 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes PGVector reads to streaming replicas.
+ * <p>
+ * The replication lag of every replica is checked in the background. Replicas lagging beyond the configured threshold,
+ * or that cannot be reached, are skipped until they catch up, and reads fall back to the primary when no replica is
+ * available, so that queries never wait on a lag check.
+ * </p>
+ */
+final class PGVectorReadRouter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PGVectorReadRouter.class);
+
+  // A replica that replayed everything it received is up to date, even if the primary had no recent transaction
+  private static final String REPLICATION_LAG_QUERY =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+          "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+  private static final long UNKNOWN_LAG = -1;
+
+  private final DataSource primary;
+  private final List<Replica> replicas;
+  private final PGVectorReplicaSelection selection;
+  private final long maxReplicationLagInMillis;
+  private final ScheduledExecutorService lagChecker;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private final LongAdder primaryFallbackCount = new LongAdder();
+
+  PGVectorReadRouter(DataSource primary, List<Replica> replicas, PGVectorReplicaSelection selection,
+                     long maxReplicationLagInMillis, long lagCheckIntervalInMillis) {
+
+    this.primary = primary;
+    this.replicas = replicas;
+    this.selection = selection != null ? selection : PGVectorReplicaSelection.ROUND_ROBIN;
+    this.maxReplicationLagInMillis = maxReplicationLagInMillis;
+
+    // Replicas are only used once their lag is known, reads go to the primary until the first check completes
+    this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+      Thread thread = new Thread(runnable, "vectors-pgvector-replication-lag");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.lagChecker.scheduleWithFixedDelay(this::checkReplicationLag, 0, lagCheckIntervalInMillis,
+                                           TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Selects the data source serving the next read.
+   *
+   * @return the data source of an available replica, or the primary if none is available
+   */
+  DataSource select() {
+
+    int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    Replica selected = null;
+    int selectedLoad = Integer.MAX_VALUE;
+
+    for (int i = 0; i < replicas.size(); i++) {
+
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (!isAvailable(replica)) {
+        continue;
+      }
+      if (selection == PGVectorReplicaSelection.ROUND_ROBIN) {
+        return replica.dataSource;
+      }
+
+      int load = replica.getLoad();
+      if (load < selectedLoad) {
+
+        selected = replica;
+        selectedLoad = load;
+      }
+    }
+
+    if (selected != null) {
+      return selected.dataSource;
+    }
+    primaryFallbackCount.increment();
+    return primary;
+  }
+
+  private boolean isAvailable(Replica replica) {
+
+    long lag = replica.replicationLagInMillis;
+    return lag != UNKNOWN_LAG && lag <= maxReplicationLagInMillis;
+  }
+
+  private void checkReplicationLag() {
+
+    for (Replica replica : replicas) {
+
+      long lag;
+      try (Connection connection = replica.dataSource.getConnection();
+          Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+
+        resultSet.next();
+        lag = Math.round(resultSet.getDouble(1));
+
+      } catch (SQLException | RuntimeException e) {
+
+        LOGGER.debug(String.format("Unable to check the replication lag of %s.", replica.name), e);
+        lag = UNKNOWN_LAG;
+      }
+
+      boolean wasAvailable = isAvailable(replica);
+      replica.replicationLagInMillis = lag;
+      if (wasAvailable != isAvailable(replica)) {
+
+        LOGGER.info(String.format("PGVector replica %s is now %s (replication lag: %s ms).", replica.name,
+                                  wasAvailable ? "skipped" : "used", lag == UNKNOWN_LAG ? "unknown" : lag));
+      }
+    }
+  }
+
+  /**
+   * Retrieves the state of the replicas.
+   *
+   * @return the lag, availability and pool metrics of every replica, and the number of reads served by the primary
+   */
+  Map<String, Object> getStatistics() {
+
+    List<Map<String, Object>> replicaStatistics = new ArrayList<>();
+    for (Replica replica : replicas) {
+
+      Map<String, Object> statistics = replica.metrics.getStatistics();
+      statistics.put("name", replica.name);
+      statistics.put("replicationLagInMillis", replica.replicationLagInMillis);
+      statistics.put("available", isAvailable(replica));
+      replicaStatistics.add(statistics);
+    }
+
+    Map<String, Object> statistics = new HashMap<>();
+    statistics.put("selection", selection.name());
+    statistics.put("primaryFallbackCount", primaryFallbackCount.sum());
+    statistics.put("replicas", replicaStatistics);
+    return statistics;
+  }
+
+  void close() {
+
+    lagChecker.shutdownNow();
+    replicas.forEach(Replica::close);
+  }
+
+  /**
+   * A read replica with its own connection pool.
+   */
+  static final class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final PGVectorPoolMetrics metrics;
+    private volatile long replicationLagInMillis = UNKNOWN_LAG;
+
+    Replica(String name, HikariDataSource dataSource, PGVectorPoolMetrics metrics) {
+      this.name = name;
+      this.dataSource = dataSource;
+      this.metrics = metrics;
+    }
+
+    void close() {
+      dataSource.close();
+    }
+
+    private int getLoad() {
+
+      HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+      return pool != null ? pool.getActiveConnections() + pool.getThreadsAwaitingConnection() : Integer.MAX_VALUE;
+    }
+  }
+}
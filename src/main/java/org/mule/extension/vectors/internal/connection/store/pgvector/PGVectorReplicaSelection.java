@@ -0,0 +1,17 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+/**
+ * Strategy used to pick the read replica serving a PGVector query.
+ */
+public enum PGVectorReplicaSelection {
+
+  /**
+   * Replicas take turns, spreading queries evenly.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The replica with the fewest active connections and waiting threads in its pool serves the query.
+   */
+  LEAST_LOADED
+}
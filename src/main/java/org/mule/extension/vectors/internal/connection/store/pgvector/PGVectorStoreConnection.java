@@ -1,7 +1,8 @@
 package org.mule.extension.vectors.internal.connection.store.pgvector;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import dev.langchain4j.internal.ValidationUtils;
-import org.mule.extension.vectors.internal.connection.model.mistralai.MistralAIModelConnection;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
@@ -9,12 +10,14 @@ import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.naming.NamingException;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
-public class PGVectorStoreConnection implements BaseStoreConnection {
+public class PGVectorStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PGVectorStoreConnection.class);
 
@@ -23,14 +26,19 @@ public class PGVectorStoreConnection implements BaseStoreConnection {
   private String database;
   private String user;
   private String password;
-  private DataSource dataSource;
-
-  public PGVectorStoreConnection(String host, int port, String database, String userName, String password) {
-    this.host = host;
-    this.port = port;
-    this.database = database;
-    this.user = userName;
-    this.password = password;
+  private final PGVectorStoreConnectionParameters parameters;
+  private final PGVectorPoolMetrics poolMetrics = new PGVectorPoolMetrics();
+  private HikariDataSource dataSource;
+  private PGVectorReadRouter readRouter;
+
+  public PGVectorStoreConnection(PGVectorStoreConnectionParameters parameters) {
+    super(parameters.getEmbeddingStoreCacheMaxSize());
+    this.host = parameters.getHost();
+    this.port = parameters.getPort();
+    this.database = parameters.getDatabase();
+    this.user = parameters.getUser();
+    this.password = parameters.getPassword();
+    this.parameters = parameters;
   }
 
   public String getHost() {
@@ -53,10 +61,45 @@ public class PGVectorStoreConnection implements BaseStoreConnection {
     return password;
   }
 
+  /**
+   * Retrieves the parameters of this connection, including the index settings of the tables.
+   *
+   * @return the connection parameters
+   */
+  public PGVectorStoreConnectionParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Retrieves the pooled data source owned by this connection. All the PGVector operations executed through this
+   * connection must borrow their JDBC connections from it.
+   *
+   * @return the pooled data source
+   */
   public DataSource getDataSource() {
     return dataSource;
   }
 
+  /**
+   * Retrieves the data source serving the next read, queries and source listings. Reads may see changes with a delay
+   * up to the maximum replication lag when read replicas are configured.
+   *
+   * @return the pooled data source of a read replica, or of the primary if none is configured or available
+   */
+  public DataSource getReadDataSource() {
+    return readRouter != null ? readRouter.select() : dataSource;
+  }
+
+  @Override
+  public Map<String, Object> getConnectionPoolStatistics() {
+
+    Map<String, Object> statistics = poolMetrics.getStatistics();
+    if (readRouter != null) {
+      statistics.put("readReplicas", readRouter.getStatistics());
+    }
+    return statistics;
+  }
+
   @Override
   public String getVectorStore() {
     return Constants.VECTOR_STORE_PGVECTOR;
@@ -67,32 +110,13 @@ public class PGVectorStoreConnection implements BaseStoreConnection {
 
     try {
 
+      // The pool opens its minimum idle connections eagerly and fails if the database cannot be reached
       this.dataSource = createDataSource();
-      if(dataSource != null) {
-
-        Connection conn = dataSource.getConnection();
-        if (conn == null) {
-
-          throw new ConnectionException("Impossible to connect to PGVector. Cannot get a connection from the pool.");
-        } else {
-
-          conn.close();
-        }
-      } else {
-
-        throw new ConnectionException("Impossible to connect to PGVector. Cannot initiate the datasource.");
-      }
-
-    } catch (ConnectionException e) {
-
-      throw e;
-
-    } catch (SQLException e) {
-
-      throw new ConnectionException("Impossible to connect to PGVector. SQLException.", e);
+      this.readRouter = createReadRouter();
 
     } catch (Exception e) {
 
+      disconnect();
       throw new ConnectionException("Impossible to connect to PGVector.", e);
     }
   }
@@ -100,51 +124,121 @@ public class PGVectorStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
-    try {
+    super.disconnect();
 
-      this.dataSource.getConnection().close();
-    } catch (SQLException e) {
+    if (this.readRouter != null) {
 
-      LOGGER.error("Unable to close the connection to PGVector.", e);
+      this.readRouter.close();
+    }
+    if (this.dataSource != null) {
 
+      this.dataSource.close();
     }
   }
 
   @Override
   public boolean isValid() {
 
-    try {
+    if (this.dataSource == null || !this.dataSource.isRunning()) {
+      return false;
+    }
 
-      Connection conn = this.dataSource.getConnection();
-      if(conn != null) {
+    // Borrowing from the pool validates the connection without opening a new physical one
+    try (Connection conn = this.dataSource.getConnection()) {
 
-        conn.close();
-        return true;
-      } else {
+      return conn != null;
 
-        return false;
-      }
-
-    } catch (Exception e) {
+    } catch (SQLException e) {
 
+      LOGGER.warn("Unable to validate the connection to PGVector.", e);
       return false;
-
     }
   }
 
-  private DataSource createDataSource() {
+  private HikariDataSource createDataSource() {
 
     host = ValidationUtils.ensureNotBlank(host, "host");
     port = ValidationUtils.ensureGreaterThanZero(port, "port");
     user = ValidationUtils.ensureNotBlank(user, "user");
     password = ValidationUtils.ensureNotBlank(password, "password");
     database = ValidationUtils.ensureNotBlank(database, "database");
+    return createDataSource(host, port, String.format("vectors-pgvector-%s:%d/%s", host, port, database), poolMetrics,
+                            true);
+  }
+
+  private PGVectorReadRouter createReadRouter() {
+
+    String readReplicaHosts = parameters.getReadReplicaHosts();
+    if (readReplicaHosts == null || readReplicaHosts.trim().isEmpty()) {
+      return null;
+    }
+    if (parameters.getReplicationLagCheckIntervalInMillis() <= 0) {
+      throw new IllegalArgumentException("replicationLagCheckIntervalInMillis must be greater than zero.");
+    }
+
+    List<PGVectorReadRouter.Replica> replicas = new ArrayList<>();
+    try {
+
+      for (String replicaHost : readReplicaHosts.split(",")) {
+
+        replicaHost = replicaHost.trim();
+        if (replicaHost.isEmpty()) {
+          continue;
+        }
+
+        int separator = replicaHost.lastIndexOf(':');
+        String name = separator > 0 ? replicaHost : replicaHost + ":" + port;
+        String replicaHostName = separator > 0 ? replicaHost.substring(0, separator) : replicaHost;
+        int replicaPort = separator > 0 ? Integer.parseInt(replicaHost.substring(separator + 1)) : port;
+
+        PGVectorPoolMetrics replicaMetrics = new PGVectorPoolMetrics();
+        HikariDataSource replicaDataSource =
+            createDataSource(replicaHostName, replicaPort,
+                             String.format("vectors-pgvector-replica-%s/%s", name, database), replicaMetrics, false);
+        replicas.add(new PGVectorReadRouter.Replica(name, replicaDataSource, replicaMetrics));
+      }
+
+    } catch (RuntimeException e) {
+
+      replicas.forEach(PGVectorReadRouter.Replica::close);
+      throw e;
+    }
+
+    if (replicas.isEmpty()) {
+      return null;
+    }
+    return new PGVectorReadRouter(dataSource, replicas, parameters.getReplicaSelection(),
+                                  parameters.getMaxReplicationLagInMillis(),
+                                  parameters.getReplicationLagCheckIntervalInMillis());
+  }
+
+  private HikariDataSource createDataSource(String host, int port, String poolName, PGVectorPoolMetrics metrics,
+                                            boolean failFast) {
+
     PGSimpleDataSource source = new PGSimpleDataSource();
     source.setServerNames(new String[]{host});
     source.setPortNumbers(new int[]{port});
     source.setDatabaseName(database);
     source.setUser(user);
     source.setPassword(password);
-    return source;
+    source.setPrepareThreshold(parameters.getPrepareThreshold());
+
+    HikariConfig config = new HikariConfig();
+    config.setPoolName(poolName);
+    config.setDataSource(source);
+    config.setMinimumIdle(parameters.getMinIdleConnections());
+    config.setMaximumPoolSize(parameters.getMaxPoolSize());
+    config.setConnectionTimeout(parameters.getConnectionTimeoutInMillis());
+    config.setIdleTimeout(parameters.getIdleTimeoutInMillis());
+    config.setMaxLifetime(parameters.getMaxLifetimeInMillis());
+    if (parameters.getValidationQuery() != null && !parameters.getValidationQuery().trim().isEmpty()) {
+      config.setConnectionTestQuery(parameters.getValidationQuery());
+    }
+    if (!failFast) {
+      // An unreachable replica must not fail the connection, it is skipped until its lag can be checked
+      config.setInitializationFailTimeout(-1);
+    }
+    config.setMetricsTrackerFactory(metrics);
+    return new HikariDataSource(config);
   }
 }
@@ -3,10 +3,13 @@ package org.mule.extension.vectors.internal.connection.store.pgvector;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnectionParameters;
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Example;
 import org.mule.runtime.extension.api.annotation.param.display.Password;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 public class PGVectorStoreConnectionParameters extends BaseStoreConnectionParameters {
 
@@ -41,6 +44,140 @@ public class PGVectorStoreConnectionParameters extends BaseStoreConnectionParame
   @Placement(order = 5)
   private String password;
 
+  @Parameter
+  @DisplayName("Minimum Idle Connections")
+  @Summary("Minimum number of idle connections kept in the pool.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "1")
+  private int minIdleConnections;
+
+  @Parameter
+  @DisplayName("Maximum Pool Size")
+  @Summary("Maximum number of connections in the pool, idle or in use.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "10")
+  private int maxPoolSize;
+
+  @Parameter
+  @DisplayName("Connection Timeout (Milliseconds)")
+  @Summary("Maximum time to wait for a connection from the pool before failing.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "30000")
+  private long connectionTimeoutInMillis;
+
+  @Parameter
+  @DisplayName("Idle Timeout (Milliseconds)")
+  @Summary("Maximum time a connection above the minimum idle connections can sit idle in the pool.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 4, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "600000")
+  private long idleTimeoutInMillis;
+
+  @Parameter
+  @DisplayName("Max Lifetime (Milliseconds)")
+  @Summary("Maximum lifetime of a pooled connection. In-use connections are retired once returned to the pool.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 5, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "1800000")
+  private long maxLifetimeInMillis;
+
+  @Parameter
+  @DisplayName("Validation Query")
+  @Summary("Query validating pooled connections. When not set, connections are validated with the JDBC isValid check.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 6, tab = Placement.ADVANCED_TAB)
+  @Example("SELECT 1")
+  @Optional
+  private String validationQuery;
+
+  @Parameter
+  @DisplayName("Prepare Threshold")
+  @Summary("Number of executions of the same statement on a pooled connection before it is prepared server side. " +
+      "0 disables server-side prepared statements.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 7, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "5")
+  private int prepareThreshold;
+
+  @Parameter
+  @DisplayName("Index Type")
+  @Summary("Approximate nearest neighbor index of the embedding column, created with the table or built with the " +
+      "[Store] Rebuild index operation. IVFFLAT indexes should be built once the table is loaded.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 8, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "NONE")
+  private PGVectorIndexType indexType;
+
+  @Parameter
+  @DisplayName("Distance")
+  @Summary("Distance used to index and search the embeddings.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 9, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "COSINE")
+  private PGVectorDistance distance;
+
+  @Parameter
+  @DisplayName("HNSW M")
+  @Summary("Maximum number of connections per layer of HNSW indexes.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 10, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "16")
+  private int hnswM;
+
+  @Parameter
+  @DisplayName("HNSW EF Construction")
+  @Summary("Size of the dynamic candidate list used to build HNSW indexes.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 11, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "64")
+  private int hnswEfConstruction;
+
+  @Parameter
+  @DisplayName("IVFFlat Lists")
+  @Summary("Number of inverted lists of IVFFlat indexes.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 12, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "100")
+  private int ivfflatLists;
+
+  @Parameter
+  @DisplayName("Read Replica Hosts")
+  @Summary("Comma separated hosts of the streaming replicas serving queries and source listings, as host or " +
+      "host:port. The port defaults to the primary port. Ingestion and removals always go to the primary.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 13, tab = Placement.ADVANCED_TAB)
+  @Example("replica-1:5432,replica-2:5432")
+  @Optional
+  private String readReplicaHosts;
+
+  @Parameter
+  @DisplayName("Replica Selection")
+  @Summary("Strategy used to pick the replica serving each read.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 14, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "ROUND_ROBIN")
+  private PGVectorReplicaSelection replicaSelection;
+
+  @Parameter
+  @DisplayName("Max Replication Lag (Milliseconds)")
+  @Summary("Replicas lagging behind the primary by more than this are skipped until they catch up. Reads go to " +
+      "the primary when no replica is available.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 15, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "5000")
+  private long maxReplicationLagInMillis;
+
+  @Parameter
+  @DisplayName("Replication Lag Check Interval (Milliseconds)")
+  @Summary("Interval between two checks of the replication lag of the replicas.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 16, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "1000")
+  private long replicationLagCheckIntervalInMillis;
+
   public String getHost() {
     return host;
   }
@@ -60,4 +197,68 @@ public class PGVectorStoreConnectionParameters extends BaseStoreConnectionParame
   public String getPassword() {
     return password;
   }
+
+  public int getMinIdleConnections() {
+    return minIdleConnections;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public long getConnectionTimeoutInMillis() {
+    return connectionTimeoutInMillis;
+  }
+
+  public long getIdleTimeoutInMillis() {
+    return idleTimeoutInMillis;
+  }
+
+  public long getMaxLifetimeInMillis() {
+    return maxLifetimeInMillis;
+  }
+
+  public String getValidationQuery() {
+    return validationQuery;
+  }
+
+  public int getPrepareThreshold() {
+    return prepareThreshold;
+  }
+
+  public PGVectorIndexType getIndexType() {
+    return indexType;
+  }
+
+  public PGVectorDistance getDistance() {
+    return distance;
+  }
+
+  public int getHnswM() {
+    return hnswM;
+  }
+
+  public int getHnswEfConstruction() {
+    return hnswEfConstruction;
+  }
+
+  public int getIvfflatLists() {
+    return ivfflatLists;
+  }
+
+  public String getReadReplicaHosts() {
+    return readReplicaHosts;
+  }
+
+  public PGVectorReplicaSelection getReplicaSelection() {
+    return replicaSelection;
+  }
+
+  public long getMaxReplicationLagInMillis() {
+    return maxReplicationLagInMillis;
+  }
+
+  public long getReplicationLagCheckIntervalInMillis() {
+    return replicationLagCheckIntervalInMillis;
+  }
 }
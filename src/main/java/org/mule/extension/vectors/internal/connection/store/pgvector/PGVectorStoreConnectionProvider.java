@@ -26,11 +26,7 @@ public class PGVectorStoreConnectionProvider  extends BaseStoreConnectionProvide
     try {
 
       PGVectorStoreConnection pgVectorStoreConnection =
-          new PGVectorStoreConnection(pgVectorStoreConnectionParameters.getHost(),
-                                      pgVectorStoreConnectionParameters.getPort(),
-                                      pgVectorStoreConnectionParameters.getDatabase(),
-                                      pgVectorStoreConnectionParameters.getUser(),
-                                      pgVectorStoreConnectionParameters.getPassword());
+          new PGVectorStoreConnection(pgVectorStoreConnectionParameters);
       pgVectorStoreConnection.connect();
       return pgVectorStoreConnection;
 
@@ -1,19 +1,51 @@
 package org.mule.extension.vectors.internal.connection.store.pinecone;
 
 import io.pinecone.clients.Pinecone;
-import io.qdrant.client.QdrantClient;
-import io.qdrant.client.QdrantGrpcClient;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public class PineconeStoreConnection implements BaseStoreConnection {
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class PineconeStoreConnection extends BaseStoreConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PineconeStoreConnection.class);
+
+  private static final String CONTROL_PLANE_URL = "https://api.pinecone.io";
+
+  private static final String API_VERSION = "2024-07";
+
+  private static final long KEEP_ALIVE_IN_MINUTES = 5;
+
+  private static final int MAX_RETRIES = 6;
+
+  private static final long INITIAL_BACKOFF_IN_MILLIS = 500;
+
+  private static final long MAX_BACKOFF_IN_MILLIS = 30000;
 
   private String cloud;
   private String region;
   private String apiKey;
+  private OkHttpClient httpClient;
+  private final Map<String, String> indexHosts = new ConcurrentHashMap<>();
+  private final Set<String> knownIndexes = ConcurrentHashMap.newKeySet();
 
-  public PineconeStoreConnection(String cloud, String region, String apiKey) {
+  public PineconeStoreConnection(String cloud, String region, String apiKey, int embeddingStoreCacheMaxSize) {
+    super(embeddingStoreCacheMaxSize);
     this.cloud = cloud;
     this.region = region;
     this.apiKey = apiKey;
@@ -31,6 +63,112 @@ public class PineconeStoreConnection implements BaseStoreConnection {
     return apiKey;
   }
 
+  /**
+   * Retrieves the HTTP client owned by this connection. Its connections are kept alive and pooled, up to one per query
+   * executor thread, so that concurrent requests to Pinecone reuse them.
+   *
+   * @return the shared HTTP client
+   */
+  public OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * Retrieves the URL of the data plane of an index, resolving it on first use only.
+   *
+   * @param indexName the name of the index
+   * @return the URL of the index host
+   * @throws IOException if the index cannot be described
+   */
+  public String getIndexUrl(String indexName) throws IOException {
+
+    String indexUrl = indexHosts.get(indexName);
+    if (indexUrl == null) {
+
+      try (Response response = execute(new Request.Builder().url(CONTROL_PLANE_URL + "/indexes/" + indexName).get())) {
+
+        indexUrl = "https://" + new JSONObject(new JSONTokener(response.body().charStream())).getString("host");
+      }
+      indexHosts.put(indexName, indexUrl);
+    }
+    return indexUrl;
+  }
+
+  /**
+   * Tells whether an index is known to exist, because it was resolved or created through this connection, so that
+   * embedding stores of its other namespaces are built without checking for it or creating it again.
+   *
+   * @param indexName the name of the index
+   * @return true if the index is known to exist
+   */
+  public boolean isIndexKnown(String indexName) {
+    return knownIndexes.contains(indexName) || indexHosts.containsKey(indexName);
+  }
+
+  /**
+   * Records that an index exists.
+   *
+   * @param indexName the name of the index
+   */
+  public void markIndexKnown(String indexName) {
+    knownIndexes.add(indexName);
+  }
+
+  /**
+   * Executes a request to Pinecone through the pooled HTTP client of this connection.
+   * <p>
+   * Requests rejected because of rate limits (HTTP 429) or temporary unavailability (HTTP 503) are retried with an
+   * exponential backoff, honoring the Retry-After header when present.
+   * </p>
+   *
+   * @param request the request, authentication headers are added
+   * @return the successful response, to be closed by the caller
+   * @throws IOException if the request fails or still fails after the retries
+   */
+  public Response execute(Request.Builder request) throws IOException {
+
+    Request authenticatedRequest = request
+        .header("Api-Key", apiKey)
+        .header("X-Pinecone-API-Version", API_VERSION)
+        .build();
+
+    long backoff = INITIAL_BACKOFF_IN_MILLIS;
+    for (int attempt = 0; ; attempt++) {
+
+      Response response = getHttpClient().newCall(authenticatedRequest).execute();
+      if (response.isSuccessful()) {
+        return response;
+      }
+
+      int code = response.code();
+      String retryAfter = response.header("Retry-After");
+      ResponseBody body = response.body();
+      String error = body != null ? body.string() : "";
+      response.close();
+
+      if ((code != 429 && code != 503) || attempt == MAX_RETRIES) {
+        throw new IOException(String.format("Error while calling Pinecone %s (HTTP %s): %s",
+                                            authenticatedRequest.url().encodedPath(), code, error));
+      }
+
+      long delay = backoff;
+      if (retryAfter != null && retryAfter.matches("\\d+")) {
+        delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+      }
+      LOGGER.debug(String.format("Pinecone request throttled (HTTP %s), retrying in %s ms.", code, delay));
+      try {
+
+        Thread.sleep(delay);
+
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting to retry a Pinecone request");
+      }
+      backoff = Math.min(backoff * 2, MAX_BACKOFF_IN_MILLIS);
+    }
+  }
+
   @Override
   public String getVectorStore() {
     return Constants.VECTOR_STORE_PINECONE;
@@ -44,6 +182,10 @@ public class PineconeStoreConnection implements BaseStoreConnection {
       Pinecone client = (new Pinecone.Builder(apiKey)).build();
       client.listIndexes();
 
+      this.httpClient = new OkHttpClient.Builder()
+          .connectionPool(new ConnectionPool(QUERY_EXECUTOR_MAX_THREADS, KEEP_ALIVE_IN_MINUTES, TimeUnit.MINUTES))
+          .build();
+
     } catch (Exception e) {
 
       throw new ConnectionException("Impossible to connect to Pinecone.", e);
@@ -53,7 +195,15 @@ public class PineconeStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
-    // Add disconnection logic if any.
+    super.disconnect();
+
+    indexHosts.clear();
+    knownIndexes.clear();
+    if (this.httpClient != null) {
+
+      this.httpClient.dispatcher().executorService().shutdown();
+      this.httpClient.connectionPool().evictAll();
+    }
   }
 
   @Override
@@ -28,7 +28,8 @@ public class PineconeStoreConnectionProvider  extends BaseStoreConnectionProvide
       PineconeStoreConnection pineconeStoreConnection =
           new PineconeStoreConnection(pineconeStoreConnectionParameters.getCloud(),
                                       pineconeStoreConnectionParameters.getRegion(),
-                                      pineconeStoreConnectionParameters.getApiKey());
+                                      pineconeStoreConnectionParameters.getApiKey(),
+                                      pineconeStoreConnectionParameters.getEmbeddingStoreCacheMaxSize());
       pineconeStoreConnection.connect();
       return pineconeStoreConnection;
 
@@ -0,0 +1,24 @@
+package org.mule.extension.vectors.internal.connection.store.qdrant;
+
+/**
+ * Quantization of the vectors of Qdrant collections. Quantized vectors are searched first, original vectors can be
+ * used to rescore the best candidates.
+ */
+public enum QdrantQuantization {
+
+  /**
+   * No quantization, only the original vectors are searched.
+   */
+  NONE,
+
+  /**
+   * Each component is converted to an int8. Divides the memory used by the vectors by 4 with little loss of accuracy.
+   */
+  SCALAR,
+
+  /**
+   * Each component is converted to a single bit. Divides the memory used by the vectors by 32, suited to high
+   * dimensional embeddings and should be combined with rescoring.
+   */
+  BINARY
+}
@@ -3,6 +3,7 @@ package org.mule.extension.vectors.internal.connection.store.qdrant;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
+import io.qdrant.client.grpc.Collections;
 import io.qdrant.client.grpc.QdrantOuterClass;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.elasticsearch.ElasticsearchStoreConnection;
@@ -19,8 +20,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
-public class QdrantStoreConnection implements BaseStoreConnection {
+public class QdrantStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(QdrantStoreConnection.class);
 
@@ -29,15 +33,19 @@ public class QdrantStoreConnection implements BaseStoreConnection {
   private final boolean useTLS;
   private final String textSegmentKey;
   private final String apiKey;
+  private final QdrantStoreConnectionParameters parameters;
 
   private QdrantClient client;
-
-  public QdrantStoreConnection(String host, int gprcPort, boolean useTLS, String textSegmentKey, String apiKey) {
-    this.host = host;
-    this.gprcPort = gprcPort;
-    this.useTLS = useTLS;
-    this.textSegmentKey = textSegmentKey;
-    this.apiKey = apiKey;
+  private Map<String, Collections.PayloadSchemaType> payloadIndexes;
+
+  public QdrantStoreConnection(QdrantStoreConnectionParameters parameters) {
+    super(parameters.getEmbeddingStoreCacheMaxSize());
+    this.host = parameters.getHost();
+    this.gprcPort = parameters.getGprcPort();
+    this.useTLS = parameters.isUseTLS();
+    this.textSegmentKey = parameters.getTextSegmentKey();
+    this.apiKey = parameters.getApiKey();
+    this.parameters = parameters;
   }
 
   public String getHost() {
@@ -64,6 +72,24 @@ public class QdrantStoreConnection implements BaseStoreConnection {
     return client;
   }
 
+  /**
+   * Retrieves the parameters of this connection, including the settings of the created collections.
+   *
+   * @return the connection parameters
+   */
+  public QdrantStoreConnectionParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Retrieves the payload fields indexed in created collections.
+   *
+   * @return the payload schema type of each indexed field, in configuration order
+   */
+  public Map<String, Collections.PayloadSchemaType> getPayloadIndexes() {
+    return payloadIndexes;
+  }
+
   @Override
   public String getVectorStore() {
     return Constants.VECTOR_STORE_QDRANT;
@@ -74,6 +100,7 @@ public class QdrantStoreConnection implements BaseStoreConnection {
 
     try {
 
+      this.payloadIndexes = parsePayloadIndexes(parameters.getPayloadIndexes());
       this.client = new QdrantClient(
           QdrantGrpcClient.newBuilder(host, gprcPort, useTLS)
               .withApiKey(apiKey)
@@ -94,7 +121,12 @@ public class QdrantStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
-    this.client.close();
+    super.disconnect();
+
+    if (this.client != null) {
+
+      this.client.close();
+    }
   }
 
   @Override
@@ -121,4 +153,50 @@ public class QdrantStoreConnection implements BaseStoreConnection {
     // Make it synchronous by calling get()
     QdrantOuterClass.HealthCheckReply healthCheckReply = healthCheckFuture.get();
   }
+
+  private static Map<String, Collections.PayloadSchemaType> parsePayloadIndexes(String payloadIndexes) {
+
+    Map<String, Collections.PayloadSchemaType> parsedPayloadIndexes = new LinkedHashMap<>();
+    if (payloadIndexes == null || payloadIndexes.trim().isEmpty()) {
+      return parsedPayloadIndexes;
+    }
+
+    for (String payloadIndex : payloadIndexes.split(",")) {
+
+      payloadIndex = payloadIndex.trim();
+      if (payloadIndex.isEmpty()) {
+        continue;
+      }
+
+      int separator = payloadIndex.lastIndexOf(':');
+      if (separator <= 0 || separator == payloadIndex.length() - 1) {
+        throw new IllegalArgumentException(
+            String.format("Invalid payload index \"%s\", expected field:type.", payloadIndex));
+      }
+      parsedPayloadIndexes.put(payloadIndex.substring(0, separator).trim(),
+                               toPayloadSchemaType(payloadIndex.substring(separator + 1).trim()));
+    }
+    return parsedPayloadIndexes;
+  }
+
+  private static Collections.PayloadSchemaType toPayloadSchemaType(String type) {
+
+    switch (type.toLowerCase(Locale.ROOT)) {
+
+      case "keyword":
+        return Collections.PayloadSchemaType.Keyword;
+      case "integer":
+        return Collections.PayloadSchemaType.Integer;
+      case "float":
+        return Collections.PayloadSchemaType.Float;
+      case "bool":
+        return Collections.PayloadSchemaType.Bool;
+      case "datetime":
+        return Collections.PayloadSchemaType.Datetime;
+      case "text":
+        return Collections.PayloadSchemaType.Text;
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported payload index type \"%s\".", type));
+    }
+  }
 }
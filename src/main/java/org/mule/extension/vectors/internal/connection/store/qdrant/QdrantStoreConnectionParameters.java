@@ -3,11 +3,13 @@ package org.mule.extension.vectors.internal.connection.store.qdrant;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnectionParameters;
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Example;
 import org.mule.runtime.extension.api.annotation.param.display.Password;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 public class QdrantStoreConnectionParameters extends BaseStoreConnectionParameters {
 
@@ -43,6 +45,76 @@ public class QdrantStoreConnectionParameters extends BaseStoreConnectionParamete
   @Example("<your-apikey>")
   private String apiKey;
 
+  @Parameter
+  @DisplayName("HNSW M")
+  @Summary("Maximum number of edges per node of the HNSW index of created collections. Defaults to the server " +
+      "setting.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Optional
+  private Integer hnswM;
+
+  @Parameter
+  @DisplayName("HNSW EF Construct")
+  @Summary("Size of the candidate list used to build the HNSW index of created collections. Defaults to the " +
+      "server setting.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Optional
+  private Integer hnswEfConstruct;
+
+  @Parameter
+  @DisplayName("On Disk Vectors")
+  @Summary("Stores the original vectors of created collections on disk instead of RAM. Combine with quantization " +
+      "to keep searches fast.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "false")
+  private boolean onDiskVectors;
+
+  @Parameter
+  @DisplayName("Quantization")
+  @Summary("Quantization of the vectors of created collections.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 4, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "NONE")
+  private QdrantQuantization quantization;
+
+  @Parameter
+  @DisplayName("Quantized Vectors Always In RAM")
+  @Summary("Keeps the quantized vectors in RAM, even when the original vectors are stored on disk.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 5, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "true")
+  private boolean quantizationAlwaysRam;
+
+  @Parameter
+  @DisplayName("Quantization Rescore")
+  @Summary("Rescores the best candidates found with the quantized vectors using the original vectors.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 6, tab = Placement.ADVANCED_TAB)
+  @Optional(defaultValue = "true")
+  private boolean quantizationRescore;
+
+  @Parameter
+  @DisplayName("Quantization Oversampling")
+  @Summary("Factor applied to the maximum results to get the number of candidates rescored, e.g. 2.0 rescores " +
+      "twice as many candidates as returned. Defaults to the server setting.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 7, tab = Placement.ADVANCED_TAB)
+  @Optional
+  private Double quantizationOversampling;
+
+  @Parameter
+  @DisplayName("Payload Indexes")
+  @Summary("Comma separated payload fields indexed in created collections, as field:type. Supported types are " +
+      "keyword, integer, float, bool, datetime and text.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 8, tab = Placement.ADVANCED_TAB)
+  @Example("file_name:keyword,source_id:keyword,ingestion_timestamp:integer")
+  @Optional
+  private String payloadIndexes;
+
   public String getHost() {
     return host;
   }
@@ -62,4 +134,36 @@ public class QdrantStoreConnectionParameters extends BaseStoreConnectionParamete
   public String getApiKey() {
     return apiKey;
   }
+
+  public Integer getHnswM() {
+    return hnswM;
+  }
+
+  public Integer getHnswEfConstruct() {
+    return hnswEfConstruct;
+  }
+
+  public boolean isOnDiskVectors() {
+    return onDiskVectors;
+  }
+
+  public QdrantQuantization getQuantization() {
+    return quantization;
+  }
+
+  public boolean isQuantizationAlwaysRam() {
+    return quantizationAlwaysRam;
+  }
+
+  public boolean isQuantizationRescore() {
+    return quantizationRescore;
+  }
+
+  public Double getQuantizationOversampling() {
+    return quantizationOversampling;
+  }
+
+  public String getPayloadIndexes() {
+    return payloadIndexes;
+  }
 }
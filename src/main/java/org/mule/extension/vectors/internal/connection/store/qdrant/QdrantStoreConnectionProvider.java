@@ -27,11 +27,7 @@ public class QdrantStoreConnectionProvider  extends BaseStoreConnectionProvider
     try {
 
       QdrantStoreConnection qdrantStoreConnection =
-          new QdrantStoreConnection(qdrantStoreConnectionParameters.getHost(),
-                                    qdrantStoreConnectionParameters.getGprcPort(),
-                                    qdrantStoreConnectionParameters.isUseTLS(),
-                                    qdrantStoreConnectionParameters.getTextSegmentKey(),
-                                    qdrantStoreConnectionParameters.getApiKey());
+          new QdrantStoreConnection(qdrantStoreConnectionParameters);
       qdrantStoreConnection.connect();
       return qdrantStoreConnection;
 
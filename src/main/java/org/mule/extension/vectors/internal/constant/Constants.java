@@ -80,6 +80,9 @@ public class Constants {
   public static final String STORE_OPERATION_TYPE_FILTER_BY_METADATA = "FILTER_BY_METADATA";
   public static final String STORE_OPERATION_TYPE_REMOVE_EMBEDDINGS = "REMOVE_EMBEDDINGS";
   public static final String STORE_OPERATION_TYPE_QUERY_ALL = "QUERY_ALL";
+  public static final String STORE_OPERATION_TYPE_BULK_INGEST = "BULK_INGEST";
+  public static final String STORE_OPERATION_TYPE_REBUILD_INDEX = "REBUILD_INDEX";
+  public static final String STORE_OPERATION_TYPE_NAMESPACES = "NAMESPACES";
 
   public static final String JSON_KEY_SOURCES = "sources";
   public static final String JSON_KEY_TEXT_SEGMENTS = "text-segments";
@@ -90,6 +93,7 @@ public class Constants {
   public static final String JSON_KEY_STATUS = "status";
   public static final String JSON_KEY_EMBEDDINGS = "embeddings";
   public static final String JSON_KEY_DIMENSION = "dimension";
+  public static final String JSON_KEY_EMBEDDING_ENCODING = "embeddingEncoding";
   public static final String JSON_KEY_RESPONSE = "response";
   public static final String JSON_KEY_QUESTION = "question";
   public static final String JSON_KEY_MAX_RESULTS = "maxResults";
@@ -99,9 +103,27 @@ public class Constants {
   public static final String JSON_KEY_METADATA = "metadata";
   public static final String JSON_KEY_INDEX = "index";
   public static final String JSON_KEY_BASE64DATA = "base64Data";
+  public static final String JSON_KEY_RESULTS = "results";
+  public static final String JSON_KEY_RESULT_COUNT = "resultCount";
+  public static final String JSON_KEY_ERROR_COUNT = "errorCount";
+  public static final String JSON_KEY_ERROR = "error";
+  public static final String JSON_KEY_ELAPSED_MILLIS = "elapsedMillis";
+  public static final String JSON_KEY_CONDITION = "condition";
+  public static final String JSON_KEY_STORES = "stores";
+  public static final String JSON_KEY_STORE_SCORE = "storeScore";
+  public static final String JSON_KEY_MATCH_COUNT = "matchCount";
+  public static final String JSON_KEY_INDEX_NAME = "indexName";
+  public static final String JSON_KEY_INDEX_TYPE = "indexType";
+  public static final String JSON_KEY_INDEX_DEFINITION = "indexDefinition";
 
   public static final String OPERATION_STATUS_UPDATED = "updated";
   public static final String OPERATION_STATUS_DELETED = "deleted";
+  public static final String OPERATION_STATUS_REBUILT = "rebuilt";
+
+  public static final String QUERY_STATUS_COMPLETED = "completed";
+  public static final String QUERY_STATUS_TIMED_OUT = "timed_out";
+  public static final String QUERY_STATUS_FAILED = "failed";
+  public static final String QUERY_STATUS_CANCELLED = "cancelled";
 
   public static final String PARAM_DISPLAY_NAME_STORAGE_OVERRIDE = "Storage (Override Module Configuration)";
 
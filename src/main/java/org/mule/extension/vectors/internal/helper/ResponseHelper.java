@@ -1,8 +1,11 @@
 package org.mule.extension.vectors.internal.helper;
 
+import org.json.JSONObject;
 import org.mule.extension.vectors.api.metadata.*;
+import org.mule.extension.vectors.internal.util.JsonObjectInputStream;
 import org.mule.runtime.api.metadata.MediaType;
 import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.extension.api.runtime.operation.Result;
 import org.mule.runtime.extension.api.runtime.streaming.StreamingHelper;
 
@@ -32,6 +35,43 @@ public final class ResponseHelper {
         .build();
   }
 
+  /**
+   * Creates a store response whose JSON output is serialized lazily, as the stream is consumed, instead of being
+   * rendered to a string first.
+   */
+  public static Result<InputStream, StoreResponseAttributes> createStoreResponse(
+      JSONObject response,
+      Map<String, Object> storeAttributes) {
+
+    return Result.<InputStream, StoreResponseAttributes>builder()
+        .attributes(new StoreResponseAttributes((HashMap<String, Object>) storeAttributes))
+        .attributesMediaType(MediaType.APPLICATION_JAVA)
+        .output(new JsonObjectInputStream(response))
+        .mediaType(MediaType.APPLICATION_JSON)
+        .build();
+  }
+
+  /**
+   * Creates a store response whose JSON output is read from a stream produced while it is consumed, made repeatable
+   * by the cursor provider of the streaming strategy of the operation.
+   */
+  public static Result<InputStream, StoreResponseAttributes> createStoreResponse(
+      InputStream response,
+      StreamingHelper streamingHelper,
+      Map<String, Object> storeAttributes) {
+
+    Object cursorProvider = streamingHelper.resolveCursorProvider(response);
+
+    return Result.<InputStream, StoreResponseAttributes>builder()
+        .attributes(new StoreResponseAttributes((HashMap<String, Object>) storeAttributes))
+        .attributesMediaType(MediaType.APPLICATION_JAVA)
+        .output(cursorProvider instanceof CursorStreamProvider
+                    ? ((CursorStreamProvider) cursorProvider).openCursor()
+                    : response)
+        .mediaType(MediaType.APPLICATION_JSON)
+        .build();
+  }
+
   public static Result<InputStream, EmbeddingResponseAttributes> createEmbeddingResponse(
       String response,
       Map<String, Object> embeddingAttributes) {
@@ -0,0 +1,305 @@
+package org.mule.extension.vectors.internal.helper.metadata;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+/**
+ * Single pass recursive descent parser of metadata filter expressions.
+ * <p>
+ * Grammar:
+ * <pre>
+ *   expression := term ( ( AND | OR ) term )*
+ *   term       := '(' expression ')' | condition
+ *   condition  := field operator value
+ *   field      := [a-zA-Z_][a-zA-Z0-9_]*
+ *   operator   := '=' | '!=' | '&gt;' | '&gt;=' | '&lt;' | '&lt;='
+ *   value      := quoted string | unquoted text up to the next AND/OR keyword or closing parenthesis
+ * </pre>
+ * Keywords are case-insensitive and must be surrounded by whitespace, or end the expression. AND and OR cannot be
+ * mixed at the same level without explicit grouping with parentheses. Values that look like numbers, quoted or not,
+ * are compared as numbers.
+ * </p>
+ * <p>
+ * The parser builds the {@link Filter} tree directly, calling the typed {@link MetadataFilterBuilder} methods.
+ * Instances are not thread-safe and parse a single expression.
+ * </p>
+ */
+final class MetadataFilterParser {
+
+  private static final String AND = "AND";
+  private static final String OR = "OR";
+
+  private final String expression;
+  private int position;
+
+  MetadataFilterParser(String expression) {
+    this.expression = expression;
+  }
+
+  Filter parse() {
+
+    Filter filter = parseExpression();
+    skipWhitespace();
+    if (position < expression.length()) {
+      throw error(expression.charAt(position) == ')' ? "Mismatched parentheses" : "Unexpected input");
+    }
+    return filter;
+  }
+
+  private Filter parseExpression() {
+
+    List<Filter> filters = new ArrayList<>();
+    filters.add(parseTerm());
+
+    String logicalOperator = null;
+    String nextOperator;
+    while ((nextOperator = readLogicalOperator()) != null) {
+
+      if (logicalOperator != null && !logicalOperator.equals(nextOperator)) {
+        throw new IllegalArgumentException(
+            "Mixed AND/OR operations must be explicitly grouped with parentheses. Expression: " + expression);
+      }
+      logicalOperator = nextOperator;
+      filters.add(parseTerm());
+    }
+
+    return combine(filters, 0, AND.equals(logicalOperator));
+  }
+
+  private Filter parseTerm() {
+
+    skipWhitespace();
+    if (position >= expression.length()) {
+      throw error("Empty condition");
+    }
+
+    if (expression.charAt(position) == '(') {
+
+      position++;
+      Filter filter = parseExpression();
+      skipWhitespace();
+      if (position >= expression.length() || expression.charAt(position) != ')') {
+        throw error("Mismatched parentheses");
+      }
+      position++;
+      return filter;
+    }
+
+    return parseCondition();
+  }
+
+  private Filter parseCondition() {
+
+    int start = position;
+    String field = readField();
+    skipWhitespace();
+    String operator = readOperator();
+    skipWhitespace();
+    Object value = readValue();
+    if (field == null || operator == null || value == null) {
+      throw new IllegalArgumentException("Invalid condition format: " + expression.substring(start, position).trim());
+    }
+
+    return createFilter(field, operator, value);
+  }
+
+  private String readField() {
+
+    int start = position;
+    if (position < expression.length() && isFieldStart(expression.charAt(position))) {
+
+      position++;
+      while (position < expression.length() && isFieldPart(expression.charAt(position))) {
+        position++;
+      }
+    }
+    return position > start ? expression.substring(start, position) : null;
+  }
+
+  private String readOperator() {
+
+    int start = position;
+    while (position < expression.length() && "=!<>".indexOf(expression.charAt(position)) >= 0) {
+      position++;
+    }
+    return position > start ? expression.substring(start, position) : null;
+  }
+
+  private Object readValue() {
+
+    if (position >= expression.length()) {
+      return null;
+    }
+
+    char quote = expression.charAt(position);
+    if (quote == '\'' || quote == '"') {
+
+      int end = expression.indexOf(quote, position + 1);
+      if (end < 0) {
+        throw error("Unterminated quoted value");
+      }
+      String value = expression.substring(position + 1, end);
+      position = end + 1;
+      return parseValue(value);
+    }
+
+    // Unquoted values may contain whitespace, they end at the next logical operator or closing parenthesis
+    int start = position;
+    while (position < expression.length()
+        && expression.charAt(position) != ')'
+        && !(Character.isWhitespace(expression.charAt(position)) && isLogicalOperatorAt(position + 1))) {
+      position++;
+    }
+    String value = expression.substring(start, position).trim();
+    return value.isEmpty() ? null : parseValue(value);
+  }
+
+  // Reads AND or OR, surrounded by whitespace, at the current position. Returns null if there is none.
+  private String readLogicalOperator() {
+
+    int start = position;
+    skipWhitespace();
+    if (position > start) {
+
+      if (isLogicalOperatorAt(position, AND)) {
+
+        position += AND.length();
+        return AND;
+      }
+      if (isLogicalOperatorAt(position, OR)) {
+
+        position += OR.length();
+        return OR;
+      }
+    }
+    position = start;
+    return null;
+  }
+
+  private boolean isLogicalOperatorAt(int index) {
+    return isLogicalOperatorAt(index, AND) || isLogicalOperatorAt(index, OR);
+  }
+
+  private boolean isLogicalOperatorAt(int index, String operator) {
+
+    // A keyword ending the expression is still one, so that a dangling AND/OR is rejected rather than compared
+    int end = index + operator.length();
+    return expression.regionMatches(true, index, operator, 0, operator.length())
+        && (end == expression.length() || Character.isWhitespace(expression.charAt(end)));
+  }
+
+  private void skipWhitespace() {
+
+    while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+      position++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(String.format("%s at position %d in expression: %s", message, position, expression));
+  }
+
+  private static boolean isFieldStart(char c) {
+    return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isFieldPart(char c) {
+    return isFieldStart(c) || isDigit(c);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static Object parseValue(String value) {
+
+    if (isNumber(value)) {
+      try {
+        if (value.indexOf('.') >= 0) {
+          return Double.parseDouble(value);
+        } else {
+          return Long.parseLong(value);
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid number format: " + value);
+      }
+    }
+    return value;
+  }
+
+  // Matches -?\d+(\.\d+)?
+  private static boolean isNumber(String value) {
+
+    int i = value.startsWith("-") ? 1 : 0;
+    int integerDigits = 0;
+    while (i < value.length() && isDigit(value.charAt(i))) {
+      i++;
+      integerDigits++;
+    }
+    if (integerDigits == 0) {
+      return false;
+    }
+    if (i == value.length()) {
+      return true;
+    }
+    if (value.charAt(i) != '.') {
+      return false;
+    }
+    i++;
+    int fractionDigits = 0;
+    while (i < value.length() && isDigit(value.charAt(i))) {
+      i++;
+      fractionDigits++;
+    }
+    return fractionDigits > 0 && i == value.length();
+  }
+
+  private static Filter createFilter(String field, String operator, Object value) {
+
+    MetadataFilterBuilder filterBuilder = metadataKey(field);
+
+    switch (operator) {
+      case "=":
+        if (value instanceof Long) return filterBuilder.isEqualTo((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isEqualTo((double) (Double) value);
+        return filterBuilder.isEqualTo((String) value);
+      case "!=":
+        if (value instanceof Long) return filterBuilder.isNotEqualTo((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isNotEqualTo((double) (Double) value);
+        return filterBuilder.isNotEqualTo((String) value);
+      case ">":
+        if (value instanceof Long) return filterBuilder.isGreaterThan((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isGreaterThan((double) (Double) value);
+        return filterBuilder.isGreaterThan((String) value);
+      case ">=":
+        if (value instanceof Long) return filterBuilder.isGreaterThanOrEqualTo((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isGreaterThanOrEqualTo((double) (Double) value);
+        return filterBuilder.isGreaterThanOrEqualTo((String) value);
+      case "<":
+        if (value instanceof Long) return filterBuilder.isLessThan((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isLessThan((double) (Double) value);
+        return filterBuilder.isLessThan((String) value);
+      case "<=":
+        if (value instanceof Long) return filterBuilder.isLessThanOrEqualTo((long) (Long) value);
+        if (value instanceof Double) return filterBuilder.isLessThanOrEqualTo((double) (Double) value);
+        return filterBuilder.isLessThanOrEqualTo((String) value);
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  // Right-nested, as a.and(b.and(c)), like the filters previously built from expressions
+  private static Filter combine(List<Filter> filters, int from, boolean isAnd) {
+
+    if (from == filters.size() - 1) {
+      return filters.get(from);
+    }
+    Filter rest = combine(filters, from + 1, isAnd);
+    return isAnd ? filters.get(from).and(rest) : filters.get(from).or(rest);
+  }
+}
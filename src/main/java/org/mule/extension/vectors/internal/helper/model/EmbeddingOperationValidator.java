@@ -57,7 +57,7 @@ public class EmbeddingOperationValidator {
               Constants.VECTOR_STORE_OPENSEARCH,
               Constants.VECTOR_STORE_MILVUS,
               Constants.VECTOR_STORE_CHROMA,
-              Constants.VECTOR_STORE_PINECONE,
+              Constants.VECTOR_STORE_PINECONE, // Range comparisons on strings are rejected when querying.
               Constants.VECTOR_STORE_AI_SEARCH,
               Constants.VECTOR_STORE_QDRANT
             )));
@@ -66,10 +66,10 @@ public class EmbeddingOperationValidator {
             new HashSet<>(Arrays.asList(
               Constants.VECTOR_STORE_PGVECTOR,
               Constants.VECTOR_STORE_ELASTICSEARCH,
-              // Constants.VECTOR_STORE_OPENSEARCH, // Not supported yet.
+              Constants.VECTOR_STORE_OPENSEARCH,
               Constants.VECTOR_STORE_MILVUS,
               Constants.VECTOR_STORE_CHROMA,
-              // Constants.VECTOR_STORE_PINECONE,
+              Constants.VECTOR_STORE_PINECONE,
               Constants.VECTOR_STORE_AI_SEARCH
             )));
 
@@ -80,11 +80,26 @@ public class EmbeddingOperationValidator {
               Constants.VECTOR_STORE_OPENSEARCH,
               Constants.VECTOR_STORE_MILVUS,
               Constants.VECTOR_STORE_CHROMA,
-              // Constants.VECTOR_STORE_PINECONE, // Do not support GTE with strings.
+              Constants.VECTOR_STORE_PINECONE,
               Constants.VECTOR_STORE_AI_SEARCH,
               Constants.VECTOR_STORE_QDRANT
             )));
 
+    EMBEDDING_OPERATION_TYPE_TO_SUPPORTED_VECTOR_STORES.put(Constants.STORE_OPERATION_TYPE_BULK_INGEST,
+            new HashSet<>(Arrays.asList(
+              Constants.VECTOR_STORE_PGVECTOR
+            )));
+
+    EMBEDDING_OPERATION_TYPE_TO_SUPPORTED_VECTOR_STORES.put(Constants.STORE_OPERATION_TYPE_REBUILD_INDEX,
+            new HashSet<>(Arrays.asList(
+              Constants.VECTOR_STORE_PGVECTOR
+            )));
+
+    EMBEDDING_OPERATION_TYPE_TO_SUPPORTED_VECTOR_STORES.put(Constants.STORE_OPERATION_TYPE_NAMESPACES,
+            new HashSet<>(Arrays.asList(
+              Constants.VECTOR_STORE_PINECONE
+            )));
+
   }
 
   /**
@@ -2,9 +2,11 @@ package org.mule.extension.vectors.internal.helper.parameter;
 
 import org.mule.extension.vectors.internal.helper.model.EmbeddingModelHelper;
 import org.mule.extension.vectors.internal.helper.provider.EmbeddingModelNameProvider;
+import org.mule.extension.vectors.internal.util.EmbeddingEncoding;
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
@@ -22,9 +24,23 @@ public class EmbeddingModelParameters {
   @OfValues(EmbeddingModelNameProvider.class)
   private String embeddingModelName;
 
+  @Parameter
+  @Alias("embeddingEncoding")
+  @DisplayName("Embedding Encoding")
+  @Summary("The encoding of the generated embeddings. Base64 encodings emit each embedding as a base64 string of " +
+      "its little-endian float32 or float16 bytes, reducing the payload size.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "FLOAT_ARRAY")
+  private EmbeddingEncoding embeddingEncoding;
+
   public String getEmbeddingModelName() {
     return embeddingModelName;
   }
 
+  public EmbeddingEncoding getEmbeddingEncoding() {
+    return embeddingEncoding;
+  }
+
   public EmbeddingModelHelper.EmbeddingModelType getEmbeddingModelType() { return EmbeddingModelHelper.getModelType(embeddingModelName); }
 }
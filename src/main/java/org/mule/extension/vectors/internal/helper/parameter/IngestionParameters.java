@@ -0,0 +1,67 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.extension.vectors.internal.store.IngestionMode;
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class IngestionParameters {
+
+  @Parameter
+  @Alias("ingestionMode")
+  @DisplayName("Ingestion Mode")
+  @Summary("BULK streams the embeddings with the bulk load protocol of the store (PGVector only). Bulk loaded rows " +
+      "are appended, existing embeddings are not updated.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "DEFAULT")
+  private IngestionMode ingestionMode;
+
+  @Parameter
+  @Alias("bulkChunkSize")
+  @DisplayName("Bulk Chunk Size")
+  @Summary("Number of embeddings loaded per bulk load statement. Each chunk is committed separately, unless index " +
+      "build is deferred.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "10000")
+  private int bulkChunkSize;
+
+  @Parameter
+  @Alias("deferIndexBuild")
+  @DisplayName("Defer Index Build")
+  @Summary("Only for empty tables, the load fails otherwise. Drops the secondary indexes of the store before a bulk " +
+      "load and rebuilds them concurrently once all the chunks are loaded, instead of maintaining them row by row. The " +
+      "load then runs in a single transaction, which blocks all the other reads and writes of the table until it " +
+      "commits. Concurrent deferred loads of the same table run one after the other.")
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean deferIndexBuild;
+
+  public IngestionMode getIngestionMode() {
+    return ingestionMode;
+  }
+
+  public int getBulkChunkSize() {
+    return bulkChunkSize;
+  }
+
+  public boolean isDeferIndexBuild() {
+    return deferIndexBuild;
+  }
+
+  @Override
+  public String toString() {
+    return "IngestionParameters{" +
+        "ingestionMode=" + ingestionMode +
+        ", bulkChunkSize=" + bulkChunkSize +
+        ", deferIndexBuild=" + deferIndexBuild +
+        '}';
+  }
+}
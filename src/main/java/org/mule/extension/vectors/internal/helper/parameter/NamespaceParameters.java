@@ -0,0 +1,41 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+import java.util.List;
+
+public class NamespaceParameters {
+
+  @Parameter
+  @Alias("namespaces")
+  @DisplayName("Namespaces")
+  @Summary("Namespaces of the store to use, e.g. one per tenant. When several namespaces are set, the operation runs " +
+      "on each of them concurrently. When not set, the default namespace of the store is used. Supported by Pinecone " +
+      "only.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private List<String> namespaces;
+
+  public List<String> getNamespaces() {
+    return namespaces;
+  }
+
+  public boolean isSet() {
+    return namespaces != null && !namespaces.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "NamespaceParameters{" +
+        "namespaces=" + namespaces +
+        '}';
+  }
+}
@@ -0,0 +1,63 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class QueryCacheParameters {
+
+  @Parameter
+  @Alias("cacheEnabled")
+  @DisplayName("Cache Results")
+  @Summary("Caches the query results in memory for the connection. Cached results of a store are invalidated when " +
+      "embeddings are added to or removed from it through the same connection.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean cacheEnabled;
+
+  @Parameter
+  @Alias("cacheTtlInSeconds")
+  @DisplayName("Cache TTL (Seconds)")
+  @Summary("Time to live of the cached query results, in seconds.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "300")
+  private long cacheTtlInSeconds;
+
+  @Parameter
+  @Alias("semanticSimilarityThreshold")
+  @DisplayName("Semantic Similarity Threshold")
+  @Summary("When set, a query without an exact cached result reuses the cached results of the most similar cached " +
+      "query with the same filter, if the cosine similarity of their embeddings is at least this threshold (0 to 1).")
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private Double semanticSimilarityThreshold;
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  public long getCacheTtlInSeconds() {
+    return cacheTtlInSeconds;
+  }
+
+  public Double getSemanticSimilarityThreshold() {
+    return semanticSimilarityThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return "QueryCacheParameters{" +
+        "cacheEnabled=" + cacheEnabled +
+        ", cacheTtlInSeconds=" + cacheTtlInSeconds +
+        ", semanticSimilarityThreshold=" + semanticSimilarityThreshold +
+        '}';
+  }
+}
@@ -14,6 +14,13 @@ public class QueryParameters {
   @Optional(defaultValue = "5000")
   private Number embeddingPageSize;
 
+  @Parameter
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Summary("The number of slices of the store read in parallel, for stores supporting sliced reads (Elasticsearch " +
+      "slices, Milvus partitions, Chroma pages). Defaults to 1.")
+  @Optional(defaultValue = "1")
+  private Number parallelism;
+
 //  @Parameter
 //  @Expression(ExpressionSupport.SUPPORTED)
 //  @Summary("The offset used when querying the vector store")
@@ -28,6 +35,8 @@ public class QueryParameters {
 
   public int embeddingPageSize() {return embeddingPageSize != null ? embeddingPageSize.intValue() : 5000;}
 
+  public int parallelism() {return parallelism != null ? parallelism.intValue() : 1;}
+
 //  public int offset() {
 //    return offset.intValue();
 //  }
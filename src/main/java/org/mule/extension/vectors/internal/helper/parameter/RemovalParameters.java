@@ -0,0 +1,79 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class RemovalParameters {
+
+  @Parameter
+  @Alias("slices")
+  @DisplayName("Slices")
+  @Summary("Number of slices the removal is split into, removed in parallel by the store. When not set, the " +
+      "removal is sliced automatically, one slice per primary shard. Applies to OpenSearch stores.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private Integer slices;
+
+  @Parameter
+  @Alias("abortOnVersionConflict")
+  @DisplayName("Abort On Version Conflict")
+  @Summary("Aborts the removal on the first version conflict, e.g. with an embedding written during the removal. " +
+      "By default conflicting embeddings are counted and skipped. Applies to OpenSearch stores.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean abortOnVersionConflict;
+
+  @Parameter
+  @Alias("waitForCompletion")
+  @DisplayName("Wait For Completion")
+  @Summary("Waits for the removal to complete within a single request. When disabled, the removal runs as a " +
+      "background task of the store, polled until it completes, so that large removals do not hit request timeouts. " +
+      "Applies to OpenSearch stores.")
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "true")
+  private boolean waitForCompletion;
+
+  @Parameter
+  @Alias("taskPollingIntervalInSeconds")
+  @DisplayName("Task Polling Interval (Seconds)")
+  @Summary("Interval between two polls of the removal task, in seconds, when not waiting for completion.")
+  @Placement(order = 4, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "5")
+  private long taskPollingIntervalInSeconds;
+
+  public Integer getSlices() {
+    return slices;
+  }
+
+  public boolean isAbortOnVersionConflict() {
+    return abortOnVersionConflict;
+  }
+
+  public boolean isWaitForCompletion() {
+    return waitForCompletion;
+  }
+
+  public long getTaskPollingIntervalInSeconds() {
+    return taskPollingIntervalInSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return "RemovalParameters{" +
+        "slices=" + slices +
+        ", abortOnVersionConflict=" + abortOnVersionConflict +
+        ", waitForCompletion=" + waitForCompletion +
+        ", taskPollingIntervalInSeconds=" + taskPollingIntervalInSeconds +
+        '}';
+  }
+}
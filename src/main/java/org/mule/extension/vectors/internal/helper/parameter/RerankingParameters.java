@@ -0,0 +1,63 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.extension.vectors.internal.helper.query.RerankingStrategy;
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class RerankingParameters {
+
+  @Parameter
+  @Alias("rerankingStrategy")
+  @DisplayName("Re-ranking Strategy")
+  @Summary("Re-ranking applied to the candidates retrieved from the store. MMR (Maximal Marginal Relevance) " +
+      "favors diverse results over near-duplicate ones.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "NONE")
+  private RerankingStrategy rerankingStrategy;
+
+  @Parameter
+  @Alias("overFetchFactor")
+  @DisplayName("Over-fetch Factor")
+  @Summary("Number of candidates retrieved from the store for re-ranking, as a multiple of the maximum results.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "4")
+  private int overFetchFactor;
+
+  @Parameter
+  @Alias("mmrLambda")
+  @DisplayName("MMR Lambda")
+  @Summary("Trade-off between relevance (1) and diversity (0) used by the MMR strategy.")
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "0.5")
+  private double mmrLambda;
+
+  public RerankingStrategy getRerankingStrategy() {
+    return rerankingStrategy != null ? rerankingStrategy : RerankingStrategy.NONE;
+  }
+
+  public int getOverFetchFactor() {
+    return overFetchFactor;
+  }
+
+  public double getMmrLambda() {
+    return mmrLambda;
+  }
+
+  @Override
+  public String toString() {
+    return "RerankingParameters{" +
+        "rerankingStrategy=" + rerankingStrategy +
+        ", overFetchFactor=" + overFetchFactor +
+        ", mmrLambda=" + mmrLambda +
+        '}';
+  }
+}
@@ -0,0 +1,72 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class SearchTuningParameters {
+
+  @Parameter
+  @Alias("efSearch")
+  @DisplayName("HNSW EF Search")
+  @Summary("Size of the candidate list explored in HNSW indexes for this query. Higher values improve recall at " +
+      "the cost of latency. Applies to stores searched through an HNSW index.")
+  @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private Integer efSearch;
+
+  @Parameter
+  @Alias("probes")
+  @DisplayName("IVFFlat Probes")
+  @Summary("Number of inverted lists probed in IVFFlat indexes for this query. Higher values improve recall at the " +
+      "cost of latency. Applies to PGVector stores searched through an IVFFlat index.")
+  @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private Integer probes;
+
+  @Parameter
+  @Alias("exactSearch")
+  @DisplayName("Exact Search")
+  @Summary("Bypasses the approximate nearest neighbor index and compares the query with every embedding.")
+  @Placement(order = 3, tab = Placement.ADVANCED_TAB)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean exactSearch;
+
+  public Integer getEfSearch() {
+    return efSearch;
+  }
+
+  public Integer getProbes() {
+    return probes;
+  }
+
+  public boolean isExactSearch() {
+    return exactSearch;
+  }
+
+  /**
+   * Whether any tuning differs from the store defaults.
+   *
+   * @return true if at least one parameter is set
+   */
+  public boolean isSet() {
+    return efSearch != null || probes != null || exactSearch;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchTuningParameters{" +
+        "efSearch=" + efSearch +
+        ", probes=" + probes +
+        ", exactSearch=" + exactSearch +
+        '}';
+  }
+}
@@ -0,0 +1,146 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the matches returned by several stores for the same query into a global top-k.
+ * <p>
+ * Scores are first normalized per store with a {@link ScoreNormalization} strategy, so that stores using different
+ * distance metrics can be compared, then the best k matches are selected with a bounded min-heap.
+ * </p>
+ */
+public final class FederatedResultMerger {
+
+  private static final Comparator<FederatedMatch> BY_SCORE = Comparator.comparingDouble(FederatedMatch::getScore);
+
+  private FederatedResultMerger() {}
+
+  /**
+   * Merges the matches of several stores.
+   *
+   * @param matchesByStore the matches returned by each store, keyed by store name
+   * @param maxResults     the maximum number of merged matches
+   * @param normalization  the score normalization applied to the matches of each store
+   * @return the merged matches, sorted by descending normalized score
+   */
+  public static List<FederatedMatch> merge(Map<String, List<EmbeddingMatch<TextSegment>>> matchesByStore,
+                                           int maxResults, ScoreNormalization normalization) {
+
+    if (maxResults <= 0) {
+      return Collections.emptyList();
+    }
+
+    PriorityQueue<FederatedMatch> heap = new PriorityQueue<>(maxResults + 1, BY_SCORE);
+
+    for (Map.Entry<String, List<EmbeddingMatch<TextSegment>>> storeMatches : matchesByStore.entrySet()) {
+
+      List<EmbeddingMatch<TextSegment>> matches = storeMatches.getValue();
+      double[] scores = normalize(matches, normalization);
+
+      for (int i = 0; i < scores.length; i++) {
+
+        if (heap.size() < maxResults) {
+
+          heap.add(new FederatedMatch(storeMatches.getKey(), matches.get(i), scores[i]));
+
+        } else if (scores[i] > heap.peek().getScore()) {
+
+          heap.poll();
+          heap.add(new FederatedMatch(storeMatches.getKey(), matches.get(i), scores[i]));
+        }
+      }
+    }
+
+    List<FederatedMatch> merged = new ArrayList<>(heap);
+    merged.sort(BY_SCORE.reversed());
+    return merged;
+  }
+
+  private static double[] normalize(List<EmbeddingMatch<TextSegment>> matches, ScoreNormalization normalization) {
+
+    double[] scores = new double[matches.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = matches.get(i).score();
+    }
+    if (scores.length == 0) {
+      return scores;
+    }
+
+    switch (normalization) {
+
+      case MIN_MAX:
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+          min = Math.min(min, score);
+          max = Math.max(max, score);
+        }
+        double range = max - min;
+        for (int i = 0; i < scores.length; i++) {
+          // A store returning equal scores only has no spread to rescale: its matches are all considered the best
+          scores[i] = range > 0 ? (scores[i] - min) / range : 1d;
+        }
+        break;
+
+      case Z_SCORE:
+
+        double sum = 0;
+        for (double score : scores) {
+          sum += score;
+        }
+        double mean = sum / scores.length;
+        double sumOfSquares = 0;
+        for (double score : scores) {
+          sumOfSquares += (score - mean) * (score - mean);
+        }
+        double standardDeviation = Math.sqrt(sumOfSquares / scores.length);
+        for (int i = 0; i < scores.length; i++) {
+          double zScore = standardDeviation > 0 ? (scores[i] - mean) / standardDeviation : 0d;
+          scores[i] = 1d / (1d + Math.exp(-zScore));
+        }
+        break;
+
+      case NONE:
+      default:
+        break;
+    }
+    return scores;
+  }
+
+  /**
+   * A match returned by a store, with its normalized score.
+   */
+  public static final class FederatedMatch {
+
+    private final String storeName;
+    private final EmbeddingMatch<TextSegment> match;
+    private final double score;
+
+    private FederatedMatch(String storeName, EmbeddingMatch<TextSegment> match, double score) {
+      this.storeName = storeName;
+      this.match = match;
+      this.score = score;
+    }
+
+    public String getStoreName() {
+      return storeName;
+    }
+
+    public EmbeddingMatch<TextSegment> getMatch() {
+      return match;
+    }
+
+    public double getScore() {
+      return score;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The search of one store of a federated query, run on a shared executor.
+ * <p>
+ * The timeout of the search is counted from the moment it starts running, not from its submission, so that time
+ * spent queued behind other work of the executor is not charged to the store. A search still queued once the timeout
+ * has elapsed since its submission is cancelled and never runs, which callers report apart from searches that ran and
+ * timed out.
+ * </p>
+ *
+ * @param <T> the type of the search result
+ */
+public final class FederatedSearch<T> implements Callable<T> {
+
+  private static final int QUEUED = 0;
+  private static final int RUNNING = 1;
+  private static final int CANCELLED = 2;
+
+  private final Callable<T> search;
+  private final AtomicInteger state = new AtomicInteger(QUEUED);
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  private volatile long submitTime;
+  private volatile long startTime;
+  private volatile long endTime;
+  private volatile Future<T> future;
+
+  public FederatedSearch(Callable<T> search) {
+    this.search = search;
+  }
+
+  /**
+   * Submits the search to the executor.
+   *
+   * @param executor the executor running the search
+   */
+  public void submit(ExecutorService executor) {
+
+    submitTime = System.nanoTime();
+    future = executor.submit(this);
+  }
+
+  @Override
+  public T call() throws Exception {
+
+    if (!state.compareAndSet(QUEUED, RUNNING)) {
+      throw new CancellationException("Search cancelled before it started");
+    }
+
+    startTime = System.nanoTime();
+    started.countDown();
+    try {
+
+      return search.call();
+
+    } finally {
+
+      endTime = System.nanoTime();
+    }
+  }
+
+  /**
+   * Waits for the result of the search.
+   *
+   * @param timeout the maximum time to wait for the search to start, counted from its submission, and then for the
+   *                search to complete, counted from its start
+   * @param unit    the unit of the timeout
+   * @return the result of the search
+   * @throws CancellationException if the search did not start in time, it then never runs
+   * @throws TimeoutException      if the search started but did not complete in time, it is then interrupted
+   * @throws ExecutionException    if the search failed
+   * @throws InterruptedException  if the current thread was interrupted while waiting
+   */
+  public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+
+    long timeoutNanos = unit.toNanos(timeout);
+
+    if (!started.await(Math.max(0, submitTime + timeoutNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+
+      if (state.compareAndSet(QUEUED, CANCELLED)) {
+
+        future.cancel(false);
+        throw new CancellationException("Search still queued after " + unit.toMillis(timeout) + " ms");
+      }
+      // The search started in the meantime
+      started.await();
+    }
+
+    try {
+
+      return future.get(Math.max(0, startTime + timeoutNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+    } catch (TimeoutException e) {
+
+      future.cancel(true);
+      throw e;
+    }
+  }
+
+  /**
+   * Cancels the search, interrupting it if it is running.
+   */
+  public void cancel() {
+
+    state.compareAndSet(QUEUED, CANCELLED);
+    if (future != null) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Retrieves the time the search has been running, until it completed or until now.
+   *
+   * @return the running time of the search, in milliseconds, 0 if it never started
+   */
+  public long getElapsedMillis() {
+
+    if (started.getCount() > 0) {
+      return 0;
+    }
+    long end = endTime;
+    return TimeUnit.NANOSECONDS.toMillis((end != 0 ? end : System.nanoTime()) - startTime);
+  }
+}
@@ -0,0 +1,146 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maximal Marginal Relevance re-ranker.
+ * <p>
+ * Candidates are selected one at a time, each maximizing {@code lambda * relevance - (1 - lambda) * redundancy},
+ * where the relevance is the score returned by the store and the redundancy is the highest cosine similarity with the
+ * candidates already selected. Redundancies are maintained incrementally, so selecting k out of n candidates of
+ * dimension d costs O(k * n * d) multiply-adds over primitive arrays.
+ * </p>
+ * <p>
+ * Redundancies are computed from the embeddings of the candidates, which some stores do not return: candidates
+ * without their embedding are rejected rather than silently ranked by relevance only, callers check them first with
+ * {@link #hasEmbeddings(List)}.
+ * </p>
+ */
+public final class MmrReranker {
+
+  private MmrReranker() {}
+
+  /**
+   * Checks whether the candidates can be re-ranked, that is whether all of them were returned with their embedding.
+   *
+   * @param candidates the candidates returned by the store
+   * @return true if every candidate has an embedding
+   */
+  public static boolean hasEmbeddings(List<EmbeddingMatch<TextSegment>> candidates) {
+
+    for (EmbeddingMatch<TextSegment> candidate : candidates) {
+      if (candidate.embedding() == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Selects the top results among the candidates with Maximal Marginal Relevance.
+   *
+   * @param candidates the candidates returned by the store
+   * @param maxResults the maximum number of results to select
+   * @param lambda     the trade-off between relevance (1) and diversity (0)
+   * @return the selected candidates, in selection order
+   * @throws IllegalArgumentException if lambda is not between 0 and 1 or a candidate has no embedding
+   */
+  public static List<EmbeddingMatch<TextSegment>> rerank(List<EmbeddingMatch<TextSegment>> candidates,
+                                                         int maxResults, double lambda) {
+
+    if (lambda < 0 || lambda > 1) {
+      throw new IllegalArgumentException(String.format("lambda must be between 0 and 1. Received: %s", lambda));
+    }
+
+    int candidateCount = candidates.size();
+    int resultCount = Math.min(maxResults, candidateCount);
+    if (resultCount <= 0) {
+      return Collections.emptyList();
+    }
+
+    double[] relevances = new double[candidateCount];
+    float[][] vectors = new float[candidateCount][];
+    for (int i = 0; i < candidateCount; i++) {
+
+      EmbeddingMatch<TextSegment> candidate = candidates.get(i);
+      relevances[i] = candidate.score() != null ? candidate.score() : 0d;
+      Embedding embedding = candidate.embedding();
+      if (embedding == null) {
+        throw new IllegalArgumentException(String.format("The candidate %s has no embedding", candidate.embeddingId()));
+      }
+      vectors[i] = normalize(embedding.vector());
+    }
+
+    double[] redundancies = new double[candidateCount];
+    boolean[] selected = new boolean[candidateCount];
+    List<EmbeddingMatch<TextSegment>> results = new ArrayList<>(resultCount);
+
+    for (int round = 0; round < resultCount; round++) {
+
+      int best = -1;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < candidateCount; i++) {
+
+        if (selected[i]) {
+          continue;
+        }
+        double score = lambda * relevances[i] - (1 - lambda) * redundancies[i];
+        if (score > bestScore) {
+
+          best = i;
+          bestScore = score;
+        }
+      }
+
+      selected[best] = true;
+      results.add(candidates.get(best));
+
+      float[] bestVector = vectors[best];
+      for (int i = 0; i < candidateCount; i++) {
+
+        if (!selected[i] && vectors[i].length == bestVector.length) {
+
+          double similarity = dotProduct(vectors[i], bestVector);
+          if (similarity > redundancies[i]) {
+            redundancies[i] = similarity;
+          }
+        }
+      }
+    }
+
+    return results;
+  }
+
+  private static float[] normalize(float[] vector) {
+
+    double sumOfSquares = 0;
+    for (int i = 0; i < vector.length; i++) {
+      sumOfSquares += vector[i] * vector[i];
+    }
+
+    float[] normalized = new float[vector.length];
+    if (sumOfSquares > 0) {
+
+      float inverseNorm = (float) (1 / Math.sqrt(sumOfSquares));
+      for (int i = 0; i < vector.length; i++) {
+        normalized[i] = vector[i] * inverseNorm;
+      }
+    }
+    return normalized;
+  }
+
+  private static double dotProduct(float[] a, float[] b) {
+
+    float dotProduct = 0f;
+    for (int i = 0; i < a.length; i++) {
+      dotProduct += a[i] * b[i];
+    }
+    return dotProduct;
+  }
+}
@@ -0,0 +1,22 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+/**
+ * Re-ranking strategies applied client side to the candidates returned by a store.
+ */
+public enum RerankingStrategy {
+
+  /**
+   * Results are returned in the order of the store.
+   */
+  NONE,
+
+  /**
+   * Candidates are sorted by descending store score.
+   */
+  SCORE,
+
+  /**
+   * Candidates are selected with Maximal Marginal Relevance, trading relevance against diversity.
+   */
+  MMR
+}
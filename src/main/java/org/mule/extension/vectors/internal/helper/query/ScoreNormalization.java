@@ -0,0 +1,23 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+/**
+ * Strategies used to make the scores of matches returned by different stores comparable before merging them.
+ */
+public enum ScoreNormalization {
+
+  /**
+   * Scores are merged as returned by the stores.
+   */
+  NONE,
+
+  /**
+   * Scores of each store are rescaled to [0, 1] using the minimum and maximum scores returned by that store.
+   */
+  MIN_MAX,
+
+  /**
+   * Scores of each store are standardized using the mean and standard deviation of the scores returned by that store,
+   * then mapped to (0, 1) with the logistic function.
+   */
+  Z_SCORE
+}
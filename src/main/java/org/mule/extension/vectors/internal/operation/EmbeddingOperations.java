@@ -13,7 +13,7 @@ import java.util.stream.IntStream;
 
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
-import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.internal.ValidationUtils;
 import dev.langchain4j.model.output.Response;
 import org.apache.commons.io.IOUtils;
 import org.bouncycastle.oer.Switch;
@@ -34,6 +34,8 @@ import org.mule.extension.vectors.internal.helper.parameter.*;
 import org.mule.extension.vectors.internal.helper.provider.MediaTypeProvider;
 import org.mule.extension.vectors.internal.model.BaseModel;
 import org.mule.extension.vectors.internal.model.multimodal.EmbeddingMultimodalModel;
+import org.mule.extension.vectors.internal.util.EmbeddingPayloadParser;
+import org.mule.extension.vectors.internal.util.JsonUtils;
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.Expression;
@@ -173,14 +175,7 @@ public class EmbeddingOperations {
 
       jsonObject.put(Constants.JSON_KEY_TEXT_SEGMENTS, jsonTextSegments);
 
-      List<Embedding> finalEmbeddings = embeddings;
-      JSONArray jsonEmbeddings = IntStream.range(0, embeddings.size())
-          .mapToObj(i -> {
-            return finalEmbeddings.get(i).vector();
-          })
-          .collect(JSONArray::new, JSONArray::put, JSONArray::putAll);
-
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      JsonUtils.putEmbeddings(jsonObject, embeddings, embeddingModelParameters.getEmbeddingEncoding());
 
       jsonObject.put(Constants.JSON_KEY_DIMENSION, dimension);
 
@@ -232,8 +227,6 @@ public class EmbeddingOperations {
 
     try {
 
-      String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
-
       BaseModel baseModel = BaseModel.builder()
           .configuration(embeddingConfiguration)
           .connection(modelConnection)
@@ -242,20 +235,11 @@ public class EmbeddingOperations {
 
       EmbeddingModel embeddingModel = baseModel.buildEmbeddingModel();
 
-      List<TextSegment> textSegments = new LinkedList<>();
+      List<TextSegment> textSegments = ValidationUtils.ensureNotNull(EmbeddingPayloadParser.parse(content).getTextSegments(),
+                                                                     Constants.JSON_KEY_TEXT_SEGMENTS);
       List<Embedding> embeddings;
       TokenUsage tokenUsage;
 
-      JSONObject jsonObject = new JSONObject(contentString);
-      JSONArray jsonTextSegments = jsonObject.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-
-      IntStream.range(0, jsonTextSegments.length())
-          .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-          .forEach(jsonTextSegment -> {
-            Metadata metadata = Metadata.from(jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap());
-            textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-          });
-
       try {
 
         Response<List<Embedding>> response = embeddingModel.embedAll(textSegments);
@@ -278,13 +262,20 @@ public class EmbeddingOperations {
             e);
       }
 
-      JSONArray jsonEmbeddings = IntStream.range(0, embeddings.size())
-          .mapToObj(i -> {
-            return embeddings.get(i).vector();
+      JSONObject jsonObject = new JSONObject();
+
+      JSONArray jsonTextSegments = textSegments.stream()
+          .map(textSegment -> {
+            JSONObject jsonSegment = new JSONObject();
+            jsonSegment.put(Constants.JSON_KEY_TEXT, textSegment.text());
+            jsonSegment.put(Constants.JSON_KEY_METADATA, new JSONObject(textSegment.metadata().toMap()));
+            return jsonSegment;
           })
           .collect(JSONArray::new, JSONArray::put, JSONArray::putAll);
 
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      jsonObject.put(Constants.JSON_KEY_TEXT_SEGMENTS, jsonTextSegments);
+
+      JsonUtils.putEmbeddings(jsonObject, embeddings, embeddingModelParameters.getEmbeddingEncoding());
 
       jsonObject.put(Constants.JSON_KEY_DIMENSION, embeddingModel.dimension());
 
@@ -352,7 +343,7 @@ public class EmbeddingOperations {
 
       jsonObject.put(Constants.JSON_KEY_TEXT_SEGMENTS, jsonTextSegments);
 
-      JSONArray jsonEmbeddings = new JSONArray();
+      Embedding embedding;
 
       // Convert InputStream to byte array
       byte[] mediaBytes = IOUtils.toByteArray(mediaBinaryParameters.getBinaryInputStream());
@@ -382,13 +373,12 @@ public class EmbeddingOperations {
         Response<Embedding> response = mediaBinaryParameters.getLabel() != null && !mediaBinaryParameters.getLabel().isEmpty() ?
             multimodalEmbeddingModel.embedTextAndImage(mediaBinaryParameters.getLabel(), mediaBytes) :
             multimodalEmbeddingModel.embedImage(mediaBytes);
-        Embedding embedding = response.content();
+        embedding = response.content();
         tokenUsage = response.tokenUsage() != null ?
             new TokenUsage(response.tokenUsage().inputTokenCount() != null ? response.tokenUsage().inputTokenCount() : 0,
                            response.tokenUsage().outputTokenCount() != null ? response.tokenUsage().outputTokenCount() : 0,
                            response.tokenUsage().totalTokenCount() != null ? response.tokenUsage().totalTokenCount(): 0)
             : null;
-        jsonEmbeddings.put(embedding.vector());
       } else {
 
         throw new ModuleException(
@@ -396,7 +386,7 @@ public class EmbeddingOperations {
             MuleVectorsErrorType.EMBEDDING_OPERATIONS_FAILURE);
       }
 
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      JsonUtils.putEmbeddings(jsonObject, Collections.singletonList(embedding), embeddingModelParameters.getEmbeddingEncoding());
 
       jsonObject.put(Constants.JSON_KEY_DIMENSION, multimodalEmbeddingModel.dimension());
 
@@ -488,10 +478,7 @@ public class EmbeddingOperations {
             MuleVectorsErrorType.EMBEDDING_OPERATIONS_FAILURE);
       }
 
-      JSONArray jsonEmbeddings = new JSONArray();
-      jsonEmbeddings.put(embedding.vector());
-
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      JsonUtils.putEmbeddings(jsonObject, Collections.singletonList(embedding), embeddingModelParameters.getEmbeddingEncoding());
 
       jsonObject.put(Constants.JSON_KEY_DIMENSION, multimodalEmbeddingModel.dimension());
 
@@ -1,5 +1,6 @@
 package org.mule.extension.vectors.internal.operation;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
@@ -9,40 +10,71 @@ import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.filter.Filter;
-import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.mule.extension.vectors.api.metadata.StoreResponseAttributes;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.QueryResultCache;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.error.provider.StoreErrorTypeProvider;
+import org.mule.extension.vectors.internal.helper.metadata.MetadataFilterHelper;
 import org.mule.extension.vectors.internal.helper.model.EmbeddingOperationValidator;
+import org.mule.extension.vectors.internal.helper.query.FederatedResultMerger;
+import org.mule.extension.vectors.internal.helper.query.FederatedSearch;
+import org.mule.extension.vectors.internal.helper.query.MmrReranker;
+import org.mule.extension.vectors.internal.helper.query.RerankingStrategy;
+import org.mule.extension.vectors.internal.helper.query.ScoreNormalization;
 import org.mule.extension.vectors.internal.helper.parameter.CustomMetadata;
+import org.mule.extension.vectors.internal.helper.parameter.IngestionParameters;
 import org.mule.extension.vectors.internal.helper.parameter.MetadataFilterParameters;
+import org.mule.extension.vectors.internal.helper.parameter.NamespaceParameters;
+import org.mule.extension.vectors.internal.helper.parameter.QueryCacheParameters;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.RemovalParameters;
+import org.mule.extension.vectors.internal.helper.parameter.RerankingParameters;
+import org.mule.extension.vectors.internal.helper.parameter.SearchTuningParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
+import org.mule.extension.vectors.internal.store.IngestionMode;
+import org.mule.extension.vectors.internal.util.EmbeddingPayloadParser;
+import org.mule.extension.vectors.internal.util.GeneratedJsonInputStream;
 import org.mule.extension.vectors.internal.util.JsonUtils;
 import org.mule.extension.vectors.internal.util.MetadataUtils;
+import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
 import org.mule.runtime.extension.api.annotation.error.Throws;
 import org.mule.runtime.extension.api.annotation.metadata.fixed.InputJsonType;
 import org.mule.runtime.extension.api.annotation.metadata.fixed.OutputJsonType;
 import org.mule.runtime.extension.api.annotation.param.*;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
 import org.mule.runtime.extension.api.annotation.param.display.Summary;
 import org.mule.runtime.extension.api.exception.ModuleException;
 import org.mule.runtime.extension.api.runtime.operation.Result;
+import org.mule.runtime.extension.api.runtime.streaming.StreamingHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static java.util.stream.Collectors.joining;
 import static org.mule.extension.vectors.internal.helper.ResponseHelper.*;
@@ -65,6 +97,10 @@ public class StoreOperations {
    * @param maxResults         the maximum number of results to retrieve
    * @param minScore           the minimum score to filter results
    * @param searchFilterParams the search filter parameters
+   * @param queryCacheParams   the query result cache parameters
+   * @param rerankingParams    the re-ranking parameters
+   * @param searchTuningParams the per-query search tuning parameters
+   * @param namespaceParams    the namespaces of the store to query
    * @return a result containing the store response
    * @throws ModuleException if an error occurs during the operation
    */
@@ -84,12 +120,17 @@ public class StoreOperations {
           @Content InputStream content,
       @Alias("maxResults") @Summary("Maximum number of results (text segments) retrieved.") Number maxResults,
       @Alias("minScore") @Summary("Minimum score used to filter retrieved results (text segments).") Double minScore,
-      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams) {
-
-    List<TextSegment> textSegments = new LinkedList<>();
-    List<Embedding> embeddings = new LinkedList<>();
+      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams,
+      @ParameterGroup(name = "Query Cache") QueryCacheParameters queryCacheParams,
+      @ParameterGroup(name = "Re-ranking") RerankingParameters rerankingParams,
+      @ParameterGroup(name = "Search Tuning") SearchTuningParameters searchTuningParams,
+      @ParameterGroup(name = "Namespaces") NamespaceParameters namespaceParams) {
+
+    List<TextSegment> textSegments = Collections.emptyList();
+    List<Embedding> embeddings;
     int dimension;
 
+    BaseStore baseStore = null;
     try {
 
       int maximumResults = maxResults.intValue();
@@ -97,51 +138,266 @@ public class StoreOperations {
 
       try {
 
-        String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
-        JSONObject jsonContent = new JSONObject(contentString);
+        EmbeddingPayloadParser.EmbeddingPayload payload = EmbeddingPayloadParser.parse(content);
 
-        if (jsonContent.has(Constants.JSON_KEY_TEXT_SEGMENTS)) {
+        if (payload.hasTextSegments()) {
 
-          JSONArray jsonTextSegments = jsonContent.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-          IntStream.range(0, jsonTextSegments.length())
-              .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-              .forEach(jsonTextSegment -> {
-                HashMap<String, Object> metadataMap =
-                    (HashMap<String, Object>) jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap();
-                Metadata metadata = Metadata.from(metadataMap);
-                textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-              });
+          textSegments = payload.getTextSegments();
 
-          if (jsonTextSegments.length() != 1) {
+          if (textSegments.size() != 1) {
 
             throw new ModuleException(
-                String.format("You must provide one text segment only. Received: %s", String.valueOf(jsonTextSegments.length())),
+                String.format("You must provide one text segment only. Received: %s", String.valueOf(textSegments.size())),
                 MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
           }
         }
 
-        JSONArray jsonEmbeddings = jsonContent.getJSONArray(Constants.JSON_KEY_EMBEDDINGS);
-        IntStream.range(0, jsonEmbeddings.length())
-            .mapToObj(jsonEmbeddings::getJSONArray) // Convert index to JSONObject
-            .forEach(jsonEmbedding -> {
+        embeddings = payload.getEmbeddings();
+        if(embeddings == null || embeddings.size() != 1) {
 
-              // Convert JSONArray to float[]
-              float[] floatArray = new float[jsonEmbedding.length()];
-              for (int i = 0; i < jsonEmbedding.length(); i++) {
-                floatArray[i] = (float) jsonEmbedding.getDouble(i);
-              }
-              embeddings.add(new Embedding(floatArray));
-            });
+          throw new ModuleException(String.format("You must provide one embedding only. Received: %s",
+                                                  String.valueOf(embeddings == null ? 0 : embeddings.size())),
+                                    MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
 
-        if(embeddings.size() != 1) {
+        dimension = ValidationUtils.ensureNotNull(payload.getDimension(), Constants.JSON_KEY_DIMENSION);
+        ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
 
-          throw new ModuleException(String.format("You must provide one embedding only. Received: %s", String.valueOf(embeddings.size())),
-                                    MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+      } catch (Exception e) {
+
+        throw new ModuleException(
+            String.format("Error while parsing Text Segments and Embeddings input."),
+            MuleVectorsErrorType.INVALID_PARAMETERS_ERROR,
+            e);
+      }
+
+      List<String> namespaces = validateNamespaces(namespaceParams, storeConnection);
+
+      RerankingStrategy rerankingStrategy = rerankingParams != null ? rerankingParams.getRerankingStrategy() : RerankingStrategy.NONE;
+
+      baseStore = BaseStore.builder()
+          .storeName(storeName)
+          .connection(storeConnection)
+          .dimension(dimension)
+          .createStore(false)
+          .namespaces(namespaces)
+          .retrieveEmbeddings(rerankingStrategy == RerankingStrategy.MMR)
+          .build();
+
+      Filter filter = null;
+      if(searchFilterParams != null && searchFilterParams.isConditionSet()) {
+
+        EmbeddingOperationValidator.validateOperationType(
+            Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+        filter = searchFilterParams.buildMetadataFilter();
+      }
+
+      int fetchedResults = maximumResults;
+      if(rerankingStrategy != RerankingStrategy.NONE) {
+
+        if(rerankingParams.getOverFetchFactor() < 1) {
+
+          throw new ModuleException(
+              String.format("The over-fetch factor must be at least 1. Received: %s", rerankingParams.getOverFetchFactor()),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+        fetchedResults = maximumResults * rerankingParams.getOverFetchFactor();
+      }
+
+      QueryResultCache queryResultCache = storeConnection.getQueryResultCache();
+      boolean cacheEnabled = queryCacheParams != null && queryCacheParams.isCacheEnabled();
+
+      float[] queryVector = embeddings.get(0).vector();
+      QueryResultCache.Key cacheKey = null;
+      long cacheGeneration = 0;
+      QueryResultCache.Hit cacheHit = null;
+
+      if(cacheEnabled) {
+
+        Double similarityThreshold = queryCacheParams.getSemanticSimilarityThreshold();
+        if(similarityThreshold != null && (similarityThreshold <= 0 || similarityThreshold > 1)) {
+
+          throw new ModuleException(
+              String.format("The semantic similarity threshold must be greater than 0 and at most 1. Received: %s", similarityThreshold),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+
+        cacheKey = QueryResultCache.key(storeName, queryVector, fetchedResults, minScore, filter, searchTuningParams,
+                                        namespaces);
+        cacheGeneration = queryResultCache.getGeneration(storeName);
+        cacheHit = queryResultCache.get(cacheKey, queryVector, similarityThreshold);
+        if(cacheHit != null && rerankingStrategy == RerankingStrategy.MMR && !MmrReranker.hasEmbeddings(cacheHit.getMatches())) {
+
+          // Results cached by a query which did not retrieve the embeddings cannot be re-ranked
+          cacheHit = null;
+        }
+      }
+
+      List<EmbeddingMatch<TextSegment>> embeddingMatches;
+      if(cacheHit != null) {
+
+        embeddingMatches = cacheHit.getMatches();
+
+      } else {
+
+        embeddingMatches = search(baseStore, embeddings.get(0), fetchedResults, minScore, filter, searchTuningParams);
+        if(cacheEnabled) {
+
+          queryResultCache.put(cacheKey, queryVector, embeddingMatches,
+                               TimeUnit.SECONDS.toMillis(queryCacheParams.getCacheTtlInSeconds()), cacheGeneration);
         }
+      }
+
+      long rerankStartTime = System.nanoTime();
+      boolean reranked = false;
+      switch(rerankingStrategy) {
+
+        case MMR:
+          if(MmrReranker.hasEmbeddings(embeddingMatches)) {
+
+            embeddingMatches = MmrReranker.rerank(embeddingMatches, maximumResults, rerankingParams.getMmrLambda());
+            reranked = true;
+
+          } else {
+
+            LOGGER.warn(String.format("The store %s did not return the embeddings of the matches, which are not re-ranked with MMR",
+                                      storeName));
+            embeddingMatches = embeddingMatches.subList(0, Math.min(maximumResults, embeddingMatches.size()));
+          }
+          break;
+
+        case SCORE:
+          embeddingMatches = new ArrayList<>(embeddingMatches);
+          embeddingMatches.sort(Comparator.comparing(EmbeddingMatch<TextSegment>::score, Comparator.nullsLast(Comparator.reverseOrder())));
+          embeddingMatches = embeddingMatches.subList(0, Math.min(maximumResults, embeddingMatches.size()));
+          reranked = true;
+          break;
+
+        case NONE:
+        default:
+          break;
+      }
+      boolean matchesReranked = reranked;
+      double rerankTimeMillis = (System.nanoTime() - rerankStartTime) / 1_000_000d;
+
+      boolean queryCacheHit = cacheHit != null;
+      boolean queryCacheSemanticHit = cacheHit != null && cacheHit.isSemantic();
+
+      JSONObject jsonObject = toQueryResponseJson(embeddingMatches, textSegments.size() == 1 ? textSegments.get(0) : null,
+                                                  maximumResults, minScore);
+      jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+
+      return createStoreResponse(
+          jsonObject,
+          new HashMap<String, Object>() {{
+            put("storeName", storeName);
+            put("searchFilter", searchFilterParams);
+            put("namespaces", namespaces);
+            put("embeddingStoreCache", storeConnection.getEmbeddingStoreCache().getStatistics());
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
+            put("queryCacheHit", queryCacheHit);
+            put("queryCacheSemanticHit", queryCacheSemanticHit);
+            put("rerankingStrategy", rerankingStrategy);
+            put("reranked", matchesReranked);
+            put("rerankTimeMillis", rerankTimeMillis);
+            put("queryCache", queryResultCache.getStatistics());
+          }});
+
+    } catch (ModuleException me) {
+      throw me;
+
+    } catch (Exception e) {
 
-        dimension = jsonContent.getInt(Constants.JSON_KEY_DIMENSION);
+      throw new ModuleException(
+          String.format("Error while querying embeddings from the store %s", storeName),
+          MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
+          e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
+    }
+  }
+
+  /**
+   * Queries an embedding store with several embeddings at once. The searches run concurrently on the bounded query
+   * executor of the connection against a single cached embedding store, and results are returned in input order.
+   * A failing search does not fail the operation: its error is reported in the corresponding result.
+   *
+   * @param storeConfiguration the configuration of the store
+   * @param storeConnection    the connection to the store
+   * @param storeName          the name of the store to query
+   * @param content            the input stream containing the text segments and embeddings
+   * @param queryOptions       the input stream containing the optional per query options
+   * @param maxResults         the default maximum number of results to retrieve per query
+   * @param minScore           the default minimum score to filter results
+   * @param searchFilterParams the default search filter parameters
+   * @return a result containing the store response
+   * @throws ModuleException if an error occurs during the operation
+   */
+  @MediaType(value = APPLICATION_JSON, strict = false)
+  @Alias("Query-batch")
+  @DisplayName("[Store] Query batch")
+  @Throws(StoreErrorTypeProvider.class)
+  @OutputJsonType(schema = "api/metadata/StoreQueryBatchResponse.json")
+  public Result<InputStream, StoreResponseAttributes> queryBatch(
+      @Config StoreConfiguration storeConfiguration,
+      @Connection BaseStoreConnection storeConnection,
+      @Alias("storeName") @Summary("Name of the store/collection to query.") String storeName,
+      @Alias("textSegmentsAndEmbeddings")
+          @Summary("Text Segments and Embeddings generated from questions and used to query the store.")
+          @DisplayName("Text Segments and Embeddings")
+          @InputJsonType(schema = "api/metadata/EmbeddingGenerateResponse.json")
+          @Content InputStream content,
+      @Alias("queryOptions")
+          @Summary("Per query options (maxResults, minScore, condition), matched by position with the embeddings. " +
+              "Options not set fall back to the operation parameters.")
+          @DisplayName("Query Options")
+          @InputJsonType(schema = "api/metadata/StoreQueryBatchOptions.json")
+          @Optional @Content InputStream queryOptions,
+      @Alias("maxResults") @Summary("Default maximum number of results (text segments) retrieved per query.") Number maxResults,
+      @Alias("minScore") @Summary("Default minimum score used to filter retrieved results (text segments).") Double minScore,
+      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams) {
+
+    List<TextSegment> textSegments;
+    List<Embedding> embeddings;
+    JSONArray jsonQueryOptions;
+    int dimension;
+
+    BaseStore baseStore = null;
+    try {
+
+      if (minScore == null) { minScore = Constants.EMBEDDING_SEARCH_REQUEST_DEFAULT_MIN_SCORE; }
+
+      try {
+
+        EmbeddingPayloadParser.EmbeddingPayload payload = EmbeddingPayloadParser.parse(content);
+
+        embeddings = ValidationUtils.ensureNotEmpty(payload.getEmbeddings(), Constants.JSON_KEY_EMBEDDINGS);
+
+        textSegments = payload.hasTextSegments() ? payload.getTextSegments() : Collections.emptyList();
+        if (!textSegments.isEmpty() && textSegments.size() != embeddings.size()) {
+
+          throw new ModuleException(
+              String.format("The number of text segments (%s) must match the number of embeddings (%s).",
+                            textSegments.size(), embeddings.size()),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+
+        dimension = ValidationUtils.ensureNotNull(payload.getDimension(), Constants.JSON_KEY_DIMENSION);
         ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
 
+        jsonQueryOptions = queryOptions != null ? new JSONArray(new JSONTokener(queryOptions)) : new JSONArray();
+        if (jsonQueryOptions.length() > embeddings.size()) {
+
+          throw new ModuleException(
+              String.format("The number of query options (%s) exceeds the number of embeddings (%s).",
+                            jsonQueryOptions.length(), embeddings.size()),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+
       } catch (Exception e) {
 
         throw new ModuleException(
@@ -150,70 +406,331 @@ public class StoreOperations {
             e);
       }
 
-      BaseStore baseStore = BaseStore.builder()
+      boolean filterByMetadata = searchFilterParams != null && searchFilterParams.isConditionSet();
+      for (int i = 0; i < jsonQueryOptions.length() && !filterByMetadata; i++) {
+
+        JSONObject jsonQueryOption = jsonQueryOptions.optJSONObject(i);
+        filterByMetadata = jsonQueryOption != null && jsonQueryOption.has(Constants.JSON_KEY_CONDITION);
+      }
+      if (filterByMetadata) {
+
+        EmbeddingOperationValidator.validateOperationType(
+            Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+      }
+
+      baseStore = BaseStore.builder()
           .storeName(storeName)
           .connection(storeConnection)
           .dimension(dimension)
           .createStore(false)
           .build();
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
+      // Built once on the calling thread so that concurrent searches share the same cached store
+      BaseStore batchStore = baseStore;
+      batchStore.getEmbeddingStore();
+
+      ExecutorService executor = storeConnection.getQueryExecutor();
+      List<Future<JSONObject>> futures = new ArrayList<>(embeddings.size());
+
+      for (int i = 0; i < embeddings.size(); i++) {
+
+        int index = i;
+        JSONObject jsonQueryOption = jsonQueryOptions.optJSONObject(i);
+        int itemMaxResults = jsonQueryOption != null && jsonQueryOption.has(Constants.JSON_KEY_MAX_RESULTS) ?
+            jsonQueryOption.getInt(Constants.JSON_KEY_MAX_RESULTS) : maxResults.intValue();
+        double itemMinScore = jsonQueryOption != null && jsonQueryOption.has(Constants.JSON_KEY_MIN_SCORE) ?
+            jsonQueryOption.getDouble(Constants.JSON_KEY_MIN_SCORE) : minScore;
+        String itemCondition = jsonQueryOption != null && jsonQueryOption.has(Constants.JSON_KEY_CONDITION) ?
+            jsonQueryOption.getString(Constants.JSON_KEY_CONDITION) : searchFilterParams != null ? searchFilterParams.getCondition() : null;
+        TextSegment question = textSegments.isEmpty() ? null : textSegments.get(i);
+
+        futures.add(executor.submit(() -> {
+
+          long startTime = System.nanoTime();
+          JSONObject jsonResult;
+
+          try {
+
+            Filter filter = itemCondition != null ? MetadataFilterHelper.fromExpression(itemCondition) : null;
+            jsonResult = toQueryResponseJson(search(batchStore, embeddings.get(index), itemMaxResults, itemMinScore, filter, null),
+                                             question, itemMaxResults, itemMinScore);
+
+          } catch (Exception e) {
+
+            LOGGER.warn(String.format("Error while running query %s of batch on store %s", index, storeName), e);
+            jsonResult = new JSONObject();
+            jsonResult.put(Constants.JSON_KEY_ERROR, e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+          }
+
+          jsonResult.put(Constants.JSON_KEY_INDEX, index);
+          jsonResult.put(Constants.JSON_KEY_ELAPSED_MILLIS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+          return jsonResult;
+        }));
+      }
+
+      JSONArray jsonResults = new JSONArray();
+      int errorCount = 0;
+
+      try {
+
+        for (Future<JSONObject> future : futures) {
+
+          JSONObject jsonResult = future.get();
+          if (jsonResult.has(Constants.JSON_KEY_ERROR)) {
+            errorCount++;
+          }
+          jsonResults.put(jsonResult);
+        }
 
-      EmbeddingSearchRequest.EmbeddingSearchRequestBuilder searchRequestBuilder = EmbeddingSearchRequest.builder()
-          .queryEmbedding(embeddings.get(0))
-          .maxResults(maximumResults)
-          .minScore(minScore);
+      } catch (InterruptedException e) {
+
+        futures.forEach(future -> future.cancel(true));
+        Thread.currentThread().interrupt();
+        throw e;
+      }
 
       JSONObject jsonObject = new JSONObject();
+      jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+      jsonObject.put(Constants.JSON_KEY_RESULTS, jsonResults);
+      jsonObject.put(Constants.JSON_KEY_RESULT_COUNT, jsonResults.length());
+      jsonObject.put(Constants.JSON_KEY_ERROR_COUNT, errorCount);
+
+      return createStoreResponse(
+          jsonObject,
+          new HashMap<String, Object>() {{
+            put("storeName", storeName);
+            put("searchFilter", searchFilterParams);
+            put("embeddingStoreCache", storeConnection.getEmbeddingStoreCache().getStatistics());
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
+          }});
+
+    } catch (ModuleException me) {
+      throw me;
+
+    } catch (Exception e) {
+
+      throw new ModuleException(
+          String.format("Error while querying embeddings from the store %s", storeName),
+          MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
+          e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
+    }
+  }
+
+  /**
+   * Queries several embedding stores of the same connection with the same embedding and merges their results.
+   * <p>
+   * The searches run concurrently on the bounded query executor of the connection. Each store gets the same timeout,
+   * counted from the start of its search; a search still queued once the timeout has elapsed is cancelled. A store
+   * that fails, times out or is cancelled is reported without failing the operation. Scores are normalized per store and the global top results are selected with a bounded heap.
+   * </p>
+   *
+   * @param storeConfiguration   the configuration of the store
+   * @param storeConnection      the connection to the stores
+   * @param storeNames           the names of the stores to query
+   * @param content              the input stream containing the text segment and embedding
+   * @param maxResults           the maximum number of merged results to retrieve
+   * @param minScore             the minimum score to filter the results of each store
+   * @param searchFilterParams   the search filter parameters
+   * @param scoreNormalization   the normalization applied to the scores of each store before merging
+   * @param storeTimeoutInMillis the timeout of the search of each store, in milliseconds
+   * @return a result containing the store response
+   * @throws ModuleException if an error occurs during the operation
+   */
+  @MediaType(value = APPLICATION_JSON, strict = false)
+  @Alias("Query-federated")
+  @DisplayName("[Store] Query federated")
+  @Throws(StoreErrorTypeProvider.class)
+  @OutputJsonType(schema = "api/metadata/StoreQueryFederatedResponse.json")
+  public Result<InputStream, StoreResponseAttributes> queryFederated(
+      @Config StoreConfiguration storeConfiguration,
+      @Connection BaseStoreConnection storeConnection,
+      @Alias("storeNames") @Summary("Names of the stores/collections to query.") List<String> storeNames,
+      @Alias("textSegmentAndEmbedding")
+          @Summary("Text Segment and Embedding generated from question and used to query the stores.")
+          @DisplayName("Text Segment and Embedding")
+          @InputJsonType(schema = "api/metadata/EmbeddingGenerateResponse.json")
+          @Content InputStream content,
+      @Alias("maxResults") @Summary("Maximum number of results (text segments) retrieved across all the stores.") Number maxResults,
+      @Alias("minScore") @Summary("Minimum score used to filter the results (text segments) retrieved from each store.") Double minScore,
+      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams,
+      @Alias("scoreNormalization") @DisplayName("Score Normalization")
+          @Summary("Normalization applied to the scores of each store before merging, so that stores using different " +
+              "distance metrics are comparable.")
+          @Placement(order = 1, tab = Placement.ADVANCED_TAB)
+          @Expression(ExpressionSupport.SUPPORTED)
+          @Optional(defaultValue = "MIN_MAX") ScoreNormalization scoreNormalization,
+      @Alias("storeTimeoutInMillis") @DisplayName("Store Timeout (Milliseconds)")
+          @Summary("Timeout of the search of each store, counted from the start of the search. Stores not answering in " +
+              "time are reported as timed out, searches not started in time are cancelled and reported as such.")
+          @Placement(order = 2, tab = Placement.ADVANCED_TAB)
+          @Expression(ExpressionSupport.SUPPORTED)
+          @Optional(defaultValue = "10000") long storeTimeoutInMillis) {
+
+    List<TextSegment> textSegments = Collections.emptyList();
+    List<Embedding> embeddings;
+    int dimension;
+
+    try {
+
+      int maximumResults = maxResults.intValue();
+      double minimumScore = minScore != null ? minScore : Constants.EMBEDDING_SEARCH_REQUEST_DEFAULT_MIN_SCORE;
+
+      if(storeNames == null || storeNames.isEmpty()) {
+
+        throw new ModuleException("You must provide at least one store name.", MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+      }
 
+      try {
+
+        EmbeddingPayloadParser.EmbeddingPayload payload = EmbeddingPayloadParser.parse(content);
+
+        if (payload.hasTextSegments()) {
+
+          textSegments = payload.getTextSegments();
+
+          if (textSegments.size() != 1) {
+
+            throw new ModuleException(
+                String.format("You must provide one text segment only. Received: %s", String.valueOf(textSegments.size())),
+                MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+          }
+        }
+
+        embeddings = payload.getEmbeddings();
+        if(embeddings == null || embeddings.size() != 1) {
+
+          throw new ModuleException(String.format("You must provide one embedding only. Received: %s",
+                                                  String.valueOf(embeddings == null ? 0 : embeddings.size())),
+                                    MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+
+        dimension = ValidationUtils.ensureNotNull(payload.getDimension(), Constants.JSON_KEY_DIMENSION);
+        ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
+
+      } catch (Exception e) {
+
+        throw new ModuleException(
+            String.format("Error while parsing Text Segments and Embeddings input."),
+            MuleVectorsErrorType.INVALID_PARAMETERS_ERROR,
+            e);
+      }
+
+      Filter filter = null;
       if(searchFilterParams != null && searchFilterParams.isConditionSet()) {
 
         EmbeddingOperationValidator.validateOperationType(
             Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
-        Filter filter = searchFilterParams.buildMetadataFilter();
-        searchRequestBuilder.filter(filter);
+        filter = searchFilterParams.buildMetadataFilter();
       }
+      Filter storeFilter = filter;
 
-      EmbeddingSearchRequest searchRequest = searchRequestBuilder.build();
+      ExecutorService executor = storeConnection.getQueryExecutor();
+      Map<String, FederatedSearch<List<EmbeddingMatch<TextSegment>>>> searches = new LinkedHashMap<>();
 
-      EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
-      List<EmbeddingMatch<TextSegment>> embeddingMatches = searchResult.matches();
+      for (String storeName : new LinkedHashSet<>(storeNames)) {
 
-      String information = embeddingMatches.stream()
-          .map(match -> match.embedded().text())
-          .collect(joining("\n\n"));
+        BaseStore baseStore = BaseStore.builder()
+            .storeName(storeName)
+            .connection(storeConnection)
+            .dimension(dimension)
+            .createStore(false)
+            .build();
 
-      jsonObject.put(Constants.JSON_KEY_RESPONSE, information);
-      jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
-      if(textSegments.size() == 1 && textSegments.get(0).text() != null && !textSegments.get(0).text().isEmpty()) {
+        FederatedSearch<List<EmbeddingMatch<TextSegment>>> federatedSearch = new FederatedSearch<>(() -> {
+
+          try {
 
-        jsonObject.put(Constants.JSON_KEY_QUESTION, textSegments.get(0).text());
+            return search(baseStore, embeddings.get(0), maximumResults, minimumScore, storeFilter, null);
+
+          } finally {
+
+            // The search owns its store, which may outlive the operation when the search times out
+            baseStore.close();
+          }
+        });
+        federatedSearch.submit(executor);
+        searches.put(storeName, federatedSearch);
       }
-      jsonObject.put(Constants.JSON_KEY_MAX_RESULTS, maxResults);
-      jsonObject.put(Constants.JSON_KEY_MIN_SCORE, minScore);
-
-      JSONArray sources = new JSONArray();
-
-      JSONObject contentObject;
-      for (EmbeddingMatch<TextSegment> match : embeddingMatches) {
-
-        Metadata matchMetadata = match.embedded().metadata();
-        contentObject = new JSONObject();
-        contentObject.put(Constants.JSON_KEY_EMBEDDING_ID, match.embeddingId());
-        contentObject.put(Constants.JSON_KEY_TEXT, match.embedded().text());
-        contentObject.put(Constants.JSON_KEY_SCORE, match.score());
-        JSONObject metadataObject = new JSONObject(matchMetadata.toMap());
-        contentObject.put(Constants.JSON_KEY_METADATA, metadataObject);
-        sources.put(contentObject);
+
+      Map<String, List<EmbeddingMatch<TextSegment>>> matchesByStore = new LinkedHashMap<>();
+      JSONArray jsonStores = new JSONArray();
+
+      for (Map.Entry<String, FederatedSearch<List<EmbeddingMatch<TextSegment>>>> storeSearch : searches.entrySet()) {
+
+        String storeName = storeSearch.getKey();
+        JSONObject jsonStore = new JSONObject();
+        jsonStore.put(Constants.JSON_KEY_STORE_NAME, storeName);
+
+        try {
+
+          List<EmbeddingMatch<TextSegment>> storeMatches =
+              storeSearch.getValue().get(storeTimeoutInMillis, TimeUnit.MILLISECONDS);
+          matchesByStore.put(storeName, storeMatches);
+          jsonStore.put(Constants.JSON_KEY_STATUS, Constants.QUERY_STATUS_COMPLETED);
+          jsonStore.put(Constants.JSON_KEY_MATCH_COUNT, storeMatches.size());
+
+        } catch (CancellationException e) {
+
+          LOGGER.warn(String.format("Query of store %s cancelled, not started within %s ms", storeName, storeTimeoutInMillis));
+          jsonStore.put(Constants.JSON_KEY_STATUS, Constants.QUERY_STATUS_CANCELLED);
+
+        } catch (TimeoutException e) {
+
+          LOGGER.warn(String.format("Query of store %s timed out after %s ms", storeName, storeTimeoutInMillis));
+          jsonStore.put(Constants.JSON_KEY_STATUS, Constants.QUERY_STATUS_TIMED_OUT);
+
+        } catch (ExecutionException e) {
+
+          Throwable cause = e.getCause() != null ? e.getCause() : e;
+          LOGGER.warn(String.format("Error while querying store %s", storeName), cause);
+          jsonStore.put(Constants.JSON_KEY_STATUS, Constants.QUERY_STATUS_FAILED);
+          jsonStore.put(Constants.JSON_KEY_ERROR, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName());
+
+        } catch (InterruptedException e) {
+
+          searches.values().forEach(FederatedSearch::cancel);
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+
+        jsonStore.put(Constants.JSON_KEY_ELAPSED_MILLIS, storeSearch.getValue().getElapsedMillis());
+        jsonStores.put(jsonStore);
       }
 
-      jsonObject.put(Constants.JSON_KEY_SOURCES, sources);
+      List<FederatedResultMerger.FederatedMatch> federatedMatches =
+          FederatedResultMerger.merge(matchesByStore, maximumResults, scoreNormalization);
+
+      List<EmbeddingMatch<TextSegment>> embeddingMatches = new ArrayList<>(federatedMatches.size());
+      federatedMatches.forEach(federatedMatch -> embeddingMatches.add(federatedMatch.getMatch()));
+
+      JSONObject jsonObject = toQueryResponseJson(embeddingMatches, textSegments.size() == 1 ? textSegments.get(0) : null,
+                                                  maximumResults, minimumScore);
+
+      // Sources are in merge order: complete them with the store they come from and the normalized score
+      JSONArray sources = jsonObject.getJSONArray(Constants.JSON_KEY_SOURCES);
+      for (int i = 0; i < federatedMatches.size(); i++) {
+
+        JSONObject source = sources.getJSONObject(i);
+        source.put(Constants.JSON_KEY_STORE_NAME, federatedMatches.get(i).getStoreName());
+        source.put(Constants.JSON_KEY_STORE_SCORE, federatedMatches.get(i).getMatch().score());
+        source.put(Constants.JSON_KEY_SCORE, federatedMatches.get(i).getScore());
+      }
+      jsonObject.put(Constants.JSON_KEY_STORES, jsonStores);
 
       return createStoreResponse(
-          jsonObject.toString(),
+          jsonObject,
           new HashMap<String, Object>() {{
-            put("storeName", storeName);
+            put("storeNames", storeNames);
             put("searchFilter", searchFilterParams);
+            put("scoreNormalization", scoreNormalization);
+            put("embeddingStoreCache", storeConnection.getEmbeddingStoreCache().getStatistics());
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
           }});
 
     } catch (ModuleException me) {
@@ -222,7 +739,7 @@ public class StoreOperations {
     } catch (Exception e) {
 
       throw new ModuleException(
-          String.format("Error while querying embeddings from the store %s", storeName),
+          String.format("Error while querying embeddings from the stores %s", storeNames),
           MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
           e);
     }
@@ -235,6 +752,7 @@ public class StoreOperations {
    * @param storeConnection    the connection to the store
    * @param storeName          the name of the store to add data to
    * @param content            the input stream containing the text segments and embeddings
+   * @param namespaceParams    the namespaces of the store to add data to
    * @return a result containing the store response
    * @throws ModuleException if an error occurs during the operation
    */
@@ -251,56 +769,50 @@ public class StoreOperations {
           @DisplayName("Text Segments and Embeddings")
           @InputJsonType(schema = "api/metadata/EmbeddingGenerateResponse.json")
           @Content InputStream content,
-      @ParameterGroup(name="Custom Metadata") CustomMetadata customMetadata) {
+      @ParameterGroup(name="Custom Metadata") CustomMetadata customMetadata,
+      @ParameterGroup(name="Ingestion") IngestionParameters ingestionParameters,
+      @ParameterGroup(name = "Namespaces") NamespaceParameters namespaceParams) {
 
+    BaseStore baseStore = null;
     try {
 
-      String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
-
-      JSONObject jsonContent = new JSONObject(contentString);
-
-      HashMap<String, Object> ingestionMetadataMap = MetadataUtils.getIngestionMetadata();
-
-      JSONArray jsonTextSegments = jsonContent.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-      List<TextSegment> textSegments = new LinkedList<>();
-      IntStream.range(0, jsonTextSegments.length())
-          .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-          .forEach(jsonTextSegment -> {
-            HashMap<String, Object> metadataMap = (HashMap<String, Object>)jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap();
-            metadataMap.putAll(ingestionMetadataMap);
-            if(customMetadata != null && customMetadata.getMetadataEntries() != null) metadataMap.putAll(customMetadata.getMetadataEntries());
-            Metadata metadata = Metadata.from(metadataMap);
-            textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-          });
-
-      JSONArray jsonEmbeddings = jsonContent.getJSONArray(Constants.JSON_KEY_EMBEDDINGS);
-      List<Embedding> embeddings = new LinkedList<>();
-      IntStream.range(0, jsonEmbeddings.length())
-          .mapToObj(jsonEmbeddings::getJSONArray) // Convert index to JSONObject
-          .forEach(jsonEmbedding -> {
-
-            // Convert JSONArray to float[]
-            float[] floatArray = new float[jsonEmbedding.length()];
-            for (int i = 0; i < jsonEmbedding.length(); i++) {
-              floatArray[i] = (float) jsonEmbedding.getDouble(i);
-            }
-            embeddings.add(new Embedding(floatArray));
-          });
-
-      int dimension = jsonContent.getInt(Constants.JSON_KEY_DIMENSION);
+      boolean bulkIngestion = ingestionParameters != null && ingestionParameters.getIngestionMode() == IngestionMode.BULK;
+      if (bulkIngestion) {
+
+        EmbeddingOperationValidator.validateOperationType(
+            Constants.STORE_OPERATION_TYPE_BULK_INGEST, storeConnection.getVectorStore());
+      }
+      List<String> namespaces = validateNamespaces(namespaceParams, storeConnection);
+
+      HashMap<String, Object> additionalMetadataMap = MetadataUtils.getIngestionMetadata();
+      if(customMetadata != null && customMetadata.getMetadataEntries() != null) additionalMetadataMap.putAll(customMetadata.getMetadataEntries());
+
+      EmbeddingPayloadParser.EmbeddingPayload payload = EmbeddingPayloadParser.parse(content, additionalMetadataMap);
+
+      List<TextSegment> textSegments = ValidationUtils.ensureNotNull(payload.getTextSegments(), Constants.JSON_KEY_TEXT_SEGMENTS);
+      List<Embedding> embeddings = ValidationUtils.ensureNotNull(payload.getEmbeddings(), Constants.JSON_KEY_EMBEDDINGS);
+
+      int dimension = ValidationUtils.ensureNotNull(payload.getDimension(), Constants.JSON_KEY_DIMENSION);
       ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
 
-      BaseStore baseStore = BaseStore.builder()
+      baseStore = BaseStore.builder()
           .storeName(storeName)
           .configuration(storeConfiguration)
           .connection(storeConnection)
           .dimension(dimension)
+          .namespaces(namespaces)
           .build();
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
-
       try {
-        embeddingStore.addAll(embeddings, textSegments);
+
+        if (bulkIngestion) {
+
+          baseStore.bulkAdd(embeddings, textSegments,
+                            ingestionParameters.getBulkChunkSize(), ingestionParameters.isDeferIndexBuild());
+        } else {
+
+          baseStore.addAll(embeddings, textSegments);
+        }
         LOGGER.info(String.format("Ingested into %s  >> %s",
                                   storeName,
                                   MetadataUtils.getSourceDisplayName(textSegments.get(0).metadata())));
@@ -311,6 +823,11 @@ public class StoreOperations {
             String.format("Error while adding data to store \"%s\"", storeName),
             MuleVectorsErrorType.STORE_SERVICES_FAILURE,
             e);
+
+      } finally {
+
+        // Even a failed ingestion may have partially written the store
+        storeConnection.getQueryResultCache().invalidate(storeName);
       }
 
       JSONObject jsonObject = JsonUtils.createIngestionStatusObject(storeName);
@@ -319,6 +836,10 @@ public class StoreOperations {
           jsonObject.toString(),
           new HashMap<String, Object>() {{
             put("storeName", storeName);
+            put("ingestionMode", bulkIngestion ? IngestionMode.BULK : IngestionMode.DEFAULT);
+            put("namespaces", namespaces);
+            put("embeddingStoreCache", storeConnection.getEmbeddingStoreCache().getStatistics());
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
           }});
 
     } catch (ModuleException me) {
@@ -330,16 +851,29 @@ public class StoreOperations {
           String.format("Error while adding data to store \"%s\"", storeName),
           MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
           e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
     }
   }
 
   /**
    * Lists all sources in the specified embedding store.
+   * <p>
+   * Sources are written to the response as the store hands them over, on a dedicated thread, while the response is
+   * read. The operation returns once the first source is written, so that failures to reach the store are still
+   * reported by the operation itself.
+   * </p>
    *
    * @param storeConfiguration the configuration of the store
    * @param storeConnection    the connection to the store
    * @param storeName          the name of the store
    * @param queryParams        the query parameters for listing sources
+   * @param namespaceParams    the namespaces of the store to list sources from
+   * @param streamingHelper    the helper resolving the repeatable stream of the response
    * @return a result containing the store response with metadata of sources
    * @throws ModuleException if an error occurs during the operation
    */
@@ -352,29 +886,49 @@ public class StoreOperations {
       @Config StoreConfiguration storeConfiguration,
       @Connection BaseStoreConnection storeConnection,
       String storeName,
-      @ParameterGroup(name = "Querying Strategy") QueryParameters queryParams) {
+      @ParameterGroup(name = "Querying Strategy") QueryParameters queryParams,
+      @ParameterGroup(name = "Namespaces") NamespaceParameters namespaceParams,
+      StreamingHelper streamingHelper) {
 
+    BaseStore baseStore = null;
     try {
 
       EmbeddingOperationValidator.validateOperationType(
           Constants.STORE_OPERATION_TYPE_QUERY_ALL, storeConnection.getVectorStore());
       EmbeddingOperationValidator.validateOperationType(
           Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+      List<String> namespaces = validateNamespaces(namespaceParams, storeConnection);
 
-      BaseStore baseStore = BaseStore.builder()
+      baseStore = BaseStore.builder()
           .storeName(storeName)
           .configuration(storeConfiguration)
           .connection(storeConnection)
           .queryParams(queryParams)
           .createStore(false)
+          .namespaces(namespaces)
           .build();
 
-      JSONObject jsonObject = baseStore.listSources();
+      // The writer thread owns the store from now on and closes it once done
+      BaseStore listingStore = baseStore;
+      baseStore = null;
+      GeneratedJsonInputStream sources = GeneratedJsonInputStream.start(
+          "vectors-list-sources-" + storeName, generator -> writeSources(generator, listingStore, storeName));
+      try {
+
+        sources.awaitOutput();
+
+      } catch (ExecutionException e) {
+
+        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      }
 
       return createStoreResponse(
-          jsonObject.toString(),
+          sources,
+          streamingHelper,
           new HashMap<String, Object>() {{
             put("storeName", storeName);
+            put("namespaces", namespaces);
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
           }});
 
     } catch (ModuleException me) {
@@ -386,6 +940,12 @@ public class StoreOperations {
           String.format("Error while listing sources from the store %s", storeName),
           MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
           e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
     }
   }
 
@@ -396,6 +956,8 @@ public class StoreOperations {
    * @param storeConnection    the connection to the store
    * @param storeName          the name of the store
    * @param removeFilterParams the filter parameters for removal
+   * @param namespaceParams    the namespaces of the store to remove embeddings from
+   * @param removalParams      the removal strategy
    * @return a result containing the store response
    * @throws ModuleException if an error occurs during the operation
    */
@@ -408,26 +970,56 @@ public class StoreOperations {
       @Config StoreConfiguration storeConfiguration,
       @Connection BaseStoreConnection storeConnection,
       String storeName,
-      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.RemoveFilterParameters removeFilterParams) {
+      @ParameterGroup(name = "Metadata Filter") MetadataFilterParameters.RemoveFilterParameters removeFilterParams,
+      @ParameterGroup(name = "Namespaces") NamespaceParameters namespaceParams,
+      @ParameterGroup(name = "Removal Strategy") RemovalParameters removalParams) {
 
+    BaseStore baseStore = null;
     try {
       EmbeddingOperationValidator.validateOperationType(
           Constants.STORE_OPERATION_TYPE_REMOVE_EMBEDDINGS, storeConnection.getVectorStore());
       EmbeddingOperationValidator.validateOperationType(
           Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+      List<String> namespaces = validateNamespaces(namespaceParams, storeConnection);
+
+      if(removalParams != null) {
+
+        if(removalParams.getSlices() != null && removalParams.getSlices() < 1) {
+
+          throw new ModuleException(
+              String.format("The number of slices must be at least 1. Received: %s", removalParams.getSlices()),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+        if(!removalParams.isWaitForCompletion() && removalParams.getTaskPollingIntervalInSeconds() < 1) {
 
-      BaseStore baseStore = BaseStore.builder()
+          throw new ModuleException(
+              String.format("The task polling interval must be at least 1 second. Received: %s",
+                            removalParams.getTaskPollingIntervalInSeconds()),
+              MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+      }
+
+      baseStore = BaseStore.builder()
           .storeName(storeName)
           .configuration(storeConfiguration)
           .connection(storeConnection)
           .createStore(false)
+          .namespaces(namespaces)
           .build();
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
-
       Filter filter = removeFilterParams.buildMetadataFilter();
 
-      embeddingStore.removeAll(filter);
+      HashMap<String, Object> removalStatistics;
+      long removeStartTime = System.nanoTime();
+      try {
+
+        removalStatistics = baseStore.removeAll(filter, removalParams);
+
+      } finally {
+
+        storeConnection.getQueryResultCache().invalidate(storeName);
+      }
+      double removeTimeMillis = (System.nanoTime() - removeStartTime) / 1_000_000d;
 
       JSONObject jsonObject = new JSONObject();
       jsonObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_DELETED);
@@ -437,6 +1029,11 @@ public class StoreOperations {
           new HashMap<String, Object>() {{
             put("storeName", storeName);
             put("removeFilter", removeFilterParams);
+            put("namespaces", namespaces);
+            put("removeTimeMillis", removeTimeMillis);
+            putAll(removalStatistics);
+            put("embeddingStoreCache", storeConnection.getEmbeddingStoreCache().getStatistics());
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
           }});
 
     } catch (ModuleException me) {
@@ -447,6 +1044,207 @@ public class StoreOperations {
           String.format("Error while removing embeddings from the store %s", storeName),
           MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
           e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
     }
   }
+
+  /**
+   * Rebuilds the approximate nearest neighbor index of a store without blocking ingestion.
+   *
+   * @param storeConfiguration the configuration of the store
+   * @param storeConnection    the connection to the store
+   * @param storeName          the name of the store
+   * @return a result containing the store response with the rebuilt index
+   * @throws ModuleException if an error occurs during the operation
+   */
+  @MediaType(value = APPLICATION_JSON, strict = false)
+  @Alias("Store-rebuild-index")
+  @DisplayName("[Store] Rebuild index")
+  @Throws(StoreErrorTypeProvider.class)
+  @OutputJsonType(schema = "api/metadata/StoreRebuildIndexResponse.json")
+  public Result<InputStream, StoreResponseAttributes> rebuildIndex(
+      @Config StoreConfiguration storeConfiguration,
+      @Connection BaseStoreConnection storeConnection,
+      String storeName) {
+
+    BaseStore baseStore = null;
+    try {
+
+      EmbeddingOperationValidator.validateOperationType(
+          Constants.STORE_OPERATION_TYPE_REBUILD_INDEX, storeConnection.getVectorStore());
+
+      baseStore = BaseStore.builder()
+          .storeName(storeName)
+          .configuration(storeConfiguration)
+          .connection(storeConnection)
+          .createStore(false)
+          .build();
+
+      JSONObject jsonObject = baseStore.rebuildIndex();
+
+      return createStoreResponse(
+          jsonObject.toString(),
+          new HashMap<String, Object>() {{
+            put("storeName", storeName);
+            put("connectionPool", storeConnection.getConnectionPoolStatistics());
+          }});
+
+    } catch (ModuleException me) {
+      throw me;
+
+    } catch (Exception e) {
+
+      throw new ModuleException(
+          String.format("Error while rebuilding the index of the store %s", storeName),
+          MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
+          e);
+
+    } finally {
+
+      if (baseStore != null) {
+        baseStore.close();
+      }
+    }
+  }
+
+  /**
+   * Validates that the store supports namespaces when some are set.
+   *
+   * @param namespaceParams the namespace parameters, can be null
+   * @param storeConnection the connection to the store
+   * @return the namespaces set, or null to use the default namespace of the store
+   */
+  private static List<String> validateNamespaces(NamespaceParameters namespaceParams,
+                                                 BaseStoreConnection storeConnection) {
+
+    if (namespaceParams == null || !namespaceParams.isSet()) {
+      return null;
+    }
+    EmbeddingOperationValidator.validateOperationType(
+        Constants.STORE_OPERATION_TYPE_NAMESPACES, storeConnection.getVectorStore());
+    return namespaceParams.getNamespaces();
+  }
+
+  /**
+   * Searches a store with a single embedding.
+   *
+   * @param baseStore    the store to search
+   * @param embedding    the query embedding
+   * @param maxResults   the maximum number of results to retrieve
+   * @param minScore     the minimum score to filter results
+   * @param filter       the metadata filter, or null
+   * @param searchTuning the search tuning, or null
+   * @return the matches found
+   */
+  private static List<EmbeddingMatch<TextSegment>> search(BaseStore baseStore, Embedding embedding, int maxResults,
+                                                          double minScore, Filter filter,
+                                                          SearchTuningParameters searchTuning) {
+
+    EmbeddingSearchRequest.EmbeddingSearchRequestBuilder searchRequestBuilder = EmbeddingSearchRequest.builder()
+        .queryEmbedding(embedding)
+        .maxResults(maxResults)
+        .minScore(minScore);
+
+    if(filter != null) {
+
+      searchRequestBuilder.filter(filter);
+    }
+
+    EmbeddingSearchResult<TextSegment> searchResult = searchTuning != null && searchTuning.isSet()
+        ? baseStore.search(searchRequestBuilder.build(), searchTuning)
+        : baseStore.search(searchRequestBuilder.build());
+    return searchResult.matches();
+  }
+
+  /**
+   * Writes the sources listed by the store, one at a time, then closes the store.
+   */
+  private static void writeSources(JsonGenerator generator, BaseStore baseStore, String storeName) throws IOException {
+
+    try {
+
+      generator.writeStartObject();
+      generator.writeStringField(Constants.JSON_KEY_STORE_NAME, storeName);
+      generator.writeArrayFieldStart(Constants.JSON_KEY_SOURCES);
+
+      long[] sourceCount = new long[1];
+      baseStore.listSources(sourceObject -> {
+
+        try {
+
+          generator.writeObject(sourceObject.toMap());
+          // Hands the first source over to the operation, which waits for it before returning
+          if (sourceCount[0]++ == 0) {
+            generator.flush();
+          }
+
+        } catch (IOException e) {
+
+          throw new UncheckedIOException(e);
+        }
+      });
+
+      generator.writeEndArray();
+      generator.writeNumberField(Constants.JSON_KEY_SOURCE_COUNT, sourceCount[0]);
+      generator.writeEndObject();
+
+    } catch (UncheckedIOException e) {
+
+      throw e.getCause();
+
+    } finally {
+
+      baseStore.close();
+    }
+  }
+
+  /**
+   * Converts the matches of a query to the query response format.
+   *
+   * @param embeddingMatches the matches found
+   * @param question         the text segment the query embedding was generated from, or null
+   * @param maxResults       the maximum number of results requested
+   * @param minScore         the minimum score requested
+   * @return a JSON object containing the response, question, maxResults, minScore and sources
+   */
+  private static JSONObject toQueryResponseJson(List<EmbeddingMatch<TextSegment>> embeddingMatches, TextSegment question,
+                                                int maxResults, double minScore) {
+
+    String information = embeddingMatches.stream()
+        .map(match -> match.embedded().text())
+        .collect(joining("\n\n"));
+
+    JSONObject jsonObject = new JSONObject();
+    jsonObject.put(Constants.JSON_KEY_RESPONSE, information);
+    if(question != null && question.text() != null && !question.text().isEmpty()) {
+
+      jsonObject.put(Constants.JSON_KEY_QUESTION, question.text());
+    }
+    jsonObject.put(Constants.JSON_KEY_MAX_RESULTS, maxResults);
+    jsonObject.put(Constants.JSON_KEY_MIN_SCORE, minScore);
+
+    JSONArray sources = new JSONArray();
+
+    JSONObject contentObject;
+    for (EmbeddingMatch<TextSegment> match : embeddingMatches) {
+
+      Metadata matchMetadata = match.embedded().metadata();
+      contentObject = new JSONObject();
+      contentObject.put(Constants.JSON_KEY_EMBEDDING_ID, match.embeddingId());
+      contentObject.put(Constants.JSON_KEY_TEXT, match.embedded().text());
+      contentObject.put(Constants.JSON_KEY_SCORE, match.score());
+      JSONObject metadataObject = new JSONObject(matchMetadata.toMap());
+      contentObject.put(Constants.JSON_KEY_METADATA, metadataObject);
+      sources.put(contentObject);
+    }
+
+    jsonObject.put(Constants.JSON_KEY_SOURCES, sources);
+
+    return jsonObject;
+  }
 }
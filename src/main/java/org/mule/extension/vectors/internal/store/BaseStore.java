@@ -2,10 +2,15 @@ package org.mule.extension.vectors.internal.store;
 
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.Filter;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.EmbeddingStoreCache;
+import org.mule.extension.vectors.internal.connection.store.ManagedEmbeddingStore;
 import org.mule.extension.vectors.internal.connection.store.aisearch.AISearchStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.chroma.ChromaStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.elasticsearch.ElasticsearchStoreConnection;
@@ -17,6 +22,8 @@ import org.mule.extension.vectors.internal.connection.store.qdrant.QdrantStoreCo
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.RemovalParameters;
+import org.mule.extension.vectors.internal.helper.parameter.SearchTuningParameters;
 import org.mule.extension.vectors.internal.store.aisearch.AISearchStore;
 import org.mule.extension.vectors.internal.store.chroma.ChromaStore;
 import org.mule.extension.vectors.internal.store.elasticsearch.ElasticsearchStore;
@@ -29,17 +36,40 @@ import org.mule.runtime.extension.api.exception.ModuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * The {@code VectorStore} class provides a framework for interacting with various types of vector stores,
  * enabling storage and retrieval of vector embeddings for data analysis and retrieval purposes. It serves as
  * an abstract base for specific implementations such as Milvus, PGVector, and AI Search stores.
  */
-public class BaseStore {
+public class BaseStore implements AutoCloseable {
 
   protected static final Logger LOGGER = LoggerFactory.getLogger(BaseStore.class);
 
+  /**
+   * Metadata keys read by {@link #getSourceObject(JSONObject)}, so that stores listing sources fetch only those.
+   */
+  protected static final String[] LIST_SOURCES_METADATA_KEYS = {
+      Constants.METADATA_KEY_SOURCE_ID,
+      Constants.METADATA_KEY_INDEX,
+      Constants.METADATA_KEY_FILE_NAME,
+      Constants.METADATA_KEY_URL,
+      Constants.METADATA_KEY_TITLE,
+      Constants.METADATA_KEY_SOURCE,
+      Constants.METADATA_KEY_ABSOLUTE_DIRECTORY_PATH,
+      Constants.METADATA_KEY_INGESTION_DATETIME,
+      Constants.METADATA_KEY_INGESTION_TIMESTAMP
+  };
+
   protected String storeName;
   protected StoreConfiguration storeConfiguration;
   protected BaseStoreConnection storeConnection;
@@ -47,6 +77,9 @@ public class BaseStore {
   protected int dimension;
   protected boolean createStore;
 
+  // Leases of the cached embedding stores used by this store, keyed by namespace ("" for none)
+  private final Map<String, EmbeddingStoreCache.Lease> embeddingStoreLeases = new ConcurrentHashMap<>();
+
   public BaseStore(StoreConfiguration storeConfiguration, BaseStoreConnection storeConnection, String storeName, QueryParameters queryParams, int dimension, boolean createStore) {
 
     this.storeConfiguration = storeConfiguration;
@@ -62,6 +95,258 @@ public class BaseStore {
     throw new UnsupportedOperationException("This method should be overridden by subclasses");
   }
 
+  /**
+   * Builds the embedding store of this store together with the teardown releasing the clients it builds. Stores
+   * whose embedding store builds its own clients override this method, the others have nothing to tear down.
+   *
+   * @return the embedding store and its teardown
+   */
+  public ManagedEmbeddingStore buildManagedEmbeddingStore() {
+
+    return ManagedEmbeddingStore.unmanaged(buildEmbeddingStore());
+  }
+
+  /**
+   * Builds the teardown closing a client that an embedding store builds for itself without exposing it, read from
+   * the given field of the store.
+   * <p>
+   * The client is resolved when the teardown is built, so that an embedding store whose client can no longer be
+   * found, for instance after a change of its implementation, fails to build rather than leaking its client.
+   * </p>
+   *
+   * @param embeddingStore  the embedding store
+   * @param clientFieldName the name of the field of the embedding store holding the client
+   * @return the teardown closing the client
+   * @throws IllegalStateException if the field does not exist, is not set or does not hold a closeable client
+   */
+  protected static Runnable closeClientOf(Object embeddingStore, String clientFieldName) {
+
+    Object client = readClientField(embeddingStore, clientFieldName);
+    if (client instanceof AutoCloseable) {
+
+      return () -> {
+
+        try {
+
+          ((AutoCloseable) client).close();
+
+        } catch (Exception e) {
+
+          throw new IllegalStateException(String.format("Unable to close the %s client of %s",
+                                                        clientFieldName, embeddingStore.getClass().getSimpleName()), e);
+        }
+      };
+    }
+
+    Method close;
+    try {
+
+      close = client.getClass().getMethod("close");
+
+    } catch (NoSuchMethodException e) {
+
+      throw new IllegalStateException(String.format("The %s client of %s cannot be closed",
+                                                    clientFieldName, embeddingStore.getClass().getSimpleName()), e);
+    }
+    return () -> {
+
+      try {
+
+        close.invoke(client);
+
+      } catch (Exception e) {
+
+        throw new IllegalStateException(String.format("Unable to close the %s client of %s",
+                                                      clientFieldName, embeddingStore.getClass().getSimpleName()), e);
+      }
+    };
+  }
+
+  private static Object readClientField(Object embeddingStore, String clientFieldName) {
+
+    Field field = null;
+    for (Class<?> type = embeddingStore.getClass(); field == null && type != null; type = type.getSuperclass()) {
+
+      try {
+
+        field = type.getDeclaredField(clientFieldName);
+
+      } catch (NoSuchFieldException e) {
+
+        // Looked up in the superclass
+      }
+    }
+    if (field == null) {
+
+      throw new IllegalStateException(String.format("%s has no %s client field",
+                                                    embeddingStore.getClass().getSimpleName(), clientFieldName));
+    }
+
+    Object client;
+    try {
+
+      field.setAccessible(true);
+      client = field.get(embeddingStore);
+
+    } catch (IllegalAccessException | RuntimeException e) {
+
+      throw new IllegalStateException(String.format("Unable to read the %s client of %s",
+                                                    clientFieldName, embeddingStore.getClass().getSimpleName()), e);
+    }
+    if (client == null) {
+
+      throw new IllegalStateException(String.format("The %s client of %s is not set",
+                                                    clientFieldName, embeddingStore.getClass().getSimpleName()));
+    }
+    return client;
+  }
+
+  /**
+   * Retrieves the embedding store for this store, reusing the instance cached by the store connection when one was
+   * already built for the same store type, store name, dimension and create flag.
+   * <p>
+   * The cached instance is leased until this store is {@link #close() closed}, so that it is not torn down while in
+   * use.
+   * </p>
+   *
+   * @return the cached or newly built embedding store
+   */
+  public EmbeddingStore<TextSegment> getEmbeddingStore() {
+
+    return getEmbeddingStore(null, this::buildManagedEmbeddingStore);
+  }
+
+  /**
+   * Retrieves the embedding store of a namespace of this store, leased from the cache of the store connection until
+   * this store is closed.
+   *
+   * @param namespace the namespace, or null if the store has none
+   * @param builder   the supplier building the embedding store of the namespace on a cache miss
+   * @return the cached or newly built embedding store
+   */
+  protected EmbeddingStore<TextSegment> getEmbeddingStore(String namespace, Supplier<ManagedEmbeddingStore> builder) {
+
+    String leaseKey = namespace != null ? namespace : "";
+    EmbeddingStoreCache.Lease lease = embeddingStoreLeases.get(leaseKey);
+    if (lease == null) {
+
+      EmbeddingStoreCache.Lease acquiredLease = storeConnection.getEmbeddingStoreCache()
+          .acquire(storeConnection.getVectorStore(), storeName, namespace, dimension, createStore, builder);
+      lease = embeddingStoreLeases.putIfAbsent(leaseKey, acquiredLease);
+      if (lease == null) {
+        lease = acquiredLease;
+      } else {
+        acquiredLease.close();
+      }
+    }
+    return lease.get();
+  }
+
+  /**
+   * Releases the embedding stores leased by this store. Stores are short lived, each operation closes the ones it
+   * builds once done with them.
+   */
+  @Override
+  public void close() {
+
+    for (String leaseKey : new ArrayList<>(embeddingStoreLeases.keySet())) {
+
+      EmbeddingStoreCache.Lease lease = embeddingStoreLeases.remove(leaseKey);
+      if (lease != null) {
+        lease.close();
+      }
+    }
+  }
+
+  /**
+   * Searches the embedding store of this store. Subclasses can override this method to run the search natively.
+   *
+   * @param searchRequest the search request
+   * @return the search result
+   */
+  public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest) {
+
+    return getEmbeddingStore().search(searchRequest);
+  }
+
+  /**
+   * Searches the embedding store of this store with per-query tuning. Stores supporting tuning override this method,
+   * the others ignore it.
+   *
+   * @param searchRequest the search request
+   * @param searchTuning  the search tuning, can be null
+   * @return the search result
+   */
+  public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest,
+                                                   SearchTuningParameters searchTuning) {
+
+    return search(searchRequest);
+  }
+
+  /**
+   * Adds embeddings and their text segments to the embedding store of this store. Stores writing to several
+   * namespaces override this method.
+   *
+   * @param embeddings   the embeddings to add
+   * @param textSegments the text segments of the embeddings
+   */
+  public void addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+
+    getEmbeddingStore().addAll(embeddings, textSegments);
+  }
+
+  /**
+   * Builds, or rebuilds, the approximate nearest neighbor index of this store without blocking writes. Stores
+   * supporting the {@link Constants#STORE_OPERATION_TYPE_REBUILD_INDEX} operation override this method.
+   *
+   * @return a JSON object describing the index built
+   */
+  public JSONObject rebuildIndex() {
+
+    throw new UnsupportedOperationException("Index rebuild is not supported by " + storeConnection.getVectorStore());
+  }
+
+  /**
+   * Removes the embeddings matching the filter. Stores whose embedding store cannot remove embeddings by filter
+   * override this method.
+   *
+   * @param filter the metadata filter of the embeddings to remove
+   */
+  public void removeAll(Filter filter) {
+
+    getEmbeddingStore().removeAll(filter);
+  }
+
+  /**
+   * Removes the embeddings matching the filter with a removal strategy, and reports what was removed. Stores
+   * supporting a removal strategy override this method, the others ignore it.
+   *
+   * @param filter        the metadata filter of the embeddings to remove
+   * @param removalParams the removal strategy, can be null
+   * @return the removal statistics, empty if the store does not report any
+   */
+  public HashMap<String, Object> removeAll(Filter filter, RemovalParameters removalParams) {
+
+    removeAll(filter);
+    return new HashMap<>();
+  }
+
+  /**
+   * Bulk loads embeddings with the bulk load protocol of the store. Stores supporting the
+   * {@link Constants#STORE_OPERATION_TYPE_BULK_INGEST} operation override this method.
+   *
+   * @param embeddings      the embeddings to load
+   * @param textSegments    the text segments of the embeddings
+   * @param chunkSize       the number of embeddings loaded per bulk load statement
+   * @param deferIndexBuild whether secondary indexes are rebuilt once, after all the chunks are loaded
+   * @return the ids of the loaded embeddings
+   */
+  public List<String> bulkAdd(List<Embedding> embeddings, List<TextSegment> textSegments, int chunkSize,
+                              boolean deferIndexBuild) {
+
+    throw new UnsupportedOperationException("Bulk ingestion is not supported by " + storeConnection.getVectorStore());
+  }
+
   /**
    * Retrieves the embedding model used by this vector store. Initializes the model if it is not already set.
    *
@@ -79,11 +364,17 @@ public class BaseStore {
   }
 
   /**
-   * Retrieves a JSON object listing sources available in the vector store, including metadata for each source.
+   * Lists the sources available in the vector store, including metadata for each source, handing each one over to
+   * the consumer as soon as it is known.
+   * <p>
+   * Stores aggregating segments by source server side hand sources over as they are read. Stores reading every
+   * segment keep one source object per source to merge their segments, and hand them over once every segment is read.
+   * The consumer is invoked by one thread at a time.
+   * </p>
    *
-   * @return a JSON object containing a list of sources and their metadata
+   * @param sourceConsumer the consumer of the source objects
    */
-  public JSONObject listSources() {
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
 
     throw new UnsupportedOperationException("This method should be overridden by subclasses");
   }
@@ -149,6 +440,21 @@ public class BaseStore {
     }
   }
 
+  /**
+   * Hands a source object aggregated server side over to the consumer, provided it is not empty and a unique key can
+   * be generated for it, like {@link #addOrUpdateSourceObjectIntoSourceObjectMap(HashMap, JSONObject)} does.
+   *
+   * @param sourceConsumer The consumer of the source objects.
+   * @param sourceObject   The source object to hand over.
+   */
+  protected void handOverSourceObject(Consumer<JSONObject> sourceConsumer, JSONObject sourceObject) {
+
+    String sourceUniqueKey = getSourceUniqueKey(sourceObject);
+    if (!sourceObject.isEmpty() && sourceUniqueKey != null && !sourceUniqueKey.isEmpty()) {
+      sourceConsumer.accept(sourceObject);
+    }
+  }
+
   /**
    * Extracts and organizes metadata fields from a given JSON object to create a structured source object.
    * <p>
@@ -185,6 +491,24 @@ public class BaseStore {
     return sourceObject;
   }
 
+  /**
+   * Builds the source object of a source aggregated server side, from the metadata of one of its segments and the
+   * greatest segment index found.
+   *
+   * @param metadataObject a {@code JSONObject} containing the metadata of a segment of the source.
+   * @param maxIndex       the greatest segment index of the source, or a negative value if unknown.
+   * @return a {@code JSONObject} with organized metadata for a source.
+   */
+  protected JSONObject getSourceObject(JSONObject metadataObject, long maxIndex) {
+
+    if (maxIndex >= 0) {
+      metadataObject.put(Constants.METADATA_KEY_INDEX, String.valueOf(maxIndex));
+    } else {
+      metadataObject.remove(Constants.METADATA_KEY_INDEX);
+    }
+    return getSourceObject(metadataObject);
+  }
+
   /**
    * Provides a {@link Builder} instance for configuring and creating {@code BaseStore} objects.
    * <p>
@@ -215,6 +539,8 @@ public class BaseStore {
     private String storeName;
     private int dimension;
     private boolean createStore = true;
+    private List<String> namespaces;
+    private boolean retrieveEmbeddings;
 
     public Builder() {
 
@@ -268,6 +594,28 @@ public class BaseStore {
       return this;
     }
 
+    /**
+     * Sets the namespaces of the store to use, for stores partitioned in namespaces.
+     *
+     * @param namespaces the namespaces, or null for the default namespace of the store.
+     * @return the {@code Builder} instance, for method chaining.
+     */
+    public Builder namespaces(List<String> namespaces) {
+      this.namespaces = namespaces;
+      return this;
+    }
+
+    /**
+     * Sets whether searches must return the embeddings of their matches, for stores returning them only on demand.
+     *
+     * @param retrieveEmbeddings true if the embeddings of the matches are needed, for instance to re-rank them.
+     * @return the {@code Builder} instance, for method chaining.
+     */
+    public Builder retrieveEmbeddings(boolean retrieveEmbeddings) {
+      this.retrieveEmbeddings = retrieveEmbeddings;
+      return this;
+    }
+
     /**
      * Builds and returns a new {@link BaseStore} instance based on the builder's configuration.
      * <p>
@@ -288,7 +636,7 @@ public class BaseStore {
 
         case Constants.VECTOR_STORE_MILVUS:
 
-          baseStore = new MilvusStore(storeConfiguration, (MilvusStoreConnection)storeConnection, storeName, queryParams, dimension);
+          baseStore = new MilvusStore(storeConfiguration, (MilvusStoreConnection)storeConnection, storeName, queryParams, dimension, retrieveEmbeddings);
           break;
 
         case Constants.VECTOR_STORE_PGVECTOR:
@@ -308,7 +656,7 @@ public class BaseStore {
 
         case Constants.VECTOR_STORE_PINECONE:
 
-          baseStore = new PineconeStore(storeConfiguration, (PineconeStoreConnection)storeConnection, storeName, queryParams, dimension, createStore);
+          baseStore = new PineconeStore(storeConfiguration, (PineconeStoreConnection)storeConnection, storeName, queryParams, dimension, createStore, namespaces);
           break;
 
         case Constants.VECTOR_STORE_ELASTICSEARCH:
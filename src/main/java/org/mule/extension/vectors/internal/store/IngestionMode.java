@@ -0,0 +1,18 @@
+package org.mule.extension.vectors.internal.store;
+
+/**
+ * How embeddings are written into a store.
+ */
+public enum IngestionMode {
+
+  /**
+   * Embeddings are added through the store client, as regular inserts or upserts.
+   */
+  DEFAULT,
+
+  /**
+   * Embeddings are streamed with the bulk load protocol of the store, when it provides one. Rows are appended without
+   * upsert semantics, so this mode targets the initial load or the full reload of a store.
+   */
+  BULK
+}
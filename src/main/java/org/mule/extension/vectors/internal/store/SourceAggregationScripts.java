@@ -0,0 +1,41 @@
+package org.mule.extension.vectors.internal.store;
+
+import org.mule.extension.vectors.internal.constant.Constants;
+
+/**
+ * Painless scripts used by the Elasticsearch and OpenSearch stores to aggregate sources server side.
+ * <p>
+ * Metadata strings are dynamically mapped as text with a keyword sub-field, which the scripts read from doc values.
+ * </p>
+ */
+public final class SourceAggregationScripts {
+
+  /**
+   * Computes the unique key of the source of a segment, as {@link BaseStore#getSourceUniqueKey} does: the source id,
+   * or else the directory path, URL or source followed by the ingestion datetime.
+   */
+  public static final String SOURCE_KEY_SCRIPT =
+      "String v(def d, String f) { return d.containsKey(f) && d[f].size() > 0 ? d[f].value : ''; } " +
+          String.format("String id = v(doc, '%s'); ", keywordField(Constants.METADATA_KEY_SOURCE_ID)) +
+          "if (!id.isEmpty()) { return id; } " +
+          String.format("String p = v(doc, '%s'); ", keywordField(Constants.METADATA_KEY_ABSOLUTE_DIRECTORY_PATH)) +
+          String.format("if (p.isEmpty()) { p = v(doc, '%s'); } ", keywordField(Constants.METADATA_KEY_URL)) +
+          String.format("if (p.isEmpty()) { p = v(doc, '%s'); } ", keywordField(Constants.METADATA_KEY_SOURCE)) +
+          String.format("return p + v(doc, '%s');", keywordField(Constants.METADATA_KEY_INGESTION_DATETIME));
+
+  /**
+   * Reads the segment index, stored as a string, as a number. Segments without index, or whose index is not a number,
+   * yield -1 rather than failing the whole aggregation.
+   */
+  public static final String SEGMENT_INDEX_SCRIPT =
+      String.format("String f = '%s'; ", keywordField(Constants.METADATA_KEY_INDEX)) +
+          "if (!doc.containsKey(f) || doc[f].size() == 0) { return -1; } " +
+          "try { return Integer.parseInt(doc[f].value); } catch (NumberFormatException e) { return -1; }";
+
+  private SourceAggregationScripts() {
+  }
+
+  private static String keywordField(String metadataKey) {
+    return Constants.STORE_SCHEMA_METADATA_FIELD_NAME + "." + metadataKey + ".keyword";
+  }
+}
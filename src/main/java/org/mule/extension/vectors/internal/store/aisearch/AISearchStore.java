@@ -1,29 +1,58 @@
 package org.mule.extension.vectors.internal.store.aisearch;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.azure.search.AzureAiSearchEmbeddingStore;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.aisearch.AISearchStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class AISearchStore extends BaseStore {
 
   private static final String API_VERSION = "2024-07-01";
 
+  // Greatest $top served in a single response, larger pages are split by the service
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private static final int MAX_FACET_COUNT = 10000;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<Map<String, Object>>() {};
+
+  private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json");
+
   private final String apiKey;
   private final String url;
+  private final String sourceFacetField;
+  private final OkHttpClient httpClient;
 
   public AISearchStore(StoreConfiguration compositeConfiguration, AISearchStoreConnection aiSearchStoreConnection, String storeName, QueryParameters queryParams, int dimension, boolean createStore) {
 
@@ -31,6 +60,8 @@ public class AISearchStore extends BaseStore {
 
     this.url = aiSearchStoreConnection.getUrl();
     this.apiKey = aiSearchStoreConnection.getApiKey();
+    this.sourceFacetField = aiSearchStoreConnection.getSourceFacetField();
+    this.httpClient = aiSearchStoreConnection.getHttpClient();
   }
 
   public EmbeddingStore<TextSegment> buildEmbeddingStore() {
@@ -44,115 +75,264 @@ public class AISearchStore extends BaseStore {
         .build();
   }
 
-  public JSONObject listSources() {
+  /**
+   * Lists the sources of the index.
+   * <p>
+   * When the connection defines a source facet field, sources are aggregated from its facets: one search returns the
+   * segment count of each source, then the metadata of one segment per source is fetched concurrently on the query
+   * executor of the connection, each source being handed over as soon as it is fetched. Otherwise every segment is
+   * read, see {@link #scanSources()}.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
 
-    HashMap<String, JSONObject> sourceObjectMap = new HashMap<String, JSONObject>();
+    try {
 
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+      boolean aggregated = sourceFacetField != null && !sourceFacetField.trim().isEmpty()
+          && aggregateSources(sourceFacetField.trim(), sourceConsumer);
+      if (!aggregated) {
 
-    int segmentCount = 0; // Counter to track the number of segments processed
-    int offset = 0; // Initialize offset for pagination
+        scanSources().values().forEach(sourceConsumer);
+      }
 
-    try {
+    } catch (IOException e) {
 
-      boolean hasMore = true; // Flag to check if more pages are available
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
 
-      // Loop to process pages until no more documents are available
-      do {
-        // Construct the URL with $top and $skip for pagination
-        String urlString = this.url + "/indexes/" + storeName + "/docs?search=*&$top=" + queryParams.embeddingPageSize() +
-            "&$skip=" + offset + "&$select=id," + Constants.STORE_SCHEMA_METADATA_FIELD_NAME + "&api-version=" + API_VERSION;
+    } catch (ExecutionException e) {
 
-        // Nested loop to handle each page of results
-        while (urlString != null) {
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e.getCause());
 
-          URL url = new URL(urlString);
+    } catch (InterruptedException e) {
 
-          // Open connection and configure HTTP request
-          HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-          connection.setRequestMethod("GET");
-          connection.setRequestProperty("Content-Type", "application/json");
-          connection.setRequestProperty("api-key", apiKey);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(String.format("Interrupted while listing sources from %s", storeName), e);
+    }
+  }
 
-          // Check the response code and handle accordingly
-          if (connection.getResponseCode() == 200) {
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder responseBuilder = new StringBuilder();
-            String line;
+  /**
+   * Reads every segment of the index ordered by id, each page filtering on the greatest id of the previous one.
+   * <p>
+   * Unlike {@code $skip}, capped at 100,000 documents, the id filter keeps deep pages as cheap as the first one.
+   * Responses are streamed, only the metadata of the segments is selected.
+   * </p>
+   */
+  private HashMap<String, JSONObject> scanSources() throws IOException {
+
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+    int pageSize = Math.min(queryParams.embeddingPageSize(), MAX_PAGE_SIZE);
+    long segmentCount = 0;
+    String lastId = null;
+
+    while (true) {
+
+      JSONObject searchRequest = new JSONObject();
+      searchRequest.put("search", "*");
+      searchRequest.put("top", pageSize);
+      searchRequest.put("select", "id," + Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+      searchRequest.put("orderby", "id asc");
+      if (lastId != null) {
+        searchRequest.put("filter", "id gt " + toODataLiteral(lastId));
+      }
+
+      String[] pageLastId = new String[1];
+      int documentCount = search(searchRequest, document -> {
+
+        pageLastId[0] = document.getString("id");
+        addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, getSourceObject(toMetadataObject(document)));
+      });
+
+      segmentCount += documentCount;
+      if (documentCount < pageSize) {
+        break;
+      }
+      lastId = pageLastId[0];
+    }
 
-            // Read response line by line
-            while ((line = in.readLine()) != null) {
-              responseBuilder.append(line);
-            }
-            in.close();
+    LOGGER.debug(Constants.JSON_KEY_SEGMENT_COUNT + ": " + segmentCount);
+    return sourceObjectMap;
+  }
 
-            // Parse JSON response
-            JSONObject jsonResponse = new JSONObject(responseBuilder.toString());
-            JSONArray documents = jsonResponse.getJSONArray("value");
+  /**
+   * Aggregates the sources from the facets of the given field, the count of each facet being the segment count of the
+   * source.
+   *
+   * @return false if the facets were truncated and every segment must be read instead, no source being handed over
+   */
+  private boolean aggregateSources(String facetField, Consumer<JSONObject> sourceConsumer)
+      throws IOException, ExecutionException, InterruptedException {
+
+    JSONObject facetRequest = new JSONObject();
+    facetRequest.put("search", "*");
+    facetRequest.put("top", 0);
+    facetRequest.put("facets", new JSONArray().put(facetField + ",count:" + MAX_FACET_COUNT));
+
+    JSONArray facets;
+    try (Response response = post(facetRequest)) {
+
+      facets = new JSONObject(new JSONTokener(checkResponse(response).charStream()))
+          .getJSONObject("@search.facets")
+          .getJSONArray(facetField);
+    }
+    if (facets.length() >= MAX_FACET_COUNT) {
 
-            // Iterate over each document in the current page
-            for (int i = 0; i < documents.length(); i++) {
+      LOGGER.warn(String.format("More than %s sources in %s, reading every segment instead of facets of %s.",
+                                MAX_FACET_COUNT, storeName, facetField));
+      return false;
+    }
+
+    int workerCount = Math.max(1, Math.min(facets.length(), Math.min(queryParams.parallelism(),
+                                                                     BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS)));
+    if (workerCount == 1) {
+
+      aggregateSources(facetField, facets, 0, 1, sourceConsumer);
+      return true;
+    }
+
+    // Each facet is a distinct source, workers hand them over one at a time
+    Object sourceConsumerLock = new Object();
+    Consumer<JSONObject> workerSourceConsumer = sourceObject -> {
 
-              JSONObject document = documents.getJSONObject(i);
-              String id = document.getString("id"); // Document ID
-              JSONObject metadata = document.optJSONObject(Constants.STORE_SCHEMA_METADATA_FIELD_NAME); // Metadata of the document
+      synchronized (sourceConsumerLock) {
+        sourceConsumer.accept(sourceObject);
+      }
+    };
 
-              if (metadata != null) {
+    ExecutorService executor = storeConnection.getQueryExecutor();
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
 
-                // Extract metadata attributes if available
-                JSONArray attributes = metadata.optJSONArray("attributes");
+      for (int worker = 0; worker < workerCount; worker++) {
 
-                JSONObject metadataObject = new JSONObject(); // Object to store key-value pairs from attributes
-                // Iterate over attributes array to populate sourceObject
-                for (int j = 0; j < attributes.length(); j++) {
+        int firstFacet = worker;
+        futures.add(executor.submit(() -> {
+
+          aggregateSources(facetField, facets, firstFacet, workerCount, workerSourceConsumer);
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+
+    } finally {
+
+      futures.forEach(future -> future.cancel(true));
+    }
+    return true;
+  }
 
-                  JSONObject attribute = attributes.getJSONObject(j);
-                  metadataObject.put(attribute.getString("key"), attribute.get("value"));
-                }
+  /**
+   * Builds the sources of every {@code facetStep}th facet, starting with {@code firstFacet}, from the metadata of one
+   * of their segments, and hands them over to the consumer.
+   */
+  private void aggregateSources(String facetField, JSONArray facets, int firstFacet, int facetStep,
+                                Consumer<JSONObject> sourceConsumer) throws IOException {
 
-                JSONObject sourceObject = getSourceObject(metadataObject);
-                addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+    for (int i = firstFacet; i < facets.length(); i += facetStep) {
 
-                LOGGER.debug("sourceObject: " + sourceObject);
-                segmentCount++; // Increment document count
-              } else {
-                LOGGER.warn("No metadata available");
-              }
-            }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException(String.format("Interrupted while listing sources from %s", storeName));
+      }
 
-            // Check for the next page link in the response
-            urlString = jsonResponse.optString("@odata.nextLink", null);
+      JSONObject facet = facets.getJSONObject(i);
+      long segmentCount = facet.getLong("count");
 
-            // If there is no next page, check if fewer documents were returned than PAGE_SIZE
-            if (urlString == null && documents.length() < queryParams.embeddingPageSize()) {
-              hasMore = false; // No more documents to retrieve
-            }
+      JSONObject searchRequest = new JSONObject();
+      searchRequest.put("search", "*");
+      searchRequest.put("top", 1);
+      searchRequest.put("select", "id," + Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+      searchRequest.put("filter", facetField + " eq " + toODataLiteral(facet.get("value")));
 
-          } else {
-            // Log any error responses from the server
-            LOGGER.error("Error: " + connection.getResponseCode() + " " + connection.getResponseMessage());
-            break;
+      search(searchRequest, document -> handOverSourceObject(
+          sourceConsumer, getSourceObject(toMetadataObject(document), segmentCount - 1)));
+    }
+  }
+
+  /**
+   * Runs a search, streaming each document of the response to the consumer.
+   *
+   * @return the number of documents returned
+   */
+  private int search(JSONObject searchRequest, Consumer<JSONObject> consumer) throws IOException {
+
+    int documentCount = 0;
+    try (Response response = post(searchRequest);
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser(checkResponse(response).byteStream())) {
+
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Unexpected search response from " + storeName);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String fieldName = parser.currentName();
+        JsonToken token = parser.nextToken();
+        if ("value".equals(fieldName) && token == JsonToken.START_ARRAY) {
+
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+            consumer.accept(new JSONObject(parser.<Map<String, Object>>readValueAs(DOCUMENT_TYPE)));
+            documentCount++;
           }
+        } else {
+
+          parser.skipChildren();
         }
+      }
+    }
+    return documentCount;
+  }
 
-        // Increment offset to fetch the next segment of documents
-        offset += queryParams.embeddingPageSize();
+  private Response post(JSONObject searchRequest) throws IOException {
 
-      } while (hasMore); // Continue if more pages are available
+    Request request = new Request.Builder()
+        .url(this.url + "/indexes/" + storeName + "/docs/search?api-version=" + API_VERSION)
+        .header("api-key", apiKey)
+        .post(RequestBody.create(searchRequest.toString(), JSON_MEDIA_TYPE))
+        .build();
+    return httpClient.newCall(request).execute();
+  }
+
+  private ResponseBody checkResponse(Response response) throws IOException {
+
+    ResponseBody body = response.body();
+    if (!response.isSuccessful() || body == null) {
+      throw new IOException(String.format("Error while searching %s (HTTP %s): %s", storeName, response.code(),
+                                          body != null ? body.string() : ""));
+    }
+    return body;
+  }
 
-      // Output total count of processed documents
-      LOGGER.debug(Constants.JSON_KEY_SEGMENT_COUNT + ": " + segmentCount);
+  /**
+   * Maps the metadata attributes of a document, stored as key-value pairs, to a metadata object.
+   */
+  private static JSONObject toMetadataObject(JSONObject document) {
 
-    } catch (Exception e) {
+    JSONObject metadataObject = new JSONObject();
+    JSONObject metadata = document.optJSONObject(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+    JSONArray attributes = metadata != null ? metadata.optJSONArray("attributes") : null;
+    if (attributes == null) {
 
-      // Handle any exceptions that occur during the process
-      LOGGER.error("Error while listing sources", e);
+      LOGGER.warn("No metadata available");
+      return metadataObject;
     }
 
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+    for (int j = 0; j < attributes.length(); j++) {
 
-    return jsonObject;
+      JSONObject attribute = attributes.getJSONObject(j);
+      metadataObject.put(attribute.getString("key"), attribute.get("value"));
+    }
+    return metadataObject;
+  }
+
+  private static String toODataLiteral(Object value) {
+
+    if (value instanceof Number || value instanceof Boolean) {
+      return value.toString();
+    }
+    return "'" + value.toString().replace("'", "''") + "'";
   }
 }
@@ -1,23 +1,35 @@
 package org.mule.extension.vectors.internal.store.chroma;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.chroma.ChromaEmbeddingStore;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.chroma.ChromaStoreConnection;
-import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * ChromaStore is a specialized implementation of {@link BaseStore} designed to interact with
@@ -25,7 +37,14 @@ import java.util.HashMap;
  */
 public class ChromaStore extends BaseStore {
 
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<Map<String, Object>>() {};
+
+  private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json");
+
   private final String url;
+  private final ChromaStoreConnection chromaStoreConnection;
 
 
   /**
@@ -40,6 +59,7 @@ public class ChromaStore extends BaseStore {
     super(storeConfiguration, chromaStoreConnection, storeName, queryParams, dimension, true);
 
     this.url = chromaStoreConnection.getUrl();
+    this.chromaStoreConnection = chromaStoreConnection;
   }
 
   public EmbeddingStore<TextSegment> buildEmbeddingStore() {
@@ -52,204 +72,169 @@ public class ChromaStore extends BaseStore {
 
   /**
    * Retrieves a JSON object listing all sources associated with the store.
+   * <p>
+   * The segment count is known up front, so offset pages are fetched concurrently on the query executor of the
+   * connection when the query parameters ask for parallelism. Pages are dealt round robin across workers, each one
+   * streaming the metadata of its pages into its own source map through the pooled HTTP client of the connection.
+   * Sources are handed over once every page is read, as any page may hold segments of any source.
+   * </p>
    *
-   * @return a {@link JSONObject} containing details of all sources.
+   * @param sourceConsumer the consumer of the source objects
    */
-  public JSONObject listSources() {
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
 
     HashMap<String, JSONObject> sourceObjectMap = new HashMap<String, JSONObject>();
 
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
-
-    long segmentCount = 0; // Counter to track the number of segments processed
-    long offset = 0; // Initialize offset for pagination
-
+    List<Future<HashMap<String, JSONObject>>> futures = new ArrayList<>();
     try {
 
-      String collectionId = getCollectionId(storeName);
-      segmentCount = getSegmentCount(collectionId);
+      String collectionId = chromaStoreConnection.getCollectionId(storeName);
+      long segmentCount = getSegmentCount(collectionId);
+      int pageSize = queryParams.embeddingPageSize();
+      long pageCount = (segmentCount + pageSize - 1) / pageSize;
+      int workerCount = (int) Math.max(1, Math.min(pageCount, Math.min(queryParams.parallelism(),
+                                                                          BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS)));
 
-      while(offset < segmentCount) {
+      if (workerCount == 1) {
 
-        JSONArray metadataObjects = getMetadataObjects(collectionId, offset, queryParams.embeddingPageSize());
-        for(int i = 0; i< metadataObjects.length(); i++) {
+        sourceObjectMap = listSources(collectionId, 0, 1, pageCount, pageSize);
 
-          JSONObject metadataObject = metadataObjects.getJSONObject(i);
-          JSONObject sourceObject = getSourceObject(metadataObject);
-          addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
-        }
-        offset = offset + metadataObjects.length();
-      }
-
-    } catch (Exception e) {
-
-      // Handle any exceptions that occur during the process
-      LOGGER.error("Error while listing sources", e);
-    }
-
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+      } else {
 
-    return jsonObject;
-  }
+        ExecutorService executor = storeConnection.getQueryExecutor();
+        for (int worker = 0; worker < workerCount; worker++) {
 
-  private JSONArray getMetadataObjects(String collectionId, long offset, long limit) {
+          long firstPage = worker;
+          futures.add(executor.submit(() -> listSources(collectionId, firstPage, workerCount, pageCount, pageSize)));
+        }
+        for (Future<HashMap<String, JSONObject>> future : futures) {
 
-    JSONArray metadataObjects = new JSONArray();
-    try {
+          for (JSONObject sourceObject : future.get().values()) {
+            addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+          }
+        }
+      }
 
-      String urlString = url + "/api/v1/collections/" + collectionId + "/get";
-      URL url = new URL(urlString);
+    } catch (IOException e) {
 
-      // Open connection and configure HTTP request
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("POST");
-      connection.setRequestProperty("Content-Type", "application/json");
-      connection.setDoOutput(true); // Enable output for the connection
+      chromaStoreConnection.invalidateCollectionId(storeName);
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
 
-      JSONObject jsonRequest = new JSONObject();
-      jsonRequest.put("limit", limit);
-      jsonRequest.put("offset", offset);
+    } catch (ExecutionException e) {
 
-      JSONArray jsonInclude = new JSONArray();
-      jsonInclude.put("metadatas");
+      chromaStoreConnection.invalidateCollectionId(storeName);
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e.getCause());
 
-      jsonRequest.put("include", jsonInclude);
+    } catch (InterruptedException e) {
 
-      // Write JSON body to the request output stream
-      try (OutputStream os = connection.getOutputStream()) {
-        byte[] input = jsonRequest.toString().getBytes("utf-8");
-        os.write(input, 0, input.length);
-      }
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(String.format("Interrupted while listing sources from %s", storeName), e);
 
-      // Check the response code and handle accordingly
-      if (connection.getResponseCode() == 200) {
+    } finally {
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder responseBuilder = new StringBuilder();
-        String line;
+      futures.forEach(future -> future.cancel(true));
+    }
 
-        // Read response line by line
-        while ((line = in.readLine()) != null) {
-          responseBuilder.append(line);
-        }
-        in.close();
+    sourceObjectMap.values().forEach(sourceConsumer);
+  }
 
-        // Parse JSON response
-        JSONObject jsonResponse = new JSONObject(responseBuilder.toString());
-        metadataObjects = jsonResponse.getJSONArray("metadatas");
+  /**
+   * Lists the sources of every {@code pageStep}th page, starting with {@code firstPage}.
+   */
+  private HashMap<String, JSONObject> listSources(String collectionId, long firstPage, long pageStep, long pageCount,
+                                                  int pageSize) throws IOException {
 
-      } else {
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+    for (long page = firstPage; page < pageCount; page += pageStep) {
 
-        // Log any error responses from the server
-        LOGGER.error("Error: " + connection.getResponseCode() + " " + connection.getResponseMessage());
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException(String.format("Interrupted while listing sources from %s", storeName));
       }
-
-    } catch (Exception e) {
-
-      // Handle any exceptions that occur during the process
-      LOGGER.error("Error getting collection segments", e);
+      readMetadataObjects(collectionId, page * pageSize, pageSize,
+                          metadataObject -> addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap,
+                                                                                       getSourceObject(metadataObject)));
     }
-    return metadataObjects;
+    return sourceObjectMap;
   }
 
   /**
-   * Retrieves the total number of segments in the specified collection.
-   *
-   * @param collectionId the ID of the collection.
-   * @return the segment count as a {@code long}.
+   * Reads the metadata of a page of the collection, streaming each metadata object of the response to the consumer.
    */
-  private long getSegmentCount(String collectionId) {
+  private void readMetadataObjects(String collectionId, long offset, long limit, Consumer<JSONObject> consumer)
+      throws IOException {
 
-    long segmentCount = 0;
-    try {
+    JSONObject jsonRequest = new JSONObject();
+    jsonRequest.put("limit", limit);
+    jsonRequest.put("offset", offset);
+
+    JSONArray jsonInclude = new JSONArray();
+    jsonInclude.put("metadatas");
 
-      String urlString = url + "/api/v1/collections/" + collectionId + "/count";
-      URL url = new URL(urlString);
+    jsonRequest.put("include", jsonInclude);
 
-      // Open connection and configure HTTP request
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("GET");
-      connection.setRequestProperty("Content-Type", "application/json");
+    Request request = new Request.Builder()
+        .url(chromaStoreConnection.getApiUrl() + "/collections/" + collectionId + "/get")
+        .post(RequestBody.create(jsonRequest.toString(), JSON_MEDIA_TYPE))
+        .build();
 
-      // Check the response code and handle accordingly
-      if (connection.getResponseCode() == 200) {
+    try (Response response = chromaStoreConnection.getHttpClient().newCall(request).execute()) {
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder responseBuilder = new StringBuilder();
-        String line;
+      ResponseBody body = checkResponse(response, "getting collection segments");
+      try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(body.byteStream())) {
 
-        // Read response line by line
-        while ((line = in.readLine()) != null) {
-          responseBuilder.append(line);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new IOException("Unexpected response while getting collection segments");
         }
-        in.close();
-        segmentCount = Long.parseLong(responseBuilder.toString());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
 
-      } else {
+          String fieldName = parser.currentName();
+          JsonToken token = parser.nextToken();
+          if ("metadatas".equals(fieldName) && token == JsonToken.START_ARRAY) {
 
-        // Log any error responses from the server
-        LOGGER.error("Error: " + connection.getResponseCode() + " " + connection.getResponseMessage());
-      }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
 
-    } catch (Exception e) {
+              if (parser.currentToken() == JsonToken.START_OBJECT) {
+                consumer.accept(new JSONObject(parser.<Map<String, Object>>readValueAs(METADATA_TYPE)));
+              }
+            }
+          } else {
 
-      // Handle any exceptions that occur during the process
-      LOGGER.error("Error getting collection count", e);
+            parser.skipChildren();
+          }
+        }
+      }
     }
-    LOGGER.debug("segmentCount: " + segmentCount);
-    return segmentCount;
   }
 
   /**
-   * Retrieves the collection ID for a given store name.
+   * Retrieves the total number of segments in the specified collection.
    *
-   * @param storeName the name of the store.
-   * @return the collection ID as a {@code String}.
+   * @param collectionId the ID of the collection.
+   * @return the segment count as a {@code long}.
    */
-  private String getCollectionId(String storeName) {
-
-    String collectionId = "";
-    try {
-
-      String urlString = url + "/api/v1/collections/" + storeName;
-      URL url = new URL(urlString);
-
-      // Open connection and configure HTTP request
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("GET");
-      connection.setRequestProperty("Content-Type", "application/json");
-
-      // Check the response code and handle accordingly
-      if (connection.getResponseCode() == 200) {
+  private long getSegmentCount(String collectionId) throws IOException {
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder responseBuilder = new StringBuilder();
-        String line;
-
-        // Read response line by line
-        while ((line = in.readLine()) != null) {
-          responseBuilder.append(line);
-        }
-        in.close();
-
-        // Parse JSON response
-        JSONObject jsonResponse = new JSONObject(responseBuilder.toString());
-        collectionId = jsonResponse.getString("id");
+    Request request = new Request.Builder()
+        .url(chromaStoreConnection.getApiUrl() + "/collections/" + collectionId + "/count")
+        .get()
+        .build();
 
-      } else {
+    try (Response response = chromaStoreConnection.getHttpClient().newCall(request).execute()) {
 
-        // Log any error responses from the server
-        LOGGER.error("Error: " + connection.getResponseCode() + " " + connection.getResponseMessage());
+      long segmentCount = Long.parseLong(checkResponse(response, "getting collection count").string().trim());
+      LOGGER.debug("segmentCount: " + segmentCount);
+      return segmentCount;
     }
+  }
 
-    } catch (Exception e) {
+  private static ResponseBody checkResponse(Response response, String action) throws IOException {
 
-      // Handle any exceptions that occur during the process
-      LOGGER.error("Error getting collection id", e);
+    ResponseBody body = response.body();
+    if (!response.isSuccessful() || body == null) {
+      throw new IOException(String.format("Error while %s (HTTP %s): %s", action, response.code(),
+                                          body != null ? body.string() : ""));
     }
-    LOGGER.debug("collectionId: " + collectionId);
-    return collectionId;
+    return body;
   }
 }
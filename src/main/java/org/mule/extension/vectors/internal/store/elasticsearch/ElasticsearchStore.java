@@ -1,9 +1,17 @@
 package org.mule.extension.vectors.internal.store.elasticsearch;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeBucket;
 import co.elastic.clients.elasticsearch.core.*;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import dev.langchain4j.data.segment.TextSegment;
@@ -19,19 +27,46 @@ import org.apache.http.message.BasicHeader;
 import org.elasticsearch.client.RestClient;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.connection.store.elasticsearch.ElasticsearchStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
+import org.mule.extension.vectors.internal.store.SourceAggregationScripts;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class ElasticsearchStore extends BaseStore {
 
+  private static final Time PIT_KEEP_ALIVE = Time.of(t -> t.time("1m"));
+
+  // Tiebreaker sort of point in time searches, the most efficient sort for search_after paging
+  private static final String SHARD_DOC_FIELD = "_shard_doc";
+
+  private static final int DEFAULT_PAGE_SIZE = 5000;
+
+  private static final int MAX_RESULT_WINDOW = 10000;
+
+  private static final String SOURCES_AGGREGATION = "sources";
+  private static final String SOURCE_KEY_AGGREGATION = "source_key";
+  private static final String MAX_INDEX_AGGREGATION = "max_index";
+  private static final String SEGMENT_AGGREGATION = "segment";
+
+  private static final List<String> SOURCE_METADATA_FIELDS = Arrays.stream(LIST_SOURCES_METADATA_KEYS)
+      .map(key -> "metadata." + key)
+      .collect(Collectors.toList());
+
   private final String url;
   private final String user;
   private final String password;
@@ -89,66 +124,204 @@ public class ElasticsearchStore extends BaseStore {
         .build();
   }
 
-  public JSONObject listSources() {
+  /**
+   * Lists the sources of the index.
+   * <p>
+   * Sources are aggregated server side with a composite aggregation keyed on the source unique key, so that a single
+   * bucket per source is returned, holding the greatest segment index and the metadata of one segment. Buckets are
+   * paged with the after key of the aggregation. If the index cannot be aggregated, for instance when its metadata is
+   * not mapped with keyword sub-fields, segments are scanned instead.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+    // Pages larger than the default result window of indexes are rejected, even with search_after
+    int pageSize = Math.min(queryParams != null ? queryParams.embeddingPageSize() : DEFAULT_PAGE_SIZE,
+                            MAX_RESULT_WINDOW);
+
+    ElasticsearchClient client = new ElasticsearchClient(new RestClientTransport(getRestClient(), new JacksonJsonpMapper()));
+
+    // Sources aggregated server side are handed over page by page, the fallback is only possible before the first one
+    long[] sourceCount = new long[1];
+    try {
 
-    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+      aggregateSources(client, pageSize, sourceObject -> {
+
+        sourceCount[0]++;
+        sourceConsumer.accept(sourceObject);
+      });
 
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+    } catch (ElasticsearchException e) {
 
-    long segmentCount = 0; // Counter to track the number of segments processed
+      if (sourceCount[0] > 0) {
+        throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+      }
+      LOGGER.warn(String.format("Unable to aggregate the sources of %s, scanning its segments instead: %s",
+                                storeName, e.getMessage()));
+      scanSources(client, pageSize).values().forEach(sourceConsumer);
 
-    // Create the Elasticsearch transport and client
-    RestClientTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
-    ElasticsearchClient client = new ElasticsearchClient(transport);
+    } catch (IOException e) {
 
-    String scrollId = null;
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+    }
+  }
+
+  private void aggregateSources(ElasticsearchClient client, int pageSize, Consumer<JSONObject> sourceConsumer) throws IOException {
+
+    Map<String, FieldValue> afterKey = null;
+
+    do {
+
+      Map<String, FieldValue> after = afterKey;
+      Aggregation sourcesAggregation = Aggregation.of(a -> a
+          .composite(c -> {
+            c.size(pageSize)
+                .sources(Collections.singletonMap(SOURCE_KEY_AGGREGATION, CompositeAggregationSource.of(
+                    source -> source.terms(t -> t.script(script -> script.inline(
+                        i -> i.source(SourceAggregationScripts.SOURCE_KEY_SCRIPT)))))));
+            if (after != null) {
+              c.after(after);
+            }
+            return c;
+          })
+          .aggregations(MAX_INDEX_AGGREGATION, max -> max.max(m -> m.script(script -> script.inline(
+              i -> i.source(SourceAggregationScripts.SEGMENT_INDEX_SCRIPT)))))
+          .aggregations(SEGMENT_AGGREGATION, segment -> segment.topHits(
+              t -> t.size(1).source(source -> source.filter(f -> f.includes(SOURCE_METADATA_FIELDS))))));
+
+      SearchResponse<Void> searchResponse = client.search(search -> search
+          .index(storeName)
+          .size(0)
+          .trackTotalHits(t -> t.enabled(false))
+          .aggregations(SOURCES_AGGREGATION, sourcesAggregation), Void.class);
+
+      CompositeAggregate compositeAggregate = searchResponse.aggregations().get(SOURCES_AGGREGATION).composite();
+      List<CompositeBucket> buckets = compositeAggregate.buckets().array();
+      for (CompositeBucket bucket : buckets) {
+
+        List<Hit<JsonData>> segments = bucket.aggregations().get(SEGMENT_AGGREGATION).topHits().hits().hits();
+        if (segments.isEmpty() || segments.get(0).source() == null) {
+          continue;
+        }
+
+        JSONObject metadataObject = new JSONObject(segments.get(0).source().to(Map.class))
+            .optJSONObject(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+        if (metadataObject != null) {
+
+          Double maxIndex = bucket.aggregations().get(MAX_INDEX_AGGREGATION).max().value();
+          JSONObject sourceObject = getSourceObject(
+              metadataObject, maxIndex != null && !maxIndex.isNaN() && !maxIndex.isInfinite() ? maxIndex.longValue() : -1);
+          handOverSourceObject(sourceConsumer, sourceObject);
+        }
+      }
+
+      afterKey = buckets.size() < pageSize ? null : compositeAggregate.afterKey();
+
+    } while (afterKey != null && !afterKey.isEmpty());
+  }
+
+  /**
+   * Scans the segments of the index through a point in time, paging with {@code search_after}.
+   * <p>
+   * Only the metadata read to build the source objects is fetched. When the query parameters ask for parallelism,
+   * the point in time is split into slices read concurrently on the query executor of the connection.
+   * </p>
+   */
+  private HashMap<String, JSONObject> scanSources(ElasticsearchClient client, int pageSize) {
+
+    int sliceCount = Math.max(1, Math.min(queryParams != null ? queryParams.parallelism() : 1,
+                                          BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS));
+
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+    List<Future<HashMap<String, JSONObject>>> futures = new ArrayList<>();
+    String pitId = null;
 
     try {
 
-        // Initial search request with scroll
-        SearchRequest searchRequest = new SearchRequest.Builder()
-            .index(storeName)
-            .size(1)
-            .scroll(Time.of(t -> t.time("1m")))
-            .source(s -> s.filter(f -> f.includes("metadata")))
-            .build();
+      pitId = client.openPointInTime(o -> o.index(storeName).keepAlive(PIT_KEEP_ALIVE)).id();
 
-        SearchResponse<Map> searchResponse = client.search(searchRequest, Map.class);
+      if (sliceCount == 1) {
 
-        // Process initial batch
-        processHits(searchResponse.hits().hits(), sourceObjectMap);
-        scrollId = searchResponse.scrollId();
+        sourceObjectMap = listSlice(client, pitId, null, sliceCount, pageSize);
 
-        // Continue scrolling
-        while (!searchResponse.hits().hits().isEmpty()) {
-          ScrollRequest scrollRequest = new ScrollRequest.Builder()
-              .scrollId(scrollId)
-              .scroll(Time.of(t -> t.time("1m")))
-              .build();
+      } else {
 
-          ScrollResponse<Map> scrollResponse = client.scroll(scrollRequest, Map.class);
-          processHits(scrollResponse.hits().hits(), sourceObjectMap);
-          scrollId = scrollResponse.scrollId();
+        ExecutorService executor = storeConnection.getQueryExecutor();
+        for (int slice = 0; slice < sliceCount; slice++) {
 
-          if (scrollResponse.hits().hits().isEmpty()) {
-            break;
+          int sliceId = slice;
+          String slicePitId = pitId;
+          futures.add(executor.submit(() -> listSlice(client, slicePitId, sliceId, sliceCount, pageSize)));
+        }
+        // Slices may hold segments of the same source, the merge keeps the greatest segment count
+        for (Future<HashMap<String, JSONObject>> future : futures) {
+
+          for (JSONObject sourceObject : future.get().values()) {
+            addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
           }
         }
+      }
 
     } catch (IOException e) {
 
-      LOGGER.error("Error while listing sources", e);
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+
+    } catch (ExecutionException e) {
+
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e.getCause());
+
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(String.format("Interrupted while listing sources from %s", storeName), e);
 
     } finally {
 
-      cleanup(client, scrollId);
+      futures.forEach(future -> future.cancel(true));
+      cleanup(client, pitId);
     }
+    return sourceObjectMap;
+  }
+
+  private HashMap<String, JSONObject> listSlice(ElasticsearchClient client, String pitId, Integer slice, int sliceCount,
+                                                int pageSize) throws IOException {
 
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+    String currentPitId = pitId;
+    List<FieldValue> searchAfter = null;
+
+    while (true) {
+
+      String requestPitId = currentPitId;
+      SearchRequest.Builder searchRequestBuilder = new SearchRequest.Builder()
+          .pit(p -> p.id(requestPitId).keepAlive(PIT_KEEP_ALIVE))
+          .size(pageSize)
+          .sort(s -> s.field(f -> f.field(SHARD_DOC_FIELD).order(SortOrder.Asc)))
+          .trackTotalHits(t -> t.enabled(false))
+          .source(s -> s.filter(f -> f.includes(SOURCE_METADATA_FIELDS)));
+      if (slice != null) {
+        searchRequestBuilder.slice(s -> s.id(String.valueOf(slice)).max(sliceCount));
+      }
+      if (searchAfter != null) {
+        searchRequestBuilder.searchAfter(searchAfter);
+      }
 
-    return jsonObject;
+      SearchResponse<Map> searchResponse = client.search(searchRequestBuilder.build(), Map.class);
+      List<Hit<Map>> hits = searchResponse.hits().hits();
+      processHits(hits, sourceObjectMap);
+
+      if (hits.size() < pageSize) {
+        break;
+      }
+      searchAfter = hits.get(hits.size() - 1).sort();
+      if (searchResponse.pitId() != null) {
+        currentPitId = searchResponse.pitId();
+      }
+    }
+    return sourceObjectMap;
   }
 
   private void processHits(List<Hit<Map>> hits, HashMap<String, JSONObject> sourceObjectMap) {
@@ -169,22 +342,19 @@ public class ElasticsearchStore extends BaseStore {
     }
   }
 
-  private void cleanup(ElasticsearchClient client, String scrollId) {
+  private void cleanup(ElasticsearchClient client, String pitId) {
 
-    if (scrollId != null) {
+    if (pitId != null) {
 
       try {
 
-        ClearScrollRequest clearScrollRequest = new ClearScrollRequest.Builder()
-            .scrollId(scrollId)
-            .build();
-        ClearScrollResponse clearScrollResponse = client.clearScroll(clearScrollRequest);
-        if (!clearScrollResponse.succeeded()) {
-          LOGGER.warn("Failed to clear scroll context");
+        ClosePointInTimeResponse closePointInTimeResponse = client.closePointInTime(c -> c.id(pitId));
+        if (!closePointInTimeResponse.succeeded()) {
+          LOGGER.warn("Failed to close point in time");
         }
       } catch (IOException e) {
 
-        LOGGER.error("Failed to clear scroll context");
+        LOGGER.error("Failed to close point in time");
       }
     }
   }
@@ -5,117 +5,223 @@ import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.milvus.MilvusEmbeddingStore;
 import io.milvus.client.MilvusServiceClient;
+import io.milvus.grpc.ShowPartitionsResponse;
 import io.milvus.orm.iterator.QueryIterator;
-import io.milvus.param.ConnectParam;
-import io.milvus.param.dml.QueryIteratorParam;
 import io.milvus.param.R;
+import io.milvus.param.dml.QueryIteratorParam;
+import io.milvus.param.partition.ShowPartitionsParam;
 import io.milvus.response.QueryResultsWrapper;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.ManagedEmbeddingStore;
 import org.mule.extension.vectors.internal.connection.store.milvus.MilvusStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class MilvusStore extends BaseStore {
 
+  private static final int DEFAULT_PAGE_SIZE = 5000;
+
+  // Namespace of the embedding store cache holding the embedding store returning embeddings on search
+  private static final String EMBEDDINGS_ON_SEARCH_NAMESPACE = "embeddings-on-search";
+
   private final String uri;
   private final String token;
-  private MilvusServiceClient client;
+  private final MilvusStoreConnection milvusStoreConnection;
+  private final boolean retrieveEmbeddings;
 
   private MilvusServiceClient getClient() {
-
-    if(this.client == null || !this.client.clientIsReady()) {
-
-      // Create S3 client with your credentials
-      this.client = new MilvusServiceClient(
-          ConnectParam.newBuilder()
-              .withUri(this.uri)
-              .withToken(token)
-              .build()
-      );
-    }
-    return client;
+    return milvusStoreConnection.getClient();
   }
 
-  public MilvusStore(StoreConfiguration storeConfiguration, MilvusStoreConnection milvusStoreConnection, String storeName, QueryParameters queryParams, int dimension) {
+  public MilvusStore(StoreConfiguration storeConfiguration, MilvusStoreConnection milvusStoreConnection, String storeName, QueryParameters queryParams, int dimension, boolean retrieveEmbeddings) {
 
     super(storeConfiguration, milvusStoreConnection, storeName, queryParams, dimension, true);
 
     this.uri = milvusStoreConnection.getUrl();
     this.token = milvusStoreConnection.getToken();
-    this.client = milvusStoreConnection.getClient();
+    this.milvusStoreConnection = milvusStoreConnection;
+    this.retrieveEmbeddings = retrieveEmbeddings;
   }
 
   public EmbeddingStore<TextSegment> buildEmbeddingStore() {
 
+    return buildEmbeddingStore(false);
+  }
+
+  private EmbeddingStore<TextSegment> buildEmbeddingStore(boolean retrieveEmbeddingsOnSearch) {
+
     return MilvusEmbeddingStore.builder()
         .uri(uri)
         .token(token)
         .collectionName(storeName)
         .dimension(dimension)
+        .retrieveEmbeddingsOnSearch(retrieveEmbeddingsOnSearch)
         .build();
   }
 
-  public JSONObject listSources() {
+  /**
+   * Retrieves the embedding store, returning the embeddings of the search matches only when they are needed by the
+   * client side re-ranking of the query results, as they are a large part of the response. Both embedding stores are
+   * cached apart, the one returning embeddings under its own namespace of the cache.
+   */
+  @Override
+  public EmbeddingStore<TextSegment> getEmbeddingStore() {
 
-    HashMap<String, JSONObject> sourceObjectMap = new HashMap<String, JSONObject>();
-    
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+    if (!retrieveEmbeddings) {
+      return super.getEmbeddingStore();
+    }
+    return getEmbeddingStore(EMBEDDINGS_ON_SEARCH_NAMESPACE, () -> {
 
-    try {
+      EmbeddingStore<TextSegment> embeddingStore = buildEmbeddingStore(true);
+      return new ManagedEmbeddingStore(embeddingStore, closeClientOf(embeddingStore, "milvusClient"));
+    });
+  }
+
+  /**
+   * Builds the embedding store with its teardown. MilvusEmbeddingStore builds its own client, which cannot be replaced
+   * by the shared client of the connection, the teardown closes it once the cached store is no longer used.
+   */
+  @Override
+  public ManagedEmbeddingStore buildManagedEmbeddingStore() {
+
+    EmbeddingStore<TextSegment> embeddingStore = buildEmbeddingStore();
+    return new ManagedEmbeddingStore(embeddingStore, closeClientOf(embeddingStore, "milvusClient"));
+  }
+
+  /**
+   * Lists the sources of the collection with query iterators reading only the metadata field.
+   * <p>
+   * When the query parameters ask for parallelism, the partitions of the collection are spread across iterators run
+   * concurrently on the query executor of the connection. The shared client of the connection is never closed.
+   * Sources are handed over once every segment is read, as any partition may hold segments of any source.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+    MilvusServiceClient milvusClient = getClient();
+    int parallelism = Math.max(1, Math.min(queryParams != null ? queryParams.parallelism() : 1,
+                                           BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS));
+    List<String> partitionNames = parallelism > 1 ? getPartitionNames(milvusClient) : Collections.emptyList();
+
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+
+    if (partitionNames.size() <= 1) {
+
+      sourceObjectMap = listSources(milvusClient, Collections.emptyList());
+
+    } else {
+
+      // Partitions are dealt round robin across at most parallelism iterators
+      int iteratorCount = Math.min(parallelism, partitionNames.size());
+      List<List<String>> partitionGroups = new ArrayList<>();
+      for (int i = 0; i < iteratorCount; i++) {
+        partitionGroups.add(new ArrayList<>());
+      }
+      for (int i = 0; i < partitionNames.size(); i++) {
+        partitionGroups.get(i % iteratorCount).add(partitionNames.get(i));
+      }
+
+      ExecutorService executor = storeConnection.getQueryExecutor();
+      List<Future<HashMap<String, JSONObject>>> futures = new ArrayList<>();
+      try {
 
-      boolean hasMore = true;
+        for (List<String> partitionGroup : partitionGroups) {
+          futures.add(executor.submit(() -> listSources(milvusClient, partitionGroup)));
+        }
+        // Partitions may hold segments of the same source, the merge keeps the greatest segment count
+        for (Future<HashMap<String, JSONObject>> future : futures) {
 
-      // Build the query with iterator
-      QueryIteratorParam iteratorParam = QueryIteratorParam.newBuilder()
-          .withCollectionName(storeName)
-          .withBatchSize((long)queryParams.embeddingPageSize())
-          .withOutFields(Arrays.asList(Constants.STORE_SCHEMA_METADATA_FIELD_NAME))
-          .build();
+          for (JSONObject sourceObject : future.get().values()) {
+            addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+          }
+        }
 
-      R<QueryIterator> queryIteratorRes = getClient().queryIterator(iteratorParam);
+      } catch (ExecutionException e) {
 
-      if (queryIteratorRes.getStatus() != R.Status.Success.getCode()) {
-        System.err.println(queryIteratorRes.getMessage());
+        throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e.getCause());
+
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(String.format("Interrupted while listing sources from %s", storeName), e);
+
+      } finally {
+
+        futures.forEach(future -> future.cancel(true));
       }
+    }
+
+    sourceObjectMap.values().forEach(sourceConsumer);
+  }
 
-      QueryIterator queryIterator = queryIteratorRes.getData();
-      List<QueryResultsWrapper.RowRecord> results = new ArrayList<>();
+  private List<String> getPartitionNames(MilvusServiceClient milvusClient) {
 
-      while (hasMore) {
+    R<ShowPartitionsResponse> showPartitionsRes = milvusClient.showPartitions(
+        ShowPartitionsParam.newBuilder()
+            .withCollectionName(storeName)
+            .build());
 
-        List<QueryResultsWrapper.RowRecord> batchResults = queryIterator.next();
+    if (showPartitionsRes.getStatus() != R.Status.Success.getCode()) {
+      throw new RuntimeException(String.format("Error while listing the partitions of %s: %s",
+                                               storeName, showPartitionsRes.getMessage()));
+    }
+    return showPartitionsRes.getData().getPartitionNamesList();
+  }
 
-        if (batchResults.isEmpty()) {
+  private HashMap<String, JSONObject> listSources(MilvusServiceClient milvusClient, List<String> partitionNames) {
 
-          queryIterator.close();
-          hasMore = false;
-        } else {
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
 
-          for (QueryResultsWrapper.RowRecord rowRecord : batchResults) {
+    QueryIteratorParam.Builder iteratorParamBuilder = QueryIteratorParam.newBuilder()
+        .withCollectionName(storeName)
+        .withBatchSize((long) (queryParams != null ? queryParams.embeddingPageSize() : DEFAULT_PAGE_SIZE))
+        .withOutFields(Collections.singletonList(Constants.STORE_SCHEMA_METADATA_FIELD_NAME));
+    if (!partitionNames.isEmpty()) {
+      iteratorParamBuilder.withPartitionNames(partitionNames);
+    }
 
-            JsonObject gsonObject = (JsonObject)rowRecord.getFieldValues().get(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
-            JSONObject metadataObject = new JSONObject(gsonObject.toString());
-            JSONObject sourceObject = getSourceObject(metadataObject);
-            addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
-          }
+    R<QueryIterator> queryIteratorRes = milvusClient.queryIterator(iteratorParamBuilder.build());
+
+    if (queryIteratorRes.getStatus() != R.Status.Success.getCode()) {
+      throw new RuntimeException(String.format("Error while listing sources from %s: %s",
+                                               storeName, queryIteratorRes.getMessage()));
+    }
+
+    QueryIterator queryIterator = queryIteratorRes.getData();
+    try {
+
+      List<QueryResultsWrapper.RowRecord> batchResults = queryIterator.next();
+      while (!batchResults.isEmpty()) {
+
+        for (QueryResultsWrapper.RowRecord rowRecord : batchResults) {
+
+          JsonObject gsonObject = (JsonObject) rowRecord.getFieldValues().get(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+          JSONObject metadataObject = new JSONObject(gsonObject.toString());
+          JSONObject sourceObject = getSourceObject(metadataObject);
+          addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
         }
+        batchResults = queryIterator.next();
       }
-    } finally {
-      getClient().close();
-    }
 
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+    } finally {
 
-    return jsonObject;
+      queryIterator.close();
+    }
+    return sourceObjectMap;
   }
 }
@@ -0,0 +1,138 @@
+package org.mule.extension.vectors.internal.store.opensearch;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps metadata filters to OpenSearch bool queries.
+ * <p>
+ * Metadata is stored under the metadata field of each document, dynamically mapped. String values are matched on
+ * their keyword sub-field, the one the source aggregation of the store relies on, and other values on the field itself.
+ * </p>
+ */
+final class OpenSearchFilterMapper {
+
+  private OpenSearchFilterMapper() {
+  }
+
+  static Query map(Filter filter) {
+
+    if (filter instanceof And) {
+
+      And and = (And) filter;
+      return Query.of(q -> q.bool(b -> b.must(map(and.left()), map(and.right()))));
+
+    } else if (filter instanceof Or) {
+
+      Or or = (Or) filter;
+      return Query.of(q -> q.bool(b -> b.should(map(or.left()), map(or.right())).minimumShouldMatch("1")));
+
+    } else if (filter instanceof Not) {
+
+      Not not = (Not) filter;
+      return Query.of(q -> q.bool(b -> b.mustNot(map(not.expression()))));
+
+    } else if (filter instanceof IsEqualTo) {
+
+      IsEqualTo isEqualTo = (IsEqualTo) filter;
+      return term(isEqualTo.key(), isEqualTo.comparisonValue());
+
+    } else if (filter instanceof IsNotEqualTo) {
+
+      IsNotEqualTo isNotEqualTo = (IsNotEqualTo) filter;
+      Query term = term(isNotEqualTo.key(), isNotEqualTo.comparisonValue());
+      return Query.of(q -> q.bool(b -> b.mustNot(term)));
+
+    } else if (filter instanceof IsGreaterThan) {
+
+      IsGreaterThan isGreaterThan = (IsGreaterThan) filter;
+      Object value = isGreaterThan.comparisonValue();
+      return Query.of(q -> q.range(r -> r.field(field(isGreaterThan.key(), value)).gt(JsonData.of(value))));
+
+    } else if (filter instanceof IsGreaterThanOrEqualTo) {
+
+      IsGreaterThanOrEqualTo isGreaterThanOrEqualTo = (IsGreaterThanOrEqualTo) filter;
+      Object value = isGreaterThanOrEqualTo.comparisonValue();
+      return Query.of(q -> q.range(r -> r.field(field(isGreaterThanOrEqualTo.key(), value)).gte(JsonData.of(value))));
+
+    } else if (filter instanceof IsLessThan) {
+
+      IsLessThan isLessThan = (IsLessThan) filter;
+      Object value = isLessThan.comparisonValue();
+      return Query.of(q -> q.range(r -> r.field(field(isLessThan.key(), value)).lt(JsonData.of(value))));
+
+    } else if (filter instanceof IsLessThanOrEqualTo) {
+
+      IsLessThanOrEqualTo isLessThanOrEqualTo = (IsLessThanOrEqualTo) filter;
+      Object value = isLessThanOrEqualTo.comparisonValue();
+      return Query.of(q -> q.range(r -> r.field(field(isLessThanOrEqualTo.key(), value)).lte(JsonData.of(value))));
+
+    } else if (filter instanceof IsIn) {
+
+      IsIn isIn = (IsIn) filter;
+      return terms(isIn.key(), isIn.comparisonValues());
+
+    } else if (filter instanceof IsNotIn) {
+
+      IsNotIn isNotIn = (IsNotIn) filter;
+      Query terms = terms(isNotIn.key(), isNotIn.comparisonValues());
+      return Query.of(q -> q.bool(b -> b.mustNot(terms)));
+
+    } else {
+
+      throw new UnsupportedOperationException("Unsupported filter type: " + filter.getClass().getName());
+    }
+  }
+
+  private static Query term(String key, Object value) {
+
+    return Query.of(q -> q.term(t -> t.field(field(key, value)).value(toFieldValue(value))));
+  }
+
+  private static Query terms(String key, Collection<?> values) {
+
+    List<FieldValue> fieldValues = new ArrayList<>(values.size());
+    values.forEach(value -> fieldValues.add(toFieldValue(value)));
+    String field = field(key, values.iterator().next());
+    return Query.of(q -> q.terms(t -> t.field(field).terms(terms -> terms.value(fieldValues))));
+  }
+
+  private static String field(String key, Object value) {
+
+    String field = Constants.STORE_SCHEMA_METADATA_FIELD_NAME + "." + key;
+    return value instanceof String || value instanceof UUID ? field + ".keyword" : field;
+  }
+
+  private static FieldValue toFieldValue(Object value) {
+
+    if (value instanceof String || value instanceof UUID) {
+      return FieldValue.of(value.toString());
+    } else if (value instanceof Boolean) {
+      return FieldValue.of((Boolean) value);
+    } else if (value instanceof Integer || value instanceof Long) {
+      return FieldValue.of(((Number) value).longValue());
+    } else if (value instanceof Number) {
+      return FieldValue.of(((Number) value).doubleValue());
+    }
+    throw new UnsupportedOperationException("Unsupported filter value type: " + value.getClass().getName());
+  }
+}
@@ -3,6 +3,7 @@ package org.mule.extension.vectors.internal.store.opensearch;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.internal.Utils;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.Filter;
 import dev.langchain4j.store.embedding.opensearch.OpenSearchEmbeddingStore;
 import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.HttpHost;
@@ -12,25 +13,58 @@ import org.mule.extension.vectors.internal.config.StoreConfiguration;
 import org.mule.extension.vectors.internal.connection.store.opensearch.OpenSearchStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.RemovalParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
+import org.mule.extension.vectors.internal.store.SourceAggregationScripts;
+import org.opensearch.client.json.JsonData;
 import org.opensearch.client.json.jackson.JacksonJsonpMapper;
 import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.Conflicts;
+import org.opensearch.client.opensearch._types.OpenSearchException;
 import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch._types.aggregations.Aggregation;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregate;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregationSource;
+import org.opensearch.client.opensearch._types.aggregations.CompositeBucket;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.DeleteByQueryResponse;
 import org.opensearch.client.opensearch.core.ScrollRequest;
 import org.opensearch.client.opensearch.core.ScrollResponse;
 import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.SearchResponse;
 import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.IndexState;
+import org.opensearch.client.opensearch.tasks.GetTasksResponse;
+import org.opensearch.client.opensearch.tasks.Status;
 import org.opensearch.client.transport.OpenSearchTransport;
 import org.opensearch.client.transport.httpclient5.ApacheHttpClient5TransportBuilder;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class OpenSearchStore extends BaseStore {
 
+  private static final int DEFAULT_PAGE_SIZE = 5000;
+
+  private static final int MAX_RESULT_WINDOW = 10000;
+
+  private static final String PAINLESS = "painless";
+
+  private static final String SOURCES_AGGREGATION = "sources";
+  private static final String SOURCE_KEY_AGGREGATION = "source_key";
+  private static final String MAX_INDEX_AGGREGATION = "max_index";
+  private static final String SEGMENT_AGGREGATION = "segment";
+
+  private static final List<String> SOURCE_METADATA_FIELDS = Arrays.stream(LIST_SOURCES_METADATA_KEYS)
+      .map(key -> Constants.STORE_SCHEMA_METADATA_FIELD_NAME + "." + key)
+      .collect(Collectors.toList());
+
   private final String url;
   private final String user;
   private final String password;
@@ -90,14 +124,114 @@ public class OpenSearchStore extends BaseStore {
           .build();
   }
 
-  public JSONObject listSources() {
+  /**
+   * Lists the sources of the index.
+   * <p>
+   * Sources are aggregated server side with a composite aggregation keyed on the source unique key, so that a single
+   * bucket per source is returned, holding the greatest segment index and the metadata of one segment. Buckets are
+   * paged with the after key of the aggregation. If the index cannot be aggregated, for instance when its metadata is
+   * not mapped with keyword sub-fields, segments are scrolled instead.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+    OpenSearchClient client = getOpenSearchClient();
+    int pageSize = Math.min(queryParams != null ? queryParams.embeddingPageSize() : DEFAULT_PAGE_SIZE,
+                            MAX_RESULT_WINDOW);
+
+    // Sources aggregated server side are handed over page by page, the fallback is only possible before the first one
+    long[] sourceCount = new long[1];
+    try {
 
-    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+      aggregateSources(client, pageSize, sourceObject -> {
+
+        sourceCount[0]++;
+        sourceConsumer.accept(sourceObject);
+      });
+
+    } catch (OpenSearchException e) {
 
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+      if (sourceCount[0] > 0) {
+        throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+      }
+      LOGGER.warn(String.format("Unable to aggregate the sources of %s, scrolling its segments instead: %s",
+                                storeName, e.getMessage()));
+      scrollSources(client, pageSize).values().forEach(sourceConsumer);
+
+    } catch (IOException e) {
+
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+    }
+  }
+
+  private void aggregateSources(OpenSearchClient client, int pageSize, Consumer<JSONObject> sourceConsumer) throws IOException {
+
+    Map<String, String> afterKey = null;
+
+    do {
+
+      Map<String, String> after = afterKey;
+      Aggregation sourcesAggregation = Aggregation.of(a -> a
+          .composite(c -> {
+            CompositeAggregationSource sourceKey = CompositeAggregationSource.of(
+                source -> source.terms(t -> t.script(script -> script.inline(
+                    i -> i.source(SourceAggregationScripts.SOURCE_KEY_SCRIPT).lang(PAINLESS)))));
+            c.size(pageSize)
+                .sources(Collections.singletonList(Collections.singletonMap(SOURCE_KEY_AGGREGATION, sourceKey)));
+            if (after != null) {
+              c.after(after);
+            }
+            return c;
+          })
+          .aggregations(MAX_INDEX_AGGREGATION, max -> max.max(m -> m.script(script -> script.inline(
+              i -> i.source(SourceAggregationScripts.SEGMENT_INDEX_SCRIPT).lang(PAINLESS)))))
+          .aggregations(SEGMENT_AGGREGATION, segment -> segment.topHits(
+              t -> t.size(1).source(source -> source.filter(f -> f.includes(SOURCE_METADATA_FIELDS))))));
+
+      SearchResponse<Void> searchResponse = client.search(search -> search
+          .index(storeName)
+          .size(0)
+          .trackTotalHits(t -> t.enabled(false))
+          .aggregations(SOURCES_AGGREGATION, sourcesAggregation), Void.class);
+
+      CompositeAggregate compositeAggregate = searchResponse.aggregations().get(SOURCES_AGGREGATION).composite();
+      List<CompositeBucket> buckets = compositeAggregate.buckets().array();
+      for (CompositeBucket bucket : buckets) {
+
+        List<Hit<JsonData>> segments = bucket.aggregations().get(SEGMENT_AGGREGATION).topHits().hits().hits();
+        if (segments.isEmpty() || segments.get(0).source() == null) {
+          continue;
+        }
 
-    long segmentCount = 0; // Counter to track the number of segments processed
+        JSONObject metadataObject = new JSONObject(segments.get(0).source().to(Map.class))
+            .optJSONObject(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+        if (metadataObject != null) {
+
+          Double maxIndex = bucket.aggregations().get(MAX_INDEX_AGGREGATION).max().value();
+          JSONObject sourceObject = getSourceObject(
+              metadataObject, maxIndex != null && !maxIndex.isNaN() && !maxIndex.isInfinite() ? maxIndex.longValue() : -1);
+          handOverSourceObject(sourceConsumer, sourceObject);
+        }
+      }
+
+      afterKey = null;
+      if (buckets.size() == pageSize && compositeAggregate.afterKey() != null) {
+
+        afterKey = new HashMap<>();
+        for (Map.Entry<String, JsonData> entry : compositeAggregate.afterKey().entrySet()) {
+          afterKey.put(entry.getKey(), entry.getValue().to(String.class));
+        }
+      }
+
+    } while (afterKey != null && !afterKey.isEmpty());
+  }
+
+  private HashMap<String, JSONObject> scrollSources(OpenSearchClient client, int pageSize) {
+
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
 
     try {
 
@@ -108,12 +242,12 @@ public class OpenSearchStore extends BaseStore {
         // Initial search request with scroll
         SearchRequest searchRequest = new SearchRequest.Builder()
             .index(storeName)
-            .source(source -> source.filter(filter -> filter.includes("metadata"))) // Filter to include only metadata
-            .size(queryParams.embeddingPageSize())
+            .source(source -> source.filter(filter -> filter.includes(SOURCE_METADATA_FIELDS)))
+            .size(pageSize)
             .scroll(Time.of(t -> t.time("1m")))
             .build();
 
-        SearchResponse<Object> searchResponse = openSearchClient.search(searchRequest, Object.class);
+        SearchResponse<Object> searchResponse = client.search(searchRequest, Object.class);
 
         // Process initial batch
         processHits(searchResponse.hits().hits(), sourceObjectMap);
@@ -127,7 +261,7 @@ public class OpenSearchStore extends BaseStore {
               .scroll(Time.of(t -> t.time("1m")))
               .build();
 
-          ScrollResponse<Object> scrollResponse = openSearchClient.scroll(scrollRequest, Object.class);
+          ScrollResponse<Object> scrollResponse = client.scroll(scrollRequest, Object.class);
           processHits(scrollResponse.hits().hits(), sourceObjectMap);
           scrollId[0] = scrollResponse.scrollId();
 
@@ -137,18 +271,143 @@ public class OpenSearchStore extends BaseStore {
         }
 
       } finally {
-        cleanup(openSearchClient, scrollId[0]);
+        cleanup(client, scrollId[0]);
       }
 
     } catch (IOException e) {
 
-      LOGGER.error("Error while listing sources", e);
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
     }
+    return sourceObjectMap;
+  }
+
+  @Override
+  public void removeAll(Filter filter) {
+
+    removeAll(filter, null);
+  }
 
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+  /**
+   * Removes the embeddings of the index matching the filter with a single delete by query.
+   * <p>
+   * The filter is translated to a bool query, so that documents are deleted server side without being read. The
+   * deletion is sliced, by default one slice per primary shard, and version conflicts are counted and skipped unless
+   * the removal parameters abort on them. When not waiting for completion, the deletion runs as a task of the cluster
+   * that is polled until it completes.
+   * </p>
+   *
+   * @param filter        the metadata filter, or null to remove every embedding of the index
+   * @param removalParams the removal strategy, can be null
+   * @return the deleted, total, version conflict and failure counts, the slices and the time taken by the cluster
+   */
+  @Override
+  public HashMap<String, Object> removeAll(Filter filter, RemovalParameters removalParams) {
+
+    OpenSearchClient client = getOpenSearchClient();
+    Query query = filter != null ? OpenSearchFilterMapper.map(filter) : Query.of(q -> q.matchAll(m -> m));
+    boolean waitForCompletion = removalParams == null || removalParams.isWaitForCompletion();
+    Conflicts conflicts = removalParams != null && removalParams.isAbortOnVersionConflict()
+        ? Conflicts.Abort : Conflicts.Proceed;
+
+    HashMap<String, Object> statistics = new HashMap<>();
 
-    return jsonObject;
+    try {
+
+      long slices = removalParams != null && removalParams.getSlices() != null
+          ? removalParams.getSlices() : getPrimaryShardCount(client);
+      statistics.put("slices", slices);
+
+      DeleteByQueryResponse response = client.deleteByQuery(d -> d
+          .index(storeName)
+          .query(query)
+          .slices(slices)
+          .conflicts(conflicts)
+          .refresh(true)
+          .waitForCompletion(waitForCompletion));
+
+      if (waitForCompletion) {
+
+        statistics.put("deletedCount", response.deleted());
+        statistics.put("totalCount", response.total());
+        statistics.put("versionConflictCount", response.versionConflicts());
+        statistics.put("failureCount", response.failures().size());
+        statistics.put("tookMillis", response.took());
+
+      } else {
+
+        statistics.put("taskId", response.task());
+        Status status = awaitTask(client, response.task(),
+                                  TimeUnit.SECONDS.toMillis(removalParams.getTaskPollingIntervalInSeconds()));
+        statistics.put("deletedCount", status.deleted());
+        statistics.put("totalCount", status.total());
+        statistics.put("versionConflictCount", status.versionConflicts());
+        statistics.put("failureCount", status.failures().size());
+        statistics.put("tookMillis", status.took());
+      }
+
+    } catch (IOException e) {
+
+      throw new RuntimeException(String.format("Error while removing embeddings from %s", storeName), e);
+    }
+
+    LOGGER.debug(String.format("Removed embeddings from %s: %s", storeName, statistics));
+    return statistics;
+  }
+
+  /**
+   * Retrieves the number of primary shards of the index, the number of slices the automatic slicing of the cluster
+   * would use. When the store name is an alias of several indexes, the smallest number of shards is used.
+   */
+  private long getPrimaryShardCount(OpenSearchClient client) throws IOException {
+
+    long shardCount = Long.MAX_VALUE;
+    for (IndexState indexState : client.indices().getSettings(s -> s.index(storeName)).result().values()) {
+
+      IndexSettings settings = indexState.settings();
+      IndexSettings indexSettings = settings != null && settings.index() != null ? settings.index() : settings;
+      if (indexSettings != null && indexSettings.numberOfShards() != null) {
+        shardCount = Math.min(shardCount, Long.parseLong(indexSettings.numberOfShards()));
+      }
+    }
+    return shardCount == Long.MAX_VALUE ? 1 : Math.max(shardCount, 1);
+  }
+
+  /**
+   * Polls a task of the cluster until it completes. The task is cancelled if the calling thread is interrupted.
+   */
+  private Status awaitTask(OpenSearchClient client, String taskId, long pollingIntervalMillis) throws IOException {
+
+    while (true) {
+
+      GetTasksResponse taskResponse = client.tasks().get(t -> t.taskId(taskId));
+      if (taskResponse.completed()) {
+
+        if (taskResponse.error() != null) {
+          throw new IOException(String.format("Removal task %s on %s failed: %s",
+                                              taskId, storeName, taskResponse.error().reason()));
+        }
+        return taskResponse.response();
+      }
+
+      try {
+
+        Thread.sleep(pollingIntervalMillis);
+
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        try {
+
+          client.tasks().cancel(c -> c.taskId(taskId));
+
+        } catch (IOException | OpenSearchException cancelException) {
+
+          LOGGER.warn(String.format("Unable to cancel removal task %s on %s", taskId, storeName), cancelException);
+        }
+        throw new InterruptedIOException(String.format("Interrupted while waiting for removal task %s on %s",
+                                                       taskId, storeName));
+      }
+    }
   }
 
   private void processHits(List<Hit<Object>> hits, HashMap<String, JSONObject> sourceObjectMap) {
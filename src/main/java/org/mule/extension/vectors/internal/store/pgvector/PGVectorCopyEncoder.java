@@ -0,0 +1,93 @@
+package org.mule.extension.vectors.internal.store.pgvector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Encodes rows of a PGVector table in the PostgreSQL binary COPY format.
+ * <p>
+ * Each row holds the embedding id (uuid), the embedding (pgvector vector), the text (text) and the metadata (json or
+ * jsonb). Rows are buffered until {@link #drain()} hands the encoded bytes over to the COPY stream.
+ * </p>
+ *
+ * @see <a href="https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9.4">Binary COPY format</a>
+ */
+final class PGVectorCopyEncoder {
+
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+  private static final short FIELD_COUNT = 4;
+
+  private static final byte JSONB_VERSION = 1;
+
+  private final boolean jsonbMetadata;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+  private final DataOutputStream output = new DataOutputStream(buffer);
+
+  PGVectorCopyEncoder(boolean jsonbMetadata) {
+    this.jsonbMetadata = jsonbMetadata;
+  }
+
+  void writeHeader() throws IOException {
+
+    output.write(SIGNATURE);
+    output.writeInt(0); // Flags
+    output.writeInt(0); // Header extension length
+  }
+
+  void writeRow(UUID id, float[] vector, String text, byte[] metadataJson) throws IOException {
+
+    output.writeShort(FIELD_COUNT);
+
+    output.writeInt(16);
+    output.writeLong(id.getMostSignificantBits());
+    output.writeLong(id.getLeastSignificantBits());
+
+    // pgvector binary format: dimension (int16), unused (int16), float4 components
+    output.writeInt(4 + 4 * vector.length);
+    output.writeShort(vector.length);
+    output.writeShort(0);
+    for (float component : vector) {
+      output.writeFloat(component);
+    }
+
+    if (text == null) {
+
+      output.writeInt(-1);
+    } else {
+
+      byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(textBytes.length);
+      output.write(textBytes);
+    }
+
+    if (jsonbMetadata) {
+
+      output.writeInt(1 + metadataJson.length);
+      output.writeByte(JSONB_VERSION);
+    } else {
+
+      output.writeInt(metadataJson.length);
+    }
+    output.write(metadataJson);
+  }
+
+  void writeTrailer() throws IOException {
+    output.writeShort(-1);
+  }
+
+  int size() {
+    return buffer.size();
+  }
+
+  byte[] drain() throws IOException {
+
+    output.flush();
+    byte[] bytes = buffer.toByteArray();
+    buffer.reset();
+    return bytes;
+  }
+}
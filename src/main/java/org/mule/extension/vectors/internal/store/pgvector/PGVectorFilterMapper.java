@@ -0,0 +1,149 @@
+package org.mule.extension.vectors.internal.store.pgvector;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Maps metadata filters to SQL conditions on the JSON metadata column of PGVector tables.
+ * <p>
+ * Conditions follow the ones generated by the PgVectorEmbeddingStore for combined JSON metadata, so that native
+ * searches return the same rows. String values are escaped.
+ * </p>
+ */
+final class PGVectorFilterMapper {
+
+  private static final Map<Class<?>, String> SQL_TYPES = new HashMap<>();
+
+  static {
+    SQL_TYPES.put(Integer.class, "int");
+    SQL_TYPES.put(Long.class, "bigint");
+    SQL_TYPES.put(Float.class, "float");
+    SQL_TYPES.put(Double.class, "float8");
+    SQL_TYPES.put(String.class, "text");
+    SQL_TYPES.put(UUID.class, "uuid");
+    SQL_TYPES.put(Boolean.class, "boolean");
+  }
+
+  private final String metadataColumn;
+
+  PGVectorFilterMapper(String metadataColumn) {
+    this.metadataColumn = metadataColumn;
+  }
+
+  String map(Filter filter) {
+
+    if (filter instanceof IsEqualTo) {
+
+      IsEqualTo isEqualTo = (IsEqualTo) filter;
+      String key = formatKey(isEqualTo.key(), isEqualTo.comparisonValue().getClass());
+      return String.format("(%s IS NOT NULL AND %s = %s)", key, key, formatValue(isEqualTo.comparisonValue()));
+
+    } else if (filter instanceof IsNotEqualTo) {
+
+      IsNotEqualTo isNotEqualTo = (IsNotEqualTo) filter;
+      String key = formatKey(isNotEqualTo.key(), isNotEqualTo.comparisonValue().getClass());
+      return String.format("(%s IS NULL OR %s != %s)", key, key, formatValue(isNotEqualTo.comparisonValue()));
+
+    } else if (filter instanceof IsGreaterThan) {
+
+      IsGreaterThan isGreaterThan = (IsGreaterThan) filter;
+      return String.format("%s > %s", formatKey(isGreaterThan.key(), isGreaterThan.comparisonValue().getClass()),
+                           formatValue(isGreaterThan.comparisonValue()));
+
+    } else if (filter instanceof IsGreaterThanOrEqualTo) {
+
+      IsGreaterThanOrEqualTo isGreaterThanOrEqualTo = (IsGreaterThanOrEqualTo) filter;
+      return String.format("%s >= %s",
+                           formatKey(isGreaterThanOrEqualTo.key(), isGreaterThanOrEqualTo.comparisonValue().getClass()),
+                           formatValue(isGreaterThanOrEqualTo.comparisonValue()));
+
+    } else if (filter instanceof IsLessThan) {
+
+      IsLessThan isLessThan = (IsLessThan) filter;
+      return String.format("%s < %s", formatKey(isLessThan.key(), isLessThan.comparisonValue().getClass()),
+                           formatValue(isLessThan.comparisonValue()));
+
+    } else if (filter instanceof IsLessThanOrEqualTo) {
+
+      IsLessThanOrEqualTo isLessThanOrEqualTo = (IsLessThanOrEqualTo) filter;
+      return String.format("%s <= %s",
+                           formatKey(isLessThanOrEqualTo.key(), isLessThanOrEqualTo.comparisonValue().getClass()),
+                           formatValue(isLessThanOrEqualTo.comparisonValue()));
+
+    } else if (filter instanceof IsIn) {
+
+      IsIn isIn = (IsIn) filter;
+      return String.format("%s IN %s", formatKeyAsText(isIn.key()), formatValuesAsText(isIn.comparisonValues()));
+
+    } else if (filter instanceof IsNotIn) {
+
+      IsNotIn isNotIn = (IsNotIn) filter;
+      String key = formatKeyAsText(isNotIn.key());
+      return String.format("(%s IS NULL OR %s NOT IN %s)", key, key, formatValuesAsText(isNotIn.comparisonValues()));
+
+    } else if (filter instanceof And) {
+
+      And and = (And) filter;
+      return String.format("(%s AND %s)", map(and.left()), map(and.right()));
+
+    } else if (filter instanceof Or) {
+
+      Or or = (Or) filter;
+      return String.format("(%s OR %s)", map(or.left()), map(or.right()));
+
+    } else if (filter instanceof Not) {
+
+      return String.format("NOT (%s)", map(((Not) filter).expression()));
+
+    } else {
+
+      throw new UnsupportedOperationException("Unsupported filter type: " + filter.getClass().getName());
+    }
+  }
+
+  private String formatKey(String key, Class<?> valueType) {
+
+    String sqlType = SQL_TYPES.get(valueType);
+    if (sqlType == null) {
+      throw new UnsupportedOperationException("Unsupported filter value type: " + valueType.getName());
+    }
+    return String.format("(%s->>%s)::%s", metadataColumn, quote(key), sqlType);
+  }
+
+  private String formatKeyAsText(String key) {
+    return String.format("(%s->>%s)", metadataColumn, quote(key));
+  }
+
+  private static String formatValue(Object value) {
+
+    if (value instanceof String || value instanceof UUID) {
+      return quote(value.toString());
+    }
+    return value.toString();
+  }
+
+  private static String formatValuesAsText(Collection<?> values) {
+    return values.stream().map(value -> quote(value.toString())).collect(joining(",", "(", ")"));
+  }
+
+  private static String quote(String value) {
+    return "'" + value.replace("'", "''") + "'";
+  }
+}
@@ -1,28 +1,46 @@
 package org.mule.extension.vectors.internal.store.pgvector;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
-import dev.langchain4j.internal.ValidationUtils;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorDistance;
+import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorIndexType;
 import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorStoreConnectionParameters;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.SearchTuningParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
-import org.postgresql.ds.PGSimpleDataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Represents a store for vector data using PostgreSQL with PGVector extension.
@@ -32,34 +50,45 @@ public class PGVectorStore extends BaseStore {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PGVectorStore.class);
 
-  private String user;
-  private String password;
-  private String host;
-  private int port;
-  private String database;
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-  private DataSource dataSource;
+  private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<Map<String, Object>>() {};
 
-  public javax.sql.DataSource getDataSource() {
+  // Columns of the tables created by PgVectorEmbeddingStore, with metadata stored as combined JSON
+  private static final String ID_COLUMN = "embedding_id";
+  private static final String EMBEDDING_COLUMN = "embedding";
+  private static final String TEXT_COLUMN = "text";
+  private static final String METADATA_COLUMN = Constants.STORE_SCHEMA_METADATA_FIELD_NAME;
 
-    if(dataSource == null) {
+  private static final int COPY_BUFFER_SIZE = 1024 * 1024;
 
-      host = ValidationUtils.ensureNotBlank(host, "host");
-      port = ValidationUtils.ensureGreaterThanZero(port, "port");
-      user = ValidationUtils.ensureNotBlank(user, "user");
-      password = ValidationUtils.ensureNotBlank(password, "password");
-      database = ValidationUtils.ensureNotBlank(database, "database");
-      PGSimpleDataSource source = new PGSimpleDataSource();
-      source.setServerNames(new String[]{host});
-      source.setPortNumbers(new int[]{port});
-      source.setDatabaseName(database);
-      source.setUser(user);
-      source.setPassword(password);
-      this.dataSource = source;
-    }
+  private final PGVectorStoreConnection pgVectorStoreConnection;
+  private final DataSource dataSource;
+  private final PGVectorIndexType indexType;
+  private final PGVectorDistance distance;
+  private final int hnswM;
+  private final int hnswEfConstruction;
+  private final int ivfflatLists;
+  private final PGVectorFilterMapper filterMapper = new PGVectorFilterMapper(METADATA_COLUMN);
+
+  /**
+   * Retrieves the pooled data source owned by the store connection.
+   *
+   * @return the pooled data source
+   */
+  public DataSource getDataSource() {
     return dataSource;
   }
 
+  /**
+   * Retrieves the data source serving reads, a read replica if any is available.
+   *
+   * @return the pooled data source of a read replica, or of the primary
+   */
+  public DataSource getReadDataSource() {
+    return pgVectorStoreConnection.getReadDataSource();
+  }
+
   /**
    * Constructs a PGVectorVectorStore instance using configuration and query parameters.
    *
@@ -71,167 +100,621 @@ public class PGVectorStore extends BaseStore {
 
     super(storeConfiguration, pgVectorStoreConnection, storeName, queryParams, dimension, createStore);
 
-    this.host = pgVectorStoreConnection.getHost();
-    this.port = pgVectorStoreConnection.getPort();
-    this.database = pgVectorStoreConnection.getDatabase();
-    this.user = pgVectorStoreConnection.getUser();
-    this.password = pgVectorStoreConnection.getPassword();
+    this.pgVectorStoreConnection = pgVectorStoreConnection;
     this.dataSource = pgVectorStoreConnection.getDataSource();
+
+    PGVectorStoreConnectionParameters parameters = pgVectorStoreConnection.getParameters();
+    this.indexType = parameters.getIndexType() != null ? parameters.getIndexType() : PGVectorIndexType.NONE;
+    this.distance = parameters.getDistance() != null ? parameters.getDistance() : PGVectorDistance.COSINE;
+    this.hnswM = parameters.getHnswM();
+    this.hnswEfConstruction = parameters.getHnswEfConstruction();
+    this.ivfflatLists = parameters.getIvfflatLists();
   }
 
+  /**
+   * Builds the embedding store of the table, creating the table if requested. The index configured for the connection
+   * is created along with the table, so that stores built for an existing table do not issue any index statement.
+   */
   public EmbeddingStore<TextSegment> buildEmbeddingStore() {
 
-    return PgVectorEmbeddingStore.datasourceBuilder()
+    boolean createIndex = createStore && indexType != PGVectorIndexType.NONE && !tableExists();
+
+    EmbeddingStore<TextSegment> embeddingStore = PgVectorEmbeddingStore.datasourceBuilder()
         .datasource(getDataSource())
         .table(storeName)
         .dimension(dimension)
         .createTable(createStore)
         .build();
+
+    if (createIndex) {
+
+      // Built concurrently so that writes started right after the table creation are not blocked, which cannot run in
+      // a transaction: pooled connections are in auto-commit mode
+      try (Connection connection = getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+
+        statement.execute(getIndexDefinition(getIndexName(), true));
+
+      } catch (SQLException e) {
+
+        throw new RuntimeException(String.format("Error while creating the %s index of %s", indexType, storeName), e);
+      }
+    }
+    return embeddingStore;
+  }
+
+  private boolean tableExists() {
+
+    try (Connection connection = getDataSource().getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+
+      statement.setString(1, storeName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+
+    } catch (SQLException e) {
+
+      throw new RuntimeException(String.format("Error while looking up the table of %s", storeName), e);
+    }
   }
 
   /**
-   * Lists the sources stored in the PostgreSQL database.
+   * Searches the table. The search runs natively when the connection configures an index or a distance the embedding
+   * store cannot use, since it always orders rows by their cosine relevance score, which no index serves. Otherwise,
+   * the embedding store searches the table.
    *
-   * @return A {@link JSONObject} containing the sources and their metadata.
+   * @param searchRequest the search request
+   * @return the search result
    */
-  public JSONObject listSources() {
+  @Override
+  public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest) {
 
-    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+    if (indexType == PGVectorIndexType.NONE && distance == PGVectorDistance.COSINE) {
+      return getEmbeddingStore().search(searchRequest);
+    }
+    return searchNatively(searchRequest, null);
+  }
 
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+  /**
+   * Searches the table natively, ordering rows by the distance operator so that the approximate nearest neighbor index
+   * built with the matching operator class is used.
+   * <p>
+   * When tuning is given, the search runs in a transaction where it is applied with {@code SET LOCAL}, so that it does
+   * not leak to other queries running on the same pooled connection: {@code hnsw.ef_search}, {@code ivfflat.probes},
+   * and index scans are disabled for exact searches. Without tuning, the search is the one of {@link
+   * #search(EmbeddingSearchRequest)}.
+   * </p>
+   */
+  @Override
+  public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest,
+                                                   SearchTuningParameters searchTuning) {
 
-    try (PgVectorMetadataIterator iterator = new PgVectorMetadataIterator(user, password, host, port, database, storeName, (int)queryParams.embeddingPageSize())) {
-      while (iterator.hasNext()) {
+    if (searchTuning == null || !searchTuning.isSet()) {
+      return search(searchRequest);
+    }
+    return searchNatively(searchRequest, searchTuning);
+  }
+
+  private EmbeddingSearchResult<TextSegment> searchNatively(EmbeddingSearchRequest searchRequest,
+                                                            SearchTuningParameters searchTuning) {
+
+    String distanceExpression = String.format("%s %s ?", EMBEDDING_COLUMN, distance.getOperator());
+    String query = String.format("SELECT %s, %s::real[], %s, %s, %s AS distance FROM %s%s ORDER BY %s LIMIT ?",
+                                 ID_COLUMN, EMBEDDING_COLUMN, TEXT_COLUMN, METADATA_COLUMN, distanceExpression,
+                                 storeName,
+                                 searchRequest.filter() != null ? " WHERE " + filterMapper.map(searchRequest.filter()) : "",
+                                 distanceExpression);
+    boolean tuned = searchTuning != null && searchTuning.isSet();
 
-        JSONObject metadataObject = new JSONObject(iterator.next());
-        JSONObject sourceObject = getSourceObject(metadataObject);
-        addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+    try (Connection connection = getReadDataSource().getConnection()) {
+
+      if (tuned) {
+
+        connection.setAutoCommit(false);
       }
-    } catch (SQLException e) {
-      LOGGER.error("Error while listing sources", e);
+      try {
+
+        if (tuned) {
+
+          applySearchTuning(connection, searchTuning);
+        }
+
+        List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+        PGvector queryVector = new PGvector(searchRequest.queryEmbedding().vector());
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+
+          statement.setObject(1, queryVector);
+          statement.setObject(2, queryVector);
+          statement.setInt(3, searchRequest.maxResults());
+          try (ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+
+              double score = distance.toScore(resultSet.getDouble(5));
+              if (score < searchRequest.minScore()) {
+                // Rows are sorted by distance, the next ones score lower
+                break;
+              }
+              matches.add(toEmbeddingMatch(resultSet, score));
+            }
+          }
+        }
+
+        if (tuned) {
+
+          connection.commit();
+        }
+        return new EmbeddingSearchResult<>(matches);
+
+      } catch (SQLException | IOException | RuntimeException e) {
+
+        if (tuned) {
+
+          connection.rollback();
+        }
+        throw e;
+
+      } finally {
+
+        if (tuned) {
+
+          connection.setAutoCommit(true);
+        }
+      }
+
+    } catch (SQLException | IOException e) {
+
+      throw new RuntimeException(String.format("Error while searching %s", storeName), e);
     }
+  }
 
-    jsonObject.put(Constants.JSON_KEY_SOURCES, JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-    jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+  private static void applySearchTuning(Connection connection, SearchTuningParameters searchTuning) throws SQLException {
 
-    return jsonObject;
+    try (Statement statement = connection.createStatement()) {
+
+      if (searchTuning.getEfSearch() != null) {
+
+        statement.execute("SET LOCAL hnsw.ef_search = " + ensurePositive(searchTuning.getEfSearch(), "efSearch"));
+      }
+      if (searchTuning.getProbes() != null) {
+
+        statement.execute("SET LOCAL ivfflat.probes = " + ensurePositive(searchTuning.getProbes(), "probes"));
+      }
+      if (searchTuning.isExactSearch()) {
+
+        statement.execute("SET LOCAL enable_indexscan = off");
+      }
+    }
+  }
+
+  private static int ensurePositive(int value, String name) {
+
+    if (value <= 0) {
+      throw new IllegalArgumentException(String.format("%s must be greater than zero. Received: %s", name, value));
+    }
+    return value;
+  }
+
+  private static EmbeddingMatch<TextSegment> toEmbeddingMatch(ResultSet resultSet, double score)
+      throws SQLException, IOException {
+
+    Float[] components = (Float[]) resultSet.getArray(2).getArray();
+    float[] vector = new float[components.length];
+    for (int i = 0; i < components.length; i++) {
+      vector[i] = components[i];
+    }
+
+    String text = resultSet.getString(3);
+    String metadataJson = resultSet.getString(4);
+    Metadata metadata = metadataJson != null
+        ? Metadata.from(OBJECT_MAPPER.<Map<String, Object>>readValue(metadataJson, METADATA_TYPE))
+        : new Metadata();
+
+    return new EmbeddingMatch<>(score,
+                                resultSet.getString(1),
+                                new Embedding(vector),
+                                text != null ? TextSegment.from(text, metadata) : null);
   }
 
   /**
-   * Iterator to handle metadata pagination from the PostgreSQL database.
+   * Builds the approximate nearest neighbor index of the table concurrently, without blocking writes.
+   * <p>
+   * The index is built under a temporary name, then swapped with the current index, if any, so that queries keep using
+   * the current index until the new one is ready. The current index is dropped and the new one renamed in a single
+   * transaction, so that the table is never left without index. An invalid index left by a failed build is dropped.
+   * </p>
    */
-  private class PgVectorMetadataIterator implements Iterator<String>, AutoCloseable {
-
-    private int offset = 0; // Current offset for pagination
-    private ResultSet resultSet;
-    private PreparedStatement pstmt;
-    private Connection connection;
-    private String table;
-    int pageSize;
-
-    /**
-     * Constructs a PgVectorMetadataIterator for fetching metadata from the database in pages.
-     *
-     * @param userName The username for database access.
-     * @param password The password for database access.
-     * @param host The PostgreSQL host.
-     * @param port The PostgreSQL port.
-     * @param database The name of the database.
-     * @param table The table to fetch metadata from.
-     * @param pageSize The number of rows per page for pagination.
-     * @throws SQLException If a database error occurs.
-     */
-    private PgVectorMetadataIterator(String userName, String password, String host, int port, String database, String table, int pageSize) throws SQLException {
-
-      // Initialize the connection and the first page of data
-      PGSimpleDataSource dataSource = new PGSimpleDataSource();
-      dataSource.setServerNames(new String[]{host});
-      dataSource.setPortNumbers(new int[]{port});
-      dataSource.setDatabaseName(database);
-      dataSource.setUser(userName);
-      dataSource.setPassword(password);
-
-      connection = dataSource.getConnection();
-
-      this.table = table;
-      this.pageSize = pageSize;
-
-      fetchNextPage();
-    }
-
-    /**
-     * Fetches the next page of metadata from the database.
-     *
-     * @throws SQLException If a database error occurs.
-     */
-    private void fetchNextPage() throws SQLException {
-      if (pstmt != null) {
-        pstmt.close();
-      }
-
-      String query = "SELECT " + Constants.STORE_SCHEMA_METADATA_FIELD_NAME  + " FROM " + table + " LIMIT ? OFFSET ?";
-      pstmt = connection.prepareStatement(query);
-      pstmt.setInt(1, this.pageSize);
-      pstmt.setInt(2, offset);
-      resultSet = pstmt.executeQuery();
-      offset += pageSize;
-    }
-
-    /**
-     * Checks if there are more elements in the result set.
-     *
-     * @return {@code true} if there are more elements, {@code false} otherwise.
-     */
-    @Override
-    public boolean hasNext() {
+  @Override
+  public JSONObject rebuildIndex() {
+
+    if (indexType == PGVectorIndexType.NONE) {
+      throw new IllegalArgumentException("No index type is configured for the PGVector connection.");
+    }
+
+    String indexName = getIndexName();
+    String temporaryIndexName = indexName + "_rebuild";
+    String schemaPrefix = storeName.contains(".") ? storeName.substring(0, storeName.lastIndexOf('.') + 1) : "";
+    String indexDefinition = getIndexDefinition(temporaryIndexName, false);
+
+    // Concurrent index builds cannot run in a transaction, pooled connections are in auto-commit mode
+    try (Connection connection = getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+
+      statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + schemaPrefix + temporaryIndexName);
       try {
-        // Check if the resultSet has more rows or fetch the next page
-        if (resultSet != null && resultSet.next()) {
-          return true;
-        } else {
-          fetchNextPage(); // Fetch the next page if the current page is exhausted
-          return resultSet != null && resultSet.next();
-        }
+
+        LOGGER.info(String.format("Building index of %s: %s", storeName, indexDefinition));
+        statement.execute(indexDefinition);
+
       } catch (SQLException e) {
-        LOGGER.error("Error checking for next element", e);
-        return false;
+
+        statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + schemaPrefix + temporaryIndexName);
+        throw e;
       }
-    }
 
-    /**
-     * Returns the next metadata element in the result set.
-     *
-     * @return The next metadata element as a {@code String}.
-     * @throws NoSuchElementException If no more elements are available.
-     */
-    @Override
-    public String next() {
+      // The swap only holds the table lock for the time of the catalog updates
+      connection.setAutoCommit(false);
       try {
-        if (resultSet == null) {
-          throw new NoSuchElementException("No more elements available");
-        }
-        return resultSet.getString(Constants.STORE_SCHEMA_METADATA_FIELD_NAME);
+
+        statement.execute("DROP INDEX IF EXISTS " + schemaPrefix + indexName);
+        statement.execute("ALTER INDEX " + schemaPrefix + temporaryIndexName + " RENAME TO " + indexName);
+        connection.commit();
+
       } catch (SQLException e) {
-        LOGGER.error("Error retrieving next element", e);
-        throw new NoSuchElementException("Error retrieving next element");
+
+        connection.rollback();
+        throw e;
+
+      } finally {
+
+        connection.setAutoCommit(true);
       }
+
+    } catch (SQLException e) {
+
+      throw new RuntimeException(String.format("Error while rebuilding the %s index of %s", indexType, storeName), e);
     }
 
-    /**
-     * Closes the iterator and releases the resources.
-     */
-    public void close() {
-      try {
-        if (resultSet != null)
-          resultSet.close();
-        if (pstmt != null)
-          pstmt.close();
-        if (connection != null)
-          connection.close();
+    JSONObject jsonObject = new JSONObject();
+    jsonObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_REBUILT);
+    jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+    jsonObject.put(Constants.JSON_KEY_INDEX_NAME, indexName);
+    jsonObject.put(Constants.JSON_KEY_INDEX_TYPE, indexType.name());
+    jsonObject.put(Constants.JSON_KEY_INDEX_DEFINITION, getIndexDefinition(indexName, false));
+    return jsonObject;
+  }
+
+  private String getIndexName() {
+
+    String table = storeName.substring(storeName.lastIndexOf('.') + 1);
+    return String.format("%s_%s_%s_index", table, indexType.name(), distance.name()).toLowerCase();
+  }
+
+  private String getIndexDefinition(String indexName, boolean ifNotExists) {
+
+    String parameters;
+    switch (indexType) {
+      case HNSW:
+        parameters = String.format("m = %d, ef_construction = %d", hnswM, hnswEfConstruction);
+        break;
+      case IVFFLAT:
+        parameters = String.format("lists = %d", ivfflatLists);
+        break;
+      default:
+        throw new IllegalStateException("Unsupported index type: " + indexType);
+    }
+
+    return String.format("CREATE INDEX CONCURRENTLY %s%s ON %s USING %s (%s %s) WITH (%s)",
+                         ifNotExists ? "IF NOT EXISTS " : "",
+                         indexName, storeName, indexType.name().toLowerCase(),
+                         EMBEDDING_COLUMN, distance.getOperatorClass(), parameters);
+  }
+
+  /**
+   * Bulk loads embeddings with {@code COPY ... FROM STDIN (FORMAT BINARY)}.
+   * <p>
+   * Rows are encoded in the binary COPY format, vectors in the pgvector binary format, and streamed through the
+   * driver {@link CopyManager}, one COPY statement per chunk. Each chunk commits on its own. Unlike the inserts of the
+   * embedding store, existing embedding ids are not upserted: new ids are generated for every row.
+   * </p>
+   * <p>
+   * When index build is deferred, the secondary indexes of the table are dropped before the first chunk and created
+   * again concurrently once all the chunks are loaded, which is considerably cheaper than maintaining them row by row.
+   * The drop and the chunks then run in a single transaction, holding an advisory lock on the table so that concurrent
+   * deferred loads do not race on its indexes: a failed load rolls back its rows and restores the indexes. Dropping
+   * the indexes locks the table until the load commits, and leaves its rows without an ANN index until they are
+   * rebuilt, so that deferring is only allowed on empty tables: the load fails before dropping anything otherwise.
+   * </p>
+   */
+  @Override
+  public List<String> bulkAdd(List<Embedding> embeddings, List<TextSegment> textSegments, int chunkSize,
+                              boolean deferIndexBuild) {
+
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException(String.format("The bulk chunk size must be greater than zero. Received: %s", chunkSize));
+    }
+    if (textSegments.size() != embeddings.size()) {
+      throw new IllegalArgumentException("The number of text segments must match the number of embeddings");
+    }
+
+    // Creates the table, and the vector extension, if needed
+    getEmbeddingStore();
+
+    List<String> ids = new ArrayList<>(embeddings.size());
+
+    try (Connection connection = getDataSource().getConnection()) {
+
+      CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+      PGVectorCopyEncoder encoder = new PGVectorCopyEncoder(isJsonbColumn(connection, METADATA_COLUMN));
+      String copySql = String.format("COPY %s (%s, %s, %s, %s) FROM STDIN (FORMAT BINARY)",
+                                     storeName, ID_COLUMN, EMBEDDING_COLUMN, TEXT_COLUMN, METADATA_COLUMN);
+
+      if (deferIndexBuild) {
+
+        Map<String, String> droppedIndexDefinitions;
+        connection.setAutoCommit(false);
+        try {
+
+          lockTable(connection);
+          ensureEmpty(connection);
+          droppedIndexDefinitions = dropSecondaryIndexes(connection);
+          copyChunks(copyManager, copySql, encoder, embeddings, textSegments, chunkSize, ids);
+          connection.commit();
+
+        } catch (SQLException | IOException | RuntimeException e) {
+
+          connection.rollback();
+          throw e;
+
+        } finally {
+
+          connection.setAutoCommit(true);
+        }
+        // Concurrent index builds cannot run in a transaction
+        createIndexesConcurrently(connection, droppedIndexDefinitions);
+
+      } else {
+
+        copyChunks(copyManager, copySql, encoder, embeddings, textSegments, chunkSize, ids);
+      }
+
+    } catch (SQLException | IOException e) {
+
+      throw new RuntimeException(String.format("Error while bulk loading embeddings into %s", storeName), e);
+    }
+
+    return ids;
+  }
+
+  private void copyChunks(CopyManager copyManager, String copySql, PGVectorCopyEncoder encoder,
+                          List<Embedding> embeddings, List<TextSegment> textSegments, int chunkSize,
+                          List<String> ids) throws SQLException, IOException {
+
+    for (int from = 0; from < embeddings.size(); from += chunkSize) {
+
+      int to = Math.min(from + chunkSize, embeddings.size());
+      copyChunk(copyManager, copySql, encoder, embeddings, textSegments, from, to, ids);
+      LOGGER.debug(String.format("Bulk loaded %d/%d embeddings into %s", to, embeddings.size(), storeName));
+    }
+  }
+
+  private void copyChunk(CopyManager copyManager, String copySql, PGVectorCopyEncoder encoder,
+                         List<Embedding> embeddings, List<TextSegment> textSegments, int from, int to,
+                         List<String> ids) throws SQLException, IOException {
+
+    CopyIn copyIn = copyManager.copyIn(copySql);
+    try {
+
+      encoder.writeHeader();
+      for (int i = from; i < to; i++) {
+
+        UUID id = UUID.randomUUID();
+        TextSegment textSegment = textSegments.get(i);
+        encoder.writeRow(id,
+                         embeddings.get(i).vector(),
+                         textSegment != null ? textSegment.text() : null,
+                         OBJECT_MAPPER.writeValueAsBytes(
+                             textSegment != null ? textSegment.metadata().toMap() : Collections.emptyMap()));
+        ids.add(id.toString());
+
+        if (encoder.size() >= COPY_BUFFER_SIZE) {
+
+          byte[] bytes = encoder.drain();
+          copyIn.writeToCopy(bytes, 0, bytes.length);
+        }
+      }
+      encoder.writeTrailer();
+      byte[] bytes = encoder.drain();
+      copyIn.writeToCopy(bytes, 0, bytes.length);
+      copyIn.endCopy();
+
+    } finally {
+
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+      encoder.drain();
+    }
+  }
+
+  private boolean isJsonbColumn(Connection connection, String column) throws SQLException {
+
+    try (PreparedStatement statement = connection.prepareStatement(
+        "SELECT format_type(atttypid, atttypmod) FROM pg_attribute WHERE attrelid = ?::regclass AND attname = ?")) {
+
+      statement.setString(1, storeName);
+      statement.setString(2, column);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && "jsonb".equalsIgnoreCase(resultSet.getString(1));
+      }
+    }
+  }
+
+  // Takes an advisory lock on the table, released when the current transaction ends.
+  private void lockTable(Connection connection) throws SQLException {
+
+    try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_xact_lock(hashtext(?))")) {
+
+      statement.setString(1, storeName);
+      statement.execute();
+    }
+  }
+
+  // Fails if the table has rows, which would be locked out of reads and left without indexes by a deferred load.
+  private void ensureEmpty(Connection connection) throws SQLException {
+
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(String.format("SELECT EXISTS (SELECT 1 FROM %s)", storeName))) {
+
+      if (resultSet.next() && resultSet.getBoolean(1)) {
+
+        throw new IllegalStateException(String.format(
+            "Index build can only be deferred when loading an empty table, %s already has rows. Load it without " +
+                "deferring the index build.", storeName));
+      }
+    }
+  }
+
+  // Drops the indexes of the table, besides primary key and unique ones, and returns their definitions by name.
+  // Must run in a transaction, which restores the indexes if rolled back.
+  private Map<String, String> dropSecondaryIndexes(Connection connection) throws SQLException {
+
+    Map<String, String> indexDefinitions = new LinkedHashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement(
+        "SELECT indexrelid::regclass::text, pg_get_indexdef(indexrelid) FROM pg_index " +
+            "WHERE indrelid = ?::regclass AND NOT indisprimary AND NOT indisunique")) {
+
+      statement.setString(1, storeName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+
+        while (resultSet.next()) {
+          indexDefinitions.put(resultSet.getString(1), resultSet.getString(2));
+        }
+      }
+    }
+
+    try (Statement statement = connection.createStatement()) {
+
+      for (String indexName : indexDefinitions.keySet()) {
+
+        LOGGER.info(String.format("Dropping index %s of %s before bulk load", indexName, storeName));
+        statement.execute("DROP INDEX IF EXISTS " + indexName);
+      }
+    }
+    return indexDefinitions;
+  }
+
+  // Creates indexes concurrently from their definitions, without blocking writes. Failures are logged with the
+  // definition, so that they can be recreated, and the invalid index left by the failed build is dropped.
+  private void createIndexesConcurrently(Connection connection, Map<String, String> indexDefinitions) {
+
+    for (Map.Entry<String, String> indexDefinition : indexDefinitions.entrySet()) {
+
+      String concurrentIndexDefinition = indexDefinition.getValue()
+          .replaceFirst("^CREATE INDEX ", "CREATE INDEX CONCURRENTLY ");
+      try (Statement statement = connection.createStatement()) {
+
+        LOGGER.info(String.format("Building deferred index of %s: %s", storeName, concurrentIndexDefinition));
+        try {
+
+          statement.execute(concurrentIndexDefinition);
+
+        } catch (SQLException e) {
+
+          LOGGER.error(String.format("Unable to build deferred index of %s: %s", storeName, indexDefinition.getValue()), e);
+          statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexDefinition.getKey());
+        }
+
       } catch (SQLException e) {
-        LOGGER.error("Error closing resources", e);
+
+        LOGGER.error(String.format("Unable to drop invalid index %s of %s", indexDefinition.getKey(), storeName), e);
+      }
+    }
+  }
+
+  /**
+   * Lists the sources stored in the PostgreSQL database.
+   * <p>
+   * Segments are grouped by source in the database, so that a single row per source is returned, with the greatest
+   * segment index as segment count. The aggregated rows are read through a server-side cursor, one page at a time,
+   * and each source is handed over as soon as its row is read.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+    try (Connection connection = getReadDataSource().getConnection()) {
+
+      // pgjdbc only fetches results with a cursor, page by page, within a transaction
+      boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+
+      try (PreparedStatement statement = connection.prepareStatement(buildListSourcesQuery())) {
+
+        statement.setFetchSize((int) queryParams.embeddingPageSize());
+        try (ResultSet resultSet = statement.executeQuery()) {
+
+          while (resultSet.next()) {
+
+            JSONObject metadataObject = new JSONObject();
+            for (String key : LIST_SOURCES_METADATA_KEYS) {
+              metadataObject.put(key, resultSet.getString(key));
+            }
+            sourceConsumer.accept(getSourceObject(metadataObject));
+          }
+        }
+
+      } finally {
+
+        connection.rollback();
+        connection.setAutoCommit(autoCommit);
+      }
+
+    } catch (SQLException e) {
+
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+    }
+  }
+
+  /**
+   * Builds the query aggregating the segments of the table by source.
+   * <p>
+   * Sources are keyed like {@link #getSourceUniqueKey(JSONObject)}: by source id when set, otherwise by the first of
+   * absolute directory path, URL or source, suffixed with the ingestion datetime. Segments without a key are skipped.
+   * </p>
+   */
+  private String buildListSourcesQuery() {
+
+    String sourceKey = String.format(
+        "COALESCE(NULLIF(%1$s, ''), COALESCE(NULLIF(%2$s, ''), NULLIF(%3$s, ''), NULLIF(%4$s, ''), '') || COALESCE(%5$s, ''))",
+        metadataField(Constants.METADATA_KEY_SOURCE_ID),
+        metadataField(Constants.METADATA_KEY_ABSOLUTE_DIRECTORY_PATH),
+        metadataField(Constants.METADATA_KEY_URL),
+        metadataField(Constants.METADATA_KEY_SOURCE),
+        metadataField(Constants.METADATA_KEY_INGESTION_DATETIME));
+
+    StringBuilder query = new StringBuilder("SELECT ");
+    for (String key : LIST_SOURCES_METADATA_KEYS) {
+
+      if (Constants.METADATA_KEY_INDEX.equals(key)) {
+
+        // Indexes are stored as text, only numeric ones can be compared
+        query.append(String.format("MAX(CASE WHEN %1$s ~ '^[0-9]+$' THEN (%1$s)::bigint END)::text AS \"%2$s\", ",
+                                   metadataField(key), key));
+      } else {
+
+        query.append(String.format("MAX(%s) AS \"%s\", ", metadataField(key), key));
       }
     }
+    query.setLength(query.length() - 2);
+    query.append(String.format(" FROM %s WHERE %s <> '' GROUP BY %s", storeName, sourceKey, sourceKey));
+    return query.toString();
+  }
+
+  private static String metadataField(String key) {
+    return String.format("(%s->>'%s')", Constants.STORE_SCHEMA_METADATA_FIELD_NAME, key);
   }
 }
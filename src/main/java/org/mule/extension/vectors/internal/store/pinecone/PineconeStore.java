@@ -1,37 +1,125 @@
 package org.mule.extension.vectors.internal.store.pinecone;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
 import dev.langchain4j.store.embedding.pinecone.PineconeEmbeddingStore;
 import dev.langchain4j.store.embedding.pinecone.PineconeServerlessIndexConfig;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.ManagedEmbeddingStore;
 import org.mule.extension.vectors.internal.connection.store.pinecone.PineconeStoreConnection;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 public class PineconeStore extends BaseStore {
 
+  // Greatest number of ids returned by a page of the list endpoint
+  private static final int MAX_LIST_PAGE_SIZE = 100;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<Map<String, Object>>() {};
+
+  private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json");
+
   private String apiKey;
   private String cloud;
   private String region;
+  private final List<String> namespaces;
+  private final PineconeStoreConnection pineconeStoreConnection;
 
-  public PineconeStore(StoreConfiguration storeConfiguration, PineconeStoreConnection pineconeStoreConnection, String storeName, QueryParameters queryParams, int dimension, boolean createStore) {
+  public PineconeStore(StoreConfiguration storeConfiguration, PineconeStoreConnection pineconeStoreConnection, String storeName, QueryParameters queryParams, int dimension, boolean createStore, List<String> namespaces) {
 
     super(storeConfiguration, pineconeStoreConnection, storeName, queryParams, dimension, createStore);
 
     this.apiKey = pineconeStoreConnection.getApiKey();
     this.cloud = pineconeStoreConnection.getCloud();
     this.region = pineconeStoreConnection.getRegion();
+    this.namespaces = namespaces != null && !namespaces.isEmpty()
+        ? new ArrayList<>(new LinkedHashSet<>(namespaces))
+        : Collections.singletonList("ns0mc_" + storeName);
+    this.pineconeStoreConnection = pineconeStoreConnection;
   }
 
   public EmbeddingStore<TextSegment> buildEmbeddingStore() {
 
-    return createStore ?
+    return buildEmbeddingStore(namespaces.get(0));
+  }
+
+  @Override
+  public ManagedEmbeddingStore buildManagedEmbeddingStore() {
+
+    return buildManagedEmbeddingStore(namespaces.get(0));
+  }
+
+  /**
+   * Builds the embedding store of a namespace with its teardown. PineconeEmbeddingStore opens its own connection to
+   * the index and does not expose it, the teardown closes it.
+   */
+  private ManagedEmbeddingStore buildManagedEmbeddingStore(String namespace) {
+
+    EmbeddingStore<TextSegment> embeddingStore = buildEmbeddingStore(namespace);
+    return new ManagedEmbeddingStore(embeddingStore, closeClientOf(embeddingStore, "index"));
+  }
+
+  /**
+   * Builds the embedding store of a namespace. The index is only checked for, and created if missing, the first time
+   * an embedding store of it is built through the connection.
+   *
+   * @param namespace the namespace
+   * @return the embedding store of the namespace
+   */
+  private EmbeddingStore<TextSegment> buildEmbeddingStore(String namespace) {
+
+    EmbeddingStore<TextSegment> embeddingStore = createStore && !pineconeStoreConnection.isIndexKnown(storeName) ?
 
         PineconeEmbeddingStore.builder()
           .apiKey(apiKey)
           .index(storeName)
-          .nameSpace("ns0mc_" + storeName)
+          .nameSpace(namespace)
           .createIndex(PineconeServerlessIndexConfig.builder()
                            .cloud(cloud)
                            .region(region)
@@ -42,7 +130,431 @@ public class PineconeStore extends BaseStore {
         PineconeEmbeddingStore.builder()
             .apiKey(apiKey)
             .index(storeName)
-            .nameSpace("ns0mc_" + storeName)
+            .nameSpace(namespace)
             .build();
+
+    // The embedding store was built, so the index exists
+    pineconeStoreConnection.markIndexKnown(storeName);
+    return embeddingStore;
+  }
+
+  @Override
+  public EmbeddingStore<TextSegment> getEmbeddingStore() {
+
+    return getEmbeddingStore(namespaces.get(0));
+  }
+
+  /**
+   * Retrieves the embedding store of a namespace, reusing the instance cached by the store connection.
+   *
+   * @param namespace the namespace
+   * @return the cached or newly built embedding store
+   */
+  private EmbeddingStore<TextSegment> getEmbeddingStore(String namespace) {
+
+    return getEmbeddingStore(namespace, () -> buildManagedEmbeddingStore(namespace));
+  }
+
+  /**
+   * Searches the namespaces of the store. Several namespaces are searched concurrently on the query executor of the
+   * connection, and their matches are merged by descending score. This method must therefore not be called from the
+   * query executor with several namespaces.
+   * <p>
+   * Filters are applied by Pinecone, whose range operators only compare numbers: filters comparing strings with them
+   * are rejected rather than sent.
+   * </p>
+   *
+   * @param searchRequest the search request
+   * @return the search result
+   */
+  @Override
+  public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest) {
+
+    validateSearchFilter(searchRequest.filter());
+
+    if (namespaces.size() == 1) {
+      return getEmbeddingStore(namespaces.get(0)).search(searchRequest);
+    }
+
+    List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+    forEachNamespace(namespace -> getEmbeddingStore(namespace).search(searchRequest).matches(), matches::addAll);
+
+    matches.sort(Comparator.comparing(EmbeddingMatch<TextSegment>::score, Comparator.nullsLast(Comparator.reverseOrder())));
+    return new EmbeddingSearchResult<>(matches.subList(0, Math.min(searchRequest.maxResults(), matches.size())));
+  }
+
+  private static void validateSearchFilter(Filter filter) {
+
+    if (filter instanceof And) {
+
+      validateSearchFilter(((And) filter).left());
+      validateSearchFilter(((And) filter).right());
+
+    } else if (filter instanceof Or) {
+
+      validateSearchFilter(((Or) filter).left());
+      validateSearchFilter(((Or) filter).right());
+
+    } else if (filter instanceof Not) {
+
+      validateSearchFilter(((Not) filter).expression());
+
+    } else {
+
+      String key = null;
+      Object comparisonValue = null;
+      if (filter instanceof IsGreaterThan) {
+
+        key = ((IsGreaterThan) filter).key();
+        comparisonValue = ((IsGreaterThan) filter).comparisonValue();
+
+      } else if (filter instanceof IsGreaterThanOrEqualTo) {
+
+        key = ((IsGreaterThanOrEqualTo) filter).key();
+        comparisonValue = ((IsGreaterThanOrEqualTo) filter).comparisonValue();
+
+      } else if (filter instanceof IsLessThan) {
+
+        key = ((IsLessThan) filter).key();
+        comparisonValue = ((IsLessThan) filter).comparisonValue();
+
+      } else if (filter instanceof IsLessThanOrEqualTo) {
+
+        key = ((IsLessThanOrEqualTo) filter).key();
+        comparisonValue = ((IsLessThanOrEqualTo) filter).comparisonValue();
+      }
+
+      if (comparisonValue != null && !(comparisonValue instanceof Number)) {
+        throw new UnsupportedOperationException(String.format(
+            "Pinecone does not support range comparisons on strings, as in the filter on %s", key));
+      }
+    }
+  }
+
+  /**
+   * Adds the embeddings to every namespace of the store, concurrently on the query executor of the connection when
+   * there are several namespaces.
+   *
+   * @param embeddings   the embeddings to add
+   * @param textSegments the text segments of the embeddings
+   */
+  @Override
+  public void addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+
+    forEachNamespace(namespace -> getEmbeddingStore(namespace).addAll(embeddings, textSegments), ids -> {});
+  }
+
+  /**
+   * Lists the sources of the namespaces of the store.
+   * <p>
+   * Namespaces are read one after the other. Vector ids are listed page by page with pagination tokens, and the
+   * metadata of each page is fetched concurrently on the query executor of the connection, with at most as many pages
+   * in flight as the parallelism of the query parameters. Sources are handed over once every namespace is read, since
+   * the segments of a source may be spread over several pages.
+   * </p>
+   *
+   * @param sourceConsumer the consumer of the source objects
+   */
+  @Override
+  public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+    HashMap<String, JSONObject> sourceObjectMap = new HashMap<>();
+
+    try {
+
+      String indexUrl = pineconeStoreConnection.getIndexUrl(storeName);
+      int parallelism = queryParams != null ? queryParams.parallelism() : 1;
+      for (String namespace : namespaces) {
+
+        forEachIdPage(indexUrl, namespace, parallelism, ids -> {
+
+          HashMap<String, JSONObject> pageSourceObjectMap = new HashMap<>();
+          fetchMetadata(indexUrl, namespace, ids, (id, metadataObject) ->
+              addOrUpdateSourceObjectIntoSourceObjectMap(pageSourceObjectMap, getSourceObject(metadataObject)));
+          return pageSourceObjectMap;
+
+        }, pageSourceObjectMap -> {
+
+          // Pages may hold segments of the same source, the merge keeps the greatest segment count
+          for (JSONObject sourceObject : pageSourceObjectMap.values()) {
+            addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+          }
+        });
+      }
+
+    } catch (IOException e) {
+
+      throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e);
+    }
+
+    sourceObjectMap.values().forEach(sourceConsumer);
+  }
+
+  /**
+   * Removes the embeddings of the namespaces of the store matching the filter.
+   * <p>
+   * Serverless indexes do not delete by metadata filter, so ids are listed page by page, the metadata of each page is
+   * fetched and tested against the filter, and the matching ids are deleted in a batch per page. Pages are processed
+   * concurrently on the query executor of the connection, namespaces one after the other.
+   * </p>
+   *
+   * @param filter the metadata filter, or null to remove every embedding of the namespaces
+   */
+  @Override
+  public void removeAll(Filter filter) {
+
+    try {
+
+      String indexUrl = pineconeStoreConnection.getIndexUrl(storeName);
+      for (String namespace : namespaces) {
+        removeAll(indexUrl, namespace, filter);
+      }
+
+    } catch (IOException e) {
+
+      throw new RuntimeException(String.format("Error while removing embeddings from %s", storeName), e);
+    }
+  }
+
+  private void removeAll(String indexUrl, String namespace, Filter filter) throws IOException {
+
+    if (filter == null) {
+
+      JSONObject deleteRequest = new JSONObject();
+      deleteRequest.put("deleteAll", true);
+      deleteRequest.put("namespace", namespace);
+      delete(indexUrl, deleteRequest);
+      return;
+    }
+
+    // Removals take no query parameters, pages are processed by as many workers as the query executor has
+    long[] removedCount = new long[1];
+    forEachIdPage(indexUrl, namespace, BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS, ids -> {
+
+      List<String> matchingIds = new ArrayList<>();
+      fetchMetadata(indexUrl, namespace, ids, (id, metadataObject) -> {
+        if (filter.test(toMetadata(metadataObject))) {
+          matchingIds.add(id);
+        }
+      });
+      if (!matchingIds.isEmpty()) {
+
+        JSONObject deleteRequest = new JSONObject();
+        deleteRequest.put("ids", new JSONArray(matchingIds));
+        deleteRequest.put("namespace", namespace);
+        delete(indexUrl, deleteRequest);
+      }
+      return matchingIds.size();
+
+    }, count -> removedCount[0] += count);
+
+    LOGGER.debug(String.format("Removed %s embeddings from %s, namespace %s", removedCount[0], storeName, namespace));
+  }
+
+  /**
+   * Runs the task on each namespace of the store, concurrently on the query executor of the connection when there are
+   * several namespaces and the calling thread does not itself run on that executor. Results are handed over to the
+   * consumer in namespace order, from the calling thread.
+   */
+  private <T> void forEachNamespace(Function<String, T> task, Consumer<T> consumer) {
+
+    if (namespaces.size() == 1 || BaseStoreConnection.isQueryExecutorThread()) {
+
+      // Already on the query executor, e.g. within a batch query: blocking on it could exhaust its threads
+      namespaces.forEach(namespace -> consumer.accept(task.apply(namespace)));
+      return;
+    }
+
+    ExecutorService executor = storeConnection.getQueryExecutor();
+    List<Future<T>> futures = new ArrayList<>(namespaces.size());
+
+    try {
+
+      for (String namespace : namespaces) {
+
+        Callable<T> callable = () -> task.apply(namespace);
+        futures.add(executor.submit(callable));
+      }
+      for (Future<T> future : futures) {
+        consumer.accept(future.get());
+      }
+
+    } catch (ExecutionException e) {
+
+      throw new RuntimeException(String.format("Error while accessing the namespaces of %s", storeName), e.getCause());
+
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(String.format("Interrupted while accessing the namespaces of %s", storeName), e);
+
+    } finally {
+
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /**
+   * Lists the vector ids of the namespace page by page and runs the task on each page, on the query executor when
+   * parallelism is greater than one. Results are handed over to the consumer in page order, from the calling thread,
+   * so that the consumer does not need to be thread safe.
+   */
+  private <T> void forEachIdPage(String indexUrl, String namespace, int requestedParallelism, PageTask<T> task,
+                                 Consumer<T> consumer)
+      throws IOException {
+
+    int parallelism = Math.max(1, Math.min(requestedParallelism, BaseStoreConnection.QUERY_EXECUTOR_MAX_THREADS));
+    int pageSize = Math.min(queryParams != null ? queryParams.embeddingPageSize() : MAX_LIST_PAGE_SIZE,
+                            MAX_LIST_PAGE_SIZE);
+    ExecutorService executor = parallelism > 1 ? storeConnection.getQueryExecutor() : null;
+    Deque<Future<T>> futures = new ArrayDeque<>();
+
+    try {
+
+      String paginationToken = null;
+      do {
+
+        HttpUrl.Builder url = HttpUrl.get(indexUrl + "/vectors/list").newBuilder()
+            .addQueryParameter("namespace", namespace)
+            .addQueryParameter("limit", String.valueOf(pageSize));
+        if (paginationToken != null) {
+          url.addQueryParameter("paginationToken", paginationToken);
+        }
+
+        List<String> ids = new ArrayList<>();
+        try (Response response = pineconeStoreConnection.execute(new Request.Builder().url(url.build()).get())) {
+
+          JSONObject listResponse = new JSONObject(new JSONTokener(response.body().charStream()));
+          JSONArray vectors = listResponse.optJSONArray("vectors");
+          for (int i = 0; vectors != null && i < vectors.length(); i++) {
+            ids.add(vectors.getJSONObject(i).getString("id"));
+          }
+          JSONObject pagination = listResponse.optJSONObject("pagination");
+          paginationToken = pagination != null ? pagination.optString("next", null) : null;
+        }
+
+        if (ids.isEmpty()) {
+          continue;
+        }
+        if (executor == null) {
+
+          consumer.accept(task.apply(ids));
+        } else {
+
+          if (futures.size() >= parallelism) {
+            consumer.accept(futures.poll().get());
+          }
+          Callable<T> callable = () -> task.apply(ids);
+          futures.add(executor.submit(callable));
+        }
+      } while (paginationToken != null && !paginationToken.isEmpty());
+
+      while (!futures.isEmpty()) {
+        consumer.accept(futures.poll().get());
+      }
+
+    } catch (ExecutionException e) {
+
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(String.format("Interrupted while reading %s", storeName));
+
+    } finally {
+
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /**
+   * Fetches the vectors of the given ids, streaming the metadata of each one to the consumer. Vector values are
+   * skipped without being read into memory.
+   */
+  private void fetchMetadata(String indexUrl, String namespace, List<String> ids, MetadataConsumer consumer)
+      throws IOException {
+
+    HttpUrl.Builder url = HttpUrl.get(indexUrl + "/vectors/fetch").newBuilder()
+        .addQueryParameter("namespace", namespace);
+    ids.forEach(id -> url.addQueryParameter("ids", id));
+
+    try (Response response = pineconeStoreConnection.execute(new Request.Builder().url(url.build()).get());
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser(response.body().byteStream())) {
+
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Unexpected fetch response from " + storeName);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String fieldName = parser.currentName();
+        JsonToken token = parser.nextToken();
+        if (!"vectors".equals(fieldName) || token != JsonToken.START_OBJECT) {
+
+          parser.skipChildren();
+          continue;
+        }
+
+        // Vectors are keyed by id
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+          String id = parser.currentName();
+          parser.nextToken();
+          JSONObject metadataObject = new JSONObject();
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String vectorFieldName = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && "metadata".equals(vectorFieldName)) {
+
+              metadataObject = new JSONObject(parser.<Map<String, Object>>readValueAs(METADATA_TYPE));
+            } else {
+
+              parser.skipChildren();
+            }
+          }
+          consumer.accept(id, metadataObject);
+        }
+      }
+    }
+  }
+
+  private void delete(String indexUrl, JSONObject deleteRequest) throws IOException {
+
+    Request.Builder request = new Request.Builder()
+        .url(indexUrl + "/vectors/delete")
+        .post(RequestBody.create(deleteRequest.toString(), JSON_MEDIA_TYPE));
+    pineconeStoreConnection.execute(request).close();
+  }
+
+  /**
+   * Maps a metadata object to metadata that filters can be tested against. Values of types not supported by metadata,
+   * e.g. lists, can't match a filter and are skipped.
+   */
+  private static Metadata toMetadata(JSONObject metadataObject) {
+
+    Map<String, Object> metadata = new HashMap<>();
+    for (String key : metadataObject.keySet()) {
+
+      Object value = metadataObject.get(key);
+      if (value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Double) {
+        metadata.put(key, value);
+      } else if (value instanceof Number) {
+        metadata.put(key, ((Number) value).doubleValue());
+      }
+    }
+    return Metadata.from(metadata);
+  }
+
+  @FunctionalInterface
+  private interface PageTask<T> {
+
+    T apply(List<String> ids) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface MetadataConsumer {
+
+    void accept(String id, JSONObject metadataObject);
   }
 }
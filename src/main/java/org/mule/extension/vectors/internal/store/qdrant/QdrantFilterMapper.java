@@ -0,0 +1,171 @@
+package org.mule.extension.vectors.internal.store.qdrant;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+import io.qdrant.client.grpc.Points;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static io.qdrant.client.ConditionFactory.filter;
+import static io.qdrant.client.ConditionFactory.match;
+import static io.qdrant.client.ConditionFactory.matchExceptKeywords;
+import static io.qdrant.client.ConditionFactory.matchExceptValues;
+import static io.qdrant.client.ConditionFactory.matchKeyword;
+import static io.qdrant.client.ConditionFactory.matchKeywords;
+import static io.qdrant.client.ConditionFactory.matchValues;
+import static io.qdrant.client.ConditionFactory.range;
+
+/**
+ * Maps metadata filters to Qdrant payload filters.
+ * <p>
+ * Conditions follow the ones generated by the QdrantEmbeddingStore, so that native searches return the same points.
+ * </p>
+ */
+final class QdrantFilterMapper {
+
+    private QdrantFilterMapper() {
+    }
+
+    static Points.Filter map(Filter filter) {
+
+        Points.Filter.Builder builder = Points.Filter.newBuilder();
+
+        if (filter instanceof And) {
+
+            And and = (And) filter;
+            builder.addMust(filter(map(and.left())));
+            builder.addMust(filter(map(and.right())));
+
+        } else if (filter instanceof Or) {
+
+            Or or = (Or) filter;
+            builder.addShould(filter(map(or.left())));
+            builder.addShould(filter(map(or.right())));
+
+        } else if (filter instanceof Not) {
+
+            builder.addMustNot(filter(map(((Not) filter).expression())));
+
+        } else {
+
+            builder.addMust(mapComparison(filter));
+        }
+        return builder.build();
+    }
+
+    private static Points.Condition mapComparison(Filter filter) {
+
+        if (filter instanceof IsEqualTo) {
+
+            IsEqualTo isEqualTo = (IsEqualTo) filter;
+            return matchValue(isEqualTo.key(), isEqualTo.comparisonValue());
+
+        } else if (filter instanceof IsNotEqualTo) {
+
+            IsNotEqualTo isNotEqualTo = (IsNotEqualTo) filter;
+            return filter(Points.Filter.newBuilder()
+                    .addMustNot(matchValue(isNotEqualTo.key(), isNotEqualTo.comparisonValue()))
+                    .build());
+
+        } else if (filter instanceof IsGreaterThan) {
+
+            IsGreaterThan isGreaterThan = (IsGreaterThan) filter;
+            return range(isGreaterThan.key(),
+                    Points.Range.newBuilder().setGt(toDouble(isGreaterThan.comparisonValue())).build());
+
+        } else if (filter instanceof IsGreaterThanOrEqualTo) {
+
+            IsGreaterThanOrEqualTo isGreaterThanOrEqualTo = (IsGreaterThanOrEqualTo) filter;
+            return range(isGreaterThanOrEqualTo.key(),
+                    Points.Range.newBuilder().setGte(toDouble(isGreaterThanOrEqualTo.comparisonValue())).build());
+
+        } else if (filter instanceof IsLessThan) {
+
+            IsLessThan isLessThan = (IsLessThan) filter;
+            return range(isLessThan.key(),
+                    Points.Range.newBuilder().setLt(toDouble(isLessThan.comparisonValue())).build());
+
+        } else if (filter instanceof IsLessThanOrEqualTo) {
+
+            IsLessThanOrEqualTo isLessThanOrEqualTo = (IsLessThanOrEqualTo) filter;
+            return range(isLessThanOrEqualTo.key(),
+                    Points.Range.newBuilder().setLte(toDouble(isLessThanOrEqualTo.comparisonValue())).build());
+
+        } else if (filter instanceof IsIn) {
+
+            IsIn isIn = (IsIn) filter;
+            return isKeywords(isIn.comparisonValues())
+                    ? matchKeywords(isIn.key(), toKeywords(isIn.comparisonValues()))
+                    : matchValues(isIn.key(), toLongs(isIn.comparisonValues()));
+
+        } else if (filter instanceof IsNotIn) {
+
+            IsNotIn isNotIn = (IsNotIn) filter;
+            return isKeywords(isNotIn.comparisonValues())
+                    ? matchExceptKeywords(isNotIn.key(), toKeywords(isNotIn.comparisonValues()))
+                    : matchExceptValues(isNotIn.key(), toLongs(isNotIn.comparisonValues()));
+
+        } else {
+
+            throw new UnsupportedOperationException("Unsupported filter type: " + filter.getClass().getName());
+        }
+    }
+
+    private static Points.Condition matchValue(String key, Object value) {
+
+        if (value instanceof String || value instanceof UUID) {
+            return matchKeyword(key, value.toString());
+        } else if (value instanceof Boolean) {
+            return match(key, (Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            return match(key, ((Number) value).longValue());
+        }
+        throw new UnsupportedOperationException("Unsupported filter value type: " + value.getClass().getName());
+    }
+
+    private static double toDouble(Object value) {
+
+        if (!(value instanceof Number)) {
+            throw new UnsupportedOperationException("Unsupported range value type: " + value.getClass().getName());
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    private static boolean isKeywords(Collection<?> values) {
+
+        Object value = values.iterator().next();
+        if (value instanceof String || value instanceof UUID) {
+            return true;
+        } else if (value instanceof Integer || value instanceof Long) {
+            return false;
+        }
+        throw new UnsupportedOperationException("Unsupported filter value type: " + value.getClass().getName());
+    }
+
+    private static List<String> toKeywords(Collection<?> values) {
+
+        List<String> keywords = new ArrayList<>(values.size());
+        values.forEach(value -> keywords.add(value.toString()));
+        return keywords;
+    }
+
+    private static List<Long> toLongs(Collection<?> values) {
+
+        List<Long> longs = new ArrayList<>(values.size());
+        values.forEach(value -> longs.add(((Number) value).longValue()));
+        return longs;
+    }
+}
@@ -1,11 +1,14 @@
 package org.mule.extension.vectors.internal.store.qdrant;
 
-import com.google.protobuf.InvalidProtocolBufferException;
-import com.google.protobuf.Struct;
-import com.google.protobuf.Value;
-import com.google.protobuf.util.JsonFormat;
+import com.google.common.util.concurrent.ListenableFuture;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
 import dev.langchain4j.store.embedding.qdrant.QdrantEmbeddingStore;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
@@ -14,20 +17,25 @@ import io.qdrant.client.grpc.JsonWithInt;
 import io.qdrant.client.grpc.Points;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
+import org.mule.extension.vectors.internal.connection.store.qdrant.QdrantQuantization;
 import org.mule.extension.vectors.internal.connection.store.qdrant.QdrantStoreConnection;
-import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.connection.store.qdrant.QdrantStoreConnectionParameters;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.SearchTuningParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
-import org.mule.extension.vectors.internal.util.JsonUtils;
 import org.mule.runtime.extension.api.exception.ModuleException;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 public class QdrantStore extends BaseStore {
 
+    private static final int DEFAULT_PAGE_SIZE = 5000;
+
     private final String payloadTextKey;
+    private final QdrantStoreConnectionParameters connectionParameters;
     private QdrantClient client;
 
     public QdrantStore(StoreConfiguration storeConfiguration, QdrantStoreConnection qdrantStoreConnection, String storeName, QueryParameters queryParams, int dimension, boolean createStore) {
@@ -46,12 +54,17 @@ public class QdrantStore extends BaseStore {
                 this.client = new QdrantClient(QdrantGrpcClient.newBuilder(host, port, useTls).withApiKey(apiKey).build());
             }
             this.payloadTextKey = qdrantStoreConnection.getTextSegmentKey();
+            this.connectionParameters = qdrantStoreConnection.getParameters();
 
             if (createStore && !this.client.collectionExistsAsync(this.storeName).get() && dimension > 0) {
-                this.client.createCollectionAsync(storeName,
-                        Collections.VectorParams.newBuilder().setDistance(Collections.Distance.Cosine)
-                                .setSize(dimension).build())
-                        .get();
+
+                this.client.createCollectionAsync(buildCreateCollection(dimension)).get();
+                for (Map.Entry<String, Collections.PayloadSchemaType> payloadIndex :
+                        qdrantStoreConnection.getPayloadIndexes().entrySet()) {
+
+                    this.client.createPayloadIndexAsync(storeName, payloadIndex.getKey(), payloadIndex.getValue(),
+                            null, true, null, null).get();
+                }
             }
         } catch (Exception e) {
 
@@ -70,95 +83,267 @@ public class QdrantStore extends BaseStore {
                 .build();
     }
 
+    private Collections.CreateCollection buildCreateCollection(int dimension) {
+
+        Collections.CreateCollection.Builder createCollection = Collections.CreateCollection.newBuilder()
+                .setCollectionName(storeName)
+                .setVectorsConfig(Collections.VectorsConfig.newBuilder()
+                        .setParams(Collections.VectorParams.newBuilder()
+                                .setDistance(Collections.Distance.Cosine)
+                                .setSize(dimension)
+                                .setOnDisk(connectionParameters.isOnDiskVectors())));
+
+        if (connectionParameters.getHnswM() != null || connectionParameters.getHnswEfConstruct() != null) {
+
+            Collections.HnswConfigDiff.Builder hnswConfig = Collections.HnswConfigDiff.newBuilder();
+            if (connectionParameters.getHnswM() != null) {
+                hnswConfig.setM(connectionParameters.getHnswM());
+            }
+            if (connectionParameters.getHnswEfConstruct() != null) {
+                hnswConfig.setEfConstruct(connectionParameters.getHnswEfConstruct());
+            }
+            createCollection.setHnswConfig(hnswConfig);
+        }
+
+        switch (getQuantization()) {
+
+            case SCALAR:
+                createCollection.setQuantizationConfig(Collections.QuantizationConfig.newBuilder()
+                        .setScalar(Collections.ScalarQuantization.newBuilder()
+                                .setType(Collections.QuantizationType.Int8)
+                                .setAlwaysRam(connectionParameters.isQuantizationAlwaysRam())));
+                break;
+
+            case BINARY:
+                createCollection.setQuantizationConfig(Collections.QuantizationConfig.newBuilder()
+                        .setBinary(Collections.BinaryQuantization.newBuilder()
+                                .setAlwaysRam(connectionParameters.isQuantizationAlwaysRam())));
+                break;
+
+            default:
+                break;
+        }
+        return createCollection.build();
+    }
+
+    private QdrantQuantization getQuantization() {
+
+        return connectionParameters.getQuantization() != null
+                ? connectionParameters.getQuantization()
+                : QdrantQuantization.NONE;
+    }
+
+    /**
+     * Searches the collection. The search runs natively when the collection is quantized, so that the rescoring and
+     * oversampling of the connection apply. Otherwise, the embedding store searches the collection.
+     *
+     * @param searchRequest the search request
+     * @return the search result
+     */
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest) {
+
+        if (getQuantization() == QdrantQuantization.NONE) {
+            return getEmbeddingStore().search(searchRequest);
+        }
+        return searchNatively(searchRequest, null);
+    }
+
+    /**
+     * Searches the collection natively when tuning is given, so that the search parameters of the request can be set:
+     * {@code hnsw_ef} and {@code exact} from the tuning, and the rescoring and oversampling of quantized vectors from
+     * the connection. Without tuning, the search is the one of {@link #search(EmbeddingSearchRequest)}.
+     */
     @Override
-    public JSONObject listSources() {
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest searchRequest,
+                                                     SearchTuningParameters searchTuning) {
+
+        if (searchTuning == null || !searchTuning.isSet()) {
+            return search(searchRequest);
+        }
+        return searchNatively(searchRequest, searchTuning);
+    }
+
+    private EmbeddingSearchResult<TextSegment> searchNatively(EmbeddingSearchRequest searchRequest,
+                                                              SearchTuningParameters searchTuning) {
+
+        Points.SearchPoints.Builder request = Points.SearchPoints.newBuilder()
+                .setCollectionName(storeName)
+                .addAllVector(searchRequest.queryEmbedding().vectorAsList())
+                .setLimit(searchRequest.maxResults())
+                .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true))
+                .setWithVectors(Points.WithVectorsSelector.newBuilder().setEnable(true))
+                .setParams(buildSearchParams(searchTuning));
+        if (searchRequest.filter() != null) {
+            request.setFilter(QdrantFilterMapper.map(searchRequest.filter()));
+        }
+
         try {
-            // Optional max limit of 100k points.
-            int MAX_POINTS = 10000;
-
-            HashMap<String, JSONObject> sourceObjectMap = new HashMap<String, JSONObject>();
-            JSONObject jsonObject = new JSONObject();
-
-            boolean keepScrolling = true;
-            Points.PointId nextOffset = null;
-            List<Points.RetrievedPoint> points = new ArrayList<>(MAX_POINTS);
-            while (keepScrolling && points.size() < MAX_POINTS) {
-                Points.ScrollPoints.Builder request = Points.ScrollPoints.newBuilder()
-                        .setCollectionName(storeName)
-                        .setLimit(Math.min(queryParams.embeddingPageSize(), MAX_POINTS - points.size()));
-                if (nextOffset != null) {
-                    request.setOffset(nextOffset);
+
+            List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+            for (Points.ScoredPoint point : client.searchAsync(request.build()).get()) {
+
+                double score = RelevanceScore.fromCosineSimilarity(point.getScore());
+                if (score < searchRequest.minScore()) {
+                    // Points are sorted by score, the next ones score lower
+                    break;
                 }
+                matches.add(toEmbeddingMatch(point, score));
+            }
+            return new EmbeddingSearchResult<>(matches);
+
+        } catch (ExecutionException e) {
+
+            throw new RuntimeException(String.format("Error while searching %s", storeName), e.getCause());
 
-                Points.ScrollResponse response = client.scrollAsync(request.build()).get();
+        } catch (InterruptedException e) {
 
-                points.addAll(response.getResultList());
-                nextOffset = response.getNextPageOffset();
-                keepScrolling = nextOffset.hasNum() || nextOffset.hasUuid();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Interrupted while searching %s", storeName), e);
+        }
+    }
+
+    private Points.SearchParams buildSearchParams(SearchTuningParameters searchTuning) {
+
+        Points.SearchParams.Builder searchParams = Points.SearchParams.newBuilder();
+        if (searchTuning != null) {
+
+            if (searchTuning.getEfSearch() != null) {
+
+                if (searchTuning.getEfSearch() <= 0) {
+                    throw new IllegalArgumentException(String.format(
+                            "efSearch must be greater than zero. Received: %s", searchTuning.getEfSearch()));
+                }
+                searchParams.setHnswEf(searchTuning.getEfSearch());
             }
+            searchParams.setExact(searchTuning.isExactSearch());
+        }
 
-            for (Points.RetrievedPoint point : points) {
-                JSONObject metadataObject = new JSONObject(JsonFactory.toJson(point.getPayloadMap()));
-                JSONObject sourceObject = getSourceObject(metadataObject);
-                addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+        if (getQuantization() != QdrantQuantization.NONE) {
+
+            Points.QuantizationSearchParams.Builder quantizationParams = Points.QuantizationSearchParams.newBuilder()
+                    .setRescore(connectionParameters.isQuantizationRescore());
+            if (connectionParameters.getQuantizationOversampling() != null) {
+                quantizationParams.setOversampling(connectionParameters.getQuantizationOversampling());
             }
+            searchParams.setQuantization(quantizationParams);
+        }
+        return searchParams.build();
+    }
+
+    private EmbeddingMatch<TextSegment> toEmbeddingMatch(Points.ScoredPoint point, double score) {
+
+        Map<String, JsonWithInt.Value> payload = new HashMap<>(point.getPayloadMap());
+        JsonWithInt.Value text = payload.remove(payloadTextKey);
+        Points.PointId id = point.getId();
+
+        return new EmbeddingMatch<>(score,
+                id.hasUuid() ? id.getUuid() : String.valueOf(id.getNum()),
+                Embedding.from(point.getVectors().getVector().getDataList()),
+                text != null ? TextSegment.from(text.getStringValue(), new Metadata(toMetadataMap(payload))) : null);
+    }
 
-            jsonObject.put(Constants.JSON_KEY_SOURCES,
-                    JsonUtils.jsonObjectCollectionToJsonArray(sourceObjectMap.values()));
-            jsonObject.put(Constants.JSON_KEY_SOURCE_COUNT, sourceObjectMap.size());
+    /**
+     * Lists the sources of the collection by scrolling its points page by page.
+     * <p>
+     * Only the payload keys read to build the source objects are fetched, without vectors, and each page is processed
+     * while the next one is fetched, so that memory stays bounded by the number of sources. Sources are handed over
+     * once every page is read, since the segments of a source may be spread over several pages.
+     * </p>
+     *
+     * @param sourceConsumer the consumer of the source objects
+     */
+    @Override
+    public void listSources(Consumer<JSONObject> sourceConsumer) {
+
+        HashMap<String, JSONObject> sourceObjectMap = new HashMap<String, JSONObject>();
+
+        try {
 
-            return jsonObject;
-        } catch (ExecutionException | InterruptedException | InvalidProtocolBufferException e) {
-            throw new RuntimeException(e);
+            ListenableFuture<Points.ScrollResponse> pendingResponse = client.scrollAsync(buildScrollRequest(null));
+            while (pendingResponse != null) {
+
+                Points.ScrollResponse response = pendingResponse.get();
+
+                Points.PointId nextOffset = response.getNextPageOffset();
+                pendingResponse = response.hasNextPageOffset() && (nextOffset.hasNum() || nextOffset.hasUuid())
+                        ? client.scrollAsync(buildScrollRequest(nextOffset))
+                        : null;
+
+                for (Points.RetrievedPoint point : response.getResultList()) {
+
+                    JSONObject sourceObject = getSourceObject(toMetadataObject(point.getPayloadMap()));
+                    addOrUpdateSourceObjectIntoSourceObjectMap(sourceObjectMap, sourceObject);
+                }
+            }
+
+        } catch (ExecutionException e) {
+
+            throw new RuntimeException(String.format("Error while listing sources from %s", storeName), e.getCause());
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Interrupted while listing sources from %s", storeName), e);
         }
+
+        sourceObjectMap.values().forEach(sourceConsumer);
     }
-}
 
-final class JsonFactory {
-    public static String toJson(Map<String, JsonWithInt.Value> map)
-            throws InvalidProtocolBufferException {
+    private Points.ScrollPoints buildScrollRequest(Points.PointId offset) {
 
-        Struct.Builder structBuilder = Struct.newBuilder();
-        map.forEach((key, value) -> structBuilder.putFields(key, toProtobufValue(value)));
-        return JsonFormat.printer().print(structBuilder.build());
+        Points.ScrollPoints.Builder request = Points.ScrollPoints.newBuilder()
+                .setCollectionName(storeName)
+                .setLimit(queryParams != null ? queryParams.embeddingPageSize() : DEFAULT_PAGE_SIZE)
+                .setWithPayload(Points.WithPayloadSelector.newBuilder()
+                        .setInclude(Points.PayloadIncludeSelector.newBuilder()
+                                .addAllFields(Arrays.asList(LIST_SOURCES_METADATA_KEYS))))
+                .setWithVectors(Points.WithVectorsSelector.newBuilder().setEnable(false));
+        if (offset != null) {
+            request.setOffset(offset);
+        }
+        return request.build();
     }
 
-    private static Value toProtobufValue(io.qdrant.client.grpc.JsonWithInt.Value value) {
-        switch (value.getKindCase()) {
-            case NULL_VALUE:
-                return Value.newBuilder().setNullValueValue(0).build();
+    /**
+     * Maps the payload of a point to a metadata object. Source metadata is scalar, other values are skipped.
+     */
+    private static JSONObject toMetadataObject(Map<String, JsonWithInt.Value> payload) {
 
-            case BOOL_VALUE:
-                return Value.newBuilder().setBoolValue(value.getBoolValue()).build();
+        return new JSONObject(toMetadataMap(payload));
+    }
 
-            case STRING_VALUE:
-                return Value.newBuilder().setStringValue(value.getStringValue()).build();
+    /**
+     * Maps the payload of a point to metadata. Metadata values are scalar, other values are skipped.
+     */
+    private static Map<String, Object> toMetadataMap(Map<String, JsonWithInt.Value> payload) {
 
-            case INTEGER_VALUE:
-                return Value.newBuilder().setNumberValue(value.getIntegerValue()).build();
+        Map<String, Object> metadata = new HashMap<>();
+        for (Map.Entry<String, JsonWithInt.Value> entry : payload.entrySet()) {
 
-            case DOUBLE_VALUE:
-                return Value.newBuilder().setNumberValue(value.getDoubleValue()).build();
+            JsonWithInt.Value value = entry.getValue();
+            switch (value.getKindCase()) {
 
-            case STRUCT_VALUE:
-                Struct.Builder structBuilder = Struct.newBuilder();
-                value.getStructValue()
-                        .getFieldsMap()
-                        .forEach(
-                                (key, val) -> {
-                                    structBuilder.putFields(key, toProtobufValue(val));
-                                });
-                return Value.newBuilder().setStructValue(structBuilder).build();
+                case STRING_VALUE:
+                    metadata.put(entry.getKey(), value.getStringValue());
+                    break;
 
-            case LIST_VALUE:
-                Value.Builder listBuilder = Value.newBuilder();
-                value.getListValue().getValuesList().stream()
-                        .map(JsonFactory::toProtobufValue)
-                        .forEach(listBuilder.getListValueBuilder()::addValues);
-                return listBuilder.build();
+                case INTEGER_VALUE:
+                    metadata.put(entry.getKey(), value.getIntegerValue());
+                    break;
 
-            default:
-                throw new IllegalArgumentException("Unsupported payload value type: " + value.getKindCase());
+                case DOUBLE_VALUE:
+                    metadata.put(entry.getKey(), value.getDoubleValue());
+                    break;
+
+                case BOOL_VALUE:
+                    metadata.put(entry.getKey(), value.getBoolValue());
+                    break;
+
+                default:
+                    break;
+            }
         }
+        return metadata;
     }
 }
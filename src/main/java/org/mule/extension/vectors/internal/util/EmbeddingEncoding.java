@@ -0,0 +1,175 @@
+package org.mule.extension.vectors.internal.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+/**
+ * Encodings supported for the embedding vectors of an embedding payload.
+ * <p>
+ * {@link #FLOAT_ARRAY} emits each vector as a JSON array of numbers. The base64 encodings emit each vector as a single
+ * base64 string of its little-endian float32 or IEEE 754 half precision (float16) bytes, flagged in the payload by the
+ * {@code embeddingEncoding} field.
+ * </p>
+ */
+public enum EmbeddingEncoding {
+
+  FLOAT_ARRAY(0),
+  BASE64_FLOAT32(Float.BYTES),
+  BASE64_FLOAT16(Float.BYTES / 2);
+
+  private final int bytesPerComponent;
+
+  EmbeddingEncoding(int bytesPerComponent) {
+    this.bytesPerComponent = bytesPerComponent;
+  }
+
+  public boolean isBinary() {
+    return bytesPerComponent > 0;
+  }
+
+  public int getBytesPerComponent() {
+    return bytesPerComponent;
+  }
+
+  /**
+   * Encodes a vector to be put into a JSON payload.
+   *
+   * @param vector the vector to encode
+   * @return the vector itself for {@link #FLOAT_ARRAY}, its base64 string otherwise
+   */
+  public Object encode(float[] vector) {
+
+    switch (this) {
+
+      case BASE64_FLOAT32:
+
+        ByteBuffer float32Buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        float32Buffer.asFloatBuffer().put(vector);
+        return Base64.getEncoder().encodeToString(float32Buffer.array());
+
+      case BASE64_FLOAT16:
+
+        ByteBuffer float16Buffer = ByteBuffer.allocate(vector.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (float component : vector) {
+          float16Buffer.putShort(floatToHalf(component));
+        }
+        return Base64.getEncoder().encodeToString(float16Buffer.array());
+
+      case FLOAT_ARRAY:
+      default:
+        return vector;
+    }
+  }
+
+  /**
+   * Decodes the raw (base64 decoded) bytes of a vector.
+   *
+   * @param bytes the little-endian bytes of the vector
+   * @return the decoded vector
+   * @throws IllegalArgumentException if the encoding is not binary or the byte count does not match it
+   */
+  public float[] decode(byte[] bytes) {
+
+    if (!isBinary()) {
+      throw new IllegalArgumentException(String.format("Encoding %s is not a binary encoding", this));
+    }
+    if (bytes.length % bytesPerComponent != 0) {
+      throw new IllegalArgumentException(
+          String.format("Invalid %s vector: %d bytes is not a multiple of %d", this, bytes.length, bytesPerComponent));
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    float[] vector = new float[bytes.length / bytesPerComponent];
+
+    if (this == BASE64_FLOAT32) {
+
+      buffer.asFloatBuffer().get(vector);
+
+    } else {
+
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] = halfToFloat(buffer.getShort());
+      }
+    }
+    return vector;
+  }
+
+  /**
+   * Infers the binary encoding of a vector from its byte count and the expected dimension.
+   *
+   * @param byteCount the number of bytes of the vector
+   * @param dimension the expected dimension
+   * @return the matching binary encoding
+   * @throws IllegalArgumentException if no binary encoding matches
+   */
+  public static EmbeddingEncoding inferBinary(int byteCount, int dimension) {
+
+    if (byteCount == dimension * BASE64_FLOAT32.bytesPerComponent) {
+      return BASE64_FLOAT32;
+    }
+    if (byteCount == dimension * BASE64_FLOAT16.bytesPerComponent) {
+      return BASE64_FLOAT16;
+    }
+    throw new IllegalArgumentException(
+        String.format("Cannot infer the encoding of a %d bytes vector with dimension %d", byteCount, dimension));
+  }
+
+  // Rounds half away from zero; values out of the float16 range saturate to infinity.
+  static short floatToHalf(float value) {
+
+    int bits = Float.floatToIntBits(value);
+    int sign = (bits >>> 16) & 0x8000;
+    int magnitude = bits & 0x7fffffff;
+
+    if (magnitude >= 0x7f800000) {
+      // Infinity or NaN
+      return (short) (sign | 0x7c00 | (magnitude > 0x7f800000 ? 0x0200 : 0));
+    }
+
+    int rounded = magnitude + 0x1000;
+    if (rounded >= 0x47800000) {
+      // Overflow
+      return (short) (sign | 0x7c00);
+    }
+    if (rounded >= 0x38800000) {
+      // Normal
+      return (short) (sign | ((rounded - 0x38000000) >>> 13));
+    }
+    if (magnitude < 0x33000000) {
+      // Underflow to zero
+      return (short) sign;
+    }
+    // Subnormal
+    int exponent = magnitude >>> 23;
+    int mantissa = (magnitude & 0x7fffff) | 0x800000;
+    return (short) (sign | ((mantissa + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+  }
+
+  static float halfToFloat(short half) {
+
+    int bits = half & 0xffff;
+    int sign = (bits & 0x8000) << 16;
+    int exponent = bits & 0x7c00;
+    int mantissa = bits & 0x03ff;
+
+    if (exponent == 0x7c00) {
+      // Infinity or NaN
+      exponent = 0x3fc00;
+
+    } else if (exponent != 0) {
+      // Normal
+      exponent += 0x1c000;
+
+    } else if (mantissa != 0) {
+      // Subnormal, normalized into a float
+      exponent = 0x1c400;
+      do {
+        mantissa <<= 1;
+        exponent -= 0x400;
+      } while ((mantissa & 0x400) == 0);
+      mantissa &= 0x3ff;
+    }
+    return Float.intBitsToFloat(sign | ((exponent | mantissa) << 13));
+  }
+}
@@ -0,0 +1,284 @@
+package org.mule.extension.vectors.internal.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.mule.extension.vectors.internal.constant.Constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming parser for the text segments and embeddings payload produced by the embedding operations
+ * (see {@code api/metadata/EmbeddingGenerateResponse.json}) and for the text segments payload produced by the
+ * document operations.
+ * <p>
+ * The payload is read token by token: embedding vectors are decoded straight into {@code float[]} and text segments
+ * straight into {@link TextSegment}, without materializing the whole document as a string or JSON tree. Fields not
+ * part of the payload are skipped.
+ * </p>
+ * <p>
+ * Vectors emitted with a binary {@link EmbeddingEncoding} are base64 decoded as they are read and converted once the
+ * whole payload is read, as the {@code embeddingEncoding} field may follow the {@code embeddings} field. When the field
+ * is absent, the encoding is inferred from the byte count of each vector and the payload {@code dimension}.
+ * </p>
+ */
+public final class EmbeddingPayloadParser {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+  private static final TypeReference<HashMap<String, Object>> METADATA_TYPE = new TypeReference<HashMap<String, Object>>() {};
+
+  private static final int DEFAULT_VECTOR_CAPACITY = 1024;
+
+  private EmbeddingPayloadParser() {}
+
+  /**
+   * Parses the text segments and embeddings payload.
+   *
+   * @param content the input stream containing the payload. The stream is not closed.
+   * @return the parsed payload
+   * @throws IOException if the payload cannot be read or is not valid
+   */
+  public static EmbeddingPayload parse(InputStream content) throws IOException {
+    return parse(content, null);
+  }
+
+  /**
+   * Parses the text segments and embeddings payload, merging additional metadata into the metadata of each text segment.
+   *
+   * @param content            the input stream containing the payload. The stream is not closed.
+   * @param additionalMetadata the metadata entries added to each text segment, overriding existing entries. Can be null.
+   * @return the parsed payload
+   * @throws IOException if the payload cannot be read or is not valid
+   */
+  public static EmbeddingPayload parse(InputStream content, Map<String, ?> additionalMetadata) throws IOException {
+
+    EmbeddingPayload payload = new EmbeddingPayload();
+    List<Object> vectors = null;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String fieldName = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+
+        switch (fieldName) {
+
+          case Constants.JSON_KEY_TEXT_SEGMENTS:
+            expect(parser, token, JsonToken.START_ARRAY);
+            payload.textSegments = readTextSegments(parser, additionalMetadata);
+            break;
+
+          case Constants.JSON_KEY_EMBEDDINGS:
+            expect(parser, token, JsonToken.START_ARRAY);
+            vectors = readVectors(parser);
+            break;
+
+          case Constants.JSON_KEY_EMBEDDING_ENCODING:
+            expect(parser, token, JsonToken.VALUE_STRING);
+            payload.embeddingEncoding = parseEncoding(parser);
+            break;
+
+          case Constants.JSON_KEY_DIMENSION:
+            expect(parser, token, JsonToken.VALUE_NUMBER_INT);
+            payload.dimension = parser.getIntValue();
+            break;
+
+          default:
+            parser.skipChildren();
+            break;
+        }
+      }
+    }
+
+    if (vectors != null) {
+      payload.embeddings = toEmbeddings(vectors, payload.embeddingEncoding, payload.dimension);
+    }
+
+    return payload;
+  }
+
+  private static List<TextSegment> readTextSegments(JsonParser parser, Map<String, ?> additionalMetadata)
+      throws IOException {
+
+    List<TextSegment> textSegments = new ArrayList<>();
+
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+
+      expect(parser, token, JsonToken.START_OBJECT);
+
+      String text = null;
+      HashMap<String, Object> metadataMap = null;
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String fieldName = parser.getCurrentName();
+        token = parser.nextToken();
+
+        if (Constants.JSON_KEY_TEXT.equals(fieldName)) {
+
+          expect(parser, token, JsonToken.VALUE_STRING);
+          text = parser.getText();
+
+        } else if (Constants.JSON_KEY_METADATA.equals(fieldName)) {
+
+          expect(parser, token, JsonToken.START_OBJECT);
+          metadataMap = OBJECT_MAPPER.readValue(parser, METADATA_TYPE);
+
+        } else {
+
+          parser.skipChildren();
+        }
+      }
+
+      if (text == null) {
+        throw new JsonParseException(parser, String.format("Missing \"%s\" in text segment", Constants.JSON_KEY_TEXT));
+      }
+      if (metadataMap == null) {
+        throw new JsonParseException(parser, String.format("Missing \"%s\" in text segment", Constants.JSON_KEY_METADATA));
+      }
+      if (additionalMetadata != null) {
+        metadataMap.putAll(additionalMetadata);
+      }
+
+      textSegments.add(new TextSegment(text, Metadata.from(metadataMap)));
+    }
+
+    return textSegments;
+  }
+
+  // Reads each vector either as a float[] (number array) or as the byte[] of its base64 string.
+  private static List<Object> readVectors(JsonParser parser) throws IOException {
+
+    List<Object> vectors = new ArrayList<>();
+    // Scratch buffer reused across vectors; each vector is copied out once at its exact length.
+    float[] buffer = new float[DEFAULT_VECTOR_CAPACITY];
+
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+
+      if (token == JsonToken.VALUE_STRING) {
+
+        vectors.add(parser.getBinaryValue());
+        continue;
+      }
+
+      expect(parser, token, JsonToken.START_ARRAY);
+
+      int length = 0;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+
+        if (token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_NUMBER_INT) {
+          throw new JsonParseException(parser, String.format("Unexpected token %s in embedding vector", token));
+        }
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[length++] = parser.getFloatValue();
+      }
+
+      vectors.add(Arrays.copyOf(buffer, length));
+    }
+
+    return vectors;
+  }
+
+  private static List<Embedding> toEmbeddings(List<Object> vectors, EmbeddingEncoding encoding, Integer dimension) {
+
+    List<Embedding> embeddings = new ArrayList<>(vectors.size());
+
+    for (Object vector : vectors) {
+
+      if (vector instanceof float[]) {
+
+        embeddings.add(new Embedding((float[]) vector));
+        continue;
+      }
+
+      byte[] bytes = (byte[]) vector;
+      EmbeddingEncoding vectorEncoding = encoding;
+      if (vectorEncoding == null || !vectorEncoding.isBinary()) {
+
+        if (dimension == null) {
+          throw new IllegalArgumentException(String.format(
+              "Either \"%s\" or \"%s\" must be provided to decode base64 embeddings",
+              Constants.JSON_KEY_EMBEDDING_ENCODING, Constants.JSON_KEY_DIMENSION));
+        }
+        vectorEncoding = EmbeddingEncoding.inferBinary(bytes.length, dimension);
+      }
+      embeddings.add(new Embedding(vectorEncoding.decode(bytes)));
+    }
+
+    return embeddings;
+  }
+
+  private static EmbeddingEncoding parseEncoding(JsonParser parser) throws IOException {
+
+    try {
+
+      return EmbeddingEncoding.valueOf(parser.getText());
+
+    } catch (IllegalArgumentException e) {
+
+      throw new JsonParseException(parser, String.format("Unsupported embedding encoding %s", parser.getText()), e);
+    }
+  }
+
+  private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+
+    if (actual != expected) {
+      throw new JsonParseException(parser, String.format("Expected %s but found %s", expected, actual));
+    }
+  }
+
+  /**
+   * Text segments, embeddings and dimension read from a payload. Sections absent from the payload are null.
+   */
+  public static final class EmbeddingPayload {
+
+    private List<TextSegment> textSegments;
+    private List<Embedding> embeddings;
+    private Integer dimension;
+    private EmbeddingEncoding embeddingEncoding;
+
+    private EmbeddingPayload() {}
+
+    public boolean hasTextSegments() {
+      return textSegments != null;
+    }
+
+    public List<TextSegment> getTextSegments() {
+      return textSegments;
+    }
+
+    public List<Embedding> getEmbeddings() {
+      return embeddings;
+    }
+
+    public Integer getDimension() {
+      return dimension;
+    }
+
+    public EmbeddingEncoding getEmbeddingEncoding() {
+      return embeddingEncoding;
+    }
+  }
+}
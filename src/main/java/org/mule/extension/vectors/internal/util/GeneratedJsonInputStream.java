@@ -0,0 +1,273 @@
+package org.mule.extension.vectors.internal.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input stream of a JSON document written with a Jackson {@link JsonGenerator} on a dedicated thread, as it is read.
+ * <p>
+ * The writer runs ahead of the reader by at most a few chunks: once they are all pending, it blocks until the reader
+ * consumes them. Memory use is therefore bounded by the pending chunks, whatever the size of the document. If the
+ * writer fails, the document is left truncated and the failure is rethrown by the reads reaching its end. Closing the
+ * stream before its end makes the writer fail on its next write.
+ * </p>
+ */
+public class GeneratedJsonInputStream extends InputStream {
+
+  /**
+   * Writes a JSON document.
+   */
+  @FunctionalInterface
+  public interface JsonWriter {
+
+    /**
+     * Writes the document.
+     *
+     * @param generator the generator to write the document with. Its codec can write plain Java maps and lists.
+     * @throws Exception if the document cannot be written
+     */
+    void write(JsonGenerator generator) throws Exception;
+  }
+
+  private static final JsonFactory JSON_FACTORY = new ObjectMapper().getFactory();
+
+  private static final int CHUNK_SIZE = 8 * 1024;
+  private static final int MAX_PENDING_CHUNKS = 8;
+  private static final long OFFER_TIMEOUT_MILLIS = 1000;
+
+  // Marks the end of the document in the chunk queue
+  private static final byte[] END = new byte[0];
+
+  private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+  private final CountDownLatch firstOutput = new CountDownLatch(1);
+
+  private volatile Throwable failure;
+  private volatile boolean outputWritten;
+  private volatile boolean closed;
+
+  // Reader side
+  private byte[] chunk;
+  private int position;
+  private boolean ended;
+
+  private GeneratedJsonInputStream() {}
+
+  /**
+   * Starts writing a JSON document on a new thread.
+   *
+   * @param threadName the name of the writer thread
+   * @param writer     the writer of the document
+   * @return the stream of the document
+   */
+  public static GeneratedJsonInputStream start(String threadName, JsonWriter writer) {
+
+    GeneratedJsonInputStream stream = new GeneratedJsonInputStream();
+    Thread thread = new Thread(() -> stream.generate(writer), threadName);
+    thread.setDaemon(true);
+    thread.start();
+    return stream;
+  }
+
+  /**
+   * Waits until the writer hands its first output over, by flushing its generator or completing, so that failures
+   * occurring before any output can be reported to the caller rather than to the reader of the stream.
+   *
+   * @throws ExecutionException   if the writer failed before writing any output, the stream is then closed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public void awaitOutput() throws ExecutionException, InterruptedException {
+
+    firstOutput.await();
+    Throwable cause = failure;
+    if (cause != null && !outputWritten) {
+
+      close();
+      throw new ExecutionException(cause);
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+
+    if (!fill()) {
+      return -1;
+    }
+    return chunk[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+
+    if (length == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+
+    int count = Math.min(length, chunk.length - position);
+    System.arraycopy(chunk, position, bytes, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return chunk != null ? chunk.length - position : 0;
+  }
+
+  @Override
+  public void close() {
+
+    closed = true;
+    chunks.clear();
+  }
+
+  // Ensures there are chunk bytes to read. Returns false at the end of the document.
+  private boolean fill() throws IOException {
+
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+
+    while (chunk == null || position == chunk.length) {
+
+      if (!ended) {
+
+        try {
+
+          chunk = chunks.take();
+          position = 0;
+
+        } catch (InterruptedException e) {
+
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the JSON document");
+        }
+        ended = chunk == END;
+      }
+
+      if (ended) {
+
+        Throwable cause = failure;
+        if (cause != null) {
+          throw new IOException("Error while writing the JSON document", cause);
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void generate(JsonWriter writer) {
+
+    try {
+
+      JsonGenerator generator = JSON_FACTORY.createGenerator(new ChunkOutputStream());
+      // A failed document must stay truncated rather than be closed into valid JSON
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+      writer.write(generator);
+      generator.close();
+
+    } catch (Throwable e) {
+
+      failure = e;
+
+    } finally {
+
+      try {
+
+        enqueue(END);
+
+      } catch (IOException e) {
+
+        // The reader closed the stream, nobody waits for the end of the document
+      }
+      firstOutput.countDown();
+    }
+  }
+
+  private void enqueue(byte[] bytes) throws IOException {
+
+    try {
+
+      while (!chunks.offer(bytes, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+
+        if (closed) {
+          throw new IOException("Stream closed by its reader");
+        }
+      }
+
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing the JSON document");
+    }
+    if (closed) {
+
+      chunks.clear();
+      throw new IOException("Stream closed by its reader");
+    }
+  }
+
+  // Buffers the output of the generator into chunks handed over to the reader when full or flushed
+  private final class ChunkOutputStream extends OutputStream {
+
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private int size;
+
+    @Override
+    public void write(int b) throws IOException {
+
+      if (size == buffer.length) {
+        flush();
+      }
+      buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+
+      while (length > 0) {
+
+        if (size == buffer.length) {
+          flush();
+        }
+        int count = Math.min(length, buffer.length - size);
+        System.arraycopy(bytes, offset, buffer, size, count);
+        size += count;
+        offset += count;
+        length -= count;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+
+      if (size == 0) {
+        return;
+      }
+      enqueue(Arrays.copyOf(buffer, size));
+      size = 0;
+      outputWritten = true;
+      firstOutput.countDown();
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
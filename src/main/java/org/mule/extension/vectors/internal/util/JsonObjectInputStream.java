@@ -0,0 +1,253 @@
+package org.mule.extension.vectors.internal.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Input stream serializing a {@link JSONObject} lazily, as it is read.
+ * <p>
+ * The JSON tree is walked incrementally and serialized with a Jackson {@link JsonGenerator} into a small buffer that is
+ * refilled when drained. Unlike {@code jsonObject.toString()} followed by a conversion to bytes, the serialized document
+ * is never held in memory as a whole: besides the tree itself, memory use is bounded by the buffer size and the depth
+ * of the tree.
+ * </p>
+ */
+public class JsonObjectInputStream extends InputStream {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final int CHUNK_SIZE = 8 * 1024;
+
+  private final JSONObject root;
+  private final Buffer buffer = new Buffer();
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  private final JsonGenerator generator;
+
+  private boolean started;
+  private boolean finished;
+  private int position;
+
+  public JsonObjectInputStream(JSONObject root) {
+
+    this.root = root;
+    try {
+
+      this.generator = JSON_FACTORY.createGenerator(buffer);
+
+    } catch (IOException e) {
+
+      // Writing to an in-memory buffer does not fail
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+
+    if (!fill()) {
+      return -1;
+    }
+    return buffer.array()[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+
+    if (length == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+
+    int count = Math.min(length, buffer.size() - position);
+    System.arraycopy(buffer.array(), position, bytes, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.size() - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    finished = true;
+    frames.clear();
+    generator.close();
+  }
+
+  // Ensures there are buffered bytes to read. Returns false when the whole document was read.
+  private boolean fill() throws IOException {
+
+    if (position < buffer.size()) {
+      return true;
+    }
+
+    buffer.reset();
+    position = 0;
+
+    while (!finished && buffer.size() < CHUNK_SIZE) {
+
+      step();
+      generator.flush();
+    }
+    return buffer.size() > 0;
+  }
+
+  // Writes the next field or element of the tree.
+  private void step() throws IOException {
+
+    if (!started) {
+
+      started = true;
+      writeValue(root);
+      return;
+    }
+
+    Frame frame = frames.peek();
+    if (frame == null) {
+
+      generator.close();
+      finished = true;
+      return;
+    }
+
+    if (frame.object != null) {
+
+      if (frame.keys.hasNext()) {
+
+        String key = frame.keys.next();
+        generator.writeFieldName(key);
+        writeValue(frame.object.opt(key));
+
+      } else {
+
+        generator.writeEndObject();
+        frames.pop();
+      }
+
+    } else {
+
+      if (frame.elements.hasNext()) {
+
+        writeValue(frame.elements.next());
+
+      } else {
+
+        generator.writeEndArray();
+        frames.pop();
+      }
+    }
+  }
+
+  // Writes a scalar value, or opens a container value whose content is written by the next steps.
+  private void writeValue(Object value) throws IOException {
+
+    if (value == null || JSONObject.NULL.equals(value)) {
+
+      generator.writeNull();
+
+    } else if (value instanceof JSONObject) {
+
+      generator.writeStartObject();
+      frames.push(new Frame((JSONObject) value));
+
+    } else if (value instanceof JSONArray) {
+
+      generator.writeStartArray();
+      frames.push(new Frame(((JSONArray) value).iterator()));
+
+    } else if (value instanceof String) {
+
+      generator.writeString((String) value);
+
+    } else if (value instanceof Boolean) {
+
+      generator.writeBoolean((Boolean) value);
+
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+
+      generator.writeNumber(((Number) value).longValue());
+
+    } else if (value instanceof Float) {
+
+      generator.writeNumber((Float) value);
+
+    } else if (value instanceof Double) {
+
+      generator.writeNumber((Double) value);
+
+    } else if (value instanceof BigInteger) {
+
+      generator.writeNumber((BigInteger) value);
+
+    } else if (value instanceof BigDecimal) {
+
+      generator.writeNumber((BigDecimal) value);
+
+    } else if (value instanceof Map) {
+
+      writeValue(new JSONObject((Map<?, ?>) value));
+
+    } else if (value instanceof Collection || value.getClass().isArray()) {
+
+      writeValue(new JSONArray(value));
+
+    } else if (value instanceof Enum) {
+
+      generator.writeString(((Enum<?>) value).name());
+
+    } else {
+
+      generator.writeString(value.toString());
+    }
+  }
+
+  private static final class Frame {
+
+    private final JSONObject object;
+    private final Iterator<String> keys;
+    private final Iterator<Object> elements;
+
+    private Frame(JSONObject object) {
+      this.object = object;
+      this.keys = object.keys();
+      this.elements = null;
+    }
+
+    private Frame(Iterator<Object> elements) {
+      this.object = null;
+      this.keys = null;
+      this.elements = elements;
+    }
+  }
+
+  // Exposes the internal array to avoid copying buffered bytes.
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    private Buffer() {
+      super(CHUNK_SIZE * 2);
+    }
+
+    private byte[] array() {
+      return buf;
+    }
+  }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.internal.ValidationUtils;
 import org.json.JSONArray;
@@ -122,6 +123,29 @@ public final class JsonUtils {
     return jsonObject;
   }
 
+  /**
+   * Puts the embedding vectors into a JSONObject, encoded with the given encoding. For binary encodings, the encoding
+   * is also put so that the vectors can be decoded back.
+   *
+   * @param jsonObject the JSONObject to put the embeddings into.
+   * @param embeddings the embeddings to be put.
+   * @param encoding   the encoding of the vectors. Null defaults to {@link EmbeddingEncoding#FLOAT_ARRAY}.
+   */
+  public static void putEmbeddings(JSONObject jsonObject, List<Embedding> embeddings, EmbeddingEncoding encoding) {
+
+    EmbeddingEncoding embeddingEncoding = encoding != null ? encoding : EmbeddingEncoding.FLOAT_ARRAY;
+
+    JSONArray jsonEmbeddings = new JSONArray();
+    for (Embedding embedding : embeddings) {
+      jsonEmbeddings.put(embeddingEncoding.encode(embedding.vector()));
+    }
+    jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+
+    if (embeddingEncoding.isBinary()) {
+      jsonObject.put(Constants.JSON_KEY_EMBEDDING_ENCODING, embeddingEncoding.name());
+    }
+  }
+
   public static JSONObject mediaToJson(Media media) {
 
     JSONObject jsonObject = new JSONObject();
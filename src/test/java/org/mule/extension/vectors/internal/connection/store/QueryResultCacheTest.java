@@ -0,0 +1,269 @@
+package org.mule.extension.vectors.internal.connection.store;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class QueryResultCacheTest {
+
+  private static final float[] VECTOR = {0.6f, 0.8f};
+  private static final long TTL = 60_000;
+
+  @Test
+  public void reorderedConditionsShareTheSameKey() {
+
+    Filter a = metadataKey("a").isEqualTo("x");
+    Filter b = metadataKey("b").isGreaterThan(1);
+    Filter c = metadataKey("c").isIn("y", "z");
+
+    assertThat(QueryResultCache.key("store", VECTOR, 5, 0.5, a.and(b).and(c)),
+               is(QueryResultCache.key("store", VECTOR, 5, 0.5, c.and(b.and(a)))));
+    assertThat(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("c").isIn("y", "z")),
+               is(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("c").isIn("z", "y"))));
+  }
+
+  @Test
+  public void distinctFiltersHaveDistinctKeys() {
+
+    assertThat(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("x").isEqualTo(1)),
+               not(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("x").isEqualTo("1"))));
+    assertThat(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("a").isEqualTo("x")
+                   .and(metadataKey("b").isEqualTo("y"))),
+               not(QueryResultCache.key("store", VECTOR, 5, 0.5, metadataKey("a").isEqualTo("x")
+                   .or(metadataKey("b").isEqualTo("y")))));
+  }
+
+  @Test
+  public void cachedMatchesAreReturnedUntilInvalidated() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    QueryResultCache.Key key = QueryResultCache.key("store", VECTOR, 5, 0.5, null);
+    List<EmbeddingMatch<TextSegment>> matches = matches("a");
+
+    assertThat(cache.get(key, VECTOR, null), is(nullValue()));
+
+    cache.put(key, VECTOR, matches, TTL, cache.getGeneration("store"));
+    QueryResultCache.Hit hit = cache.get(key, VECTOR, null);
+    assertThat(hit, is(notNullValue()));
+    assertThat(hit.getMatches(), is(matches));
+    assertThat(hit.isSemantic(), is(false));
+
+    cache.invalidate("store");
+    assertThat(cache.get(key, VECTOR, null), is(nullValue()));
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void putWithStaleGenerationIsDiscarded() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    QueryResultCache.Key key = QueryResultCache.key("store", VECTOR, 5, 0.5, null);
+
+    long generation = cache.getGeneration("store");
+    cache.invalidate("store");
+    cache.put(key, VECTOR, matches("a"), TTL, generation);
+
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void putWithoutTtlIsIgnored() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    QueryResultCache.Key key = QueryResultCache.key("store", VECTOR, 5, 0.5, null);
+
+    cache.put(key, VECTOR, matches("a"), 0, cache.getGeneration("store"));
+
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void similarQueryIsASemanticHit() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    cache.put(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, matches("a"), TTL,
+              cache.getGeneration("store"));
+
+    float[] similarVector = {0.62f, 0.78f};
+    QueryResultCache.Key similarKey = QueryResultCache.key("store", similarVector, 5, 0.5, null);
+
+    assertThat(cache.get(similarKey, similarVector, null), is(nullValue()));
+
+    QueryResultCache.Hit hit = cache.get(similarKey, similarVector, 0.99);
+    assertThat(hit, is(notNullValue()));
+    assertThat(hit.isSemantic(), is(true));
+
+    // Entries of other scopes never match
+    QueryResultCache.Key otherScopeKey = QueryResultCache.key("store", similarVector, 10, 0.5, null);
+    assertThat(cache.get(otherScopeKey, similarVector, 0.99), is(nullValue()));
+  }
+
+  @Test
+  public void semanticHitIsTheMostSimilarEntryOfTheScope() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    long generation = cache.getGeneration("store");
+    float[] close = {0.61f, 0.79f};
+    float[] closer = {0.6f, 0.8f};
+    float[] other = {0f, 1f};
+
+    cache.put(QueryResultCache.key("store", close, 5, 0.5, null), close, matches("close"), TTL, generation);
+    cache.put(QueryResultCache.key("store", other, 5, 0.5, null), other, matches("other"), TTL, generation);
+    // Identical vector, but in other scopes
+    cache.put(QueryResultCache.key("store", closer, 10, 0.5, null), closer, matches("max"), TTL, generation);
+    cache.put(QueryResultCache.key("store", closer, 5, 0.5, metadataKey("a").isEqualTo("x")), closer,
+              matches("filter"), TTL, cache.getGeneration("store"));
+    cache.put(QueryResultCache.key("other", closer, 5, 0.5, null), closer, matches("store"), TTL,
+              cache.getGeneration("other"));
+
+    float[] queryVector = {0.6f, 0.8f};
+    QueryResultCache.Hit hit = cache.get(QueryResultCache.key("store", queryVector, 5, 0.5, null), queryVector, 0.9);
+
+    assertThat(hit, is(notNullValue()));
+    assertThat(hit.getMatches().get(0).embeddingId(), is("close"));
+    assertThat(hit.getSimilarity() < 1d, is(true));
+  }
+
+  @Test
+  public void invalidatedEntriesAreNoSemanticHits() {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    cache.put(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, matches("a"), TTL,
+              cache.getGeneration("store"));
+
+    float[] similarVector = {0.62f, 0.78f};
+    QueryResultCache.Key similarKey = QueryResultCache.key("store", similarVector, 5, 0.5, null);
+
+    cache.invalidate("store");
+    assertThat(cache.get(similarKey, similarVector, 0.99), is(nullValue()));
+
+    cache.put(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, matches("a"), TTL,
+              cache.getGeneration("store"));
+    cache.invalidateAll();
+    assertThat(cache.get(similarKey, similarVector, 0.99), is(nullValue()));
+  }
+
+  @Test
+  public void evictedEntriesAreNoSemanticHits() {
+
+    QueryResultCache cache = new QueryResultCache(1);
+    long generation = cache.getGeneration("store");
+    float[] otherVector = {0f, 1f};
+
+    cache.put(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, matches("a"), TTL, generation);
+    cache.put(QueryResultCache.key("store", otherVector, 5, 0.5, null), otherVector, matches("b"), TTL, generation);
+
+    float[] similarVector = {0.62f, 0.78f};
+    assertThat(cache.get(QueryResultCache.key("store", similarVector, 5, 0.5, null), similarVector, 0.99),
+               is(nullValue()));
+  }
+
+  @Test
+  public void expiredEntriesAreRemovedBySemanticLookups() throws InterruptedException {
+
+    QueryResultCache cache = new QueryResultCache(10);
+    cache.put(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, matches("a"), 1,
+              cache.getGeneration("store"));
+    Thread.sleep(10);
+
+    float[] similarVector = {0.62f, 0.78f};
+    assertThat(cache.get(QueryResultCache.key("store", similarVector, 5, 0.5, null), similarVector, 0.99),
+               is(nullValue()));
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getStatistics().get("expirationCount"), is(1L));
+    assertThat(cache.getStatistics().get("estimatedMemoryBytes"), is(0L));
+  }
+
+  @Test
+  public void concurrentLookupsAndWritesKeepTheIndexConsistent() throws Exception {
+
+    QueryResultCache cache = new QueryResultCache(16);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+
+        int seed = thread;
+        futures.add(executor.submit(() -> {
+
+          Random random = new Random(seed);
+          for (int i = 0; i < 2_000; i++) {
+
+            float[] vector = {random.nextFloat(), random.nextFloat()};
+            QueryResultCache.Key key = QueryResultCache.key("store", vector, 5, 0.5, null);
+            if (i % 100 == 99) {
+              cache.invalidate("store");
+            } else if (i % 2 == 0) {
+              cache.put(key, vector, matches("a"), TTL, cache.getGeneration("store"));
+            } else {
+              cache.get(key, vector, 0.9);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+    } finally {
+
+      executor.shutdownNow();
+    }
+
+    assertThat(cache.size() <= 16, is(true));
+    cache.invalidate("store");
+    assertThat(cache.get(QueryResultCache.key("store", VECTOR, 5, 0.5, null), VECTOR, 0.01), is(nullValue()));
+    assertThat(cache.getStatistics().get("estimatedMemoryBytes"), is(0L));
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() {
+
+    QueryResultCache cache = new QueryResultCache(2);
+    QueryResultCache.Key first = QueryResultCache.key("store", new float[] {1f, 0f}, 5, 0.5, null);
+    QueryResultCache.Key second = QueryResultCache.key("store", new float[] {0f, 1f}, 5, 0.5, null);
+    QueryResultCache.Key third = QueryResultCache.key("store", new float[] {1f, 1f}, 5, 0.5, null);
+    long generation = cache.getGeneration("store");
+
+    cache.put(first, new float[] {1f, 0f}, matches("a"), TTL, generation);
+    cache.put(second, new float[] {0f, 1f}, matches("b"), TTL, generation);
+    cache.get(first, null, null);
+    cache.put(third, new float[] {1f, 1f}, matches("c"), TTL, generation);
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get(first, null, null), is(notNullValue()));
+    assertThat(cache.get(second, null, null), is(nullValue()));
+    assertThat(cache.getStatistics().get("evictionCount"), is(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maxEntriesMustBePositive() {
+
+    new QueryResultCache(0);
+  }
+
+  private static List<EmbeddingMatch<TextSegment>> matches(String id) {
+
+    return Collections.singletonList(
+        new EmbeddingMatch<>(0.9, id, new Embedding(new float[] {1f, 0f}), TextSegment.from(id)));
+  }
+}
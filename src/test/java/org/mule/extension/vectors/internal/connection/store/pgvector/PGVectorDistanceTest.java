@@ -0,0 +1,46 @@
+package org.mule.extension.vectors.internal.connection.store.pgvector;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.store.embedding.RelevanceScore;
+import org.junit.Test;
+
+public class PGVectorDistanceTest {
+
+  private static final double[] DISTANCES = {0, 0.25, 0.5, 1, 1.5, 2};
+
+  @Test
+  public void cosineScoresMatchTheEmbeddingStore() {
+
+    for (double distance : DISTANCES) {
+
+      // The embedding store scores rows with (2 - (embedding <=> query)) / 2
+      assertThat(PGVectorDistance.COSINE.toScore(distance), is((2 - distance) / 2));
+      assertThat(PGVectorDistance.COSINE.toScore(distance), is(RelevanceScore.fromCosineSimilarity(1 - distance)));
+    }
+  }
+
+  @Test
+  public void innerProductScoresAreCosineRelevanceOfNormalizedVectors() {
+
+    for (double distance : DISTANCES) {
+
+      // The <#> operator returns the negative inner product, the cosine similarity of normalized vectors
+      assertThat(PGVectorDistance.INNER_PRODUCT.toScore(-distance), is((1 + distance) / 2));
+      assertThat(PGVectorDistance.INNER_PRODUCT.toScore(-distance),
+                 is(RelevanceScore.fromCosineSimilarity(distance)));
+    }
+  }
+
+  @Test
+  public void scoresDecreaseWithDistance() {
+
+    for (PGVectorDistance pgVectorDistance : PGVectorDistance.values()) {
+      for (int i = 1; i < DISTANCES.length; i++) {
+        assertThat(pgVectorDistance.name(),
+                   pgVectorDistance.toScore(DISTANCES[i]) < pgVectorDistance.toScore(DISTANCES[i - 1]), is(true));
+      }
+    }
+  }
+}
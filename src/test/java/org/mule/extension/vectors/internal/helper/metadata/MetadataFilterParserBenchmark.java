@@ -0,0 +1,57 @@
+package org.mule.extension.vectors.internal.helper.metadata;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compilation of metadata filter expressions by the splitting implementation, by the parser, and through
+ * the cache of {@link MetadataFilterHelper}.
+ * <p>
+ * Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *       -Dexec.args=MetadataFilterParserBenchmark
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataFilterParserBenchmark {
+
+  @Param({
+      "file_name = 'example.pdf'",
+      "file_name = 'example.pdf' AND (file_type = 'any' OR file_name = 'txt')",
+      "a = 1 AND b = 2 AND c = 3 AND d = 4 AND e = 5 AND f = 6 AND g = 7 AND h = 8"
+  })
+  public String expression;
+
+  @Benchmark
+  public Filter splitting() {
+    return LegacyMetadataFilterHelper.fromExpression(expression);
+  }
+
+  @Benchmark
+  public Filter parser() {
+    return new MetadataFilterParser(expression.trim()).parse();
+  }
+
+  @Benchmark
+  public Filter cached() {
+    return MetadataFilterHelper.fromExpression(expression);
+  }
+}
@@ -0,0 +1,142 @@
+package org.mule.extension.vectors.internal.helper.metadata;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MetadataFilterParserTest {
+
+  @Test
+  public void compilesExpressionsLikeTheSplittingImplementation() {
+
+    List<String> expressions = Arrays.asList(
+        "file_name = 'example.pdf'",
+        "file_name = \"example.pdf\"",
+        "file_name = example.pdf",
+        "title = hello world",
+        "index >= 3",
+        "index > -2",
+        "score < 0.5",
+        "score <= 0.25",
+        "index != 7",
+        "page = '42'",
+        "a = 1 AND b = 2 AND c = 3",
+        "a = 1 and b = 2",
+        "a = 1 OR b = 2 OR c = 3",
+        "((a = 1))",
+        "file_name = 'example.pdf' AND (file_type = 'any' OR file_name = 'txt')",
+        "a <= 5 AND (b > 1 OR (c = x AND d = y))",
+        "  file_name = 'example.pdf'  ");
+
+    for (String expression : expressions) {
+      assertThat(expression, new MetadataFilterParser(expression.trim()).parse(),
+                 is(LegacyMetadataFilterHelper.fromExpression(expression)));
+    }
+  }
+
+  @Test
+  public void coercesNumbers() {
+
+    assertThat(parse("index = 3"), is(metadataKey("index").isEqualTo(3L)));
+    assertThat(parse("index = '3'"), is(metadataKey("index").isEqualTo(3L)));
+    assertThat(parse("score > -0.5"), is(metadataKey("score").isGreaterThan(-0.5d)));
+    assertThat(parse("version = 1.2.3"), is(metadataKey("version").isEqualTo("1.2.3")));
+    assertThat(parse("version = 1."), is(metadataKey("version").isEqualTo("1.")));
+  }
+
+  @Test
+  public void nestsChainsToTheRight() {
+
+    assertThat(parse("a = 1 AND b = 2 AND c = 3"),
+               is(metadataKey("a").isEqualTo(1L).and(metadataKey("b").isEqualTo(2L).and(metadataKey("c").isEqualTo(3L)))));
+    assertThat(parse("a = 1 OR b = 2 OR c = 3"),
+               is(metadataKey("a").isEqualTo(1L).or(metadataKey("b").isEqualTo(2L).or(metadataKey("c").isEqualTo(3L)))));
+  }
+
+  @Test
+  public void parsesParenthesizedGroups() {
+
+    // The splitting implementation stripped the outer parentheses of "(a = 1) AND (b = 2)" as if they matched
+    assertThat(parse("(a = 1) AND (b = 2)"), is(metadataKey("a").isEqualTo(1L).and(metadataKey("b").isEqualTo(2L))));
+    // The splitting implementation combined "(a = 1 OR b = 2) AND c = 3" with OR, the first keyword of the expression
+    assertThat(parse("(a = 1 OR b = 2) AND c = 3"),
+               is(metadataKey("a").isEqualTo(1L).or(metadataKey("b").isEqualTo(2L)).and(metadataKey("c").isEqualTo(3L))));
+    assertThat(parse("(a = 1 OR b = 2) AND (c = 3 OR d = 4)"),
+               is(metadataKey("a").isEqualTo(1L).or(metadataKey("b").isEqualTo(2L))
+                      .and(metadataKey("c").isEqualTo(3L).or(metadataKey("d").isEqualTo(4L)))));
+  }
+
+  @Test
+  public void keepsLogicalKeywordsInValues() {
+
+    assertThat(parse("title = 'salt and pepper'"), is(metadataKey("title").isEqualTo("salt and pepper")));
+    assertThat(parse("title = \"black or white\" AND a = 1"),
+               is(metadataKey("title").isEqualTo("black or white").and(metadataKey("a").isEqualTo(1L))));
+    assertThat(parse("brand = Anderson"), is(metadataKey("brand").isEqualTo("Anderson")));
+    assertThat(parse("title = sandy orchard"), is(metadataKey("title").isEqualTo("sandy orchard")));
+  }
+
+  @Test
+  public void endsUnquotedValuesAtClosingParentheses() {
+
+    assertThat(parse("(a = x) AND b = y"), is(metadataKey("a").isEqualTo("x").and(metadataKey("b").isEqualTo("y"))));
+    assertThat(parse("(title = hello world)"), is(metadataKey("title").isEqualTo("hello world")));
+  }
+
+  @Test
+  public void rejectsInvalidExpressions() {
+
+    List<String> expressions = Arrays.asList(
+        "(a = 1",
+        "a = 1)",
+        "(a = 1) AND (b = 2",
+        "a = 1 AND b = 2 OR c = 3",
+        "a = 'x",
+        "a = ",
+        "= 1",
+        "a 1",
+        "a == 1",
+        "a = 1 AND",
+        "a = 1 or",
+        "AND a = 1",
+        "()");
+
+    for (String expression : expressions) {
+
+      try {
+
+        Filter filter = new MetadataFilterParser(expression).parse();
+        throw new AssertionError(String.format("%s compiled to %s", expression, filter));
+
+      } catch (IllegalArgumentException e) {
+
+        // Expected
+      }
+    }
+  }
+
+  @Test
+  public void cachesCompiledExpressions() {
+
+    String expression = "file_name = 'example.pdf' AND (file_type = 'any' OR file_name = 'txt')";
+
+    assertThat(MetadataFilterHelper.fromExpression(expression) == MetadataFilterHelper.fromExpression(expression),
+               is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEmptyExpressions() {
+
+    MetadataFilterHelper.fromExpression("   ");
+  }
+
+  private static Filter parse(String expression) {
+    return new MetadataFilterParser(expression).parse();
+  }
+}
@@ -0,0 +1,94 @@
+package org.mule.extension.vectors.internal.helper.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MmrRerankerTest {
+
+  @Test
+  public void lambdaOneKeepsRelevanceOrder() {
+
+    List<EmbeddingMatch<TextSegment>> candidates = Arrays.asList(
+        match("a", 0.9, 1f, 0f),
+        match("b", 0.8, 1f, 0f),
+        match("c", 0.7, 0f, 1f));
+
+    assertThat(ids(MmrReranker.rerank(candidates, 3, 1d)), is(Arrays.asList("a", "b", "c")));
+  }
+
+  @Test
+  public void redundantCandidateIsDemoted() {
+
+    // b duplicates a, c is slightly less relevant but orthogonal to a
+    List<EmbeddingMatch<TextSegment>> candidates = Arrays.asList(
+        match("a", 0.9, 1f, 0f),
+        match("b", 0.89, 1f, 0f),
+        match("c", 0.8, 0f, 1f));
+
+    assertThat(ids(MmrReranker.rerank(candidates, 2, 0.5d)), is(Arrays.asList("a", "c")));
+  }
+
+  @Test
+  public void detectsCandidatesWithoutEmbedding() {
+
+    List<EmbeddingMatch<TextSegment>> candidates = Arrays.asList(
+        match("a", 0.9, 1f, 0f),
+        new EmbeddingMatch<>(0.85, "b", null, TextSegment.from("b")));
+
+    assertThat(MmrReranker.hasEmbeddings(candidates), is(false));
+    assertThat(MmrReranker.hasEmbeddings(candidates.subList(0, 1)), is(true));
+    assertThat(MmrReranker.hasEmbeddings(Collections.emptyList()), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsCandidatesWithoutEmbedding() {
+
+    List<EmbeddingMatch<TextSegment>> candidates = Arrays.asList(
+        match("a", 0.9, 1f, 0f),
+        new EmbeddingMatch<>(0.85, "b", null, TextSegment.from("b")),
+        match("c", 0.8, 1f, 0f));
+
+    MmrReranker.rerank(candidates, 2, 0.5d);
+  }
+
+  @Test
+  public void resultsAreBoundedByMaxResultsAndCandidates() {
+
+    List<EmbeddingMatch<TextSegment>> candidates = Arrays.asList(
+        match("a", 0.9, 1f, 0f),
+        match("b", 0.8, 0f, 1f));
+
+    assertThat(MmrReranker.rerank(candidates, 1, 0.5d).size(), is(1));
+    assertThat(MmrReranker.rerank(candidates, 5, 0.5d).size(), is(2));
+    assertThat(MmrReranker.rerank(candidates, 0, 0.5d).isEmpty(), is(true));
+    assertThat(MmrReranker.rerank(Collections.emptyList(), 5, 0.5d).isEmpty(), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void lambdaOutOfRangeIsRejected() {
+
+    MmrReranker.rerank(Collections.emptyList(), 5, 1.5d);
+  }
+
+  private static EmbeddingMatch<TextSegment> match(String id, double score, float... vector) {
+
+    return new EmbeddingMatch<>(score, id, new Embedding(vector), TextSegment.from(id));
+  }
+
+  private static List<String> ids(List<EmbeddingMatch<TextSegment>> matches) {
+
+    List<String> ids = new ArrayList<>();
+    matches.forEach(match -> ids.add(match.embeddingId()));
+    return ids;
+  }
+}
@@ -0,0 +1,113 @@
+package org.mule.extension.vectors.internal.store;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.store.embedding.milvus.MilvusEmbeddingStore;
+import io.milvus.client.MilvusServiceClient;
+import org.junit.Test;
+
+public class BaseStoreCloseClientTest {
+
+  @Test
+  public void closesAutoCloseableClients() {
+
+    CloseableClient client = new CloseableClient();
+    BaseStore.closeClientOf(new StoreWithCloseableClient(client), "client").run();
+
+    assertThat(client.closed, is(true));
+  }
+
+  @Test
+  public void closesClientsWithACloseMethod() {
+
+    Client client = new Client();
+    BaseStore.closeClientOf(new StoreWithClient(client), "client").run();
+
+    assertThat(client.closed, is(true));
+  }
+
+  @Test
+  public void readsClientsOfSuperclasses() {
+
+    Client client = new Client();
+    BaseStore.closeClientOf(new SubclassOfStoreWithClient(client), "client").run();
+
+    assertThat(client.closed, is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failsWhenTheFieldIsMissing() {
+
+    BaseStore.closeClientOf(new StoreWithClient(new Client()), "missing");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failsWhenTheClientIsNotSet() {
+
+    BaseStore.closeClientOf(new StoreWithClient(null), "client");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failsWhenTheClientCannotBeClosed() {
+
+    BaseStore.closeClientOf(new StoreWithUncloseableClient(), "client");
+  }
+
+  @Test
+  public void findsTheMilvusClientField() throws Exception {
+
+    // MilvusStore closes the client that the embedding store builds for itself
+    assertThat(MilvusEmbeddingStore.class.getDeclaredField("milvusClient").getType() == MilvusServiceClient.class,
+               is(true));
+  }
+
+  private static class CloseableClient implements AutoCloseable {
+
+    private boolean closed;
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  public static class Client {
+
+    private boolean closed;
+
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static class StoreWithCloseableClient {
+
+    private final CloseableClient client;
+
+    private StoreWithCloseableClient(CloseableClient client) {
+      this.client = client;
+    }
+  }
+
+  private static class StoreWithClient {
+
+    private final Client client;
+
+    private StoreWithClient(Client client) {
+      this.client = client;
+    }
+  }
+
+  private static class SubclassOfStoreWithClient extends StoreWithClient {
+
+    private SubclassOfStoreWithClient(Client client) {
+      super(client);
+    }
+  }
+
+  private static class StoreWithUncloseableClient {
+
+    private final Object client = new Object();
+  }
+}
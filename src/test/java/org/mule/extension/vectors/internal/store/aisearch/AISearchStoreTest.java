@@ -0,0 +1,319 @@
+package org.mule.extension.vectors.internal.store.aisearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.connection.store.aisearch.AISearchStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.aisearch.AISearchStoreConnectionParameters;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class AISearchStoreTest {
+
+  private static final String FACET_FIELD = "sourceId";
+
+  @Test
+  public void scansSegmentsPagedByIdHighWaterMark() {
+
+    FakeAISearch aiSearch = new FakeAISearch(documents());
+    Map<String, Integer> segmentCounts = listSources(aiSearch, null, 3, 1);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    // Each page filters on the greatest id of the previous one, ids being compared in index order
+    assertThat(aiSearch.scanFilters, is(Arrays.asList("", "id gt 'd3'", "id gt 'd6'")));
+    assertThat(aiSearch.facetRequestCount, is(0));
+  }
+
+  @Test
+  public void scanStopsAfterAnEmptyPageWhenThePagesAreFull() {
+
+    // Leaves out d5, so that the second page holds d4, d6 and d7
+    FakeAISearch aiSearch = new FakeAISearch(documents().subList(0, 6));
+    listSources(aiSearch, null, 3, 1);
+
+    assertThat(aiSearch.scanFilters, is(Arrays.asList("", "id gt 'd3'", "id gt 'd7'")));
+  }
+
+  @Test
+  public void scanEscapesQuotesOfIds() {
+
+    List<JSONObject> documents = new ArrayList<>();
+    documents.add(document("o'a", "a", "0"));
+    documents.add(document("o'b", "a", "1"));
+    documents.add(document("o'c", "b", "0"));
+    FakeAISearch aiSearch = new FakeAISearch(documents);
+    Map<String, Integer> segmentCounts = listSources(aiSearch, null, 2, 1);
+
+    assertThat(aiSearch.scanFilters, is(Arrays.asList("", "id gt 'o''b'")));
+    assertThat(segmentCounts.get("a"), is(2));
+    assertThat(segmentCounts.get("b"), is(1));
+  }
+
+  @Test
+  public void aggregatesSourcesFromFacets() {
+
+    FakeAISearch aiSearch = new FakeAISearch(documents());
+    Map<String, Integer> segmentCounts = listSources(aiSearch, FACET_FIELD, 3, 1);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    assertThat(aiSearch.facetRequestCount, is(1));
+    assertThat(aiSearch.facetFilters.size(), is(3));
+    assertThat(aiSearch.scanFilters.isEmpty(), is(true));
+  }
+
+  @Test
+  public void aggregatesFacetsConcurrently() {
+
+    FakeAISearch aiSearch = new FakeAISearch(documents());
+    Map<String, Integer> segmentCounts = listSources(aiSearch, FACET_FIELD, 3, 3);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    List<String> facetFilters = new ArrayList<>(aiSearch.facetFilters);
+    Collections.sort(facetFilters);
+    assertThat(facetFilters, is(Arrays.asList("sourceId eq 'a'", "sourceId eq 'b'", "sourceId eq 'c'")));
+  }
+
+  @Test
+  public void fallsBackToScanningWhenFacetsAreTruncated() {
+
+    FakeAISearch aiSearch = new FakeAISearch(documents());
+    aiSearch.truncatedFacets = true;
+    Map<String, Integer> segmentCounts = listSources(aiSearch, FACET_FIELD, 3, 1);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    assertThat(aiSearch.facetRequestCount, is(1));
+    assertThat(aiSearch.facetFilters.isEmpty(), is(true));
+    assertThat(aiSearch.scanFilters.size(), is(3));
+  }
+
+  private static Map<String, Integer> listSources(FakeAISearch aiSearch, String facetField, int pageSize,
+                                                  int parallelism) {
+
+    QueryParameters queryParameters = new QueryParameters() {
+
+      @Override
+      public int embeddingPageSize() {
+        return pageSize;
+      }
+
+      @Override
+      public int parallelism() {
+        return parallelism;
+      }
+    };
+
+    TestConnection connection = new TestConnection(aiSearch, facetField);
+    Map<String, Integer> segmentCounts = Collections.synchronizedMap(new HashMap<>());
+    AISearchStore store = new AISearchStore(null, connection, "store", queryParameters, 2, false);
+    try {
+
+      store.listSources(sourceObject -> segmentCounts.put(sourceObject.getString(Constants.METADATA_KEY_SOURCE_ID),
+                                                          sourceObject.getInt(Constants.JSON_KEY_SEGMENT_COUNT)));
+
+    } finally {
+
+      store.close();
+      connection.disconnect();
+    }
+    return segmentCounts;
+  }
+
+  // Segments of three sources, with ids whose order differs from the insertion order
+  private static List<JSONObject> documents() {
+
+    return Arrays.asList(
+        document("d4", "a", "0"),
+        document("d1", "b", "0"),
+        document("d7", "a", "1"),
+        document("d2", "c", "0"),
+        document("d6", "a", "2"),
+        document("d3", "b", "1"),
+        document("d5", "a", "3"));
+  }
+
+  private static JSONObject document(String id, String sourceId, String index) {
+
+    JSONArray attributes = new JSONArray()
+        .put(new JSONObject().put("key", Constants.METADATA_KEY_SOURCE_ID).put("value", sourceId))
+        .put(new JSONObject().put("key", Constants.METADATA_KEY_INDEX).put("value", index));
+    return new JSONObject()
+        .put("id", id)
+        .put(FACET_FIELD, sourceId)
+        .put(Constants.STORE_SCHEMA_METADATA_FIELD_NAME, new JSONObject().put("attributes", attributes));
+  }
+
+  private static Map<String, Integer> expectedSegmentCounts() {
+
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    segmentCounts.put("a", 4);
+    segmentCounts.put("b", 2);
+    segmentCounts.put("c", 1);
+    return segmentCounts;
+  }
+
+  private static final class TestConnection extends AISearchStoreConnection {
+
+    private final OkHttpClient httpClient;
+
+    private TestConnection(FakeAISearch aiSearch, String facetField) {
+
+      super(new AISearchStoreConnectionParameters() {
+
+        @Override
+        public String getUrl() {
+          return "https://search.test";
+        }
+
+        @Override
+        public String getApiKey() {
+          return "key";
+        }
+
+        @Override
+        public String getSourceFacetField() {
+          return facetField;
+        }
+
+        @Override
+        public int getEmbeddingStoreCacheMaxSize() {
+          return 4;
+        }
+      });
+      this.httpClient = new OkHttpClient.Builder().addInterceptor(aiSearch).build();
+    }
+
+    @Override
+    public OkHttpClient getHttpClient() {
+      return httpClient;
+    }
+  }
+
+  /**
+   * Answers the searches of the store from a list of documents, without any network.
+   */
+  private static final class FakeAISearch implements Interceptor {
+
+    private final List<JSONObject> documents;
+    private final List<String> scanFilters = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> facetFilters = Collections.synchronizedList(new ArrayList<>());
+    private volatile int facetRequestCount;
+    private volatile boolean truncatedFacets;
+
+    private FakeAISearch(List<JSONObject> documents) {
+      this.documents = documents;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+
+      Request request = chain.request();
+      if (!request.url().encodedPath().equals("/indexes/store/docs/search")
+          || !"key".equals(request.header("api-key"))) {
+        return respond(request, 404, "{}");
+      }
+
+      Buffer buffer = new Buffer();
+      request.body().writeTo(buffer);
+      JSONObject searchRequest = new JSONObject(buffer.readUtf8());
+      String filter = searchRequest.optString("filter");
+
+      if (searchRequest.has("facets")) {
+
+        facetRequestCount++;
+        return respond(request, 200, new JSONObject()
+            .put("@search.facets", new JSONObject().put(FACET_FIELD, facets()))
+            .put("value", new JSONArray())
+            .toString());
+
+      } else if (filter.startsWith(FACET_FIELD + " eq ")) {
+
+        facetFilters.add(filter);
+        String sourceId = unquote(filter.substring((FACET_FIELD + " eq ").length()));
+        List<JSONObject> page = documents.stream()
+            .filter(document -> document.getString(FACET_FIELD).equals(sourceId))
+            .limit(searchRequest.getInt("top"))
+            .collect(Collectors.toList());
+        return respond(request, 200, page(page));
+      }
+
+      assertThat(searchRequest.getString("orderby"), is("id asc"));
+      scanFilters.add(filter);
+      String lastId = filter.isEmpty() ? null : unquote(filter.substring("id gt ".length()));
+      List<JSONObject> page = documents.stream()
+          .filter(document -> lastId == null || document.getString("id").compareTo(lastId) > 0)
+          .sorted(Comparator.comparing(document -> document.getString("id")))
+          .limit(searchRequest.getInt("top"))
+          .collect(Collectors.toList());
+      return respond(request, 200, page(page));
+    }
+
+    private JSONArray facets() {
+
+      JSONArray facets = new JSONArray();
+      if (truncatedFacets) {
+
+        for (int i = 0; i < 10_000; i++) {
+          facets.put(new JSONObject().put("value", "source-" + i).put("count", 1));
+        }
+        return facets;
+      }
+
+      Map<String, Integer> counts = new HashMap<>();
+      documents.forEach(document -> counts.merge(document.getString(FACET_FIELD), 1, Integer::sum));
+      counts.forEach((value, count) -> facets.put(new JSONObject().put("value", value).put("count", count)));
+      return facets;
+    }
+
+    // Only the selected fields are returned, with the service annotations around them
+    private static String page(List<JSONObject> documents) {
+
+      JSONArray value = new JSONArray();
+      for (JSONObject document : documents) {
+        value.put(new JSONObject()
+                      .put("@search.score", 1)
+                      .put("id", document.getString("id"))
+                      .put(Constants.STORE_SCHEMA_METADATA_FIELD_NAME,
+                           document.getJSONObject(Constants.STORE_SCHEMA_METADATA_FIELD_NAME)));
+      }
+      return "{\"@odata.context\":\"context\",\"@search.coverage\":{\"percent\":100},\"value\":" + value +
+          ",\"@odata.nextLink\":null}";
+    }
+
+    private static String unquote(String literal) {
+
+      return literal.substring(1, literal.length() - 1).replace("''", "'");
+    }
+
+    private static Response respond(Request request, int code, String body) {
+
+      return new Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(code)
+          .message(code == 200 ? "OK" : "Error")
+          .body(ResponseBody.create(body, MediaType.get("application/json")))
+          .build();
+    }
+  }
+}
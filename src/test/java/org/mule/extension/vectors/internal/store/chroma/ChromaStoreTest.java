@@ -0,0 +1,244 @@
+package org.mule.extension.vectors.internal.store.chroma;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.connection.store.chroma.ChromaStoreConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class ChromaStoreTest {
+
+  private static final String COLLECTION_ID = "c0ffee";
+
+  @Test
+  public void listsSourcesPageByPage() {
+
+    FakeChroma chroma = new FakeChroma(segments());
+    Map<String, Integer> segmentCounts = listSources(chroma, 3, 1);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    assertThat(chroma.offsets, is(listOf(0L, 3L, 6L)));
+    assertThat(chroma.limits, is(new TreeSet<>(Collections.singleton(3L))));
+  }
+
+  @Test
+  public void listsSourcesConcurrently() {
+
+    FakeChroma chroma = new FakeChroma(segments());
+    Map<String, Integer> segmentCounts = listSources(chroma, 2, 3);
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    List<Long> offsets = new ArrayList<>(chroma.offsets);
+    Collections.sort(offsets);
+    assertThat(offsets, is(listOf(0L, 2L, 4L, 6L)));
+  }
+
+  @Test
+  public void skipsTheOtherFieldsOfStreamedPages() {
+
+    FakeChroma chroma = new FakeChroma(segments());
+    // Fields around the metadata, including nested arrays and objects, and segments without metadata
+    chroma.pageWriter = page -> {
+
+      JSONArray metadatas = new JSONArray();
+      page.forEach(metadatas::put);
+      metadatas.put(JSONObject.NULL);
+      return "{\"ids\":[\"1\",\"2\"],\"embeddings\":[[0.1,0.2],[0.3]],\"documents\":[\"a\",\"b\"]," +
+          "\"data\":{\"nested\":{\"metadatas\":[{\"source_id\":\"ignored\",\"index\":\"99\"}]}}," +
+          "\"metadatas\":" + metadatas + ",\"uris\":null,\"included\":[\"metadatas\"]}";
+    };
+
+    assertThat(listSources(chroma, 3, 1), is(expectedSegmentCounts()));
+  }
+
+  @Test
+  public void forgetsTheCollectionIdOnFailure() {
+
+    FakeChroma chroma = new FakeChroma(segments());
+    chroma.failingOffset = 3L;
+    TestConnection connection = new TestConnection(chroma);
+
+    try {
+
+      listSources(connection, 3, 1);
+      throw new AssertionError("Listing sources should have failed");
+
+    } catch (RuntimeException e) {
+
+      assertThat(e.getMessage(), is("Error while listing sources from store"));
+    }
+
+    chroma.failingOffset = null;
+    listSources(connection, 3, 1);
+    assertThat(chroma.collectionLookups, is(2));
+  }
+
+  private static Map<String, Integer> listSources(FakeChroma chroma, int pageSize, int parallelism) {
+
+    return listSources(new TestConnection(chroma), pageSize, parallelism);
+  }
+
+  private static Map<String, Integer> listSources(TestConnection connection, int pageSize, int parallelism) {
+
+    QueryParameters queryParameters = new QueryParameters() {
+
+      @Override
+      public int embeddingPageSize() {
+        return pageSize;
+      }
+
+      @Override
+      public int parallelism() {
+        return parallelism;
+      }
+    };
+
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    ChromaStore store = new ChromaStore(null, connection, "store", queryParameters, 2);
+    try {
+
+      store.listSources(sourceObject -> segmentCounts.put(sourceObject.getString(Constants.METADATA_KEY_SOURCE_ID),
+                                                          sourceObject.getInt(Constants.JSON_KEY_SEGMENT_COUNT)));
+
+    } finally {
+
+      store.close();
+      connection.disconnect();
+    }
+    return segmentCounts;
+  }
+
+  // Segments of three sources, in an order mixing them across pages
+  private static List<JSONObject> segments() {
+
+    String[][] segments = {{"a", "0"}, {"b", "0"}, {"a", "1"}, {"c", "0"}, {"a", "2"}, {"b", "1"}, {"a", "3"}};
+    List<JSONObject> metadatas = new ArrayList<>();
+    for (String[] segment : segments) {
+      metadatas.add(new JSONObject().put(Constants.METADATA_KEY_SOURCE_ID, segment[0])
+                        .put(Constants.METADATA_KEY_INDEX, segment[1])
+                        .put(Constants.METADATA_KEY_FILE_NAME, segment[0] + ".txt"));
+    }
+    return metadatas;
+  }
+
+  private static Map<String, Integer> expectedSegmentCounts() {
+
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    segmentCounts.put("a", 4);
+    segmentCounts.put("b", 2);
+    segmentCounts.put("c", 1);
+    return segmentCounts;
+  }
+
+  private static List<Long> listOf(Long... values) {
+
+    List<Long> list = new ArrayList<>();
+    Collections.addAll(list, values);
+    return list;
+  }
+
+  private static final class TestConnection extends ChromaStoreConnection {
+
+    private final OkHttpClient httpClient;
+
+    private TestConnection(FakeChroma chroma) {
+
+      super("http://chroma.test", 4);
+      this.httpClient = new OkHttpClient.Builder().addInterceptor(chroma).build();
+    }
+
+    @Override
+    public OkHttpClient getHttpClient() {
+      return httpClient;
+    }
+  }
+
+  private interface PageWriter {
+
+    String write(List<JSONObject> page);
+  }
+
+  /**
+   * Answers the requests of the store from a list of segment metadata, without any network.
+   */
+  private static final class FakeChroma implements Interceptor {
+
+    private final List<JSONObject> segments;
+    private final List<Long> offsets = Collections.synchronizedList(new ArrayList<>());
+    private final TreeSet<Long> limits = new TreeSet<>();
+    private volatile int collectionLookups;
+    private volatile Long failingOffset;
+    private PageWriter pageWriter = page -> new JSONObject().put("metadatas", new JSONArray(page)).toString();
+
+    private FakeChroma(List<JSONObject> segments) {
+      this.segments = segments;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+
+      Request request = chain.request();
+      String path = request.url().encodedPath();
+
+      if (path.equals("/api/v1/collections/store")) {
+
+        collectionLookups++;
+        return respond(request, 200, new JSONObject().put("id", COLLECTION_ID).toString());
+
+      } else if (path.equals("/api/v1/collections/" + COLLECTION_ID + "/count")) {
+
+        return respond(request, 200, String.valueOf(segments.size()));
+
+      } else if (path.equals("/api/v1/collections/" + COLLECTION_ID + "/get")) {
+
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        JSONObject jsonRequest = new JSONObject(buffer.readUtf8());
+        long offset = jsonRequest.getLong("offset");
+        long limit = jsonRequest.getLong("limit");
+        offsets.add(offset);
+        synchronized (limits) {
+          limits.add(limit);
+        }
+        if (failingOffset != null && failingOffset == offset) {
+          return respond(request, 500, "{\"error\":\"failure\"}");
+        }
+        List<JSONObject> page = segments.subList((int) Math.min(offset, segments.size()),
+                                                 (int) Math.min(offset + limit, segments.size()));
+        return respond(request, 200, pageWriter.write(page));
+      }
+      return respond(request, 404, "{}");
+    }
+
+    private static Response respond(Request request, int code, String body) {
+
+      return new Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(code)
+          .message(code == 200 ? "OK" : "Error")
+          .body(ResponseBody.create(body, MediaType.get("application/json")))
+          .build();
+    }
+  }
+}
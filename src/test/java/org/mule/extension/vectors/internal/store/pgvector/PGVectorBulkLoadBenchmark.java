@@ -0,0 +1,165 @@
+package org.mule.extension.vectors.internal.store.pgvector;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorStoreConnection;
+import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorStoreConnectionParameters;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the loading of embeddings into a local PostgreSQL database through the inserts of the embedding store, the
+ * bulk load and the bulk load with deferred index build. Each scenario loads a new table, dropped afterwards.
+ * <p>
+ * Requires a database with the vector extension available, for instance the {@code pgvector/pgvector:pg16} image, and
+ * runs with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=org.mule.extension.vectors.internal.store.pgvector.PGVectorBulkLoadBenchmark \
+ *       -Dpgvector.host=localhost -Dpgvector.port=5432 -Dpgvector.database=postgres \
+ *       -Dpgvector.user=postgres -Dpgvector.password=postgres \
+ *       -Dbenchmark.rows=20000 -Dbenchmark.dimension=384 -Dbenchmark.chunkSize=10000
+ * </pre>
+ * Any other connection parameter, such as {@code indexType}, is set the same way with the {@code pgvector.} prefix.
+ * </p>
+ */
+public class PGVectorBulkLoadBenchmark {
+
+  private static final String TABLE_PREFIX = "bulk_load_benchmark_";
+
+  public static void main(String[] args) throws Exception {
+
+    int rows = Integer.getInteger("benchmark.rows", 20000);
+    int dimension = Integer.getInteger("benchmark.dimension", 384);
+    int chunkSize = Integer.getInteger("benchmark.chunkSize", 10000);
+
+    List<Embedding> embeddings = new ArrayList<>(rows);
+    List<TextSegment> textSegments = new ArrayList<>(rows);
+    Random random = new Random(42);
+    for (int i = 0; i < rows; i++) {
+
+      float[] vector = new float[dimension];
+      for (int j = 0; j < dimension; j++) {
+        vector[j] = random.nextFloat() * 2 - 1;
+      }
+      embeddings.add(Embedding.from(vector));
+      textSegments.add(TextSegment.from("Segment " + i, Metadata.from("source_id", "benchmark").put("index", i)));
+    }
+
+    PGVectorStoreConnection connection = new PGVectorStoreConnection(parameters());
+    connection.connect();
+    try {
+
+      System.out.println(String.format("Loading %d embeddings of dimension %d, index type %s",
+                                       rows, dimension, connection.getParameters().getIndexType()));
+      run(connection, "inserts", dimension, store -> store.addAll(embeddings, textSegments));
+      run(connection, "bulk", dimension, store -> store.bulkAdd(embeddings, textSegments, chunkSize, false));
+      run(connection, "bulk_deferred", dimension, store -> store.bulkAdd(embeddings, textSegments, chunkSize, true));
+
+    } finally {
+
+      connection.disconnect();
+    }
+  }
+
+  private static void run(PGVectorStoreConnection connection, String scenario, int dimension, Load load)
+      throws Exception {
+
+    String table = TABLE_PREFIX + scenario;
+    dropTable(connection, table);
+
+    PGVectorStore store = new PGVectorStore(null, connection, table, null, dimension, true);
+    try {
+
+      // Creates the table and its index outside of the measure
+      store.getEmbeddingStore();
+
+      long startTime = System.nanoTime();
+      load.run(store);
+      double elapsedMillis = (System.nanoTime() - startTime) / 1_000_000d;
+
+      System.out.println(String.format("%-14s %10.1f ms", scenario, elapsedMillis));
+
+    } finally {
+
+      store.close();
+      dropTable(connection, table);
+    }
+  }
+
+  private static void dropTable(PGVectorStoreConnection connection, String table) throws Exception {
+
+    try (Connection jdbcConnection = connection.getDataSource().getConnection();
+         Statement statement = jdbcConnection.createStatement()) {
+
+      statement.execute("DROP TABLE IF EXISTS " + table);
+    }
+  }
+
+  // Sets the connection parameters to their defaults, overridden by the system properties prefixed with "pgvector."
+  private static PGVectorStoreConnectionParameters parameters() throws Exception {
+
+    PGVectorStoreConnectionParameters parameters = new PGVectorStoreConnectionParameters();
+    for (Class<?> type = parameters.getClass(); type != Object.class; type = type.getSuperclass()) {
+
+      for (Field field : type.getDeclaredFields()) {
+
+        Optional optional = field.getAnnotation(Optional.class);
+        String value = System.getProperty("pgvector." + field.getName());
+        if (value == null && optional != null && field.getType() != String.class) {
+          value = optional.defaultValue();
+        }
+        if (value != null && !value.isEmpty()) {
+
+          field.setAccessible(true);
+          field.set(parameters, convert(value, field.getType()));
+        }
+      }
+    }
+    setIfUnset(parameters, "host", "localhost");
+    setIfUnset(parameters, "port", 5432);
+    setIfUnset(parameters, "database", "postgres");
+    setIfUnset(parameters, "user", "postgres");
+    setIfUnset(parameters, "password", "postgres");
+    return parameters;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object convert(String value, Class<?> type) {
+
+    if (type == int.class) {
+      return Integer.parseInt(value);
+    } else if (type == long.class) {
+      return Long.parseLong(value);
+    } else if (type == boolean.class) {
+      return Boolean.parseBoolean(value);
+    } else if (type.isEnum()) {
+      return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+    return value;
+  }
+
+  private static void setIfUnset(PGVectorStoreConnectionParameters parameters, String fieldName, Object value)
+      throws Exception {
+
+    Field field = PGVectorStoreConnectionParameters.class.getDeclaredField(fieldName);
+    field.setAccessible(true);
+    Object current = field.get(parameters);
+    if (current == null || Integer.valueOf(0).equals(current)) {
+      field.set(parameters, value);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Load {
+
+    void run(PGVectorStore store) throws Exception;
+  }
+}
@@ -0,0 +1,91 @@
+package org.mule.extension.vectors.internal.store.pgvector;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public class PGVectorCopyEncoderTest {
+
+  private static final UUID ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+  private static final byte[] METADATA = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void encodesHeaderRowAndTrailer() throws IOException {
+
+    PGVectorCopyEncoder encoder = new PGVectorCopyEncoder(false);
+    encoder.writeHeader();
+    encoder.writeRow(ID, new float[] {0.5f, -1f}, "h\u00e9llo", METADATA);
+    encoder.writeTrailer();
+
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoder.drain()));
+
+    byte[] signature = new byte[11];
+    input.readFully(signature);
+    assertThat(signature, is(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0}));
+    assertThat(input.readInt(), is(0));
+    assertThat(input.readInt(), is(0));
+
+    assertThat(input.readShort(), is((short) 4));
+
+    assertThat(input.readInt(), is(16));
+    assertThat(new UUID(input.readLong(), input.readLong()), is(ID));
+
+    assertThat(input.readInt(), is(4 + 4 * 2));
+    assertThat(input.readShort(), is((short) 2));
+    assertThat(input.readShort(), is((short) 0));
+    assertThat(input.readFloat(), is(0.5f));
+    assertThat(input.readFloat(), is(-1f));
+
+    byte[] text = "h\u00e9llo".getBytes(StandardCharsets.UTF_8);
+    assertThat(input.readInt(), is(text.length));
+    assertThat(readBytes(input, text.length), is(text));
+
+    assertThat(input.readInt(), is(METADATA.length));
+    assertThat(readBytes(input, METADATA.length), is(METADATA));
+
+    assertThat(input.readShort(), is((short) -1));
+    assertThat(input.available(), is(0));
+  }
+
+  @Test
+  public void encodesNullTextAndJsonbMetadata() throws IOException {
+
+    PGVectorCopyEncoder encoder = new PGVectorCopyEncoder(true);
+    encoder.writeRow(ID, new float[] {1f}, null, METADATA);
+
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoder.drain()));
+    input.skipBytes(2 + 4 + 16 + 4 + 4 + 4);
+
+    assertThat(input.readInt(), is(-1));
+    assertThat(input.readInt(), is(1 + METADATA.length));
+    assertThat(input.readByte(), is((byte) 1));
+    assertThat(readBytes(input, METADATA.length), is(METADATA));
+    assertThat(input.available(), is(0));
+  }
+
+  @Test
+  public void drainResetsTheBuffer() throws IOException {
+
+    PGVectorCopyEncoder encoder = new PGVectorCopyEncoder(false);
+    encoder.writeHeader();
+    assertThat(encoder.size(), is(19));
+
+    assertThat(encoder.drain().length, is(19));
+    assertThat(encoder.size(), is(0));
+    assertThat(encoder.drain().length, is(0));
+  }
+
+  private static byte[] readBytes(DataInputStream input, int length) throws IOException {
+
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,101 @@
+package org.mule.extension.vectors.internal.store.pgvector;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class PGVectorFilterMapperTest {
+
+  private static final String METADATA_COLUMN = "metadata";
+
+  private final PGVectorFilterMapper mapper = new PGVectorFilterMapper(METADATA_COLUMN);
+
+  @Test
+  public void mapsFiltersLikeTheEmbeddingStore() throws Exception {
+
+    // Filters of the native search must select the same rows as the ones of the embedding store
+    List<Filter> filters = Arrays.asList(
+        metadataKey("source").isEqualTo("a.txt"),
+        metadataKey("index").isEqualTo(3),
+        metadataKey("size").isEqualTo(3L),
+        metadataKey("ratio").isEqualTo(0.5d),
+        metadataKey("weight").isEqualTo(0.5f),
+        metadataKey("id").isEqualTo(UUID.fromString("123e4567-e89b-12d3-a456-426614174000")),
+        metadataKey("source").isNotEqualTo("a.txt"),
+        metadataKey("index").isGreaterThan(1),
+        metadataKey("index").isGreaterThanOrEqualTo(1),
+        metadataKey("index").isLessThan(1),
+        metadataKey("index").isLessThanOrEqualTo(1),
+        metadataKey("source").isGreaterThan("a"),
+        metadataKey("source").isIn("a.txt", "b.txt"),
+        metadataKey("index").isIn(1, 2),
+        metadataKey("source").isNotIn("a.txt", "b.txt"),
+        metadataKey("source").isEqualTo("a.txt").and(metadataKey("index").isGreaterThan(1)),
+        metadataKey("source").isEqualTo("a.txt").or(metadataKey("index").isGreaterThan(1)),
+        Filter.not(metadataKey("source").isEqualTo("a.txt")),
+        Filter.not(metadataKey("source").isIn("a.txt").and(
+            metadataKey("index").isLessThan(2).or(metadataKey("ratio").isGreaterThanOrEqualTo(0.5d)))));
+
+    Object embeddingStoreMapper = newEmbeddingStoreMapper();
+    Method map = embeddingStoreMapper.getClass().getMethod("map", Filter.class);
+    map.setAccessible(true);
+
+    for (Filter filter : filters) {
+      assertThat(filter.toString(), normalize(mapper.map(filter)),
+                 is(normalize((String) map.invoke(embeddingStoreMapper, filter))));
+    }
+  }
+
+  @Test
+  public void escapesStringValues() {
+
+    assertThat(mapper.map(metadataKey("source").isEqualTo("it's")),
+               is("((metadata->>'source')::text IS NOT NULL AND (metadata->>'source')::text = 'it''s')"));
+    assertThat(mapper.map(metadataKey("source").isIn("it's")), is("(metadata->>'source') IN ('it''s')"));
+  }
+
+  @Test
+  public void parenthesizesLogicalOperands() {
+
+    assertThat(mapper.map(metadataKey("a").isGreaterThan(1).and(
+                   metadataKey("b").isGreaterThan(1).or(metadataKey("c").isGreaterThan(1)))),
+               is("((metadata->>'a')::int > 1 AND ((metadata->>'b')::int > 1 OR (metadata->>'c')::int > 1))"));
+  }
+
+  @Test
+  public void escapesKeys() {
+
+    assertThat(mapper.map(metadataKey("it's").isGreaterThan(1)), is("(metadata->>'it''s')::int > 1"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsUnsupportedFilters() {
+
+    Filter custom = object -> true;
+    mapper.map(custom);
+  }
+
+  // The embedding store neither parenthesizes nor escapes its conditions: they are compared token by token, on values
+  // without quotes
+  private static String normalize(String condition) {
+    return condition.replaceAll("[()\\s]", "").toLowerCase();
+  }
+
+  // The JSON filter mapper of the embedding store is not public
+  private static Object newEmbeddingStoreMapper() throws Exception {
+
+    Class<?> mapperClass = Class.forName("dev.langchain4j.store.embedding.pgvector.JSONFilterMapper");
+    Constructor<?> constructor = mapperClass.getDeclaredConstructor(String.class);
+    constructor.setAccessible(true);
+    return constructor.newInstance(METADATA_COLUMN);
+  }
+}
@@ -0,0 +1,344 @@
+package org.mule.extension.vectors.internal.store.pinecone;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.filter.Filter;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.connection.store.pinecone.PineconeStoreConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+public class PineconeStoreTest {
+
+  private static final String NAMESPACE = "ns0mc_store";
+
+  private static final Filter SOURCE_A = metadataKey(Constants.METADATA_KEY_SOURCE_ID).isEqualTo("a");
+
+  @Test
+  public void listsSourcesPageByPage() {
+
+    FakePinecone pinecone = new FakePinecone();
+    pinecone.addVectors(NAMESPACE, vectors());
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    withStore(pinecone, 3, 1, null, store -> store.listSources(sourceObject ->
+        segmentCounts.put(sourceObject.getString(Constants.METADATA_KEY_SOURCE_ID),
+                          sourceObject.getInt(Constants.JSON_KEY_SEGMENT_COUNT))));
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    assertThat(pinecone.listTokens, is(Arrays.asList("", "v3", "v6")));
+    assertThat(pinecone.fetchedIdCount, is(7));
+    assertThat(pinecone.indexLookups, is(1));
+  }
+
+  @Test
+  public void listsSourcesConcurrently() {
+
+    FakePinecone pinecone = new FakePinecone();
+    pinecone.addVectors(NAMESPACE, vectors());
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    withStore(pinecone, 2, 3, null, store -> store.listSources(sourceObject ->
+        segmentCounts.put(sourceObject.getString(Constants.METADATA_KEY_SOURCE_ID),
+                          sourceObject.getInt(Constants.JSON_KEY_SEGMENT_COUNT))));
+
+    assertThat(segmentCounts, is(expectedSegmentCounts()));
+    assertThat(pinecone.fetchedIdCount, is(7));
+  }
+
+  @Test
+  public void removesTheIdsMatchingTheFilterPageByPage() {
+
+    FakePinecone pinecone = new FakePinecone();
+    pinecone.addVectors(NAMESPACE, vectors());
+    withStore(pinecone, 3, 1, null, store -> store.removeAll(SOURCE_A));
+
+    assertThat(pinecone.ids(NAMESPACE), is(Arrays.asList("v2", "v4", "v6")));
+    // One delete per page holding matching ids, with the matching ids only
+    List<List<String>> deletedIds = new ArrayList<>(pinecone.deletedIds);
+    deletedIds.sort((first, second) -> first.get(0).compareTo(second.get(0)));
+    assertThat(deletedIds, is(Arrays.asList(Arrays.asList("v1", "v3"), Arrays.asList("v5"), Arrays.asList("v7"))));
+  }
+
+  @Test
+  public void testsFiltersOnNumbersClientSide() {
+
+    FakePinecone pinecone = new FakePinecone();
+    pinecone.addVectors(NAMESPACE, vectors());
+    Filter filter = metadataKey("page").isGreaterThan(2)
+        .and(metadataKey(Constants.METADATA_KEY_SOURCE_ID).isNotEqualTo("c"));
+    withStore(pinecone, 100, 1, null, store -> store.removeAll(filter));
+
+    assertThat(pinecone.ids(NAMESPACE), is(Arrays.asList("v1", "v2", "v3", "v4")));
+  }
+
+  @Test
+  public void skipsMetadataValuesFiltersCannotTest() {
+
+    FakePinecone pinecone = new FakePinecone();
+    Map<String, JSONObject> vectors = new TreeMap<>();
+    // Lists can't be tested by filters, the other values of the metadata still are
+    vectors.put("v1", new JSONObject().put(Constants.METADATA_KEY_SOURCE_ID, "a")
+        .put("tags", new JSONArray().put("x")));
+    vectors.put("v2", new JSONObject().put(Constants.METADATA_KEY_SOURCE_ID, "b"));
+    pinecone.addVectors(NAMESPACE, vectors);
+    withStore(pinecone, 100, 1, null, store -> store.removeAll(SOURCE_A));
+
+    assertThat(pinecone.ids(NAMESPACE), is(Collections.singletonList("v2")));
+  }
+
+  @Test
+  public void removesEveryNamespaceWithoutFilter() {
+
+    FakePinecone pinecone = new FakePinecone();
+    pinecone.addVectors("first", vectors());
+    pinecone.addVectors("second", vectors());
+    withStore(pinecone, 3, 1, Arrays.asList("first", "second"), store -> store.removeAll(null));
+
+    assertThat(pinecone.ids("first").isEmpty(), is(true));
+    assertThat(pinecone.ids("second").isEmpty(), is(true));
+    assertThat(pinecone.listTokens.isEmpty(), is(true));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsRangeComparisonsOnStrings() {
+
+    searchWithFilter(metadataKey(Constants.METADATA_KEY_INDEX).isLessThan("3"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsNestedRangeComparisonsOnStrings() {
+
+    searchWithFilter(metadataKey("page").isEqualTo(1)
+                         .or(Filter.not(metadataKey(Constants.METADATA_KEY_FILE_NAME).isGreaterThanOrEqualTo("b"))));
+  }
+
+  private static void searchWithFilter(Filter filter) {
+
+    FakePinecone pinecone = new FakePinecone();
+    EmbeddingSearchRequest searchRequest = EmbeddingSearchRequest.builder()
+        .queryEmbedding(Embedding.from(new float[] {0.1f, 0.2f}))
+        .filter(filter)
+        .build();
+    withStore(pinecone, 3, 1, null, store -> store.search(searchRequest));
+  }
+
+  private static void withStore(FakePinecone pinecone, int pageSize, int parallelism, List<String> namespaces,
+                                Consumer<PineconeStore> consumer) {
+
+    QueryParameters queryParameters = new QueryParameters() {
+
+      @Override
+      public int embeddingPageSize() {
+        return pageSize;
+      }
+
+      @Override
+      public int parallelism() {
+        return parallelism;
+      }
+    };
+
+    TestConnection connection = new TestConnection(pinecone);
+    PineconeStore store = new PineconeStore(null, connection, "store", queryParameters, 2, false, namespaces);
+    try {
+
+      consumer.accept(store);
+
+    } finally {
+
+      store.close();
+      connection.disconnect();
+    }
+  }
+
+  // Segments of three sources, with a numeric page and ids whose order differs from the source order
+  private static Map<String, JSONObject> vectors() {
+
+    String[][] segments = {{"a", "0"}, {"b", "0"}, {"a", "1"}, {"c", "0"}, {"a", "2"}, {"b", "1"}, {"a", "3"}};
+    Map<String, JSONObject> vectors = new TreeMap<>();
+    for (int i = 0; i < segments.length; i++) {
+      vectors.put("v" + (i + 1), new JSONObject().put(Constants.METADATA_KEY_SOURCE_ID, segments[i][0])
+          .put(Constants.METADATA_KEY_INDEX, segments[i][1])
+          .put(Constants.METADATA_KEY_FILE_NAME, segments[i][0] + ".txt")
+          .put("page", i));
+    }
+    return vectors;
+  }
+
+  private static Map<String, Integer> expectedSegmentCounts() {
+
+    Map<String, Integer> segmentCounts = new HashMap<>();
+    segmentCounts.put("a", 4);
+    segmentCounts.put("b", 2);
+    segmentCounts.put("c", 1);
+    return segmentCounts;
+  }
+
+  private static final class TestConnection extends PineconeStoreConnection {
+
+    private final OkHttpClient httpClient;
+
+    private TestConnection(FakePinecone pinecone) {
+
+      super("aws", "us-east-1", "key", 4);
+      this.httpClient = new OkHttpClient.Builder().addInterceptor(pinecone).build();
+    }
+
+    @Override
+    public OkHttpClient getHttpClient() {
+      return httpClient;
+    }
+  }
+
+  /**
+   * Answers the requests of the store from vectors kept by namespace, without any network. Pagination tokens are the
+   * last id of the previous page, so that pages stay consistent while ids are deleted.
+   */
+  private static final class FakePinecone implements Interceptor {
+
+    private final Map<String, TreeMap<String, JSONObject>> namespaces = new HashMap<>();
+    private final List<String> listTokens = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<String>> deletedIds = Collections.synchronizedList(new ArrayList<>());
+    private volatile int indexLookups;
+    private volatile int fetchedIdCount;
+
+    private synchronized void addVectors(String namespace, Map<String, JSONObject> vectors) {
+      namespaces.computeIfAbsent(namespace, key -> new TreeMap<>()).putAll(vectors);
+    }
+
+    private synchronized List<String> ids(String namespace) {
+      return new ArrayList<>(namespaces.getOrDefault(namespace, new TreeMap<>()).keySet());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+
+      Request request = chain.request();
+      HttpUrl url = request.url();
+      if (!"key".equals(request.header("Api-Key"))) {
+        return respond(request, 401, "{}");
+      }
+
+      if (url.host().equals("api.pinecone.io") && url.encodedPath().equals("/indexes/store")) {
+
+        indexLookups++;
+        JSONObject index = new JSONObject().put("name", "store").put("host", "store.pinecone.test");
+        return respond(request, 200, index.toString());
+
+      } else if (!url.host().equals("store.pinecone.test")) {
+
+        return respond(request, 404, "{}");
+      }
+
+      synchronized (this) {
+
+        TreeMap<String, JSONObject> vectors = namespaces.computeIfAbsent(url.queryParameter("namespace"),
+                                                                         key -> new TreeMap<>());
+        switch (url.encodedPath()) {
+
+          case "/vectors/list":
+            return respond(request, 200, list(vectors, url));
+
+          case "/vectors/fetch":
+            return respond(request, 200, fetch(vectors, url.queryParameterValues("ids")));
+
+          case "/vectors/delete":
+            Buffer buffer = new Buffer();
+            request.body().writeTo(buffer);
+            JSONObject deleteRequest = new JSONObject(buffer.readUtf8());
+            TreeMap<String, JSONObject> deletedFrom = namespaces.computeIfAbsent(deleteRequest.getString("namespace"),
+                                                                                 key -> new TreeMap<>());
+            if (deleteRequest.optBoolean("deleteAll")) {
+
+              deletedFrom.clear();
+            } else {
+
+              List<String> ids = new ArrayList<>();
+              deleteRequest.getJSONArray("ids").forEach(id -> ids.add((String) id));
+              ids.forEach(deletedFrom::remove);
+              deletedIds.add(ids);
+            }
+            return respond(request, 200, "{}");
+
+          default:
+            return respond(request, 404, "{}");
+        }
+      }
+    }
+
+    private String list(TreeMap<String, JSONObject> vectors, HttpUrl url) {
+
+      String token = url.queryParameter("paginationToken");
+      listTokens.add(token != null ? token : "");
+      int limit = Integer.parseInt(url.queryParameter("limit"));
+      List<String> ids = new ArrayList<>(token != null ? vectors.tailMap(token, false).keySet() : vectors.keySet());
+
+      JSONArray page = new JSONArray();
+      ids.subList(0, Math.min(limit, ids.size())).forEach(id -> page.put(new JSONObject().put("id", id)));
+      JSONObject listResponse = new JSONObject()
+          .put("vectors", page)
+          .put("namespace", url.queryParameter("namespace"))
+          .put("usage", new JSONObject().put("readUnits", 1));
+      if (ids.size() > limit) {
+        listResponse.put("pagination", new JSONObject().put("next", ids.get(limit - 1)));
+      }
+      return listResponse.toString();
+    }
+
+    private String fetch(TreeMap<String, JSONObject> vectors, List<String> ids) {
+
+      fetchedIdCount += ids.size();
+      JSONObject fetched = new JSONObject();
+      for (String id : ids) {
+
+        JSONObject metadata = vectors.get(id);
+        if (metadata != null) {
+          fetched.put(id, new JSONObject()
+              .put("id", id)
+              .put("values", new JSONArray().put(0.1).put(0.2))
+              .put("metadata", metadata));
+        }
+      }
+      return new JSONObject()
+          .put("vectors", fetched)
+          .put("namespace", "ignored")
+          .put("usage", new JSONObject().put("readUnits", 1))
+          .toString();
+    }
+
+    private static Response respond(Request request, int code, String body) {
+
+      return new Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(code)
+          .message(code == 200 ? "OK" : "Error")
+          .body(ResponseBody.create(body, MediaType.get("application/json")))
+          .build();
+    }
+  }
+}
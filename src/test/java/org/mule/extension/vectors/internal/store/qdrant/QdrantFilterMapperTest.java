@@ -0,0 +1,153 @@
+package org.mule.extension.vectors.internal.store.qdrant;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import io.qdrant.client.grpc.Points;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class QdrantFilterMapperTest {
+
+  @Test
+  public void mapsEqualityToMatches() {
+
+    Points.Condition keyword = single(QdrantFilterMapper.map(metadataKey("source").isEqualTo("a.txt")));
+    assertThat(keyword.getField().getKey(), is("source"));
+    assertThat(keyword.getField().getMatch().getKeyword(), is("a.txt"));
+
+    Points.Condition integer = single(QdrantFilterMapper.map(metadataKey("index").isEqualTo(3)));
+    assertThat(integer.getField().getMatch().getInteger(), is(3L));
+
+    UUID id = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    Points.Condition uuid = single(QdrantFilterMapper.map(metadataKey("id").isEqualTo(id)));
+    assertThat(uuid.getField().getMatch().getKeyword(), is(id.toString()));
+  }
+
+  @Test
+  public void mapsInequalityToNegatedMatch() {
+
+    Points.Filter nested = single(QdrantFilterMapper.map(metadataKey("source").isNotEqualTo("a.txt"))).getFilter();
+
+    assertThat(nested.getMustCount(), is(0));
+    assertThat(nested.getMustNot(0).getField().getKey(), is("source"));
+    assertThat(nested.getMustNot(0).getField().getMatch().getKeyword(), is("a.txt"));
+  }
+
+  @Test
+  public void mapsComparisonsToRanges() {
+
+    Points.Range greaterThan = single(QdrantFilterMapper.map(metadataKey("index").isGreaterThan(1))).getField().getRange();
+    assertThat(greaterThan.hasGt(), is(true));
+    assertThat(greaterThan.getGt(), is(1d));
+    assertThat(greaterThan.hasGte() || greaterThan.hasLt() || greaterThan.hasLte(), is(false));
+
+    Points.Range greaterThanOrEqualTo =
+        single(QdrantFilterMapper.map(metadataKey("index").isGreaterThanOrEqualTo(1.5d))).getField().getRange();
+    assertThat(greaterThanOrEqualTo.getGte(), is(1.5d));
+
+    Points.Range lessThan = single(QdrantFilterMapper.map(metadataKey("index").isLessThan(2L))).getField().getRange();
+    assertThat(lessThan.getLt(), is(2d));
+
+    Points.Range lessThanOrEqualTo =
+        single(QdrantFilterMapper.map(metadataKey("index").isLessThanOrEqualTo(2.5f))).getField().getRange();
+    assertThat(lessThanOrEqualTo.getLte(), is(2.5d));
+  }
+
+  @Test
+  public void mapsMembershipToAnyAndExcept() {
+
+    Points.Match keywords = single(QdrantFilterMapper.map(metadataKey("source").isIn("a.txt", "b.txt")))
+        .getField().getMatch();
+    assertThat(keywords.getKeywords().getStringsCount(), is(2));
+
+    Points.Match integers = single(QdrantFilterMapper.map(metadataKey("index").isIn(1, 2, 3))).getField().getMatch();
+    assertThat(integers.getIntegers().getIntegersCount(), is(3));
+
+    Points.Match exceptKeywords = single(QdrantFilterMapper.map(metadataKey("source").isNotIn("a.txt")))
+        .getField().getMatch();
+    assertThat(exceptKeywords.getExceptKeywords().getStrings(0), is("a.txt"));
+
+    Points.Match exceptIntegers = single(QdrantFilterMapper.map(metadataKey("index").isNotIn(1L))).getField().getMatch();
+    assertThat(exceptIntegers.getExceptIntegers().getIntegers(0), is(1L));
+  }
+
+  @Test
+  public void mapsLogicalOperators() {
+
+    Points.Filter and = QdrantFilterMapper.map(metadataKey("a").isEqualTo("x").and(metadataKey("b").isEqualTo(1)));
+    assertThat(and.getMustCount(), is(2));
+    assertThat(single(and.getMust(0).getFilter()).getField().getKey(), is("a"));
+    assertThat(single(and.getMust(1).getFilter()).getField().getKey(), is("b"));
+
+    Points.Filter or = QdrantFilterMapper.map(metadataKey("a").isEqualTo("x").or(metadataKey("b").isEqualTo(1)));
+    assertThat(or.getMustCount(), is(0));
+    assertThat(or.getShouldCount(), is(2));
+    assertThat(single(or.getShould(1).getFilter()).getField().getKey(), is("b"));
+
+    Points.Filter not = QdrantFilterMapper.map(Filter.not(metadataKey("a").isEqualTo("x")));
+    assertThat(not.getMustCount(), is(0));
+    assertThat(single(not.getMustNot(0).getFilter()).getField().getKey(), is("a"));
+  }
+
+  @Test
+  public void mapsFiltersLikeTheEmbeddingStore() throws Exception {
+
+    // Filters of the native search must select the same points as the ones of the embedding store
+    List<Filter> filters = Arrays.asList(
+        metadataKey("source").isEqualTo("a.txt"),
+        metadataKey("index").isEqualTo(3),
+        metadataKey("source").isNotEqualTo("a.txt"),
+        metadataKey("index").isGreaterThan(1),
+        metadataKey("index").isGreaterThanOrEqualTo(1),
+        metadataKey("index").isLessThan(1),
+        metadataKey("index").isLessThanOrEqualTo(1),
+        metadataKey("source").isIn("a.txt", "b.txt"),
+        metadataKey("index").isIn(1, 2),
+        metadataKey("source").isNotIn("a.txt", "b.txt"),
+        metadataKey("index").isNotIn(1, 2),
+        metadataKey("source").isEqualTo("a.txt").and(metadataKey("index").isGreaterThan(1)),
+        metadataKey("source").isEqualTo("a.txt").or(metadataKey("index").isGreaterThan(1)),
+        Filter.not(metadataKey("source").isEqualTo("a.txt").or(metadataKey("index").isLessThan(2))));
+
+    // The filter converter of the embedding store is not public
+    Method convertExpression = Class.forName("dev.langchain4j.store.embedding.qdrant.QdrantFilterConverter")
+        .getDeclaredMethod("convertExpression", Filter.class);
+    convertExpression.setAccessible(true);
+
+    for (Filter filter : filters) {
+      assertThat(filter.toString(), QdrantFilterMapper.map(filter), is(convertExpression.invoke(null, filter)));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsRangesOnStrings() {
+
+    QdrantFilterMapper.map(metadataKey("source").isGreaterThan("a"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsUnsupportedEqualityValues() {
+
+    QdrantFilterMapper.map(metadataKey("ratio").isEqualTo(0.5d));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void rejectsUnsupportedFilters() {
+
+    Filter custom = object -> true;
+    QdrantFilterMapper.map(custom);
+  }
+
+  private static Points.Condition single(Points.Filter filter) {
+
+    assertThat(filter.getMustCount(), is(1));
+    return filter.getMust(0);
+  }
+}
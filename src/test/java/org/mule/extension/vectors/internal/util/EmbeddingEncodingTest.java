@@ -0,0 +1,106 @@
+package org.mule.extension.vectors.internal.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.junit.Test;
+
+import java.util.Base64;
+
+public class EmbeddingEncodingTest {
+
+  @Test
+  public void floatToHalfMatchesKnownValues() {
+
+    assertThat(half(1f), is(0x3C00));
+    assertThat(half(-2f), is(0xC000));
+    assertThat(half(0.5f), is(0x3800));
+    assertThat(half(0f), is(0x0000));
+    assertThat(half(-0f), is(0x8000));
+    assertThat(half(65504f), is(0x7BFF));
+    assertThat(half(Float.POSITIVE_INFINITY), is(0x7C00));
+    assertThat(half(Float.NEGATIVE_INFINITY), is(0xFC00));
+    // Smallest subnormal
+    assertThat(half((float) Math.pow(2, -24)), is(0x0001));
+  }
+
+  @Test
+  public void floatToHalfRoundsHalfAwayFromZero() {
+
+    // Halfway between 1 and the next float16, 1 + 2^-10
+    assertThat(half(1f + (float) Math.pow(2, -11)), is(0x3C01));
+    // Halfway between 0 and the smallest subnormal
+    assertThat(half((float) Math.pow(2, -25)), is(0x0001));
+  }
+
+  @Test
+  public void floatToHalfSaturatesToInfinity() {
+
+    assertThat(half(65520f), is(0x7C00));
+    assertThat(half(-1e10f), is(0xFC00));
+  }
+
+  @Test
+  public void nanIsPreserved() {
+
+    assertThat(Float.isNaN(EmbeddingEncoding.halfToFloat(EmbeddingEncoding.floatToHalf(Float.NaN))), is(true));
+  }
+
+  @Test
+  public void everyHalfRoundTrips() {
+
+    for (int bits = 0; bits <= 0xFFFF; bits++) {
+
+      short half = (short) bits;
+      float value = EmbeddingEncoding.halfToFloat(half);
+      if (!Float.isNaN(value)) {
+        assertThat("0x" + Integer.toHexString(bits), EmbeddingEncoding.floatToHalf(value), is(half));
+      }
+    }
+  }
+
+  @Test
+  public void float16EncodingIsLittleEndian() {
+
+    String encoded = (String) EmbeddingEncoding.BASE64_FLOAT16.encode(new float[] {1f, -2f});
+
+    assertThat(Base64.getDecoder().decode(encoded), is(new byte[] {0x00, 0x3C, 0x00, (byte) 0xC0}));
+  }
+
+  @Test
+  public void binaryEncodingsRoundTrip() {
+
+    float[] vector = {0.5f, -1f, 2.25f, 1024f};
+
+    for (EmbeddingEncoding encoding : new EmbeddingEncoding[] {EmbeddingEncoding.BASE64_FLOAT32,
+        EmbeddingEncoding.BASE64_FLOAT16}) {
+
+      byte[] bytes = Base64.getDecoder().decode((String) encoding.encode(vector));
+      assertThat(bytes.length, is(vector.length * encoding.getBytesPerComponent()));
+      assertThat(encoding.decode(bytes), is(vector));
+    }
+  }
+
+  @Test
+  public void binaryEncodingIsInferredFromByteCount() {
+
+    assertThat(EmbeddingEncoding.inferBinary(12, 3), is(EmbeddingEncoding.BASE64_FLOAT32));
+    assertThat(EmbeddingEncoding.inferBinary(6, 3), is(EmbeddingEncoding.BASE64_FLOAT16));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unexpectedByteCountIsRejected() {
+
+    EmbeddingEncoding.inferBinary(5, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void truncatedVectorIsRejected() {
+
+    EmbeddingEncoding.BASE64_FLOAT32.decode(new byte[6]);
+  }
+
+  private static int half(float value) {
+    return EmbeddingEncoding.floatToHalf(value) & 0xFFFF;
+  }
+}
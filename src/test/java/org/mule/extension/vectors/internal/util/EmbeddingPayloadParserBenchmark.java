@@ -0,0 +1,142 @@
+package org.mule.extension.vectors.internal.util;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.EmbeddingPayloadParser.EmbeddingPayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing of text segments and embeddings payloads into a JSON object tree, as done before the
+ * {@link EmbeddingPayloadParser}, with the streaming parser, on vectors written as float arrays and as base64.
+ * <p>
+ * Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *       -Dexec.args=EmbeddingPayloadParserBenchmark
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddingPayloadParserBenchmark {
+
+  @Param({"1", "100"})
+  public int segments;
+
+  @Param({"384", "1536"})
+  public int dimension;
+
+  private byte[] floatArrayPayload;
+  private byte[] base64Payload;
+
+  @Setup
+  public void setUp() {
+
+    Random random = new Random(42);
+    JSONArray textSegments = new JSONArray();
+    JSONArray floatArrays = new JSONArray();
+    JSONArray base64Vectors = new JSONArray();
+    for (int i = 0; i < segments; i++) {
+
+      JSONObject metadata = new JSONObject();
+      metadata.put("source_id", "benchmark");
+      metadata.put("index", i);
+      JSONObject textSegment = new JSONObject();
+      textSegment.put(Constants.JSON_KEY_TEXT, "Segment " + i);
+      textSegment.put(Constants.JSON_KEY_METADATA, metadata);
+      textSegments.put(textSegment);
+
+      float[] vector = new float[dimension];
+      JSONArray floatArray = new JSONArray();
+      for (int j = 0; j < dimension; j++) {
+
+        vector[j] = random.nextFloat() * 2 - 1;
+        floatArray.put(vector[j]);
+      }
+      floatArrays.put(floatArray);
+      base64Vectors.put(EmbeddingEncoding.BASE64_FLOAT32.encode(vector));
+    }
+
+    JSONObject floatArrayContent = new JSONObject();
+    floatArrayContent.put(Constants.JSON_KEY_TEXT_SEGMENTS, textSegments);
+    floatArrayContent.put(Constants.JSON_KEY_EMBEDDINGS, floatArrays);
+    floatArrayContent.put(Constants.JSON_KEY_DIMENSION, dimension);
+    floatArrayPayload = floatArrayContent.toString().getBytes(StandardCharsets.UTF_8);
+
+    JSONObject base64Content = new JSONObject();
+    base64Content.put(Constants.JSON_KEY_TEXT_SEGMENTS, textSegments);
+    base64Content.put(Constants.JSON_KEY_EMBEDDINGS, base64Vectors);
+    base64Content.put(Constants.JSON_KEY_EMBEDDING_ENCODING, EmbeddingEncoding.BASE64_FLOAT32.name());
+    base64Content.put(Constants.JSON_KEY_DIMENSION, dimension);
+    base64Payload = base64Content.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void jsonObject(Blackhole blackhole) {
+
+    JSONObject jsonContent = new JSONObject(new String(floatArrayPayload, StandardCharsets.UTF_8));
+
+    JSONArray jsonTextSegments = jsonContent.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
+    List<TextSegment> textSegments = new ArrayList<>(jsonTextSegments.length());
+    for (int i = 0; i < jsonTextSegments.length(); i++) {
+
+      JSONObject jsonTextSegment = jsonTextSegments.getJSONObject(i);
+      HashMap<String, Object> metadataMap =
+          (HashMap<String, Object>) jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap();
+      textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), Metadata.from(metadataMap)));
+    }
+
+    JSONArray jsonEmbeddings = jsonContent.getJSONArray(Constants.JSON_KEY_EMBEDDINGS);
+    List<Embedding> embeddings = new ArrayList<>(jsonEmbeddings.length());
+    for (int i = 0; i < jsonEmbeddings.length(); i++) {
+
+      JSONArray jsonEmbedding = jsonEmbeddings.getJSONArray(i);
+      float[] vector = new float[jsonEmbedding.length()];
+      for (int j = 0; j < jsonEmbedding.length(); j++) {
+        vector[j] = (float) jsonEmbedding.getDouble(j);
+      }
+      embeddings.add(new Embedding(vector));
+    }
+
+    blackhole.consume(textSegments);
+    blackhole.consume(embeddings);
+  }
+
+  @Benchmark
+  public EmbeddingPayload streamingFloatArrays() throws IOException {
+    return EmbeddingPayloadParser.parse(new ByteArrayInputStream(floatArrayPayload));
+  }
+
+  @Benchmark
+  public EmbeddingPayload streamingBase64() throws IOException {
+    return EmbeddingPayloadParser.parse(new ByteArrayInputStream(base64Payload));
+  }
+}
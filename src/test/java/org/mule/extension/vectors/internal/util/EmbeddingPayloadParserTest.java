@@ -0,0 +1,96 @@
+package org.mule.extension.vectors.internal.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import dev.langchain4j.data.segment.TextSegment;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.mule.extension.vectors.internal.util.EmbeddingPayloadParser.EmbeddingPayload;
+
+public class EmbeddingPayloadParserTest {
+
+  @Test
+  public void parsesTextSegmentsAndFloatArrays() throws IOException {
+
+    EmbeddingPayload payload = EmbeddingPayloadParser.parse(json(
+        "{\"text-segments\":[{\"text\":\"hello\",\"metadata\":{\"source\":\"a.txt\",\"index\":0}}]," +
+            "\"ignored\":{\"nested\":[1,2]}," +
+            "\"embeddings\":[[0.5,-1,2.25]]," +
+            "\"dimension\":3}"));
+
+    assertThat(payload.hasTextSegments(), is(true));
+    TextSegment textSegment = payload.getTextSegments().get(0);
+    assertThat(textSegment.text(), is("hello"));
+    assertThat(textSegment.metadata().getString("source"), is("a.txt"));
+    assertThat(payload.getEmbeddings().get(0).vector(), is(new float[] {0.5f, -1f, 2.25f}));
+    assertThat(payload.getDimension(), is(3));
+    assertThat(payload.getEmbeddingEncoding(), is(nullValue()));
+  }
+
+  @Test
+  public void mergesAdditionalMetadata() throws IOException {
+
+    EmbeddingPayload payload = EmbeddingPayloadParser.parse(
+        json("{\"text-segments\":[{\"text\":\"hello\",\"metadata\":{\"source\":\"a.txt\"}}]}"),
+        Collections.singletonMap("source", "b.txt"));
+
+    assertThat(payload.getTextSegments().get(0).metadata().getString("source"), is("b.txt"));
+    assertThat(payload.getEmbeddings(), is(nullValue()));
+  }
+
+  @Test
+  public void decodesBase64VectorsWithEncodingFollowingTheEmbeddings() throws IOException {
+
+    float[] vector = {0.5f, -1f, 2.25f};
+    EmbeddingPayload payload = EmbeddingPayloadParser.parse(json(
+        "{\"embeddings\":[\"" + EmbeddingEncoding.BASE64_FLOAT32.encode(vector) + "\"]," +
+            "\"embeddingEncoding\":\"BASE64_FLOAT32\"}"));
+
+    assertThat(payload.hasTextSegments(), is(false));
+    assertThat(payload.getEmbeddingEncoding(), is(EmbeddingEncoding.BASE64_FLOAT32));
+    assertThat(payload.getEmbeddings().get(0).vector(), is(vector));
+  }
+
+  @Test
+  public void infersBase64EncodingFromDimension() throws IOException {
+
+    float[] vector = {0.5f, -1f, 2.25f};
+    EmbeddingPayload payload = EmbeddingPayloadParser.parse(json(
+        "{\"embeddings\":[\"" + EmbeddingEncoding.BASE64_FLOAT16.encode(vector) + "\"],\"dimension\":3}"));
+
+    assertThat(payload.getEmbeddings().get(0).vector(), is(vector));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void base64VectorsRequireEncodingOrDimension() throws IOException {
+
+    EmbeddingPayloadParser.parse(json(
+        "{\"embeddings\":[\"" + EmbeddingEncoding.BASE64_FLOAT32.encode(new float[] {1f}) + "\"]}"));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void textSegmentRequiresMetadata() throws IOException {
+
+    EmbeddingPayloadParser.parse(json("{\"text-segments\":[{\"text\":\"hello\"}]}"));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void unsupportedEncodingIsRejected() throws IOException {
+
+    EmbeddingPayloadParser.parse(json("{\"embeddingEncoding\":\"BASE64_INT8\"}"));
+  }
+
+  private static InputStream json(String content) {
+
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
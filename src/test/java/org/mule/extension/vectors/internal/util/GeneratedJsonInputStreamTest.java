@@ -0,0 +1,129 @@
+package org.mule.extension.vectors.internal.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class GeneratedJsonInputStreamTest {
+
+  @Test
+  public void streamsTheWrittenDocument() throws Exception {
+
+    GeneratedJsonInputStream stream = GeneratedJsonInputStream.start("test-writer", generator -> {
+
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("sources");
+      for (int i = 0; i < 20000; i++) {
+        generator.writeObject(Collections.singletonMap("source_id", "source-" + i));
+      }
+      generator.writeEndArray();
+      generator.writeNumberField("sourceCount", 20000);
+      generator.writeEndObject();
+    });
+    stream.awaitOutput();
+
+    JSONObject document = new JSONObject(readAll(stream));
+
+    assertThat(document.getJSONArray("sources").length(), is(20000));
+    assertThat(document.getJSONArray("sources").getJSONObject(19999).getString("source_id"), is("source-19999"));
+    assertThat(document.getInt("sourceCount"), is(20000));
+  }
+
+  @Test
+  public void reportsFailuresBeforeAnyOutputToTheCaller() throws Exception {
+
+    IllegalStateException failure = new IllegalStateException("unreachable");
+    GeneratedJsonInputStream stream = GeneratedJsonInputStream.start("test-writer", generator -> {
+
+      generator.writeStartObject();
+      throw failure;
+    });
+
+    try {
+
+      stream.awaitOutput();
+      throw new AssertionError("The failure was not reported");
+
+    } catch (ExecutionException e) {
+
+      assertThat(e.getCause() == failure, is(true));
+    }
+  }
+
+  @Test
+  public void reportsFailuresAfterOutputToTheReader() throws Exception {
+
+    GeneratedJsonInputStream stream = GeneratedJsonInputStream.start("test-writer", generator -> {
+
+      generator.writeStartObject();
+      generator.writeStringField("storeName", "store");
+      generator.flush();
+      throw new IllegalStateException("unreachable");
+    });
+    stream.awaitOutput();
+
+    try {
+
+      readAll(stream);
+      throw new AssertionError("The failure was not reported");
+
+    } catch (IOException e) {
+
+      assertThat(e.getCause() instanceof IllegalStateException, is(true));
+    }
+  }
+
+  @Test
+  public void stopsTheWriterWhenClosedEarly() throws Exception {
+
+    CountDownLatch writerDone = new CountDownLatch(1);
+    Throwable[] writerFailure = new Throwable[1];
+    GeneratedJsonInputStream stream = GeneratedJsonInputStream.start("test-writer", generator -> {
+
+      try {
+
+        generator.writeStartArray();
+        while (true) {
+          generator.writeString("an endless document");
+        }
+
+      } catch (IOException e) {
+
+        writerFailure[0] = e;
+        throw e;
+
+      } finally {
+
+        writerDone.countDown();
+      }
+    });
+    stream.awaitOutput();
+    stream.read(new byte[16], 0, 16);
+    stream.close();
+
+    assertThat(writerDone.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(writerFailure[0] instanceof IOException, is(true));
+  }
+
+  private static String readAll(InputStream stream) throws IOException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1000];
+    int count;
+    while ((count = stream.read(buffer, 0, buffer.length)) != -1) {
+      bytes.write(buffer, 0, count);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,104 @@
+package org.mule.extension.vectors.internal.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class JsonObjectInputStreamTest {
+
+  @Test
+  public void serializesNestedObjectsAndArrays() throws IOException {
+
+    JSONObject root = new JSONObject();
+    root.put("storeName", "store");
+    root.put("count", 2);
+    root.put("score", 0.25d);
+    root.put("exact", new BigDecimal("12345678901234567890.5"));
+    root.put("enabled", true);
+    root.put("missing", JSONObject.NULL);
+    root.put("sources", new JSONArray()
+        .put(new JSONObject().put("source_id", "a").put("tags", new JSONArray().put("x").put(1)))
+        .put(new JSONObject().put("source_id", "b").put("empty", new JSONObject())));
+
+    assertThat(new JSONObject(readAll(new JsonObjectInputStream(root))).similar(root), is(true));
+  }
+
+  @Test
+  public void serializesMapsAndCollections() throws IOException {
+
+    JSONObject root = new JSONObject();
+    root.put("map", Collections.singletonMap("key", "value"));
+    root.put("list", Arrays.asList("a", "b"));
+    root.put("array", new int[] {1, 2});
+
+    JSONObject parsed = new JSONObject(readAll(new JsonObjectInputStream(root)));
+
+    assertThat(parsed.getJSONObject("map").getString("key"), is("value"));
+    assertThat(parsed.getJSONArray("list").getString(1), is("b"));
+    assertThat(parsed.getJSONArray("array").getInt(1), is(2));
+  }
+
+  @Test
+  public void serializesDocumentsLargerThanTheBuffer() throws IOException {
+
+    JSONArray sources = new JSONArray();
+    for (int i = 0; i < 5000; i++) {
+      sources.put(new JSONObject().put("source_id", "source-" + i).put("text", "h\u00e9llo " + i));
+    }
+    JSONObject root = new JSONObject().put("sources", sources);
+
+    JSONObject parsed = new JSONObject(readAll(new JsonObjectInputStream(root)));
+
+    assertThat(parsed.similar(root), is(true));
+  }
+
+  @Test
+  public void readsByteByByteLikeInBulk() throws IOException {
+
+    JSONObject root = new JSONObject().put("text", "h\u00e9llo").put("values", new JSONArray().put(1).put(2));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream stream = new JsonObjectInputStream(root)) {
+
+      int b;
+      while ((b = stream.read()) != -1) {
+        bytes.write(b);
+      }
+    }
+
+    assertThat(new String(bytes.toByteArray(), StandardCharsets.UTF_8),
+               is(readAll(new JsonObjectInputStream(root))));
+  }
+
+  @Test
+  public void endsAfterTheDocument() throws IOException {
+
+    InputStream stream = new JsonObjectInputStream(new JSONObject());
+    readAll(stream);
+
+    assertThat(stream.read(), is(-1));
+    assertThat(stream.read(new byte[8], 0, 8), is(-1));
+  }
+
+  private static String readAll(InputStream stream) throws IOException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1000];
+    int count;
+    while ((count = stream.read(buffer, 0, buffer.length)) != -1) {
+      bytes.write(buffer, 0, count);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+}